@@ -0,0 +1,79 @@
+package benchmarks;
+
+import org.openjdk.jmh.annotations.*;
+import services.ChatServicesImpl;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Vaciado de la bandeja de salida de un cliente que reconecta: outbox mensajes a varios
+ * destinatarios, uno por uno con sendMessageToUser o en un solo lote con sendMessages
+ * (una escritura por archivo de historial y una al registro de replicación).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BatchSendBenchmark {
+
+    private static final int RECIPIENTS = 5;
+
+    @Param({"100", "500"})
+    public int outbox;
+
+    @Param({"false", "true"})
+    public boolean replicationLog;
+
+    private Path dataDir;
+    private ChatServicesImpl chat;
+    private List<ChatServicesImpl.Outgoing> batch;
+
+    @Setup(Level.Trial)
+    public void setup() throws IOException {
+        BenchmarkData.muteStdout();
+        dataDir = BenchmarkData.tempDataDir("batch");
+        chat = new ChatServicesImpl(dataDir.toFile());
+        if (replicationLog) {
+            chat.enableReplicationLog(false);
+        }
+        chat.login("alice", 0, null);
+        batch = new ArrayList<>(outbox);
+        for (int i = 0; i < outbox; i++) {
+            batch.add(new ChatServicesImpl.Outgoing("alice", "user" + (i % RECIPIENTS), "mensaje en cola número " + i, false));
+        }
+    }
+
+    @TearDown(Level.Iteration)
+    public void drainPending() {
+        for (int i = 0; i < RECIPIENTS; i++) {
+            chat.getPendingMessages("user" + i);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        BenchmarkData.deleteRecursively(dataDir);
+    }
+
+    @Benchmark
+    public int oneByOne() throws IOException {
+        int sent = 0;
+        for (ChatServicesImpl.Outgoing message : batch) {
+            if (chat.sendMessageToUser(message.from, message.target, message.content)) {
+                sent++;
+            }
+        }
+        return sent;
+    }
+
+    @Benchmark
+    public int batched() throws IOException {
+        return chat.sendMessages(batch).getCardinality();
+    }
+}
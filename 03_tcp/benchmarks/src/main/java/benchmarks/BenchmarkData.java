@@ -0,0 +1,55 @@
+package benchmarks;
+
+import logging.Level;
+import logging.Log;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.stream.Stream;
+
+/**
+ * Utilidades compartidas por los benchmarks de ChatServicesImpl: directorios de datos
+ * y silenciar el log del servidor, que de otro modo se mezcla con la salida de JMH.
+ */
+final class BenchmarkData {
+
+    // Datos grandes y costosos de generar (historiales, registros) se reutilizan entre corridas
+    static final Path CACHE_DIR = Path.of("build", "jmh-data");
+
+    private BenchmarkData() {
+    }
+
+    static Path tempDataDir(String prefix) throws IOException {
+        Files.createDirectories(CACHE_DIR);
+        return Files.createTempDirectory(CACHE_DIR, prefix);
+    }
+
+    static Path cachedDataDir(String name) throws IOException {
+        return Files.createDirectories(CACHE_DIR.resolve(name));
+    }
+
+    static void deleteRecursively(Path dir) throws IOException {
+        if (!Files.exists(dir)) {
+            return;
+        }
+        try (Stream<Path> paths = Files.walk(dir)) {
+            for (Path path : (Iterable<Path>) paths.sorted(Comparator.reverseOrder())::iterator) {
+                Files.delete(path);
+            }
+        }
+    }
+
+    static void muteStdout() {
+        Log.setLevel(Level.WARN);
+        System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+    }
+
+    static String textLine(String from, String to, int i) {
+        return "{type:text,from:" + from + ",target:" + to + ",isGroup:false,msg:mensaje de prueba número " + i
+            + ",ts:2026-01-01T00:00:00Z}";
+    }
+}
@@ -0,0 +1,190 @@
+package benchmarks;
+
+import Chat.ChatCallback;
+import Chat.ChatCallbackPrx;
+import Chat.Message;
+import Chat.User;
+import com.zeroc.Ice.Communicator;
+import com.zeroc.Ice.Current;
+import com.zeroc.Ice.InitializationData;
+import com.zeroc.Ice.ObjectAdapter;
+import com.zeroc.Ice.ObjectPrx;
+import com.zeroc.Ice.OperationMode;
+import com.zeroc.Ice.OutputStream;
+import com.zeroc.Ice.Util;
+import ice.DeviceSet;
+import ice.PushChannel;
+import ice.PushLimits;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Push de un mensaje a usuarios con varios dispositivos conectados, cada uno por su propia
+ * conexión tcp local:
+ *   perDevice    una invocación tipada por dispositivo, sin DeviceSet (el piso)
+ *   deviceSet    DeviceSet.message: cursores de entrega y control de flujo por dispositivo
+ *   encodedOnce  el mensaje se codifica una vez por usuario y sale con ice_invoke a cada
+ *                dispositivo. Ice copia igual la encapsulación en cada request, así que
+ *                asigna y tarda más que serializar en cada invocación (con -prof gc)
+ * Sin ventana de lote, para medir solo la serialización y el envío.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DeviceFanoutBenchmark {
+
+    private static final int USERS = 100;
+
+    @Param({"1", "2", "3", "4", "5"})
+    public int devices;
+
+    @Param({"200", "2000"})
+    public int contentLength;
+
+    private Communicator server;
+    private Communicator client;
+    private DeviceSet[] users;
+    private Message message;
+    private long nextId;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        BenchmarkData.muteStdout();
+        client = communicator();
+        ObjectAdapter adapter = client.createObjectAdapterWithEndpoints("Devices", "tcp -h 127.0.0.1");
+        ObjectPrx callback = adapter.addWithUUID(new Receiver());
+        adapter.activate();
+
+        server = communicator();
+        ChatCallbackPrx base = ChatCallbackPrx.uncheckedCast(server.stringToProxy(client.proxyToString(callback)));
+        PushLimits limits = PushLimits.defaults();
+        users = new DeviceSet[USERS];
+        for (int u = 0; u < USERS; u++) {
+            users[u] = new DeviceSet(limits, null);
+            for (int d = 0; d < devices; d++) {
+                // Una conexión por dispositivo, como los clientes reales
+                ChatCallbackPrx device = base.ice_connectionId("user" + u + "-device" + d);
+                device = device.ice_fixed(device.ice_getConnection());
+                users[u].add(new PushChannel("user" + u, device, device.ice_getConnection(), limits));
+            }
+        }
+        message = new Message("alice", "bob", "x".repeat(contentLength), 1_767_225_600_000L, false, 0);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        server.destroy();
+        client.destroy();
+    }
+
+    @Benchmark
+    public void perDevice() {
+        List<CompletableFuture<Void>> pushes = new ArrayList<>(USERS * devices);
+        for (DeviceSet user : users) {
+            Message msg = next();
+            for (PushChannel device : user.devices()) {
+                pushes.add(device.proxy().onNewMessageAsync(msg));
+            }
+        }
+        CompletableFuture.allOf(pushes.toArray(new CompletableFuture[0])).join();
+    }
+
+    @Benchmark
+    public void encodedOnce() {
+        List<CompletableFuture<?>> pushes = new ArrayList<>(USERS * devices);
+        for (DeviceSet user : users) {
+            PushChannel[] targets = user.devices();
+            OutputStream out = new OutputStream(server, targets[0].proxy().ice_getEncodingVersion());
+            out.startEncapsulation();
+            Message.ice_write(out, next());
+            out.endEncapsulation();
+            byte[] encoded = out.finished();
+            for (PushChannel device : targets) {
+                pushes.add(device.proxy().ice_invokeAsync("onNewMessage", OperationMode.Normal, encoded));
+            }
+        }
+        CompletableFuture.allOf(pushes.toArray(new CompletableFuture[0])).join();
+    }
+
+    @Benchmark
+    public void deviceSet() {
+        List<CompletableFuture<Void>> pushes = new ArrayList<>(USERS);
+        for (DeviceSet user : users) {
+            pushes.add(user.message(next()));
+        }
+        CompletableFuture.allOf(pushes.toArray(new CompletableFuture[0])).join();
+    }
+
+    /**
+     * Un id nuevo por push, como los del buzón: ningún dispositivo lo confirmó todavía
+     */
+    private Message next() {
+        Message msg = message.clone();
+        msg.id = ++nextId;
+        return msg;
+    }
+
+    private static Communicator communicator() {
+        InitializationData init = new InitializationData();
+        init.properties = Util.createProperties();
+        init.properties.setProperty("Ice.Warn.Connections", "0");
+        init.properties.setProperty("Ice.ACM.Client.Close", "0");
+        return Util.initialize(init);
+    }
+
+    /**
+     * Cliente que descarta lo que recibe
+     */
+    static final class Receiver implements ChatCallback {
+        @Override
+        public void onNewMessage(Message msg, Current current) {
+        }
+
+        @Override
+        public void onNewMessages(Message[] messages, Current current) {
+        }
+
+        @Override
+        public void onUserStatusChanged(User user, Current current) {
+        }
+
+        @Override
+        public void onGroupMemberAdded(String groupName, String username, Current current) {
+        }
+
+        @Override
+        public void onVoiceNoteReceived(String from, String to, byte[] audioData, boolean isGroup, Current current) {
+        }
+
+        @Override
+        public void onIncomingCall(String from, Current current) {
+        }
+
+        @Override
+        public void onWebRTCSignal(String from, String signalType, String signalData, Current current) {
+        }
+
+        @Override
+        public void onICECandidate(String from, String candidate, Current current) {
+        }
+
+        @Override
+        public void onCallEnded(String from, Current current) {
+        }
+
+        @Override
+        public void onAudioChunk(String from, byte[] audioData, Current current) {
+        }
+
+        @Override
+        public void onCallAccepted(String from, Current current) {
+        }
+    }
+}
@@ -0,0 +1,65 @@
+package benchmarks;
+
+import org.openjdk.jmh.annotations.*;
+import services.ChatServicesImpl;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Costo de sendMessageToGroup para grupos de 10, 1k y 10k miembros con la mitad online:
+ * persistencia en dos historiales más una entrada de pendientes por miembro.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class GroupFanoutBenchmark {
+
+    @Param({"10", "1000", "10000"})
+    public int groupSize;
+
+    private Path dataDir;
+    private ChatServicesImpl chat;
+
+    @Setup(Level.Trial)
+    public void setup() throws IOException {
+        BenchmarkData.muteStdout();
+        dataDir = BenchmarkData.tempDataDir("fanout");
+        // groups.txt escrito de una vez: addToGroup reescribe el archivo en cada llamada
+        try (Writer writer = Files.newBufferedWriter(dataDir.resolve("groups.txt"), StandardCharsets.UTF_8)) {
+            writer.write("bench:");
+            for (int i = 0; i < groupSize; i++) {
+                writer.write((i == 0 ? "" : ",") + "member" + i);
+            }
+            writer.write("\n");
+        }
+        chat = new ChatServicesImpl(dataDir.toFile());
+        for (int i = 0; i < groupSize; i += 2) {
+            chat.login("member" + i, 0, null);
+        }
+    }
+
+    @TearDown(Level.Iteration)
+    public void drainPending() {
+        for (int i = 1; i < groupSize; i++) {
+            chat.getPendingMessages("member" + i);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        BenchmarkData.deleteRecursively(dataDir);
+    }
+
+    @Benchmark
+    public boolean sendMessageToGroup() throws IOException {
+        return chat.sendMessageToGroup("member0", "bench", "hola a todos");
+    }
+}
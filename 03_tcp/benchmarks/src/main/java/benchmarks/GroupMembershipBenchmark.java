@@ -0,0 +1,102 @@
+package benchmarks;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.roaringbitmap.RoaringBitmap;
+import services.IdBitmap;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compara la membresía de grupos como Set&lt;String&gt; (implementación anterior)
+ * contra Roaring bitmaps sobre ids densos, para grupos de 10, 1k y 100k miembros.
+ * La mitad de los miembros está online. presenceChurn mide un login y un logout sobre el
+ * bitmap de online, que no debe depender de cuántos usuarios hay conectados.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class GroupMembershipBenchmark {
+
+    @Param({"10", "1000", "100000"})
+    public int groupSize;
+
+    // Implementación anterior: nombres en Sets y sesiones en un Map
+    private Set<String> memberNames;
+    private Map<String, Object> onlineSessions;
+
+    // Implementación con bitmaps
+    private IdBitmap members;
+    private IdBitmap online;
+
+    private String probeName;
+    private int probeId;
+
+    @Setup
+    public void setup() {
+        memberNames = ConcurrentHashMap.newKeySet();
+        onlineSessions = new ConcurrentHashMap<>();
+        RoaringBitmap memberIds = new RoaringBitmap();
+        RoaringBitmap onlineIds = new RoaringBitmap();
+
+        // Usuarios que no son del grupo pero están online (ruido realista)
+        for (int id = 0; id < groupSize * 2; id++) {
+            String name = "user" + id;
+            boolean isMember = id % 2 == 0;
+            boolean isOnline = id % 4 < 2;
+            if (isMember) {
+                memberNames.add(name);
+                memberIds.add(id);
+            }
+            if (isOnline) {
+                onlineSessions.put(name, Boolean.TRUE);
+                onlineIds.add(id);
+            }
+        }
+
+        members = new IdBitmap();
+        members.addAll(memberIds);
+        online = new IdBitmap();
+        online.addAll(onlineIds);
+
+        probeId = groupSize; // miembro si groupSize es par
+        probeName = "user" + probeId;
+    }
+
+    @Benchmark
+    public void onlineMembersStringSets(Blackhole bh) {
+        for (String member : memberNames) {
+            if (onlineSessions.containsKey(member)) {
+                bh.consume(member);
+            }
+        }
+    }
+
+    @Benchmark
+    public void onlineMembersBitmapAnd(Blackhole bh) {
+        RoaringBitmap onlineMembers = IdBitmap.and(members, online);
+        onlineMembers.forEach((int id) -> bh.consume(id));
+    }
+
+    @Benchmark
+    public boolean presenceChurn() {
+        online.add(probeId + 1);
+        return online.remove(probeId + 1);
+    }
+
+    @Benchmark
+    public boolean membershipCheckStringSet() {
+        return memberNames.contains(probeName);
+    }
+
+    @Benchmark
+    public boolean membershipCheckBitmap() {
+        return members.contains(probeId);
+    }
+}
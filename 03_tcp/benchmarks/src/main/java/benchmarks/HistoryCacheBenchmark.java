@@ -0,0 +1,86 @@
+package benchmarks;
+
+import org.openjdk.jmh.annotations.*;
+import services.ChatServicesImpl;
+import services.HistoryCache;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Historial de un usuario en 10 grupos activos de 100 a 1000 líneas cada uno, leído una y
+ * otra vez como al abrir los chats en uso:
+ *   diskHistory / cachedHistory   getHistory completo sin y con HistoryCache
+ *   diskTail / cachedTail         la última página (50 líneas) sin y con HistoryCache
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 2)
+@Fork(1)
+public class HistoryCacheBenchmark {
+
+    private static final int GROUPS = 10;
+    private static final int TAIL = 50;
+
+    @Param({"100", "1000"})
+    public int lines;
+
+    private Path dataDir;
+    private ChatServicesImpl disk;
+    private ChatServicesImpl cached;
+    private int total;
+
+    @Setup(Level.Trial)
+    public void setup() throws IOException {
+        BenchmarkData.muteStdout();
+        dataDir = BenchmarkData.tempDataDir("history-cache");
+        Path historyDir = Files.createDirectories(dataDir.resolve("history"));
+        try (Writer groups = Files.newBufferedWriter(dataDir.resolve("groups.txt"), StandardCharsets.UTF_8)) {
+            for (int g = 0; g < GROUPS; g++) {
+                groups.write("group" + g + ":bench,friend\n");
+                try (Writer writer = Files.newBufferedWriter(historyDir.resolve("#group" + g + ".jsonl"), StandardCharsets.UTF_8)) {
+                    for (int i = 0; i < lines; i++) {
+                        writer.write(BenchmarkData.textLine("friend", "group" + g, i));
+                        writer.write('\n');
+                    }
+                }
+            }
+        }
+        disk = new ChatServicesImpl(dataDir.toFile());
+        cached = new ChatServicesImpl(dataDir.toFile());
+        cached.enableHistoryCache(HistoryCache.DEFAULT_LINES, (long) HistoryCache.DEFAULT_MB << 20);
+        total = GROUPS * lines;
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        BenchmarkData.deleteRecursively(dataDir);
+    }
+
+    @Benchmark
+    public List<String> diskHistory() throws IOException {
+        return disk.getHistory("bench");
+    }
+
+    @Benchmark
+    public List<String> cachedHistory() throws IOException {
+        return cached.getHistory("bench");
+    }
+
+    @Benchmark
+    public List<String> diskTail() throws IOException {
+        return disk.getHistoryPage("bench", total - TAIL, TAIL);
+    }
+
+    @Benchmark
+    public List<String> cachedTail() throws IOException {
+        return cached.getHistoryPage("bench", total - TAIL, TAIL);
+    }
+}
@@ -0,0 +1,63 @@
+package benchmarks;
+
+import org.openjdk.jmh.annotations.*;
+import services.ChatServicesImpl;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Lectura del historial de un usuario con archivos de 1k a 10M líneas (~120 bytes cada una).
+ * tailPage pide las últimas 50 líneas, que es lo que muestra el cliente al abrir un chat.
+ * Los archivos se generan una vez en build/jmh-data; 10M líneas ocupan ~1.2 GB en disco
+ * y getHistory completo necesita varios GB de heap.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class HistoryReadBenchmark {
+
+    private static final int TAIL = 50;
+
+    @Param({"1000", "100000", "1000000", "10000000"})
+    public int lines;
+
+    private ChatServicesImpl chat;
+
+    @Setup(Level.Trial)
+    public void setup() throws IOException {
+        BenchmarkData.muteStdout();
+        Path dataDir = BenchmarkData.cachedDataDir("history-" + lines);
+        Path historyFile = dataDir.resolve("history").resolve("bench.jsonl");
+        if (!Files.exists(historyFile)) {
+            Files.createDirectories(historyFile.getParent());
+            Path partial = historyFile.resolveSibling("bench.jsonl.tmp");
+            try (Writer writer = Files.newBufferedWriter(partial, StandardCharsets.UTF_8)) {
+                for (int i = 0; i < lines; i++) {
+                    writer.write(BenchmarkData.textLine("bench", "friend", i));
+                    writer.write('\n');
+                }
+            }
+            Files.move(partial, historyFile);
+        }
+        chat = new ChatServicesImpl(dataDir.toFile());
+    }
+
+    @Benchmark
+    public List<String> tailPage() throws IOException {
+        return chat.getHistoryPage("bench", lines - TAIL, TAIL);
+    }
+
+    @Benchmark
+    public List<String> fullHistory() throws IOException {
+        return chat.getHistory("bench");
+    }
+}
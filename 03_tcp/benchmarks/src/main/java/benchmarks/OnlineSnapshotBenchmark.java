@@ -0,0 +1,80 @@
+package benchmarks;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import services.IdTable;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Recorrido de las sesiones online para presencia y fan-out, con 100k usuarios conocidos
+ * (ids densos hasta 100k) y una fracción conectada:
+ *   concurrentMap  ConcurrentHashMap por nombre (implementación original)
+ *   forEach        IdTable.forEach: salta los slots vacíos de toda la tabla
+ *   snapshot       IdTable.snapshot: arreglos de la época actual, solo lo presente
+ *   churn          snapshot con un login/logout entre cada recorrido (el peor caso:
+ *                  cada lectura reconstruye)
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class OnlineSnapshotBenchmark {
+
+    private static final int KNOWN_USERS = 100_000;
+
+    @Param({"100", "1000", "10000"})
+    public int online;
+
+    private Map<String, Object> sessionsByName;
+    private IdTable<Object> sessions;
+    private int churnId;
+
+    @Setup
+    public void setup() {
+        sessionsByName = new ConcurrentHashMap<>();
+        sessions = new IdTable<>();
+        sessions.put(KNOWN_USERS - 1, new Object()); // La tabla crece hasta cubrir a todos los conocidos
+        sessions.remove(KNOWN_USERS - 1);
+        int stride = KNOWN_USERS / online;
+        for (int i = 0; i < online; i++) {
+            int id = i * stride;
+            Object session = new Object();
+            sessions.put(id, session);
+            sessionsByName.put("user" + id, session);
+        }
+        churnId = 1;
+    }
+
+    @Benchmark
+    public void concurrentMap(Blackhole bh) {
+        for (Object session : sessionsByName.values()) {
+            bh.consume(session);
+        }
+    }
+
+    @Benchmark
+    public void forEach(Blackhole bh) {
+        sessions.forEach((id, session) -> bh.consume(session));
+    }
+
+    @Benchmark
+    public void snapshot(Blackhole bh) {
+        IdTable.Snapshot<Object> current = sessions.snapshot();
+        for (int i = 0; i < current.size(); i++) {
+            bh.consume(current.value(i));
+        }
+    }
+
+    @Benchmark
+    public void churn(Blackhole bh) {
+        if (sessions.remove(churnId) == null) {
+            sessions.put(churnId, Boolean.TRUE);
+        }
+        snapshot(bh);
+    }
+}
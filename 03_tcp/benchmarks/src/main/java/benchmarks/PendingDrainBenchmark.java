@@ -0,0 +1,70 @@
+package benchmarks;
+
+import org.openjdk.jmh.annotations.*;
+import services.ChatServicesImpl;
+import services.Mailbox;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Vaciado de la cola de pendientes mientras otros hilos encolan: tres productores
+ * (mensajes de grupo entrantes) contra un consumidor que hace polling y confirma lo leído
+ * como el cliente web.
+ */
+@State(Scope.Group)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PendingDrainBenchmark {
+
+    private Path dataDir;
+    private ChatServicesImpl chat;
+
+    @Setup(Level.Trial)
+    public void setup() throws IOException {
+        BenchmarkData.muteStdout();
+        dataDir = BenchmarkData.tempDataDir("pending");
+        chat = new ChatServicesImpl(dataDir.toFile());
+        chat.login("bob", 0, null);
+    }
+
+    @TearDown(Level.Iteration)
+    public void drainPending() {
+        drainAndAck();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        BenchmarkData.deleteRecursively(dataDir);
+    }
+
+    @Benchmark
+    @Group("contended")
+    @GroupThreads(3)
+    public void enqueue() {
+        chat.receiveGroupMessage("alice", "equipo", "bob", "actualización", System.currentTimeMillis());
+    }
+
+    @Benchmark
+    @Group("contended")
+    @GroupThreads(1)
+    public List<Mailbox.Entry> drain() {
+        return drainAndAck();
+    }
+
+    /**
+     * El poll no saca nada del buzón: como el cliente, se confirma lo leído para que salga
+     */
+    private List<Mailbox.Entry> drainAndAck() {
+        List<Mailbox.Entry> pending = chat.getPendingMessages("bob");
+        if (!pending.isEmpty()) {
+            chat.ackMessages("bob", pending.get(pending.size() - 1).id);
+        }
+        return pending;
+    }
+}
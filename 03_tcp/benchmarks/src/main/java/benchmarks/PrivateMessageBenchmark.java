@@ -0,0 +1,63 @@
+package benchmarks;
+
+import org.openjdk.jmh.annotations.*;
+import services.ChatServicesImpl;
+import services.Mailbox;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput de sendMessageToUser: dos appends al historial (remitente y destinatario)
+ * y el encolado en pendientes. El destinatario está online u offline según el parámetro.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PrivateMessageBenchmark {
+
+    @Param({"false", "true"})
+    public boolean recipientOnline;
+
+    private Path dataDir;
+    private ChatServicesImpl chat;
+
+    @Setup(Level.Trial)
+    public void setup() throws IOException {
+        BenchmarkData.muteStdout();
+        dataDir = BenchmarkData.tempDataDir("private");
+        chat = new ChatServicesImpl(dataDir.toFile());
+        chat.login("alice", 0, null);
+        chat.login("bob", 0, null);
+        if (!recipientOnline) {
+            chat.logout("bob");
+        }
+    }
+
+    @TearDown(Level.Iteration)
+    public void drainPending() {
+        // Sin esto la cola de bob crece durante toda la corrida y se mide al GC
+        chat.getPendingMessages("bob");
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        BenchmarkData.deleteRecursively(dataDir);
+    }
+
+    @Benchmark
+    public boolean sendMessageToUser() throws IOException {
+        return chat.sendMessageToUser("alice", "bob", "hola, ¿cómo estás?");
+    }
+
+    @Benchmark
+    public List<Mailbox.Entry> sendAndDrain() throws IOException {
+        chat.sendMessageToUser("alice", "bob", "hola, ¿cómo estás?");
+        return chat.getPendingMessages("bob");
+    }
+}
@@ -0,0 +1,294 @@
+package benchmarks;
+
+import Chat.ChatCallback;
+import Chat.ChatCallbackPrx;
+import Chat.Message;
+import Chat.User;
+import com.zeroc.Ice.*;
+import com.zeroc.Ice.Instrumentation.CommunicatorObserver;
+import com.zeroc.Ice.Instrumentation.ConnectionObserver;
+import com.zeroc.Ice.Instrumentation.ConnectionState;
+import com.zeroc.Ice.Instrumentation.DispatchObserver;
+import com.zeroc.Ice.Instrumentation.InvocationObserver;
+import com.zeroc.Ice.Instrumentation.Observer;
+import com.zeroc.Ice.Instrumentation.ObserverUpdater;
+import com.zeroc.Ice.Instrumentation.ThreadObserver;
+import com.zeroc.Ice.Instrumentation.ThreadState;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Push por una conexión tcp local entre dos communicators del mismo proceso, como los
+ * que arma PushChannel:
+ *   presence*    tormenta de cambios de estado (login masivo): twoway frente a batch oneway
+ *   groupBurst*  lotes onNewMessages de un grupo activo, con y sin ice_compress
+ * Los contadores writes y bytes son las escrituras al socket y los bytes enviados por ambos
+ * lados (incluidas las respuestas twoway); JMH los reporta por segundo, así que writes es
+ * el ritmo de paquetes. Con -prof gc o -prof stack se ve el costo de CPU de cada variante.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PushTransportBenchmark {
+
+    private static final int GROUP_BATCH = 64;
+
+    private static final LongAdder WRITES = new LongAdder();
+    private static final LongAdder BYTES = new LongAdder();
+
+    @Param({"500"})
+    public int storm;
+
+    private Communicator server;
+    private Communicator client;
+    private Receiver receiver;
+    private ChatCallbackPrx twoway;
+    private ChatCallbackPrx batchOneway;
+    private ChatCallbackPrx compressed;
+    private User[] users;
+    private Message[][] groupBatches;
+
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.OPERATIONS)
+    public static class Wire {
+        public long writes;
+        public long bytes;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            WRITES.reset();
+            BYTES.reset();
+            writes = 0;
+            bytes = 0;
+        }
+
+        void capture() {
+            writes += WRITES.sumThenReset();
+            bytes += BYTES.sumThenReset();
+        }
+    }
+
+    @Setup(Level.Trial)
+    public void setup() {
+        BenchmarkData.muteStdout();
+        client = communicator();
+        ObjectAdapter adapter = client.createObjectAdapterWithEndpoints("Callbacks", "tcp -h 127.0.0.1");
+        receiver = new Receiver();
+        ObjectPrx callback = adapter.addWithUUID(receiver);
+        adapter.activate();
+
+        server = communicator();
+        twoway = ChatCallbackPrx.uncheckedCast(server.stringToProxy(client.proxyToString(callback)));
+        twoway.ice_ping();
+        // Mismos proxies que deriva PushChannel sobre la conexión fija del cliente
+        twoway = twoway.ice_fixed(twoway.ice_getConnection());
+        batchOneway = twoway.ice_batchOneway();
+        compressed = twoway.ice_compress(true);
+
+        users = new User[storm];
+        for (int i = 0; i < storm; i++) {
+            users[i] = new User("user" + i, i % 2 == 0);
+        }
+        groupBatches = new Message[(storm + GROUP_BATCH - 1) / GROUP_BATCH][];
+        for (int b = 0; b < groupBatches.length; b++) {
+            int size = Math.min(GROUP_BATCH, storm - b * GROUP_BATCH);
+            groupBatches[b] = new Message[size];
+            for (int i = 0; i < size; i++) {
+                int n = b * GROUP_BATCH + i;
+                groupBatches[b][i] = new Message("user" + (n % 37), "equipo-backend",
+                    "mensaje de prueba número " + n + " para el grupo, ¿revisaron el despliegue de hoy?",
+                    1_767_225_600_000L + n, true, n + 1);
+            }
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        server.destroy();
+        client.destroy();
+    }
+
+    @Benchmark
+    public void presenceTwoway(Wire wire) {
+        CompletableFuture<?>[] pushes = new CompletableFuture[storm];
+        for (int i = 0; i < storm; i++) {
+            pushes[i] = twoway.onUserStatusChangedAsync(users[i]);
+        }
+        CompletableFuture.allOf(pushes).join();
+        wire.capture();
+    }
+
+    @Benchmark
+    public void presenceBatchOneway(Wire wire) {
+        int target = receiver.received.get() + storm;
+        for (int i = 0; i < storm; i++) {
+            batchOneway.onUserStatusChangedAsync(users[i]);
+        }
+        batchOneway.ice_flushBatchRequests();
+        receiver.await(target);
+        wire.capture();
+    }
+
+    @Benchmark
+    public void groupBurstPlain(Wire wire) {
+        groupBurst(twoway);
+        wire.capture();
+    }
+
+    @Benchmark
+    public void groupBurstCompressed(Wire wire) {
+        groupBurst(compressed);
+        wire.capture();
+    }
+
+    private void groupBurst(ChatCallbackPrx proxy) {
+        CompletableFuture<?>[] pushes = new CompletableFuture[groupBatches.length];
+        for (int b = 0; b < groupBatches.length; b++) {
+            pushes[b] = proxy.onNewMessagesAsync(groupBatches[b]);
+        }
+        CompletableFuture.allOf(pushes).join();
+    }
+
+    private static Communicator communicator() {
+        InitializationData init = new InitializationData();
+        init.properties = Util.createProperties();
+        init.properties.setProperty("Ice.Warn.Connections", "0");
+        init.observer = new WireObserver();
+        return Util.initialize(init);
+    }
+
+    /**
+     * Cliente que solo cuenta lo que recibe
+     */
+    static final class Receiver implements ChatCallback {
+        final AtomicInteger received = new AtomicInteger();
+
+        void await(int target) {
+            while (received.get() < target) {
+                LockSupport.parkNanos(10_000);
+            }
+        }
+
+        @Override
+        public void onNewMessage(Message msg, Current current) {
+            received.incrementAndGet();
+        }
+
+        @Override
+        public void onNewMessages(Message[] messages, Current current) {
+            received.addAndGet(messages.length);
+        }
+
+        @Override
+        public void onUserStatusChanged(User user, Current current) {
+            received.incrementAndGet();
+        }
+
+        @Override
+        public void onGroupMemberAdded(String groupName, String username, Current current) {
+            received.incrementAndGet();
+        }
+
+        @Override
+        public void onVoiceNoteReceived(String from, String to, byte[] audioData, boolean isGroup, Current current) {
+        }
+
+        @Override
+        public void onIncomingCall(String from, Current current) {
+        }
+
+        @Override
+        public void onWebRTCSignal(String from, String signalType, String signalData, Current current) {
+        }
+
+        @Override
+        public void onICECandidate(String from, String candidate, Current current) {
+        }
+
+        @Override
+        public void onCallEnded(String from, Current current) {
+        }
+
+        @Override
+        public void onAudioChunk(String from, byte[] audioData, Current current) {
+            received.incrementAndGet();
+        }
+
+        @Override
+        public void onCallAccepted(String from, Current current) {
+        }
+    }
+
+    /**
+     * Cuenta las escrituras al socket y los bytes enviados de todas las conexiones
+     */
+    static final class WireObserver implements CommunicatorObserver {
+        private static final ConnectionObserver CONNECTIONS = new ConnectionObserver() {
+            @Override
+            public void sentBytes(int num) {
+                WRITES.increment();
+                BYTES.add(num);
+            }
+
+            @Override
+            public void receivedBytes(int num) {
+            }
+
+            @Override
+            public void attach() {
+            }
+
+            @Override
+            public void detach() {
+            }
+
+            @Override
+            public void failed(String exceptionName) {
+            }
+        };
+
+        @Override
+        public ConnectionObserver getConnectionObserver(ConnectionInfo info, Endpoint endpoint, ConnectionState state,
+                                                        ConnectionObserver old) {
+            return CONNECTIONS;
+        }
+
+        @Override
+        public Observer getConnectionEstablishmentObserver(Endpoint endpoint, String description) {
+            return null;
+        }
+
+        @Override
+        public Observer getEndpointLookupObserver(Endpoint endpoint) {
+            return null;
+        }
+
+        @Override
+        public ThreadObserver getThreadObserver(String parent, String id, ThreadState state, ThreadObserver old) {
+            return null;
+        }
+
+        @Override
+        public InvocationObserver getInvocationObserver(ObjectPrx prx, String operation, Map<String, String> ctx) {
+            return null;
+        }
+
+        @Override
+        public DispatchObserver getDispatchObserver(Current current, int size) {
+            return null;
+        }
+
+        @Override
+        public void setObserverUpdater(ObserverUpdater updater) {
+        }
+    }
+}
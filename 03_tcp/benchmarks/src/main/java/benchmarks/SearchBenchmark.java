@@ -0,0 +1,90 @@
+package benchmarks;
+
+import org.openjdk.jmh.annotations.*;
+import services.ChatServicesImpl;
+import services.SearchIndex;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Búsqueda en el historial de un usuario de 10k a 1M líneas (los mismos archivos que
+ * HistoryReadBenchmark):
+ *   scan     lo que hace hoy el cliente: getHistory completo y buscar la palabra en cada línea
+ *   rare     searchMessages de una palabra que aparece en una sola línea
+ *   common   searchMessages de una palabra que está en todas (corta en el límite de 50)
+ *   prefix   searchMessages de un prefijo con muchos términos distintos ("123*")
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class SearchBenchmark {
+
+    private static final int LIMIT = 50;
+
+    @Param({"10000", "100000", "1000000"})
+    public int lines;
+
+    private ChatServicesImpl chat;
+    private String rareWord;
+
+    @Setup(Level.Trial)
+    public void setup() throws IOException, InterruptedException {
+        BenchmarkData.muteStdout();
+        Path dataDir = BenchmarkData.cachedDataDir("history-" + lines);
+        Path historyFile = dataDir.resolve("history").resolve("bench.jsonl");
+        if (!Files.exists(historyFile)) {
+            Files.createDirectories(historyFile.getParent());
+            Path partial = historyFile.resolveSibling("bench.jsonl.tmp");
+            try (Writer writer = Files.newBufferedWriter(partial, StandardCharsets.UTF_8)) {
+                for (int i = 0; i < lines; i++) {
+                    writer.write(BenchmarkData.textLine("bench", "friend", i));
+                    writer.write('\n');
+                }
+            }
+            Files.move(partial, historyFile);
+        }
+        chat = new ChatServicesImpl(dataDir.toFile());
+        chat.startSearchIndex(10, 10);
+        SearchIndex index = chat.getSearchIndex();
+        while (index.getDocuments() < lines) {
+            Thread.sleep(50);
+        }
+        rareWord = String.valueOf(lines / 2);
+    }
+
+    @Benchmark
+    public List<String> scan() throws IOException {
+        List<String> hits = new ArrayList<>();
+        for (String record : chat.getHistory("bench")) {
+            if (record.contains(" " + rareWord + ",ts:") && hits.size() < LIMIT) {
+                hits.add(record);
+            }
+        }
+        return hits;
+    }
+
+    @Benchmark
+    public List<String> rare() {
+        return chat.searchMessages("bench", rareWord, LIMIT);
+    }
+
+    @Benchmark
+    public List<String> common() {
+        return chat.searchMessages("bench", "prueba", LIMIT);
+    }
+
+    @Benchmark
+    public List<String> prefix() {
+        return chat.searchMessages("bench", "123*", LIMIT);
+    }
+}
@@ -0,0 +1,61 @@
+package benchmarks;
+
+import org.openjdk.jmh.annotations.*;
+import services.ChatServicesImpl;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Arranque de ChatServicesImpl con registros grandes: users.txt con N usuarios y
+ * groups.txt con N/100 grupos de 100 miembros. Mide la carga completa del constructor.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class StartupLoadBenchmark {
+
+    private static final int GROUP_SIZE = 100;
+
+    @Param({"10000", "100000", "1000000"})
+    public int users;
+
+    private Path dataDir;
+
+    @Setup(Level.Trial)
+    public void setup() throws IOException {
+        BenchmarkData.muteStdout();
+        dataDir = BenchmarkData.cachedDataDir("startup-" + users);
+        Path usersFile = dataDir.resolve("users.txt");
+        Path groupsFile = dataDir.resolve("groups.txt");
+        if (Files.exists(usersFile) && Files.exists(groupsFile)) {
+            return;
+        }
+        try (Writer writer = Files.newBufferedWriter(usersFile, StandardCharsets.UTF_8)) {
+            for (int i = 0; i < users; i++) {
+                writer.write("user" + i + "\n");
+            }
+        }
+        try (Writer writer = Files.newBufferedWriter(groupsFile, StandardCharsets.UTF_8)) {
+            for (int group = 0; group < users / GROUP_SIZE; group++) {
+                writer.write("group" + group + ":");
+                for (int j = 0; j < GROUP_SIZE; j++) {
+                    writer.write((j == 0 ? "" : ",") + "user" + (group * GROUP_SIZE + j));
+                }
+                writer.write("\n");
+            }
+        }
+    }
+
+    @Benchmark
+    public ChatServicesImpl load() {
+        return new ChatServicesImpl(dataDir.toFile());
+    }
+}
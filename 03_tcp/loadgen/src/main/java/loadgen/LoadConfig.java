@@ -0,0 +1,128 @@
+package loadgen;
+
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Opciones del generador de carga, en formato --clave=valor.
+ * Las propiedades --Ice.* se pasan tal cual al communicator.
+ */
+public class LoadConfig {
+
+    public enum Op {
+        PRIVATE, GROUP, VOICE, PRESENCE, AUDIO
+    }
+
+    public String transport = "tcp";
+    public String host = "127.0.0.1";
+    public int port = -1; // -1 = 10000 para tcp, 10001 para ws
+    public String endpoint; // Si se indica reemplaza transport/host/port
+
+    public int users = 100;
+    public String prefix = "lg";
+    public int groups = 10;
+    public int groupSize = 20;
+    public int threads = 8;
+    public double rate = 0; // Operaciones por segundo en total, 0 = sin límite
+    public int durationSeconds = 60;
+    public int warmupSeconds = 5;
+    public int reportSeconds = 5;
+    public int voiceBytes = 16_000;
+    public int audioBytes = 1_600; // 50 ms de PCM 16 kHz mono
+    public int audioBurst = 5; // Chunks seguidos por operación de audio
+
+    public final Map<Op, Integer> mix = new EnumMap<>(Op.class);
+
+    public LoadConfig() {
+        mix.put(Op.PRIVATE, 60);
+        mix.put(Op.GROUP, 20);
+        mix.put(Op.VOICE, 5);
+        mix.put(Op.PRESENCE, 5);
+        mix.put(Op.AUDIO, 10);
+    }
+
+    public static LoadConfig parse(List<String> args) {
+        LoadConfig config = new LoadConfig();
+        for (String arg : args) {
+            if (arg.equals("--help") || arg.equals("-h")) {
+                usage();
+                System.exit(0);
+            }
+            int eq = arg.indexOf('=');
+            if (!arg.startsWith("--") || eq < 0) {
+                throw new IllegalArgumentException("Argumento inválido: " + arg + " (se espera --clave=valor)");
+            }
+            String key = arg.substring(2, eq);
+            String value = arg.substring(eq + 1);
+            switch (key) {
+                case "transport" -> config.transport = value;
+                case "host" -> config.host = value;
+                case "port" -> config.port = Integer.parseInt(value);
+                case "endpoint" -> config.endpoint = value;
+                case "users" -> config.users = Integer.parseInt(value);
+                case "prefix" -> config.prefix = value;
+                case "groups" -> config.groups = Integer.parseInt(value);
+                case "group-size" -> config.groupSize = Integer.parseInt(value);
+                case "threads" -> config.threads = Integer.parseInt(value);
+                case "rate" -> config.rate = Double.parseDouble(value);
+                case "duration" -> config.durationSeconds = Integer.parseInt(value);
+                case "warmup" -> config.warmupSeconds = Integer.parseInt(value);
+                case "report" -> config.reportSeconds = Integer.parseInt(value);
+                case "voice-bytes" -> config.voiceBytes = Integer.parseInt(value);
+                case "audio-bytes" -> config.audioBytes = Integer.parseInt(value);
+                case "audio-burst" -> config.audioBurst = Integer.parseInt(value);
+                case "mix" -> config.parseMix(value);
+                default -> throw new IllegalArgumentException("Opción desconocida: --" + key);
+            }
+        }
+        if (!config.transport.equals("tcp") && !config.transport.equals("ws")) {
+            throw new IllegalArgumentException("--transport debe ser tcp o ws");
+        }
+        if (config.users < 2) {
+            throw new IllegalArgumentException("--users debe ser al menos 2");
+        }
+        config.groupSize = Math.min(config.groupSize, config.users);
+        return config;
+    }
+
+    /**
+     * Formato: private:60,group:20,voice:5,presence:5,audio:10 (pesos relativos)
+     */
+    private void parseMix(String value) {
+        mix.clear();
+        for (String part : value.split(",")) {
+            String[] kv = part.split(":");
+            if (kv.length != 2) {
+                throw new IllegalArgumentException("Mezcla inválida: " + part);
+            }
+            mix.put(Op.valueOf(kv[0].trim().toUpperCase()), Integer.parseInt(kv[1].trim()));
+        }
+        if (mix.values().stream().mapToInt(Integer::intValue).sum() <= 0) {
+            throw new IllegalArgumentException("La mezcla debe tener al menos un peso positivo");
+        }
+    }
+
+    public String endpoints() {
+        if (endpoint != null) {
+            return endpoint;
+        }
+        int effectivePort = port > 0 ? port : (transport.equals("ws") ? 10001 : 10000);
+        return transport + " -h " + host + " -p " + effectivePort;
+    }
+
+    static void usage() {
+        System.out.println("""
+            Uso: loadgen [opciones] [--Ice.Propiedad=valor ...]
+              --transport=tcp|ws     Endpoint del servidor (tcp -p 10000 o ws -p 10001)
+              --host=127.0.0.1 --port=N --endpoint="ws -h host -p 10001"
+              --users=100            Usuarios simulados, cada uno con su propia conexión
+              --groups=10 --group-size=20
+              --threads=8            Hilos que generan operaciones
+              --rate=0               Operaciones por segundo en total (0 = sin límite)
+              --duration=60 --warmup=5 --report=5   (segundos)
+              --mix=private:60,group:20,voice:5,presence:5,audio:10
+              --voice-bytes=16000 --audio-bytes=1600 --audio-burst=5
+            """);
+    }
+}
@@ -0,0 +1,262 @@
+package loadgen;
+
+import Chat.ChatServicePrx;
+import Chat.Response;
+import com.zeroc.Ice.Communicator;
+import com.zeroc.Ice.InitializationData;
+import com.zeroc.Ice.ObjectAdapter;
+import com.zeroc.Ice.Properties;
+import com.zeroc.Ice.Util;
+import loadgen.LoadConfig.Op;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Generador de carga de punta a punta: N usuarios simulados, cada uno con su conexión y su
+ * ChatCallback, ejecutan una mezcla configurable de operaciones contra ChatService por tcp o ws.
+ * Al final reporta throughput, tasa de errores y percentiles de latencia de entrega push.
+ *
+ * Uso: gradle :loadgen:run --args="--transport=ws --users=200 --duration=60"
+ */
+public class LoadGenerator {
+
+    private final LoadConfig config;
+    private final LoadStats stats = new LoadStats();
+    private final List<SimulatedUser> users = new ArrayList<>();
+    private final List<SimulatedUser[]> groups = new ArrayList<>();
+    private final List<String> groupNames = new ArrayList<>();
+    private final Op[] weightedOps;
+    private volatile boolean running = true;
+
+    public LoadGenerator(LoadConfig config) {
+        this.config = config;
+        List<Op> weighted = new ArrayList<>();
+        for (Map.Entry<Op, Integer> entry : config.mix.entrySet()) {
+            for (int i = 0; i < entry.getValue(); i++) {
+                weighted.add(entry.getKey());
+            }
+        }
+        this.weightedOps = weighted.toArray(new Op[0]);
+    }
+
+    public static void main(String[] args) throws InterruptedException {
+        List<String> rest = new ArrayList<>();
+        InitializationData initData = new InitializationData();
+        initData.properties = Util.createProperties(args, rest);
+        applyClientDefaults(initData.properties);
+
+        LoadConfig config;
+        try {
+            config = LoadConfig.parse(rest);
+        } catch (IllegalArgumentException e) {
+            System.err.println("❌ " + e.getMessage());
+            LoadConfig.usage();
+            System.exit(2);
+            return;
+        }
+
+        try (Communicator communicator = Util.initialize(initData)) {
+            new LoadGenerator(config).run(communicator);
+        }
+    }
+
+    /**
+     * Conexiones de usuarios ociosos no deben cerrarse por ACM (el servidor haría logout)
+     * y los callbacks se despachan en el pool de servidor del cliente.
+     */
+    private static void applyClientDefaults(Properties props) {
+        setIfAbsent(props, "Ice.ACM.Client.Close", "0");
+        setIfAbsent(props, "Ice.ACM.Client.Heartbeat", "3");
+        setIfAbsent(props, "Ice.ThreadPool.Server.Size", "4");
+        setIfAbsent(props, "Ice.ThreadPool.Server.SizeMax", "16");
+        setIfAbsent(props, "Ice.ThreadPool.Client.Size", "4");
+        setIfAbsent(props, "Ice.ThreadPool.Client.SizeMax", "16");
+    }
+
+    private static void setIfAbsent(Properties props, String key, String value) {
+        if (props.getProperty(key).isEmpty()) {
+            props.setProperty(key, value);
+        }
+    }
+
+    public void run(Communicator communicator) throws InterruptedException {
+        String endpoints = config.endpoints();
+        System.out.println("[LOAD] Servidor: " + endpoints);
+        System.out.println("[LOAD] " + config.users + " usuarios, " + config.groups + " grupos de " + config.groupSize
+            + ", " + config.threads + " hilos, mezcla " + config.mix
+            + (config.rate > 0 ? ", " + config.rate + " ops/s" : ", sin límite de tasa"));
+
+        ChatServicePrx base = ChatServicePrx.checkedCast(communicator.stringToProxy("ChatService:" + endpoints));
+        if (base == null) {
+            throw new IllegalStateException("ChatService no encontrado en " + endpoints);
+        }
+        ObjectAdapter adapter = communicator.createObjectAdapter("");
+        adapter.activate();
+
+        connectUsers(base, adapter);
+        createGroups();
+
+        List<Thread> workers = new ArrayList<>();
+        for (int i = 0; i < config.threads; i++) {
+            Thread worker = new Thread(this::workerLoop, "load-" + i);
+            worker.setDaemon(true);
+            workers.add(worker);
+            worker.start();
+        }
+
+        ScheduledExecutorService reporter = Executors.newSingleThreadScheduledExecutor();
+        reporter.scheduleAtFixedRate(() -> System.out.println(stats.progressLine()),
+            config.reportSeconds, config.reportSeconds, TimeUnit.SECONDS);
+
+        if (config.warmupSeconds > 0) {
+            Thread.sleep(config.warmupSeconds * 1000L);
+            stats.reset();
+            System.out.println("[LOAD] Fin del warmup, midiendo " + config.durationSeconds + " s");
+        }
+        Thread.sleep(config.durationSeconds * 1000L);
+
+        running = false;
+        for (Thread worker : workers) {
+            worker.join();
+        }
+        stats.stop();
+        Thread.sleep(1000); // Dar tiempo a los push en vuelo
+        reporter.shutdownNow();
+        System.out.println(stats.report());
+
+        for (SimulatedUser user : users) {
+            try {
+                user.logout();
+            } catch (com.zeroc.Ice.LocalException e) {
+                // El servidor pudo cerrar la conexión; no afecta el reporte
+            }
+        }
+    }
+
+    private void connectUsers(ChatServicePrx base, ObjectAdapter adapter) {
+        int failed = 0;
+        for (int i = 0; i < config.users; i++) {
+            SimulatedUser user = new SimulatedUser(config.prefix + i, base, adapter, stats);
+            Response response = user.login();
+            if (!response.success) {
+                failed++;
+                System.err.println("[LOAD] Login rechazado para " + user.name + ": " + response.message);
+            }
+            users.add(user);
+        }
+        System.out.println("[LOAD] " + (config.users - failed) + " usuarios conectados");
+    }
+
+    private void createGroups() {
+        for (int g = 0; g < config.groups; g++) {
+            String groupName = config.prefix + "-g" + g;
+            SimulatedUser[] members = new SimulatedUser[config.groupSize];
+            for (int k = 0; k < members.length; k++) {
+                members[k] = users.get((g * config.groupSize + k) % users.size());
+            }
+            // Si el grupo quedó de una corrida anterior createGroup/addToGroup fallan sin problema
+            members[0].service.createGroup(groupName, members[0].name);
+            for (int k = 1; k < members.length; k++) {
+                members[0].service.addToGroup(groupName, members[k].name);
+            }
+            groups.add(members);
+            groupNames.add(groupName);
+        }
+        if (config.groups > 0) {
+            System.out.println("[LOAD] " + config.groups + " grupos listos");
+        }
+    }
+
+    // ========== GENERACIÓN DE OPERACIONES ==========
+
+    private void workerLoop() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        long interval = config.rate > 0 ? (long) (config.threads * 1e9 / config.rate) : 0;
+        long next = System.nanoTime();
+        while (running) {
+            if (interval > 0) {
+                // Tasa fija: si una operación se atrasa, las siguientes salen sin esperar
+                next += interval;
+                long wait = next - System.nanoTime();
+                if (wait > 0) {
+                    LockSupport.parkNanos(wait);
+                }
+            }
+            Op op = weightedOps[random.nextInt(weightedOps.length)];
+            if (op == Op.GROUP && groups.isEmpty()) {
+                op = Op.PRIVATE;
+            }
+            try {
+                execute(op, random);
+            } catch (com.zeroc.Ice.LocalException e) {
+                stats.recordFailure(op);
+            }
+        }
+    }
+
+    private void execute(Op op, ThreadLocalRandom random) {
+        switch (op) {
+            case PRIVATE -> {
+                SimulatedUser from = pickOnline(random);
+                SimulatedUser to = pickOther(random, from);
+                long start = System.nanoTime();
+                Response r = from.service.sendMessageToUser(from.name, to.name, SimulatedUser.stampedText("hola"));
+                stats.recordCall(op, r.success, System.nanoTime() - start);
+            }
+            case GROUP -> {
+                int g = random.nextInt(groups.size());
+                SimulatedUser[] members = groups.get(g);
+                SimulatedUser from = members[random.nextInt(members.length)];
+                long start = System.nanoTime();
+                Response r = from.service.sendMessageToGroup(from.name, groupNames.get(g), SimulatedUser.stampedText("hola grupo"));
+                stats.recordCall(op, r.success, System.nanoTime() - start);
+            }
+            case VOICE -> {
+                SimulatedUser from = pickOnline(random);
+                SimulatedUser to = pickOther(random, from);
+                long start = System.nanoTime();
+                Response r = from.service.sendVoiceNoteToUser(from.name, to.name, SimulatedUser.stampedAudio(config.voiceBytes));
+                stats.recordCall(op, r.success, System.nanoTime() - start);
+            }
+            case PRESENCE -> {
+                SimulatedUser user = users.get(random.nextInt(users.size()));
+                long start = System.nanoTime();
+                boolean ok = user.logout().success;
+                ok &= user.login().success;
+                stats.recordCall(op, ok, System.nanoTime() - start);
+            }
+            case AUDIO -> {
+                SimulatedUser from = pickOnline(random);
+                SimulatedUser to = pickOther(random, from);
+                for (int i = 0; i < config.audioBurst && running; i++) {
+                    long start = System.nanoTime();
+                    Response r = from.service.sendAudioChunk(from.name, to.name, SimulatedUser.stampedAudio(config.audioBytes));
+                    stats.recordCall(op, r.success, System.nanoTime() - start);
+                }
+            }
+        }
+    }
+
+    private SimulatedUser pickOnline(ThreadLocalRandom random) {
+        SimulatedUser user = users.get(random.nextInt(users.size()));
+        for (int attempt = 0; attempt < 8 && !user.online; attempt++) {
+            user = users.get(random.nextInt(users.size()));
+        }
+        return user;
+    }
+
+    private SimulatedUser pickOther(ThreadLocalRandom random, SimulatedUser from) {
+        SimulatedUser user = pickOnline(random);
+        while (user == from) {
+            user = users.get(random.nextInt(users.size()));
+        }
+        return user;
+    }
+}
@@ -0,0 +1,159 @@
+package loadgen;
+
+import loadgen.LoadConfig.Op;
+import metrics.Histogram;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Contadores de una corrida: por operación (ok, rechazadas por el servidor, errores de Ice
+ * y latencia de la invocación) y por tipo de push recibido (latencia envío → callback).
+ */
+public class LoadStats {
+
+    public enum Push {
+        MESSAGE, GROUP_MESSAGE, VOICE_NOTE, AUDIO_CHUNK
+    }
+
+    public static class OpStats {
+        final LongAdder ok = new LongAdder();
+        final LongAdder rejected = new LongAdder(); // Response.success == false
+        final LongAdder failed = new LongAdder(); // Excepción de Ice
+        final Histogram callLatency = new Histogram();
+    }
+
+    private final Map<Op, OpStats> ops = new EnumMap<>(Op.class);
+    private final Map<Push, Histogram> pushes = new EnumMap<>(Push.class);
+    private final LongAdder replayedVoiceNotes = new LongAdder(); // Reenviadas del historial al hacer login
+    private volatile long startedAt = System.nanoTime();
+    private volatile long stoppedAt; // 0 mientras la corrida sigue
+
+    public LoadStats() {
+        for (Op op : Op.values()) {
+            ops.put(op, new OpStats());
+        }
+        for (Push push : Push.values()) {
+            pushes.put(push, new Histogram());
+        }
+    }
+
+    public void recordCall(Op op, boolean success, long elapsedNanos) {
+        OpStats stats = ops.get(op);
+        (success ? stats.ok : stats.rejected).increment();
+        stats.callLatency.recordNanos(elapsedNanos);
+    }
+
+    public void recordFailure(Op op) {
+        ops.get(op).failed.increment();
+    }
+
+    public void recordPush(Push push, long sentAtNanos) {
+        pushes.get(push).recordNanos(System.nanoTime() - sentAtNanos);
+    }
+
+    public void recordReplayedVoiceNote() {
+        replayedVoiceNotes.increment();
+    }
+
+    /**
+     * Descarta lo medido hasta ahora (fin del warmup)
+     */
+    public void reset() {
+        for (OpStats stats : ops.values()) {
+            stats.ok.reset();
+            stats.rejected.reset();
+            stats.failed.reset();
+            stats.callLatency.reset();
+        }
+        pushes.values().forEach(Histogram::reset);
+        replayedVoiceNotes.reset();
+        startedAt = System.nanoTime();
+    }
+
+    /**
+     * Fija la duración de la corrida; los push que lleguen después igual se cuentan
+     */
+    public void stop() {
+        stoppedAt = System.nanoTime();
+    }
+
+    public double elapsedSeconds() {
+        long end = stoppedAt != 0 ? stoppedAt : System.nanoTime();
+        return (end - startedAt) / 1e9;
+    }
+
+    public long totalCalls() {
+        long total = 0;
+        for (OpStats stats : ops.values()) {
+            total += stats.ok.sum() + stats.rejected.sum() + stats.failed.sum();
+        }
+        return total;
+    }
+
+    public long totalErrors() {
+        long total = 0;
+        for (OpStats stats : ops.values()) {
+            total += stats.rejected.sum() + stats.failed.sum();
+        }
+        return total;
+    }
+
+    public String progressLine() {
+        double seconds = elapsedSeconds();
+        long calls = totalCalls();
+        Histogram messages = pushes.get(Push.MESSAGE);
+        return String.format("[LOAD] %6.1fs  %9.1f ops/s  errores %5.2f%%  push msg p50 %s p99 %s",
+            seconds, calls / seconds, percent(totalErrors(), calls),
+            millis(messages.percentile(0.50)), millis(messages.percentile(0.99)));
+    }
+
+    public String report() {
+        double seconds = elapsedSeconds();
+        StringBuilder out = new StringBuilder();
+        out.append(String.format("%nResultados en %.1f s%n", seconds));
+        out.append(String.format("%-10s %10s %10s %9s %9s %9s %9s %9s%n",
+            "operación", "total", "ops/s", "rechaz.", "errores", "error %", "p50 ms", "p99 ms"));
+        for (Map.Entry<Op, OpStats> entry : ops.entrySet()) {
+            OpStats stats = entry.getValue();
+            long rejected = stats.rejected.sum();
+            long failed = stats.failed.sum();
+            long total = stats.ok.sum() + rejected + failed;
+            if (total == 0) {
+                continue;
+            }
+            out.append(String.format("%-10s %10d %10.1f %9d %9d %8.2f%% %9s %9s%n",
+                entry.getKey().name().toLowerCase(), total, total / seconds, rejected, failed,
+                percent(rejected + failed, total),
+                millis(stats.callLatency.percentile(0.50)), millis(stats.callLatency.percentile(0.99))));
+        }
+
+        out.append(String.format("%nLatencia de entrega push (envío → callback)%n"));
+        out.append(String.format("%-14s %10s %9s %9s %9s %9s %9s%n",
+            "tipo", "recibidos", "p50 ms", "p90 ms", "p99 ms", "p99.9 ms", "max ms"));
+        for (Map.Entry<Push, Histogram> entry : pushes.entrySet()) {
+            Histogram histogram = entry.getValue();
+            if (histogram.count() == 0) {
+                continue;
+            }
+            out.append(String.format("%-14s %10d %9s %9s %9s %9s %9s%n",
+                entry.getKey().name().toLowerCase(), histogram.count(),
+                millis(histogram.percentile(0.50)), millis(histogram.percentile(0.90)),
+                millis(histogram.percentile(0.99)), millis(histogram.percentile(0.999)),
+                millis(histogram.max())));
+        }
+        if (replayedVoiceNotes.sum() > 0) {
+            out.append(String.format("Notas de voz reenviadas desde el historial al reconectar: %d%n", replayedVoiceNotes.sum()));
+        }
+        return out.toString();
+    }
+
+    private static double percent(long part, long total) {
+        return total == 0 ? 0 : 100.0 * part / total;
+    }
+
+    private static String millis(long micros) {
+        return String.format("%.2f", micros / 1000.0);
+    }
+}
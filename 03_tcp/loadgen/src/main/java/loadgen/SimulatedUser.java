@@ -0,0 +1,142 @@
+package loadgen;
+
+import Chat.*;
+import com.zeroc.Ice.Current;
+import com.zeroc.Ice.ObjectAdapter;
+import loadgen.LoadStats.Push;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Usuario simulado: su propia conexión al servidor (ice_connectionId) y un servant
+ * ChatCallback que mide cuánto tardan en llegar los push que envió otro usuario simulado.
+ * Los mensajes llevan el instante de envío (System.nanoTime) en el texto o en los primeros
+ * 8 bytes del audio; como emisor y receptor viven en este proceso no hace falta sincronizar relojes.
+ */
+public class SimulatedUser implements ChatCallback {
+
+    private static final String MARK = "lg|";
+
+    final String name;
+    final ChatServicePrx service;
+    private final ChatCallbackPrx callback;
+    private final LoadStats stats;
+
+    volatile boolean online;
+    private volatile long loginNanos;
+
+    public SimulatedUser(String name, ChatServicePrx base, ObjectAdapter adapter, LoadStats stats) {
+        this.name = name;
+        this.service = base.ice_connectionId(name);
+        this.stats = stats;
+        this.callback = ChatCallbackPrx.uncheckedCast(adapter.addWithUUID(this));
+        // Conexión bidireccional: el servidor invoca los callbacks sobre esta misma conexión
+        service.ice_getConnection().setAdapter(adapter);
+    }
+
+    public Response login() {
+        loginNanos = System.nanoTime();
+        Response response = service.login(name, callback);
+        online = response.success;
+        return response;
+    }
+
+    public Response logout() {
+        online = false;
+        return service.logout(name);
+    }
+
+    static String stampedText(String text) {
+        return MARK + System.nanoTime() + "|" + text;
+    }
+
+    static byte[] stampedAudio(int size) {
+        byte[] data = new byte[Math.max(size, Long.BYTES)];
+        ByteBuffer.wrap(data).putLong(System.nanoTime());
+        return data;
+    }
+
+    // ========== CALLBACKS ==========
+
+    @Override
+    public void onNewMessage(Message msg, Current current) {
+        // Confirmar como un cliente real; sin esto el servidor reintenta cada mensaje
+        if (msg.id > 0) {
+            service.ackMessagesAsync(name, msg.id);
+        }
+        recordMessage(msg);
+    }
+
+    @Override
+    public void onNewMessages(Message[] messages, Current current) {
+        // Un solo ack por lote, con el id más alto
+        long upTo = 0;
+        for (Message msg : messages) {
+            upTo = Math.max(upTo, msg.id);
+            recordMessage(msg);
+        }
+        if (upTo > 0) {
+            service.ackMessagesAsync(name, upTo);
+        }
+    }
+
+    private void recordMessage(Message msg) {
+        if (!msg.content.startsWith(MARK)) {
+            return;
+        }
+        int end = msg.content.indexOf('|', MARK.length());
+        if (end > 0) {
+            long sentAt = Long.parseLong(msg.content, MARK.length(), end, 10);
+            stats.recordPush(msg.isGroup ? Push.GROUP_MESSAGE : Push.MESSAGE, sentAt);
+        }
+    }
+
+    @Override
+    public void onVoiceNoteReceived(String from, String to, byte[] audioData, boolean isGroup, Current current) {
+        if (audioData.length < Long.BYTES) {
+            return;
+        }
+        long sentAt = ByteBuffer.wrap(audioData).getLong();
+        // Al hacer login el servidor reenvía las notas del historial: no cuentan como latencia
+        if (sentAt < loginNanos) {
+            stats.recordReplayedVoiceNote();
+        } else {
+            stats.recordPush(Push.VOICE_NOTE, sentAt);
+        }
+    }
+
+    @Override
+    public void onAudioChunk(String from, byte[] audioData, Current current) {
+        if (audioData.length >= Long.BYTES) {
+            stats.recordPush(Push.AUDIO_CHUNK, ByteBuffer.wrap(audioData).getLong());
+        }
+    }
+
+    @Override
+    public void onUserStatusChanged(User user, Current current) {
+    }
+
+    @Override
+    public void onGroupMemberAdded(String groupName, String username, Current current) {
+    }
+
+    @Override
+    public void onIncomingCall(String from, Current current) {
+    }
+
+    @Override
+    public void onWebRTCSignal(String from, String signalType, String signalData, Current current) {
+    }
+
+    @Override
+    public void onICECandidate(String from, String candidate, Current current) {
+    }
+
+    @Override
+    public void onCallEnded(String from, Current current) {
+    }
+
+    @Override
+    public void onCallAccepted(String from, Current current) {
+    }
+}
@@ -26,19 +26,24 @@ echo.
 REM Compilar Chat.ice
 echo Compilando Chat.ice...
 slice2java --output-dir %OUTPUT_DIR% %SLICE_DIR%\Chat.ice
+if %ERRORLEVEL% NEQ 0 goto error
 
-if %ERRORLEVEL% EQU 0 (
-    echo.
-    echo ================================================
-    echo Compilacion exitosa!
-    echo Los archivos Java fueron generados en: %OUTPUT_DIR%\Chat\
-    echo ================================================
-) else (
-    echo.
-    echo ================================================
-    echo ERROR en la compilacion
-    echo ================================================
-    exit /b 1
-)
+REM Compilar Cluster.ice (interfaces entre nodos del servidor)
+echo Compilando Cluster.ice...
+slice2java -I%SLICE_DIR% --output-dir %OUTPUT_DIR% %SLICE_DIR%\Cluster.ice
+if %ERRORLEVEL% NEQ 0 goto error
 
+echo.
+echo ================================================
+echo Compilacion exitosa!
+echo Los archivos Java fueron generados en: %OUTPUT_DIR%\Chat\
+echo ================================================
 pause
+exit /b 0
+
+:error
+echo.
+echo ================================================
+echo ERROR en la compilacion
+echo ================================================
+exit /b 1
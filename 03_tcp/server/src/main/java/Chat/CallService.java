@@ -0,0 +1,330 @@
+//
+// Copyright (c) ZeroC, Inc. All rights reserved.
+//
+//
+// Ice version 3.7.10
+//
+// <auto-generated>
+//
+// Generated from file `Chat.ice'
+//
+// Warning: do not edit this file.
+//
+// </auto-generated>
+//
+
+package Chat;
+
+public interface CallService extends com.zeroc.Ice.Object
+{
+    Response joinCall(String username, ChatCallbackPrx callback, com.zeroc.Ice.Current current);
+
+    void leaveCall(String username, com.zeroc.Ice.Current current);
+
+    Response initiateCall(String from, String to, com.zeroc.Ice.Current current);
+
+    Response acceptCall(String from, String to, com.zeroc.Ice.Current current);
+
+    Response endCall(String from, String to, com.zeroc.Ice.Current current);
+
+    Response sendWebRTCSignal(String from, String to, String signalType, String signalData, com.zeroc.Ice.Current current);
+
+    Response sendICECandidate(String from, String to, String candidate, com.zeroc.Ice.Current current);
+
+    Response sendAudioChunk(String from, String to, byte[] audioData, com.zeroc.Ice.Current current);
+
+    /** @hidden */
+    static final String[] _iceIds =
+    {
+        "::Chat::CallService",
+        "::Ice::Object"
+    };
+
+    @Override
+    default String[] ice_ids(com.zeroc.Ice.Current current)
+    {
+        return _iceIds;
+    }
+
+    @Override
+    default String ice_id(com.zeroc.Ice.Current current)
+    {
+        return ice_staticId();
+    }
+
+    static String ice_staticId()
+    {
+        return "::Chat::CallService";
+    }
+
+    /**
+     * @hidden
+     * @param obj -
+     * @param inS -
+     * @param current -
+     * @return -
+    **/
+    static java.util.concurrent.CompletionStage<com.zeroc.Ice.OutputStream> _iceD_joinCall(CallService obj, final com.zeroc.IceInternal.Incoming inS, com.zeroc.Ice.Current current)
+    {
+        com.zeroc.Ice.Object._iceCheckMode(null, current.mode);
+        com.zeroc.Ice.InputStream istr = inS.startReadParams();
+        String iceP_username;
+        ChatCallbackPrx iceP_callback;
+        iceP_username = istr.readString();
+        iceP_callback = ChatCallbackPrx.uncheckedCast(istr.readProxy());
+        inS.endReadParams();
+        Response ret = obj.joinCall(iceP_username, iceP_callback, current);
+        com.zeroc.Ice.OutputStream ostr = inS.startWriteParams();
+        Response.ice_write(ostr, ret);
+        inS.endWriteParams(ostr);
+        return inS.setResult(ostr);
+    }
+
+    /**
+     * @hidden
+     * @param obj -
+     * @param inS -
+     * @param current -
+     * @return -
+    **/
+    static java.util.concurrent.CompletionStage<com.zeroc.Ice.OutputStream> _iceD_leaveCall(CallService obj, final com.zeroc.IceInternal.Incoming inS, com.zeroc.Ice.Current current)
+    {
+        com.zeroc.Ice.Object._iceCheckMode(null, current.mode);
+        com.zeroc.Ice.InputStream istr = inS.startReadParams();
+        String iceP_username;
+        iceP_username = istr.readString();
+        inS.endReadParams();
+        obj.leaveCall(iceP_username, current);
+        return inS.setResult(inS.writeEmptyParams());
+    }
+
+    /**
+     * @hidden
+     * @param obj -
+     * @param inS -
+     * @param current -
+     * @return -
+    **/
+    static java.util.concurrent.CompletionStage<com.zeroc.Ice.OutputStream> _iceD_initiateCall(CallService obj, final com.zeroc.IceInternal.Incoming inS, com.zeroc.Ice.Current current)
+    {
+        com.zeroc.Ice.Object._iceCheckMode(null, current.mode);
+        com.zeroc.Ice.InputStream istr = inS.startReadParams();
+        String iceP_from;
+        String iceP_to;
+        iceP_from = istr.readString();
+        iceP_to = istr.readString();
+        inS.endReadParams();
+        Response ret = obj.initiateCall(iceP_from, iceP_to, current);
+        com.zeroc.Ice.OutputStream ostr = inS.startWriteParams();
+        Response.ice_write(ostr, ret);
+        inS.endWriteParams(ostr);
+        return inS.setResult(ostr);
+    }
+
+    /**
+     * @hidden
+     * @param obj -
+     * @param inS -
+     * @param current -
+     * @return -
+    **/
+    static java.util.concurrent.CompletionStage<com.zeroc.Ice.OutputStream> _iceD_acceptCall(CallService obj, final com.zeroc.IceInternal.Incoming inS, com.zeroc.Ice.Current current)
+    {
+        com.zeroc.Ice.Object._iceCheckMode(null, current.mode);
+        com.zeroc.Ice.InputStream istr = inS.startReadParams();
+        String iceP_from;
+        String iceP_to;
+        iceP_from = istr.readString();
+        iceP_to = istr.readString();
+        inS.endReadParams();
+        Response ret = obj.acceptCall(iceP_from, iceP_to, current);
+        com.zeroc.Ice.OutputStream ostr = inS.startWriteParams();
+        Response.ice_write(ostr, ret);
+        inS.endWriteParams(ostr);
+        return inS.setResult(ostr);
+    }
+
+    /**
+     * @hidden
+     * @param obj -
+     * @param inS -
+     * @param current -
+     * @return -
+    **/
+    static java.util.concurrent.CompletionStage<com.zeroc.Ice.OutputStream> _iceD_endCall(CallService obj, final com.zeroc.IceInternal.Incoming inS, com.zeroc.Ice.Current current)
+    {
+        com.zeroc.Ice.Object._iceCheckMode(null, current.mode);
+        com.zeroc.Ice.InputStream istr = inS.startReadParams();
+        String iceP_from;
+        String iceP_to;
+        iceP_from = istr.readString();
+        iceP_to = istr.readString();
+        inS.endReadParams();
+        Response ret = obj.endCall(iceP_from, iceP_to, current);
+        com.zeroc.Ice.OutputStream ostr = inS.startWriteParams();
+        Response.ice_write(ostr, ret);
+        inS.endWriteParams(ostr);
+        return inS.setResult(ostr);
+    }
+
+    /**
+     * @hidden
+     * @param obj -
+     * @param inS -
+     * @param current -
+     * @return -
+    **/
+    static java.util.concurrent.CompletionStage<com.zeroc.Ice.OutputStream> _iceD_sendWebRTCSignal(CallService obj, final com.zeroc.IceInternal.Incoming inS, com.zeroc.Ice.Current current)
+    {
+        com.zeroc.Ice.Object._iceCheckMode(null, current.mode);
+        com.zeroc.Ice.InputStream istr = inS.startReadParams();
+        String iceP_from;
+        String iceP_to;
+        String iceP_signalType;
+        String iceP_signalData;
+        iceP_from = istr.readString();
+        iceP_to = istr.readString();
+        iceP_signalType = istr.readString();
+        iceP_signalData = istr.readString();
+        inS.endReadParams();
+        Response ret = obj.sendWebRTCSignal(iceP_from, iceP_to, iceP_signalType, iceP_signalData, current);
+        com.zeroc.Ice.OutputStream ostr = inS.startWriteParams();
+        Response.ice_write(ostr, ret);
+        inS.endWriteParams(ostr);
+        return inS.setResult(ostr);
+    }
+
+    /**
+     * @hidden
+     * @param obj -
+     * @param inS -
+     * @param current -
+     * @return -
+    **/
+    static java.util.concurrent.CompletionStage<com.zeroc.Ice.OutputStream> _iceD_sendICECandidate(CallService obj, final com.zeroc.IceInternal.Incoming inS, com.zeroc.Ice.Current current)
+    {
+        com.zeroc.Ice.Object._iceCheckMode(null, current.mode);
+        com.zeroc.Ice.InputStream istr = inS.startReadParams();
+        String iceP_from;
+        String iceP_to;
+        String iceP_candidate;
+        iceP_from = istr.readString();
+        iceP_to = istr.readString();
+        iceP_candidate = istr.readString();
+        inS.endReadParams();
+        Response ret = obj.sendICECandidate(iceP_from, iceP_to, iceP_candidate, current);
+        com.zeroc.Ice.OutputStream ostr = inS.startWriteParams();
+        Response.ice_write(ostr, ret);
+        inS.endWriteParams(ostr);
+        return inS.setResult(ostr);
+    }
+
+    /**
+     * @hidden
+     * @param obj -
+     * @param inS -
+     * @param current -
+     * @return -
+    **/
+    static java.util.concurrent.CompletionStage<com.zeroc.Ice.OutputStream> _iceD_sendAudioChunk(CallService obj, final com.zeroc.IceInternal.Incoming inS, com.zeroc.Ice.Current current)
+    {
+        com.zeroc.Ice.Object._iceCheckMode(null, current.mode);
+        com.zeroc.Ice.InputStream istr = inS.startReadParams();
+        String iceP_from;
+        String iceP_to;
+        byte[] iceP_audioData;
+        iceP_from = istr.readString();
+        iceP_to = istr.readString();
+        iceP_audioData = istr.readByteSeq();
+        inS.endReadParams();
+        Response ret = obj.sendAudioChunk(iceP_from, iceP_to, iceP_audioData, current);
+        com.zeroc.Ice.OutputStream ostr = inS.startWriteParams();
+        Response.ice_write(ostr, ret);
+        inS.endWriteParams(ostr);
+        return inS.setResult(ostr);
+    }
+
+    /** @hidden */
+    final static String[] _iceOps =
+    {
+        "acceptCall",
+        "endCall",
+        "ice_id",
+        "ice_ids",
+        "ice_isA",
+        "ice_ping",
+        "initiateCall",
+        "joinCall",
+        "leaveCall",
+        "sendAudioChunk",
+        "sendICECandidate",
+        "sendWebRTCSignal"
+    };
+
+    /** @hidden */
+    @Override
+    default java.util.concurrent.CompletionStage<com.zeroc.Ice.OutputStream> _iceDispatch(com.zeroc.IceInternal.Incoming in, com.zeroc.Ice.Current current)
+        throws com.zeroc.Ice.UserException
+    {
+        int pos = java.util.Arrays.binarySearch(_iceOps, current.operation);
+        if(pos < 0)
+        {
+            throw new com.zeroc.Ice.OperationNotExistException(current.id, current.facet, current.operation);
+        }
+
+        switch(pos)
+        {
+            case 0:
+            {
+                return _iceD_acceptCall(this, in, current);
+            }
+            case 1:
+            {
+                return _iceD_endCall(this, in, current);
+            }
+            case 2:
+            {
+                return com.zeroc.Ice.Object._iceD_ice_id(this, in, current);
+            }
+            case 3:
+            {
+                return com.zeroc.Ice.Object._iceD_ice_ids(this, in, current);
+            }
+            case 4:
+            {
+                return com.zeroc.Ice.Object._iceD_ice_isA(this, in, current);
+            }
+            case 5:
+            {
+                return com.zeroc.Ice.Object._iceD_ice_ping(this, in, current);
+            }
+            case 6:
+            {
+                return _iceD_initiateCall(this, in, current);
+            }
+            case 7:
+            {
+                return _iceD_joinCall(this, in, current);
+            }
+            case 8:
+            {
+                return _iceD_leaveCall(this, in, current);
+            }
+            case 9:
+            {
+                return _iceD_sendAudioChunk(this, in, current);
+            }
+            case 10:
+            {
+                return _iceD_sendICECandidate(this, in, current);
+            }
+            case 11:
+            {
+                return _iceD_sendWebRTCSignal(this, in, current);
+            }
+        }
+
+        assert(false);
+        throw new com.zeroc.Ice.OperationNotExistException(current.id, current.facet, current.operation);
+    }
+}
@@ -0,0 +1,672 @@
+//
+// Copyright (c) ZeroC, Inc. All rights reserved.
+//
+//
+// Ice version 3.7.10
+//
+// <auto-generated>
+//
+// Generated from file `Chat.ice'
+//
+// Warning: do not edit this file.
+//
+// </auto-generated>
+//
+
+package Chat;
+
+public interface CallServicePrx extends com.zeroc.Ice.ObjectPrx
+{
+    default Response joinCall(String username, ChatCallbackPrx callback)
+    {
+        return joinCall(username, callback, com.zeroc.Ice.ObjectPrx.noExplicitContext);
+    }
+
+    default Response joinCall(String username, ChatCallbackPrx callback, java.util.Map<String, String> context)
+    {
+        return _iceI_joinCallAsync(username, callback, context, true).waitForResponse();
+    }
+
+    default java.util.concurrent.CompletableFuture<Response> joinCallAsync(String username, ChatCallbackPrx callback)
+    {
+        return _iceI_joinCallAsync(username, callback, com.zeroc.Ice.ObjectPrx.noExplicitContext, false);
+    }
+
+    default java.util.concurrent.CompletableFuture<Response> joinCallAsync(String username, ChatCallbackPrx callback, java.util.Map<String, String> context)
+    {
+        return _iceI_joinCallAsync(username, callback, context, false);
+    }
+
+    /**
+     * @hidden
+     * @param iceP_username -
+     * @param iceP_callback -
+     * @param context -
+     * @param sync -
+     * @return -
+     **/
+    default com.zeroc.IceInternal.OutgoingAsync<Response> _iceI_joinCallAsync(String iceP_username, ChatCallbackPrx iceP_callback, java.util.Map<String, String> context, boolean sync)
+    {
+        com.zeroc.IceInternal.OutgoingAsync<Response> f = new com.zeroc.IceInternal.OutgoingAsync<>(this, "joinCall", null, sync, null);
+        f.invoke(true, context, null, ostr -> {
+                     ostr.writeString(iceP_username);
+                     ostr.writeProxy(iceP_callback);
+                 }, istr -> {
+                     Response ret;
+                     ret = Response.ice_read(istr);
+                     return ret;
+                 });
+        return f;
+    }
+
+    default void leaveCall(String username)
+    {
+        leaveCall(username, com.zeroc.Ice.ObjectPrx.noExplicitContext);
+    }
+
+    default void leaveCall(String username, java.util.Map<String, String> context)
+    {
+        _iceI_leaveCallAsync(username, context, true).waitForResponse();
+    }
+
+    default java.util.concurrent.CompletableFuture<Void> leaveCallAsync(String username)
+    {
+        return _iceI_leaveCallAsync(username, com.zeroc.Ice.ObjectPrx.noExplicitContext, false);
+    }
+
+    default java.util.concurrent.CompletableFuture<Void> leaveCallAsync(String username, java.util.Map<String, String> context)
+    {
+        return _iceI_leaveCallAsync(username, context, false);
+    }
+
+    /**
+     * @hidden
+     * @param iceP_username -
+     * @param context -
+     * @param sync -
+     * @return -
+     **/
+    default com.zeroc.IceInternal.OutgoingAsync<Void> _iceI_leaveCallAsync(String iceP_username, java.util.Map<String, String> context, boolean sync)
+    {
+        com.zeroc.IceInternal.OutgoingAsync<Void> f = new com.zeroc.IceInternal.OutgoingAsync<>(this, "leaveCall", null, sync, null);
+        f.invoke(false, context, null, ostr -> {
+                     ostr.writeString(iceP_username);
+                 }, null);
+        return f;
+    }
+
+    default Response initiateCall(String from, String to)
+    {
+        return initiateCall(from, to, com.zeroc.Ice.ObjectPrx.noExplicitContext);
+    }
+
+    default Response initiateCall(String from, String to, java.util.Map<String, String> context)
+    {
+        return _iceI_initiateCallAsync(from, to, context, true).waitForResponse();
+    }
+
+    default java.util.concurrent.CompletableFuture<Response> initiateCallAsync(String from, String to)
+    {
+        return _iceI_initiateCallAsync(from, to, com.zeroc.Ice.ObjectPrx.noExplicitContext, false);
+    }
+
+    default java.util.concurrent.CompletableFuture<Response> initiateCallAsync(String from, String to, java.util.Map<String, String> context)
+    {
+        return _iceI_initiateCallAsync(from, to, context, false);
+    }
+
+    /**
+     * @hidden
+     * @param iceP_from -
+     * @param iceP_to -
+     * @param context -
+     * @param sync -
+     * @return -
+     **/
+    default com.zeroc.IceInternal.OutgoingAsync<Response> _iceI_initiateCallAsync(String iceP_from, String iceP_to, java.util.Map<String, String> context, boolean sync)
+    {
+        com.zeroc.IceInternal.OutgoingAsync<Response> f = new com.zeroc.IceInternal.OutgoingAsync<>(this, "initiateCall", null, sync, null);
+        f.invoke(true, context, null, ostr -> {
+                     ostr.writeString(iceP_from);
+                     ostr.writeString(iceP_to);
+                 }, istr -> {
+                     Response ret;
+                     ret = Response.ice_read(istr);
+                     return ret;
+                 });
+        return f;
+    }
+
+    default Response acceptCall(String from, String to)
+    {
+        return acceptCall(from, to, com.zeroc.Ice.ObjectPrx.noExplicitContext);
+    }
+
+    default Response acceptCall(String from, String to, java.util.Map<String, String> context)
+    {
+        return _iceI_acceptCallAsync(from, to, context, true).waitForResponse();
+    }
+
+    default java.util.concurrent.CompletableFuture<Response> acceptCallAsync(String from, String to)
+    {
+        return _iceI_acceptCallAsync(from, to, com.zeroc.Ice.ObjectPrx.noExplicitContext, false);
+    }
+
+    default java.util.concurrent.CompletableFuture<Response> acceptCallAsync(String from, String to, java.util.Map<String, String> context)
+    {
+        return _iceI_acceptCallAsync(from, to, context, false);
+    }
+
+    /**
+     * @hidden
+     * @param iceP_from -
+     * @param iceP_to -
+     * @param context -
+     * @param sync -
+     * @return -
+     **/
+    default com.zeroc.IceInternal.OutgoingAsync<Response> _iceI_acceptCallAsync(String iceP_from, String iceP_to, java.util.Map<String, String> context, boolean sync)
+    {
+        com.zeroc.IceInternal.OutgoingAsync<Response> f = new com.zeroc.IceInternal.OutgoingAsync<>(this, "acceptCall", null, sync, null);
+        f.invoke(true, context, null, ostr -> {
+                     ostr.writeString(iceP_from);
+                     ostr.writeString(iceP_to);
+                 }, istr -> {
+                     Response ret;
+                     ret = Response.ice_read(istr);
+                     return ret;
+                 });
+        return f;
+    }
+
+    default Response endCall(String from, String to)
+    {
+        return endCall(from, to, com.zeroc.Ice.ObjectPrx.noExplicitContext);
+    }
+
+    default Response endCall(String from, String to, java.util.Map<String, String> context)
+    {
+        return _iceI_endCallAsync(from, to, context, true).waitForResponse();
+    }
+
+    default java.util.concurrent.CompletableFuture<Response> endCallAsync(String from, String to)
+    {
+        return _iceI_endCallAsync(from, to, com.zeroc.Ice.ObjectPrx.noExplicitContext, false);
+    }
+
+    default java.util.concurrent.CompletableFuture<Response> endCallAsync(String from, String to, java.util.Map<String, String> context)
+    {
+        return _iceI_endCallAsync(from, to, context, false);
+    }
+
+    /**
+     * @hidden
+     * @param iceP_from -
+     * @param iceP_to -
+     * @param context -
+     * @param sync -
+     * @return -
+     **/
+    default com.zeroc.IceInternal.OutgoingAsync<Response> _iceI_endCallAsync(String iceP_from, String iceP_to, java.util.Map<String, String> context, boolean sync)
+    {
+        com.zeroc.IceInternal.OutgoingAsync<Response> f = new com.zeroc.IceInternal.OutgoingAsync<>(this, "endCall", null, sync, null);
+        f.invoke(true, context, null, ostr -> {
+                     ostr.writeString(iceP_from);
+                     ostr.writeString(iceP_to);
+                 }, istr -> {
+                     Response ret;
+                     ret = Response.ice_read(istr);
+                     return ret;
+                 });
+        return f;
+    }
+
+    default Response sendWebRTCSignal(String from, String to, String signalType, String signalData)
+    {
+        return sendWebRTCSignal(from, to, signalType, signalData, com.zeroc.Ice.ObjectPrx.noExplicitContext);
+    }
+
+    default Response sendWebRTCSignal(String from, String to, String signalType, String signalData, java.util.Map<String, String> context)
+    {
+        return _iceI_sendWebRTCSignalAsync(from, to, signalType, signalData, context, true).waitForResponse();
+    }
+
+    default java.util.concurrent.CompletableFuture<Response> sendWebRTCSignalAsync(String from, String to, String signalType, String signalData)
+    {
+        return _iceI_sendWebRTCSignalAsync(from, to, signalType, signalData, com.zeroc.Ice.ObjectPrx.noExplicitContext, false);
+    }
+
+    default java.util.concurrent.CompletableFuture<Response> sendWebRTCSignalAsync(String from, String to, String signalType, String signalData, java.util.Map<String, String> context)
+    {
+        return _iceI_sendWebRTCSignalAsync(from, to, signalType, signalData, context, false);
+    }
+
+    /**
+     * @hidden
+     * @param iceP_from -
+     * @param iceP_to -
+     * @param iceP_signalType -
+     * @param iceP_signalData -
+     * @param context -
+     * @param sync -
+     * @return -
+     **/
+    default com.zeroc.IceInternal.OutgoingAsync<Response> _iceI_sendWebRTCSignalAsync(String iceP_from, String iceP_to, String iceP_signalType, String iceP_signalData, java.util.Map<String, String> context, boolean sync)
+    {
+        com.zeroc.IceInternal.OutgoingAsync<Response> f = new com.zeroc.IceInternal.OutgoingAsync<>(this, "sendWebRTCSignal", null, sync, null);
+        f.invoke(true, context, null, ostr -> {
+                     ostr.writeString(iceP_from);
+                     ostr.writeString(iceP_to);
+                     ostr.writeString(iceP_signalType);
+                     ostr.writeString(iceP_signalData);
+                 }, istr -> {
+                     Response ret;
+                     ret = Response.ice_read(istr);
+                     return ret;
+                 });
+        return f;
+    }
+
+    default Response sendICECandidate(String from, String to, String candidate)
+    {
+        return sendICECandidate(from, to, candidate, com.zeroc.Ice.ObjectPrx.noExplicitContext);
+    }
+
+    default Response sendICECandidate(String from, String to, String candidate, java.util.Map<String, String> context)
+    {
+        return _iceI_sendICECandidateAsync(from, to, candidate, context, true).waitForResponse();
+    }
+
+    default java.util.concurrent.CompletableFuture<Response> sendICECandidateAsync(String from, String to, String candidate)
+    {
+        return _iceI_sendICECandidateAsync(from, to, candidate, com.zeroc.Ice.ObjectPrx.noExplicitContext, false);
+    }
+
+    default java.util.concurrent.CompletableFuture<Response> sendICECandidateAsync(String from, String to, String candidate, java.util.Map<String, String> context)
+    {
+        return _iceI_sendICECandidateAsync(from, to, candidate, context, false);
+    }
+
+    /**
+     * @hidden
+     * @param iceP_from -
+     * @param iceP_to -
+     * @param iceP_candidate -
+     * @param context -
+     * @param sync -
+     * @return -
+     **/
+    default com.zeroc.IceInternal.OutgoingAsync<Response> _iceI_sendICECandidateAsync(String iceP_from, String iceP_to, String iceP_candidate, java.util.Map<String, String> context, boolean sync)
+    {
+        com.zeroc.IceInternal.OutgoingAsync<Response> f = new com.zeroc.IceInternal.OutgoingAsync<>(this, "sendICECandidate", null, sync, null);
+        f.invoke(true, context, null, ostr -> {
+                     ostr.writeString(iceP_from);
+                     ostr.writeString(iceP_to);
+                     ostr.writeString(iceP_candidate);
+                 }, istr -> {
+                     Response ret;
+                     ret = Response.ice_read(istr);
+                     return ret;
+                 });
+        return f;
+    }
+
+    default Response sendAudioChunk(String from, String to, byte[] audioData)
+    {
+        return sendAudioChunk(from, to, audioData, com.zeroc.Ice.ObjectPrx.noExplicitContext);
+    }
+
+    default Response sendAudioChunk(String from, String to, byte[] audioData, java.util.Map<String, String> context)
+    {
+        return _iceI_sendAudioChunkAsync(from, to, audioData, context, true).waitForResponse();
+    }
+
+    default java.util.concurrent.CompletableFuture<Response> sendAudioChunkAsync(String from, String to, byte[] audioData)
+    {
+        return _iceI_sendAudioChunkAsync(from, to, audioData, com.zeroc.Ice.ObjectPrx.noExplicitContext, false);
+    }
+
+    default java.util.concurrent.CompletableFuture<Response> sendAudioChunkAsync(String from, String to, byte[] audioData, java.util.Map<String, String> context)
+    {
+        return _iceI_sendAudioChunkAsync(from, to, audioData, context, false);
+    }
+
+    /**
+     * @hidden
+     * @param iceP_from -
+     * @param iceP_to -
+     * @param iceP_audioData -
+     * @param context -
+     * @param sync -
+     * @return -
+     **/
+    default com.zeroc.IceInternal.OutgoingAsync<Response> _iceI_sendAudioChunkAsync(String iceP_from, String iceP_to, byte[] iceP_audioData, java.util.Map<String, String> context, boolean sync)
+    {
+        com.zeroc.IceInternal.OutgoingAsync<Response> f = new com.zeroc.IceInternal.OutgoingAsync<>(this, "sendAudioChunk", null, sync, null);
+        f.invoke(true, context, null, ostr -> {
+                     ostr.writeString(iceP_from);
+                     ostr.writeString(iceP_to);
+                     ostr.writeByteSeq(iceP_audioData);
+                 }, istr -> {
+                     Response ret;
+                     ret = Response.ice_read(istr);
+                     return ret;
+                 });
+        return f;
+    }
+
+    /**
+     * Contacts the remote server to verify that the object implements this type.
+     * Raises a local exception if a communication error occurs.
+     * @param obj The untyped proxy.
+     * @return A proxy for this type, or null if the object does not support this type.
+     **/
+    static CallServicePrx checkedCast(com.zeroc.Ice.ObjectPrx obj)
+    {
+        return com.zeroc.Ice.ObjectPrx._checkedCast(obj, ice_staticId(), CallServicePrx.class, _CallServicePrxI.class);
+    }
+
+    /**
+     * Contacts the remote server to verify that the object implements this type.
+     * Raises a local exception if a communication error occurs.
+     * @param obj The untyped proxy.
+     * @param context The Context map to send with the invocation.
+     * @return A proxy for this type, or null if the object does not support this type.
+     **/
+    static CallServicePrx checkedCast(com.zeroc.Ice.ObjectPrx obj, java.util.Map<String, String> context)
+    {
+        return com.zeroc.Ice.ObjectPrx._checkedCast(obj, context, ice_staticId(), CallServicePrx.class, _CallServicePrxI.class);
+    }
+
+    /**
+     * Contacts the remote server to verify that a facet of the object implements this type.
+     * Raises a local exception if a communication error occurs.
+     * @param obj The untyped proxy.
+     * @param facet The name of the desired facet.
+     * @return A proxy for this type, or null if the object does not support this type.
+     **/
+    static CallServicePrx checkedCast(com.zeroc.Ice.ObjectPrx obj, String facet)
+    {
+        return com.zeroc.Ice.ObjectPrx._checkedCast(obj, facet, ice_staticId(), CallServicePrx.class, _CallServicePrxI.class);
+    }
+
+    /**
+     * Contacts the remote server to verify that a facet of the object implements this type.
+     * Raises a local exception if a communication error occurs.
+     * @param obj The untyped proxy.
+     * @param facet The name of the desired facet.
+     * @param context The Context map to send with the invocation.
+     * @return A proxy for this type, or null if the object does not support this type.
+     **/
+    static CallServicePrx checkedCast(com.zeroc.Ice.ObjectPrx obj, String facet, java.util.Map<String, String> context)
+    {
+        return com.zeroc.Ice.ObjectPrx._checkedCast(obj, facet, context, ice_staticId(), CallServicePrx.class, _CallServicePrxI.class);
+    }
+
+    /**
+     * Downcasts the given proxy to this type without contacting the remote server.
+     * @param obj The untyped proxy.
+     * @return A proxy for this type.
+     **/
+    static CallServicePrx uncheckedCast(com.zeroc.Ice.ObjectPrx obj)
+    {
+        return com.zeroc.Ice.ObjectPrx._uncheckedCast(obj, CallServicePrx.class, _CallServicePrxI.class);
+    }
+
+    /**
+     * Downcasts the given proxy to this type without contacting the remote server.
+     * @param obj The untyped proxy.
+     * @param facet The name of the desired facet.
+     * @return A proxy for this type.
+     **/
+    static CallServicePrx uncheckedCast(com.zeroc.Ice.ObjectPrx obj, String facet)
+    {
+        return com.zeroc.Ice.ObjectPrx._uncheckedCast(obj, facet, CallServicePrx.class, _CallServicePrxI.class);
+    }
+
+    /**
+     * Returns a proxy that is identical to this proxy, except for the per-proxy context.
+     * @param newContext The context for the new proxy.
+     * @return A proxy with the specified per-proxy context.
+     **/
+    @Override
+    default CallServicePrx ice_context(java.util.Map<String, String> newContext)
+    {
+        return (CallServicePrx)_ice_context(newContext);
+    }
+
+    /**
+     * Returns a proxy that is identical to this proxy, except for the adapter ID.
+     * @param newAdapterId The adapter ID for the new proxy.
+     * @return A proxy with the specified adapter ID.
+     **/
+    @Override
+    default CallServicePrx ice_adapterId(String newAdapterId)
+    {
+        return (CallServicePrx)_ice_adapterId(newAdapterId);
+    }
+
+    /**
+     * Returns a proxy that is identical to this proxy, except for the endpoints.
+     * @param newEndpoints The endpoints for the new proxy.
+     * @return A proxy with the specified endpoints.
+     **/
+    @Override
+    default CallServicePrx ice_endpoints(com.zeroc.Ice.Endpoint[] newEndpoints)
+    {
+        return (CallServicePrx)_ice_endpoints(newEndpoints);
+    }
+
+    /**
+     * Returns a proxy that is identical to this proxy, except for the locator cache timeout.
+     * @param newTimeout The new locator cache timeout (in seconds).
+     * @return A proxy with the specified locator cache timeout.
+     **/
+    @Override
+    default CallServicePrx ice_locatorCacheTimeout(int newTimeout)
+    {
+        return (CallServicePrx)_ice_locatorCacheTimeout(newTimeout);
+    }
+
+    /**
+     * Returns a proxy that is identical to this proxy, except for the invocation timeout.
+     * @param newTimeout The new invocation timeout (in seconds).
+     * @return A proxy with the specified invocation timeout.
+     **/
+    @Override
+    default CallServicePrx ice_invocationTimeout(int newTimeout)
+    {
+        return (CallServicePrx)_ice_invocationTimeout(newTimeout);
+    }
+
+    /**
+     * Returns a proxy that is identical to this proxy, except for connection caching.
+     * @param newCache <code>true</code> if the new proxy should cache connections; <code>false</code> otherwise.
+     * @return A proxy with the specified caching policy.
+     **/
+    @Override
+    default CallServicePrx ice_connectionCached(boolean newCache)
+    {
+        return (CallServicePrx)_ice_connectionCached(newCache);
+    }
+
+    /**
+     * Returns a proxy that is identical to this proxy, except for the endpoint selection policy.
+     * @param newType The new endpoint selection policy.
+     * @return A proxy with the specified endpoint selection policy.
+     **/
+    @Override
+    default CallServicePrx ice_endpointSelection(com.zeroc.Ice.EndpointSelectionType newType)
+    {
+        return (CallServicePrx)_ice_endpointSelection(newType);
+    }
+
+    /**
+     * Returns a proxy that is identical to this proxy, except for how it selects endpoints.
+     * @param b If <code>b</code> is <code>true</code>, only endpoints that use a secure transport are
+     * used by the new proxy. If <code>b</code> is false, the returned proxy uses both secure and
+     * insecure endpoints.
+     * @return A proxy with the specified selection policy.
+     **/
+    @Override
+    default CallServicePrx ice_secure(boolean b)
+    {
+        return (CallServicePrx)_ice_secure(b);
+    }
+
+    /**
+     * Returns a proxy that is identical to this proxy, except for the encoding used to marshal parameters.
+     * @param e The encoding version to use to marshal request parameters.
+     * @return A proxy with the specified encoding version.
+     **/
+    @Override
+    default CallServicePrx ice_encodingVersion(com.zeroc.Ice.EncodingVersion e)
+    {
+        return (CallServicePrx)_ice_encodingVersion(e);
+    }
+
+    /**
+     * Returns a proxy that is identical to this proxy, except for its endpoint selection policy.
+     * @param b If <code>b</code> is <code>true</code>, the new proxy will use secure endpoints for invocations
+     * and only use insecure endpoints if an invocation cannot be made via secure endpoints. If <code>b</code> is
+     * <code>false</code>, the proxy prefers insecure endpoints to secure ones.
+     * @return A proxy with the specified selection policy.
+     **/
+    @Override
+    default CallServicePrx ice_preferSecure(boolean b)
+    {
+        return (CallServicePrx)_ice_preferSecure(b);
+    }
+
+    /**
+     * Returns a proxy that is identical to this proxy, except for the router.
+     * @param router The router for the new proxy.
+     * @return A proxy with the specified router.
+     **/
+    @Override
+    default CallServicePrx ice_router(com.zeroc.Ice.RouterPrx router)
+    {
+        return (CallServicePrx)_ice_router(router);
+    }
+
+    /**
+     * Returns a proxy that is identical to this proxy, except for the locator.
+     * @param locator The locator for the new proxy.
+     * @return A proxy with the specified locator.
+     **/
+    @Override
+    default CallServicePrx ice_locator(com.zeroc.Ice.LocatorPrx locator)
+    {
+        return (CallServicePrx)_ice_locator(locator);
+    }
+
+    /**
+     * Returns a proxy that is identical to this proxy, except for collocation optimization.
+     * @param b <code>true</code> if the new proxy enables collocation optimization; <code>false</code> otherwise.
+     * @return A proxy with the specified collocation optimization.
+     **/
+    @Override
+    default CallServicePrx ice_collocationOptimized(boolean b)
+    {
+        return (CallServicePrx)_ice_collocationOptimized(b);
+    }
+
+    /**
+     * Returns a proxy that is identical to this proxy, but uses twoway invocations.
+     * @return A proxy that uses twoway invocations.
+     **/
+    @Override
+    default CallServicePrx ice_twoway()
+    {
+        return (CallServicePrx)_ice_twoway();
+    }
+
+    /**
+     * Returns a proxy that is identical to this proxy, but uses oneway invocations.
+     * @return A proxy that uses oneway invocations.
+     **/
+    @Override
+    default CallServicePrx ice_oneway()
+    {
+        return (CallServicePrx)_ice_oneway();
+    }
+
+    /**
+     * Returns a proxy that is identical to this proxy, but uses batch oneway invocations.
+     * @return A proxy that uses batch oneway invocations.
+     **/
+    @Override
+    default CallServicePrx ice_batchOneway()
+    {
+        return (CallServicePrx)_ice_batchOneway();
+    }
+
+    /**
+     * Returns a proxy that is identical to this proxy, but uses datagram invocations.
+     * @return A proxy that uses datagram invocations.
+     **/
+    @Override
+    default CallServicePrx ice_datagram()
+    {
+        return (CallServicePrx)_ice_datagram();
+    }
+
+    /**
+     * Returns a proxy that is identical to this proxy, but uses batch datagram invocations.
+     * @return A proxy that uses batch datagram invocations.
+     **/
+    @Override
+    default CallServicePrx ice_batchDatagram()
+    {
+        return (CallServicePrx)_ice_batchDatagram();
+    }
+
+    /**
+     * Returns a proxy that is identical to this proxy, except for compression.
+     * @param co <code>true</code> enables compression for the new proxy; <code>false</code> disables compression.
+     * @return A proxy with the specified compression setting.
+     **/
+    @Override
+    default CallServicePrx ice_compress(boolean co)
+    {
+        return (CallServicePrx)_ice_compress(co);
+    }
+
+    /**
+     * Returns a proxy that is identical to this proxy, except for its connection timeout setting.
+     * @param t The connection timeout for the proxy in milliseconds.
+     * @return A proxy with the specified timeout.
+     **/
+    @Override
+    default CallServicePrx ice_timeout(int t)
+    {
+        return (CallServicePrx)_ice_timeout(t);
+    }
+
+    /**
+     * Returns a proxy that is identical to this proxy, except for its connection ID.
+     * @param connectionId The connection ID for the new proxy. An empty string removes the connection ID.
+     * @return A proxy with the specified connection ID.
+     **/
+    @Override
+    default CallServicePrx ice_connectionId(String connectionId)
+    {
+        return (CallServicePrx)_ice_connectionId(connectionId);
+    }
+
+    /**
+     * Returns a proxy that is identical to this proxy, except it's a fixed proxy bound
+     * the given connection.@param connection The fixed proxy connection.
+     * @return A fixed proxy bound to the given connection.
+     **/
+    @Override
+    default CallServicePrx ice_fixed(com.zeroc.Ice.Connection connection)
+    {
+        return (CallServicePrx)_ice_fixed(connection);
+    }
+
+    static String ice_staticId()
+    {
+        return "::Chat::CallService";
+    }
+}
@@ -19,6 +19,8 @@ public interface ChatCallback extends com.zeroc.Ice.Object
 {
     void onNewMessage(Message msg, com.zeroc.Ice.Current current);
 
+    void onNewMessages(Message[] messages, com.zeroc.Ice.Current current);
+
     void onUserStatusChanged(User user, com.zeroc.Ice.Current current);
 
     void onGroupMemberAdded(String groupName, String username, com.zeroc.Ice.Current current);
@@ -79,6 +81,24 @@ public interface ChatCallback extends com.zeroc.Ice.Object
         return inS.setResult(inS.writeEmptyParams());
     }
 
+    /**
+     * @hidden
+     * @param obj -
+     * @param inS -
+     * @param current -
+     * @return -
+    **/
+    static java.util.concurrent.CompletionStage<com.zeroc.Ice.OutputStream> _iceD_onNewMessages(ChatCallback obj, final com.zeroc.IceInternal.Incoming inS, com.zeroc.Ice.Current current)
+    {
+        com.zeroc.Ice.Object._iceCheckMode(null, current.mode);
+        com.zeroc.Ice.InputStream istr = inS.startReadParams();
+        Message[] iceP_messages;
+        iceP_messages = MessageSeqHelper.read(istr);
+        inS.endReadParams();
+        obj.onNewMessages(iceP_messages, current);
+        return inS.setResult(inS.writeEmptyParams());
+    }
+
     /**
      * @hidden
      * @param obj -
@@ -271,6 +291,7 @@ public interface ChatCallback extends com.zeroc.Ice.Object
         "onICECandidate",
         "onIncomingCall",
         "onNewMessage",
+        "onNewMessages",
         "onUserStatusChanged",
         "onVoiceNoteReceived",
         "onWebRTCSignal"
@@ -335,13 +356,17 @@ public interface ChatCallback extends com.zeroc.Ice.Object
             }
             case 11:
             {
-                return _iceD_onUserStatusChanged(this, in, current);
+                return _iceD_onNewMessages(this, in, current);
             }
             case 12:
             {
-                return _iceD_onVoiceNoteReceived(this, in, current);
+                return _iceD_onUserStatusChanged(this, in, current);
             }
             case 13:
+            {
+                return _iceD_onVoiceNoteReceived(this, in, current);
+            }
+            case 14:
             {
                 return _iceD_onWebRTCSignal(this, in, current);
             }
@@ -53,6 +53,42 @@ public interface ChatCallbackPrx extends com.zeroc.Ice.ObjectPrx
         return f;
     }
 
+    default void onNewMessages(Message[] messages)
+    {
+        onNewMessages(messages, com.zeroc.Ice.ObjectPrx.noExplicitContext);
+    }
+
+    default void onNewMessages(Message[] messages, java.util.Map<String, String> context)
+    {
+        _iceI_onNewMessagesAsync(messages, context, true).waitForResponse();
+    }
+
+    default java.util.concurrent.CompletableFuture<Void> onNewMessagesAsync(Message[] messages)
+    {
+        return _iceI_onNewMessagesAsync(messages, com.zeroc.Ice.ObjectPrx.noExplicitContext, false);
+    }
+
+    default java.util.concurrent.CompletableFuture<Void> onNewMessagesAsync(Message[] messages, java.util.Map<String, String> context)
+    {
+        return _iceI_onNewMessagesAsync(messages, context, false);
+    }
+
+    /**
+     * @hidden
+     * @param iceP_messages -
+     * @param context -
+     * @param sync -
+     * @return -
+     **/
+    default com.zeroc.IceInternal.OutgoingAsync<Void> _iceI_onNewMessagesAsync(Message[] iceP_messages, java.util.Map<String, String> context, boolean sync)
+    {
+        com.zeroc.IceInternal.OutgoingAsync<Void> f = new com.zeroc.IceInternal.OutgoingAsync<>(this, "onNewMessages", null, sync, null);
+        f.invoke(false, context, null, ostr -> {
+                     MessageSeqHelper.write(ostr, iceP_messages);
+                 }, null);
+        return f;
+    }
+
     default void onUserStatusChanged(User user)
     {
         onUserStatusChanged(user, com.zeroc.Ice.ObjectPrx.noExplicitContext);
@@ -29,8 +29,12 @@ public interface ChatService extends com.zeroc.Ice.Object
 
     Response sendMessageToGroup(String from, String groupName, String content, com.zeroc.Ice.Current current);
 
+    Response[] sendMessages(Message[] messages, com.zeroc.Ice.Current current);
+
     Message[] getPendingMessages(String username, com.zeroc.Ice.Current current);
 
+    void ackMessages(String username, long upToId, com.zeroc.Ice.Current current);
+
     Response createGroup(String groupName, String creator, com.zeroc.Ice.Current current);
 
     Response addToGroup(String groupName, String username, com.zeroc.Ice.Current current);
@@ -43,6 +47,14 @@ public interface ChatService extends com.zeroc.Ice.Object
 
     String[] getHistory(String username, com.zeroc.Ice.Current current);
 
+    String[] getHistoryPage(String username, int offset, int limit, com.zeroc.Ice.Current current);
+
+    String[] searchMessages(String username, String query, int limit, com.zeroc.Ice.Current current);
+
+    ConversationSummary[] getConversationSummaries(String username, com.zeroc.Ice.Current current);
+
+    void markConversationRead(String username, String conversation, boolean isGroup, com.zeroc.Ice.Current current);
+
     Response sendVoiceNoteToUser(String from, String to, byte[] audioData, com.zeroc.Ice.Current current);
 
     Response sendVoiceNoteToGroup(String from, String groupName, byte[] audioData, com.zeroc.Ice.Current current);
@@ -213,6 +225,27 @@ public interface ChatService extends com.zeroc.Ice.Object
         return inS.setResult(ostr);
     }
 
+    /**
+     * @hidden
+     * @param obj -
+     * @param inS -
+     * @param current -
+     * @return -
+    **/
+    static java.util.concurrent.CompletionStage<com.zeroc.Ice.OutputStream> _iceD_sendMessages(ChatService obj, final com.zeroc.IceInternal.Incoming inS, com.zeroc.Ice.Current current)
+    {
+        com.zeroc.Ice.Object._iceCheckMode(null, current.mode);
+        com.zeroc.Ice.InputStream istr = inS.startReadParams();
+        Message[] iceP_messages;
+        iceP_messages = MessageSeqHelper.read(istr);
+        inS.endReadParams();
+        Response[] ret = obj.sendMessages(iceP_messages, current);
+        com.zeroc.Ice.OutputStream ostr = inS.startWriteParams();
+        ResponseSeqHelper.write(ostr, ret);
+        inS.endWriteParams(ostr);
+        return inS.setResult(ostr);
+    }
+
     /**
      * @hidden
      * @param obj -
@@ -234,6 +267,26 @@ public interface ChatService extends com.zeroc.Ice.Object
         return inS.setResult(ostr);
     }
 
+    /**
+     * @hidden
+     * @param obj -
+     * @param inS -
+     * @param current -
+     * @return -
+    **/
+    static java.util.concurrent.CompletionStage<com.zeroc.Ice.OutputStream> _iceD_ackMessages(ChatService obj, final com.zeroc.IceInternal.Incoming inS, com.zeroc.Ice.Current current)
+    {
+        com.zeroc.Ice.Object._iceCheckMode(null, current.mode);
+        com.zeroc.Ice.InputStream istr = inS.startReadParams();
+        String iceP_username;
+        long iceP_upToId;
+        iceP_username = istr.readString();
+        iceP_upToId = istr.readLong();
+        inS.endReadParams();
+        obj.ackMessages(iceP_username, iceP_upToId, current);
+        return inS.setResult(inS.writeEmptyParams());
+    }
+
     /**
      * @hidden
      * @param obj -
@@ -361,6 +414,99 @@ public interface ChatService extends com.zeroc.Ice.Object
         return inS.setResult(ostr);
     }
 
+    /**
+     * @hidden
+     * @param obj -
+     * @param inS -
+     * @param current -
+     * @return -
+    **/
+    static java.util.concurrent.CompletionStage<com.zeroc.Ice.OutputStream> _iceD_getHistoryPage(ChatService obj, final com.zeroc.IceInternal.Incoming inS, com.zeroc.Ice.Current current)
+    {
+        com.zeroc.Ice.Object._iceCheckMode(null, current.mode);
+        com.zeroc.Ice.InputStream istr = inS.startReadParams();
+        String iceP_username;
+        int iceP_offset;
+        int iceP_limit;
+        iceP_username = istr.readString();
+        iceP_offset = istr.readInt();
+        iceP_limit = istr.readInt();
+        inS.endReadParams();
+        String[] ret = obj.getHistoryPage(iceP_username, iceP_offset, iceP_limit, current);
+        com.zeroc.Ice.OutputStream ostr = inS.startWriteParams();
+        ostr.writeStringSeq(ret);
+        inS.endWriteParams(ostr);
+        return inS.setResult(ostr);
+    }
+
+    /**
+     * @hidden
+     * @param obj -
+     * @param inS -
+     * @param current -
+     * @return -
+    **/
+    static java.util.concurrent.CompletionStage<com.zeroc.Ice.OutputStream> _iceD_searchMessages(ChatService obj, final com.zeroc.IceInternal.Incoming inS, com.zeroc.Ice.Current current)
+    {
+        com.zeroc.Ice.Object._iceCheckMode(null, current.mode);
+        com.zeroc.Ice.InputStream istr = inS.startReadParams();
+        String iceP_username;
+        String iceP_query;
+        int iceP_limit;
+        iceP_username = istr.readString();
+        iceP_query = istr.readString();
+        iceP_limit = istr.readInt();
+        inS.endReadParams();
+        String[] ret = obj.searchMessages(iceP_username, iceP_query, iceP_limit, current);
+        com.zeroc.Ice.OutputStream ostr = inS.startWriteParams();
+        ostr.writeStringSeq(ret);
+        inS.endWriteParams(ostr);
+        return inS.setResult(ostr);
+    }
+
+    /**
+     * @hidden
+     * @param obj -
+     * @param inS -
+     * @param current -
+     * @return -
+    **/
+    static java.util.concurrent.CompletionStage<com.zeroc.Ice.OutputStream> _iceD_getConversationSummaries(ChatService obj, final com.zeroc.IceInternal.Incoming inS, com.zeroc.Ice.Current current)
+    {
+        com.zeroc.Ice.Object._iceCheckMode(null, current.mode);
+        com.zeroc.Ice.InputStream istr = inS.startReadParams();
+        String iceP_username;
+        iceP_username = istr.readString();
+        inS.endReadParams();
+        ConversationSummary[] ret = obj.getConversationSummaries(iceP_username, current);
+        com.zeroc.Ice.OutputStream ostr = inS.startWriteParams();
+        ConversationSummarySeqHelper.write(ostr, ret);
+        inS.endWriteParams(ostr);
+        return inS.setResult(ostr);
+    }
+
+    /**
+     * @hidden
+     * @param obj -
+     * @param inS -
+     * @param current -
+     * @return -
+    **/
+    static java.util.concurrent.CompletionStage<com.zeroc.Ice.OutputStream> _iceD_markConversationRead(ChatService obj, final com.zeroc.IceInternal.Incoming inS, com.zeroc.Ice.Current current)
+    {
+        com.zeroc.Ice.Object._iceCheckMode(null, current.mode);
+        com.zeroc.Ice.InputStream istr = inS.startReadParams();
+        String iceP_username;
+        String iceP_conversation;
+        boolean iceP_isGroup;
+        iceP_username = istr.readString();
+        iceP_conversation = istr.readString();
+        iceP_isGroup = istr.readBool();
+        inS.endReadParams();
+        obj.markConversationRead(iceP_username, iceP_conversation, iceP_isGroup, current);
+        return inS.setResult(inS.writeEmptyParams());
+    }
+
     /**
      * @hidden
      * @param obj -
@@ -561,13 +707,16 @@ public interface ChatService extends com.zeroc.Ice.Object
     final static String[] _iceOps =
     {
         "acceptCall",
+        "ackMessages",
         "addToGroup",
         "createGroup",
         "endCall",
         "getAllUsers",
+        "getConversationSummaries",
         "getGroupMembers",
         "getGroups",
         "getHistory",
+        "getHistoryPage",
         "getOnlineUsers",
         "getPendingMessages",
         "getUserGroups",
@@ -578,10 +727,13 @@ public interface ChatService extends com.zeroc.Ice.Object
         "initiateCall",
         "login",
         "logout",
+        "markConversationRead",
+        "searchMessages",
         "sendAudioChunk",
         "sendICECandidate",
         "sendMessageToGroup",
         "sendMessageToUser",
+        "sendMessages",
         "sendVoiceNoteToGroup",
         "sendVoiceNoteToUser",
         "sendWebRTCSignal"
@@ -606,97 +758,121 @@ public interface ChatService extends com.zeroc.Ice.Object
             }
             case 1:
             {
-                return _iceD_addToGroup(this, in, current);
+                return _iceD_ackMessages(this, in, current);
             }
             case 2:
             {
-                return _iceD_createGroup(this, in, current);
+                return _iceD_addToGroup(this, in, current);
             }
             case 3:
             {
-                return _iceD_endCall(this, in, current);
+                return _iceD_createGroup(this, in, current);
             }
             case 4:
             {
-                return _iceD_getAllUsers(this, in, current);
+                return _iceD_endCall(this, in, current);
             }
             case 5:
             {
-                return _iceD_getGroupMembers(this, in, current);
+                return _iceD_getAllUsers(this, in, current);
             }
             case 6:
             {
-                return _iceD_getGroups(this, in, current);
+                return _iceD_getConversationSummaries(this, in, current);
             }
             case 7:
             {
-                return _iceD_getHistory(this, in, current);
+                return _iceD_getGroupMembers(this, in, current);
             }
             case 8:
             {
-                return _iceD_getOnlineUsers(this, in, current);
+                return _iceD_getGroups(this, in, current);
             }
             case 9:
             {
-                return _iceD_getPendingMessages(this, in, current);
+                return _iceD_getHistory(this, in, current);
             }
             case 10:
             {
-                return _iceD_getUserGroups(this, in, current);
+                return _iceD_getHistoryPage(this, in, current);
             }
             case 11:
             {
-                return com.zeroc.Ice.Object._iceD_ice_id(this, in, current);
+                return _iceD_getOnlineUsers(this, in, current);
             }
             case 12:
             {
-                return com.zeroc.Ice.Object._iceD_ice_ids(this, in, current);
+                return _iceD_getPendingMessages(this, in, current);
             }
             case 13:
             {
-                return com.zeroc.Ice.Object._iceD_ice_isA(this, in, current);
+                return _iceD_getUserGroups(this, in, current);
             }
             case 14:
             {
-                return com.zeroc.Ice.Object._iceD_ice_ping(this, in, current);
+                return com.zeroc.Ice.Object._iceD_ice_id(this, in, current);
             }
             case 15:
             {
-                return _iceD_initiateCall(this, in, current);
+                return com.zeroc.Ice.Object._iceD_ice_ids(this, in, current);
             }
             case 16:
             {
-                return _iceD_login(this, in, current);
+                return com.zeroc.Ice.Object._iceD_ice_isA(this, in, current);
             }
             case 17:
             {
-                return _iceD_logout(this, in, current);
+                return com.zeroc.Ice.Object._iceD_ice_ping(this, in, current);
             }
             case 18:
             {
-                return _iceD_sendAudioChunk(this, in, current);
+                return _iceD_initiateCall(this, in, current);
             }
             case 19:
             {
-                return _iceD_sendICECandidate(this, in, current);
+                return _iceD_login(this, in, current);
             }
             case 20:
             {
-                return _iceD_sendMessageToGroup(this, in, current);
+                return _iceD_logout(this, in, current);
             }
             case 21:
             {
-                return _iceD_sendMessageToUser(this, in, current);
+                return _iceD_markConversationRead(this, in, current);
             }
             case 22:
             {
-                return _iceD_sendVoiceNoteToGroup(this, in, current);
+                return _iceD_searchMessages(this, in, current);
             }
             case 23:
             {
-                return _iceD_sendVoiceNoteToUser(this, in, current);
+                return _iceD_sendAudioChunk(this, in, current);
             }
             case 24:
+            {
+                return _iceD_sendICECandidate(this, in, current);
+            }
+            case 25:
+            {
+                return _iceD_sendMessageToGroup(this, in, current);
+            }
+            case 26:
+            {
+                return _iceD_sendMessageToUser(this, in, current);
+            }
+            case 27:
+            {
+                return _iceD_sendMessages(this, in, current);
+            }
+            case 28:
+            {
+                return _iceD_sendVoiceNoteToGroup(this, in, current);
+            }
+            case 29:
+            {
+                return _iceD_sendVoiceNoteToUser(this, in, current);
+            }
+            case 30:
             {
                 return _iceD_sendWebRTCSignal(this, in, current);
             }
@@ -261,6 +261,46 @@ public interface ChatServicePrx extends com.zeroc.Ice.ObjectPrx
         return f;
     }
 
+    default Response[] sendMessages(Message[] messages)
+    {
+        return sendMessages(messages, com.zeroc.Ice.ObjectPrx.noExplicitContext);
+    }
+
+    default Response[] sendMessages(Message[] messages, java.util.Map<String, String> context)
+    {
+        return _iceI_sendMessagesAsync(messages, context, true).waitForResponse();
+    }
+
+    default java.util.concurrent.CompletableFuture<Response[]> sendMessagesAsync(Message[] messages)
+    {
+        return _iceI_sendMessagesAsync(messages, com.zeroc.Ice.ObjectPrx.noExplicitContext, false);
+    }
+
+    default java.util.concurrent.CompletableFuture<Response[]> sendMessagesAsync(Message[] messages, java.util.Map<String, String> context)
+    {
+        return _iceI_sendMessagesAsync(messages, context, false);
+    }
+
+    /**
+     * @hidden
+     * @param iceP_messages -
+     * @param context -
+     * @param sync -
+     * @return -
+     **/
+    default com.zeroc.IceInternal.OutgoingAsync<Response[]> _iceI_sendMessagesAsync(Message[] iceP_messages, java.util.Map<String, String> context, boolean sync)
+    {
+        com.zeroc.IceInternal.OutgoingAsync<Response[]> f = new com.zeroc.IceInternal.OutgoingAsync<>(this, "sendMessages", null, sync, null);
+        f.invoke(true, context, null, ostr -> {
+                     MessageSeqHelper.write(ostr, iceP_messages);
+                 }, istr -> {
+                     Response[] ret;
+                     ret = ResponseSeqHelper.read(istr);
+                     return ret;
+                 });
+        return f;
+    }
+
     default Message[] getPendingMessages(String username)
     {
         return getPendingMessages(username, com.zeroc.Ice.ObjectPrx.noExplicitContext);
@@ -301,6 +341,44 @@ public interface ChatServicePrx extends com.zeroc.Ice.ObjectPrx
         return f;
     }
 
+    default void ackMessages(String username, long upToId)
+    {
+        ackMessages(username, upToId, com.zeroc.Ice.ObjectPrx.noExplicitContext);
+    }
+
+    default void ackMessages(String username, long upToId, java.util.Map<String, String> context)
+    {
+        _iceI_ackMessagesAsync(username, upToId, context, true).waitForResponse();
+    }
+
+    default java.util.concurrent.CompletableFuture<Void> ackMessagesAsync(String username, long upToId)
+    {
+        return _iceI_ackMessagesAsync(username, upToId, com.zeroc.Ice.ObjectPrx.noExplicitContext, false);
+    }
+
+    default java.util.concurrent.CompletableFuture<Void> ackMessagesAsync(String username, long upToId, java.util.Map<String, String> context)
+    {
+        return _iceI_ackMessagesAsync(username, upToId, context, false);
+    }
+
+    /**
+     * @hidden
+     * @param iceP_username -
+     * @param iceP_upToId -
+     * @param context -
+     * @param sync -
+     * @return -
+     **/
+    default com.zeroc.IceInternal.OutgoingAsync<Void> _iceI_ackMessagesAsync(String iceP_username, long iceP_upToId, java.util.Map<String, String> context, boolean sync)
+    {
+        com.zeroc.IceInternal.OutgoingAsync<Void> f = new com.zeroc.IceInternal.OutgoingAsync<>(this, "ackMessages", null, sync, null);
+        f.invoke(false, context, null, ostr -> {
+                     ostr.writeString(iceP_username);
+                     ostr.writeLong(iceP_upToId);
+                 }, null);
+        return f;
+    }
+
     default Response createGroup(String groupName, String creator)
     {
         return createGroup(groupName, creator, com.zeroc.Ice.ObjectPrx.noExplicitContext);
@@ -542,6 +620,174 @@ public interface ChatServicePrx extends com.zeroc.Ice.ObjectPrx
         return f;
     }
 
+    default String[] getHistoryPage(String username, int offset, int limit)
+    {
+        return getHistoryPage(username, offset, limit, com.zeroc.Ice.ObjectPrx.noExplicitContext);
+    }
+
+    default String[] getHistoryPage(String username, int offset, int limit, java.util.Map<String, String> context)
+    {
+        return _iceI_getHistoryPageAsync(username, offset, limit, context, true).waitForResponse();
+    }
+
+    default java.util.concurrent.CompletableFuture<String[]> getHistoryPageAsync(String username, int offset, int limit)
+    {
+        return _iceI_getHistoryPageAsync(username, offset, limit, com.zeroc.Ice.ObjectPrx.noExplicitContext, false);
+    }
+
+    default java.util.concurrent.CompletableFuture<String[]> getHistoryPageAsync(String username, int offset, int limit, java.util.Map<String, String> context)
+    {
+        return _iceI_getHistoryPageAsync(username, offset, limit, context, false);
+    }
+
+    /**
+     * @hidden
+     * @param iceP_username -
+     * @param iceP_offset -
+     * @param iceP_limit -
+     * @param context -
+     * @param sync -
+     * @return -
+     **/
+    default com.zeroc.IceInternal.OutgoingAsync<String[]> _iceI_getHistoryPageAsync(String iceP_username, int iceP_offset, int iceP_limit, java.util.Map<String, String> context, boolean sync)
+    {
+        com.zeroc.IceInternal.OutgoingAsync<String[]> f = new com.zeroc.IceInternal.OutgoingAsync<>(this, "getHistoryPage", null, sync, null);
+        f.invoke(true, context, null, ostr -> {
+                     ostr.writeString(iceP_username);
+                     ostr.writeInt(iceP_offset);
+                     ostr.writeInt(iceP_limit);
+                 }, istr -> {
+                     String[] ret;
+                     ret = istr.readStringSeq();
+                     return ret;
+                 });
+        return f;
+    }
+
+    default String[] searchMessages(String username, String query, int limit)
+    {
+        return searchMessages(username, query, limit, com.zeroc.Ice.ObjectPrx.noExplicitContext);
+    }
+
+    default String[] searchMessages(String username, String query, int limit, java.util.Map<String, String> context)
+    {
+        return _iceI_searchMessagesAsync(username, query, limit, context, true).waitForResponse();
+    }
+
+    default java.util.concurrent.CompletableFuture<String[]> searchMessagesAsync(String username, String query, int limit)
+    {
+        return _iceI_searchMessagesAsync(username, query, limit, com.zeroc.Ice.ObjectPrx.noExplicitContext, false);
+    }
+
+    default java.util.concurrent.CompletableFuture<String[]> searchMessagesAsync(String username, String query, int limit, java.util.Map<String, String> context)
+    {
+        return _iceI_searchMessagesAsync(username, query, limit, context, false);
+    }
+
+    /**
+     * @hidden
+     * @param iceP_username -
+     * @param iceP_query -
+     * @param iceP_limit -
+     * @param context -
+     * @param sync -
+     * @return -
+     **/
+    default com.zeroc.IceInternal.OutgoingAsync<String[]> _iceI_searchMessagesAsync(String iceP_username, String iceP_query, int iceP_limit, java.util.Map<String, String> context, boolean sync)
+    {
+        com.zeroc.IceInternal.OutgoingAsync<String[]> f = new com.zeroc.IceInternal.OutgoingAsync<>(this, "searchMessages", null, sync, null);
+        f.invoke(true, context, null, ostr -> {
+                     ostr.writeString(iceP_username);
+                     ostr.writeString(iceP_query);
+                     ostr.writeInt(iceP_limit);
+                 }, istr -> {
+                     String[] ret;
+                     ret = istr.readStringSeq();
+                     return ret;
+                 });
+        return f;
+    }
+
+    default ConversationSummary[] getConversationSummaries(String username)
+    {
+        return getConversationSummaries(username, com.zeroc.Ice.ObjectPrx.noExplicitContext);
+    }
+
+    default ConversationSummary[] getConversationSummaries(String username, java.util.Map<String, String> context)
+    {
+        return _iceI_getConversationSummariesAsync(username, context, true).waitForResponse();
+    }
+
+    default java.util.concurrent.CompletableFuture<ConversationSummary[]> getConversationSummariesAsync(String username)
+    {
+        return _iceI_getConversationSummariesAsync(username, com.zeroc.Ice.ObjectPrx.noExplicitContext, false);
+    }
+
+    default java.util.concurrent.CompletableFuture<ConversationSummary[]> getConversationSummariesAsync(String username, java.util.Map<String, String> context)
+    {
+        return _iceI_getConversationSummariesAsync(username, context, false);
+    }
+
+    /**
+     * @hidden
+     * @param iceP_username -
+     * @param context -
+     * @param sync -
+     * @return -
+     **/
+    default com.zeroc.IceInternal.OutgoingAsync<ConversationSummary[]> _iceI_getConversationSummariesAsync(String iceP_username, java.util.Map<String, String> context, boolean sync)
+    {
+        com.zeroc.IceInternal.OutgoingAsync<ConversationSummary[]> f = new com.zeroc.IceInternal.OutgoingAsync<>(this, "getConversationSummaries", null, sync, null);
+        f.invoke(true, context, null, ostr -> {
+                     ostr.writeString(iceP_username);
+                 }, istr -> {
+                     ConversationSummary[] ret;
+                     ret = ConversationSummarySeqHelper.read(istr);
+                     return ret;
+                 });
+        return f;
+    }
+
+    default void markConversationRead(String username, String conversation, boolean isGroup)
+    {
+        markConversationRead(username, conversation, isGroup, com.zeroc.Ice.ObjectPrx.noExplicitContext);
+    }
+
+    default void markConversationRead(String username, String conversation, boolean isGroup, java.util.Map<String, String> context)
+    {
+        _iceI_markConversationReadAsync(username, conversation, isGroup, context, true).waitForResponse();
+    }
+
+    default java.util.concurrent.CompletableFuture<Void> markConversationReadAsync(String username, String conversation, boolean isGroup)
+    {
+        return _iceI_markConversationReadAsync(username, conversation, isGroup, com.zeroc.Ice.ObjectPrx.noExplicitContext, false);
+    }
+
+    default java.util.concurrent.CompletableFuture<Void> markConversationReadAsync(String username, String conversation, boolean isGroup, java.util.Map<String, String> context)
+    {
+        return _iceI_markConversationReadAsync(username, conversation, isGroup, context, false);
+    }
+
+    /**
+     * @hidden
+     * @param iceP_username -
+     * @param iceP_conversation -
+     * @param iceP_isGroup -
+     * @param context -
+     * @param sync -
+     * @return -
+     **/
+    default com.zeroc.IceInternal.OutgoingAsync<Void> _iceI_markConversationReadAsync(String iceP_username, String iceP_conversation, boolean iceP_isGroup, java.util.Map<String, String> context, boolean sync)
+    {
+        com.zeroc.IceInternal.OutgoingAsync<Void> f = new com.zeroc.IceInternal.OutgoingAsync<>(this, "markConversationRead", null, sync, null);
+        f.invoke(false, context, null, ostr -> {
+                     ostr.writeString(iceP_username);
+                     ostr.writeString(iceP_conversation);
+                     ostr.writeBool(iceP_isGroup);
+                 }, null);
+        return f;
+    }
+
     default Response sendVoiceNoteToUser(String from, String to, byte[] audioData)
     {
         return sendVoiceNoteToUser(from, to, audioData, com.zeroc.Ice.ObjectPrx.noExplicitContext);
@@ -0,0 +1,215 @@
+//
+// Copyright (c) ZeroC, Inc. All rights reserved.
+//
+//
+// Ice version 3.7.10
+//
+// <auto-generated>
+//
+// Generated from file `Chat.ice'
+//
+// Warning: do not edit this file.
+//
+// </auto-generated>
+//
+
+package Chat;
+
+public class ConversationSummary implements java.lang.Cloneable,
+                                            java.io.Serializable
+{
+    public String conversation;
+
+    public boolean isGroup;
+
+    public long lastId;
+
+    public long timestamp;
+
+    public String from;
+
+    public String preview;
+
+    public int unread;
+
+    public ConversationSummary()
+    {
+        this.conversation = "";
+        this.from = "";
+        this.preview = "";
+    }
+
+    public ConversationSummary(String conversation, boolean isGroup, long lastId, long timestamp, String from, String preview, int unread)
+    {
+        this.conversation = conversation;
+        this.isGroup = isGroup;
+        this.lastId = lastId;
+        this.timestamp = timestamp;
+        this.from = from;
+        this.preview = preview;
+        this.unread = unread;
+    }
+
+    public boolean equals(java.lang.Object rhs)
+    {
+        if(this == rhs)
+        {
+            return true;
+        }
+        ConversationSummary r = null;
+        if(rhs instanceof ConversationSummary)
+        {
+            r = (ConversationSummary)rhs;
+        }
+
+        if(r != null)
+        {
+            if(this.conversation != r.conversation)
+            {
+                if(this.conversation == null || r.conversation == null || !this.conversation.equals(r.conversation))
+                {
+                    return false;
+                }
+            }
+            if(this.isGroup != r.isGroup)
+            {
+                return false;
+            }
+            if(this.lastId != r.lastId)
+            {
+                return false;
+            }
+            if(this.timestamp != r.timestamp)
+            {
+                return false;
+            }
+            if(this.from != r.from)
+            {
+                if(this.from == null || r.from == null || !this.from.equals(r.from))
+                {
+                    return false;
+                }
+            }
+            if(this.preview != r.preview)
+            {
+                if(this.preview == null || r.preview == null || !this.preview.equals(r.preview))
+                {
+                    return false;
+                }
+            }
+            if(this.unread != r.unread)
+            {
+                return false;
+            }
+
+            return true;
+        }
+
+        return false;
+    }
+
+    public int hashCode()
+    {
+        int h_ = 5381;
+        h_ = com.zeroc.IceInternal.HashUtil.hashAdd(h_, "::Chat::ConversationSummary");
+        h_ = com.zeroc.IceInternal.HashUtil.hashAdd(h_, conversation);
+        h_ = com.zeroc.IceInternal.HashUtil.hashAdd(h_, isGroup);
+        h_ = com.zeroc.IceInternal.HashUtil.hashAdd(h_, lastId);
+        h_ = com.zeroc.IceInternal.HashUtil.hashAdd(h_, timestamp);
+        h_ = com.zeroc.IceInternal.HashUtil.hashAdd(h_, from);
+        h_ = com.zeroc.IceInternal.HashUtil.hashAdd(h_, preview);
+        h_ = com.zeroc.IceInternal.HashUtil.hashAdd(h_, unread);
+        return h_;
+    }
+
+    public ConversationSummary clone()
+    {
+        ConversationSummary c = null;
+        try
+        {
+            c = (ConversationSummary)super.clone();
+        }
+        catch(CloneNotSupportedException ex)
+        {
+            assert false; // impossible
+        }
+        return c;
+    }
+
+    public void ice_writeMembers(com.zeroc.Ice.OutputStream ostr)
+    {
+        ostr.writeString(this.conversation);
+        ostr.writeBool(this.isGroup);
+        ostr.writeLong(this.lastId);
+        ostr.writeLong(this.timestamp);
+        ostr.writeString(this.from);
+        ostr.writeString(this.preview);
+        ostr.writeInt(this.unread);
+    }
+
+    public void ice_readMembers(com.zeroc.Ice.InputStream istr)
+    {
+        this.conversation = istr.readString();
+        this.isGroup = istr.readBool();
+        this.lastId = istr.readLong();
+        this.timestamp = istr.readLong();
+        this.from = istr.readString();
+        this.preview = istr.readString();
+        this.unread = istr.readInt();
+    }
+
+    static public void ice_write(com.zeroc.Ice.OutputStream ostr, ConversationSummary v)
+    {
+        if(v == null)
+        {
+            _nullMarshalValue.ice_writeMembers(ostr);
+        }
+        else
+        {
+            v.ice_writeMembers(ostr);
+        }
+    }
+
+    static public ConversationSummary ice_read(com.zeroc.Ice.InputStream istr)
+    {
+        ConversationSummary v = new ConversationSummary();
+        v.ice_readMembers(istr);
+        return v;
+    }
+
+    static public void ice_write(com.zeroc.Ice.OutputStream ostr, int tag, java.util.Optional<ConversationSummary> v)
+    {
+        if(v != null && v.isPresent())
+        {
+            ice_write(ostr, tag, v.get());
+        }
+    }
+
+    static public void ice_write(com.zeroc.Ice.OutputStream ostr, int tag, ConversationSummary v)
+    {
+        if(ostr.writeOptional(tag, com.zeroc.Ice.OptionalFormat.FSize))
+        {
+            int pos = ostr.startSize();
+            ice_write(ostr, v);
+            ostr.endSize(pos);
+        }
+    }
+
+    static public java.util.Optional<ConversationSummary> ice_read(com.zeroc.Ice.InputStream istr, int tag)
+    {
+        if(istr.readOptional(tag, com.zeroc.Ice.OptionalFormat.FSize))
+        {
+            istr.skip(4);
+            return java.util.Optional.of(ConversationSummary.ice_read(istr));
+        }
+        else
+        {
+            return java.util.Optional.empty();
+        }
+    }
+
+    private static final ConversationSummary _nullMarshalValue = new ConversationSummary();
+
+    /** @hidden */
+    public static final long serialVersionUID = -2915474362081750214L;
+}
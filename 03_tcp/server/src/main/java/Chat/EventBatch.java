@@ -0,0 +1,167 @@
+//
+// Copyright (c) ZeroC, Inc. All rights reserved.
+//
+//
+// Ice version 3.7.10
+//
+// <auto-generated>
+//
+// Generated from file `Cluster.ice'
+//
+// Warning: do not edit this file.
+//
+// </auto-generated>
+//
+
+package Chat;
+
+public class EventBatch implements java.lang.Cloneable,
+                                   java.io.Serializable
+{
+    public String sourceNode;
+
+    public Subscription[] subscriptions;
+
+    public PushEvent[] events;
+
+    public EventBatch()
+    {
+        this.sourceNode = "";
+    }
+
+    public EventBatch(String sourceNode, Subscription[] subscriptions, PushEvent[] events)
+    {
+        this.sourceNode = sourceNode;
+        this.subscriptions = subscriptions;
+        this.events = events;
+    }
+
+    public boolean equals(java.lang.Object rhs)
+    {
+        if(this == rhs)
+        {
+            return true;
+        }
+        EventBatch r = null;
+        if(rhs instanceof EventBatch)
+        {
+            r = (EventBatch)rhs;
+        }
+
+        if(r != null)
+        {
+            if(this.sourceNode != r.sourceNode)
+            {
+                if(this.sourceNode == null || r.sourceNode == null || !this.sourceNode.equals(r.sourceNode))
+                {
+                    return false;
+                }
+            }
+            if(!java.util.Arrays.equals(this.subscriptions, r.subscriptions))
+            {
+                return false;
+            }
+            if(!java.util.Arrays.equals(this.events, r.events))
+            {
+                return false;
+            }
+
+            return true;
+        }
+
+        return false;
+    }
+
+    public int hashCode()
+    {
+        int h_ = 5381;
+        h_ = com.zeroc.IceInternal.HashUtil.hashAdd(h_, "::Chat::EventBatch");
+        h_ = com.zeroc.IceInternal.HashUtil.hashAdd(h_, sourceNode);
+        h_ = com.zeroc.IceInternal.HashUtil.hashAdd(h_, subscriptions);
+        h_ = com.zeroc.IceInternal.HashUtil.hashAdd(h_, events);
+        return h_;
+    }
+
+    public EventBatch clone()
+    {
+        EventBatch c = null;
+        try
+        {
+            c = (EventBatch)super.clone();
+        }
+        catch(CloneNotSupportedException ex)
+        {
+            assert false; // impossible
+        }
+        return c;
+    }
+
+    public void ice_writeMembers(com.zeroc.Ice.OutputStream ostr)
+    {
+        ostr.writeString(this.sourceNode);
+        SubscriptionSeqHelper.write(ostr, this.subscriptions);
+        PushEventSeqHelper.write(ostr, this.events);
+    }
+
+    public void ice_readMembers(com.zeroc.Ice.InputStream istr)
+    {
+        this.sourceNode = istr.readString();
+        this.subscriptions = SubscriptionSeqHelper.read(istr);
+        this.events = PushEventSeqHelper.read(istr);
+    }
+
+    static public void ice_write(com.zeroc.Ice.OutputStream ostr, EventBatch v)
+    {
+        if(v == null)
+        {
+            _nullMarshalValue.ice_writeMembers(ostr);
+        }
+        else
+        {
+            v.ice_writeMembers(ostr);
+        }
+    }
+
+    static public EventBatch ice_read(com.zeroc.Ice.InputStream istr)
+    {
+        EventBatch v = new EventBatch();
+        v.ice_readMembers(istr);
+        return v;
+    }
+
+    static public void ice_write(com.zeroc.Ice.OutputStream ostr, int tag, java.util.Optional<EventBatch> v)
+    {
+        if(v != null && v.isPresent())
+        {
+            ice_write(ostr, tag, v.get());
+        }
+    }
+
+    static public void ice_write(com.zeroc.Ice.OutputStream ostr, int tag, EventBatch v)
+    {
+        if(ostr.writeOptional(tag, com.zeroc.Ice.OptionalFormat.FSize))
+        {
+            int pos = ostr.startSize();
+            ice_write(ostr, v);
+            ostr.endSize(pos);
+        }
+    }
+
+    static public java.util.Optional<EventBatch> ice_read(com.zeroc.Ice.InputStream istr, int tag)
+    {
+        if(istr.readOptional(tag, com.zeroc.Ice.OptionalFormat.FSize))
+        {
+            istr.skip(4);
+            return java.util.Optional.of(EventBatch.ice_read(istr));
+        }
+        else
+        {
+            return java.util.Optional.empty();
+        }
+    }
+
+    private static final EventBatch _nullMarshalValue = new EventBatch();
+
+    /** @hidden */
+    public static final long serialVersionUID = -7740519350129874641L;
+}
@@ -0,0 +1,153 @@
+//
+// Copyright (c) ZeroC, Inc. All rights reserved.
+//
+//
+// Ice version 3.7.10
+//
+// <auto-generated>
+//
+// Generated from file `Cluster.ice'
+//
+// Warning: do not edit this file.
+//
+// </auto-generated>
+//
+
+package Chat;
+
+public class LogChunk implements java.lang.Cloneable,
+                                 java.io.Serializable
+{
+    public LogEntry[] entries;
+
+    public long lastSeq;
+
+    public LogChunk()
+    {
+    }
+
+    public LogChunk(LogEntry[] entries, long lastSeq)
+    {
+        this.entries = entries;
+        this.lastSeq = lastSeq;
+    }
+
+    public boolean equals(java.lang.Object rhs)
+    {
+        if(this == rhs)
+        {
+            return true;
+        }
+        LogChunk r = null;
+        if(rhs instanceof LogChunk)
+        {
+            r = (LogChunk)rhs;
+        }
+
+        if(r != null)
+        {
+            if(!java.util.Arrays.equals(this.entries, r.entries))
+            {
+                return false;
+            }
+            if(this.lastSeq != r.lastSeq)
+            {
+                return false;
+            }
+
+            return true;
+        }
+
+        return false;
+    }
+
+    public int hashCode()
+    {
+        int h_ = 5381;
+        h_ = com.zeroc.IceInternal.HashUtil.hashAdd(h_, "::Chat::LogChunk");
+        h_ = com.zeroc.IceInternal.HashUtil.hashAdd(h_, entries);
+        h_ = com.zeroc.IceInternal.HashUtil.hashAdd(h_, lastSeq);
+        return h_;
+    }
+
+    public LogChunk clone()
+    {
+        LogChunk c = null;
+        try
+        {
+            c = (LogChunk)super.clone();
+        }
+        catch(CloneNotSupportedException ex)
+        {
+            assert false; // impossible
+        }
+        return c;
+    }
+
+    public void ice_writeMembers(com.zeroc.Ice.OutputStream ostr)
+    {
+        LogEntrySeqHelper.write(ostr, this.entries);
+        ostr.writeLong(this.lastSeq);
+    }
+
+    public void ice_readMembers(com.zeroc.Ice.InputStream istr)
+    {
+        this.entries = LogEntrySeqHelper.read(istr);
+        this.lastSeq = istr.readLong();
+    }
+
+    static public void ice_write(com.zeroc.Ice.OutputStream ostr, LogChunk v)
+    {
+        if(v == null)
+        {
+            _nullMarshalValue.ice_writeMembers(ostr);
+        }
+        else
+        {
+            v.ice_writeMembers(ostr);
+        }
+    }
+
+    static public LogChunk ice_read(com.zeroc.Ice.InputStream istr)
+    {
+        LogChunk v = new LogChunk();
+        v.ice_readMembers(istr);
+        return v;
+    }
+
+    static public void ice_write(com.zeroc.Ice.OutputStream ostr, int tag, java.util.Optional<LogChunk> v)
+    {
+        if(v != null && v.isPresent())
+        {
+            ice_write(ostr, tag, v.get());
+        }
+    }
+
+    static public void ice_write(com.zeroc.Ice.OutputStream ostr, int tag, LogChunk v)
+    {
+        if(ostr.writeOptional(tag, com.zeroc.Ice.OptionalFormat.FSize))
+        {
+            int pos = ostr.startSize();
+            ice_write(ostr, v);
+            ostr.endSize(pos);
+        }
+    }
+
+    static public java.util.Optional<LogChunk> ice_read(com.zeroc.Ice.InputStream istr, int tag)
+    {
+        if(istr.readOptional(tag, com.zeroc.Ice.OptionalFormat.FSize))
+        {
+            istr.skip(4);
+            return java.util.Optional.of(LogChunk.ice_read(istr));
+        }
+        else
+        {
+            return java.util.Optional.empty();
+        }
+    }
+
+    private static final LogChunk _nullMarshalValue = new LogChunk();
+
+    /** @hidden */
+    public static final long serialVersionUID = -4621086357830960418L;
+}
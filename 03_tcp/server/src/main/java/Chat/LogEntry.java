@@ -0,0 +1,205 @@
+//
+// Copyright (c) ZeroC, Inc. All rights reserved.
+//
+//
+// Ice version 3.7.10
+//
+// <auto-generated>
+//
+// Generated from file `Cluster.ice'
+//
+// Warning: do not edit this file.
+//
+// </auto-generated>
+//
+
+package Chat;
+
+public class LogEntry implements java.lang.Cloneable,
+                                 java.io.Serializable
+{
+    public long seq;
+
+    public long timestamp;
+
+    public String kind;
+
+    public String name;
+
+    public String payload;
+
+    public byte[] data;
+
+    public LogEntry()
+    {
+        this.kind = "";
+        this.name = "";
+        this.payload = "";
+    }
+
+    public LogEntry(long seq, long timestamp, String kind, String name, String payload, byte[] data)
+    {
+        this.seq = seq;
+        this.timestamp = timestamp;
+        this.kind = kind;
+        this.name = name;
+        this.payload = payload;
+        this.data = data;
+    }
+
+    public boolean equals(java.lang.Object rhs)
+    {
+        if(this == rhs)
+        {
+            return true;
+        }
+        LogEntry r = null;
+        if(rhs instanceof LogEntry)
+        {
+            r = (LogEntry)rhs;
+        }
+
+        if(r != null)
+        {
+            if(this.seq != r.seq)
+            {
+                return false;
+            }
+            if(this.timestamp != r.timestamp)
+            {
+                return false;
+            }
+            if(this.kind != r.kind)
+            {
+                if(this.kind == null || r.kind == null || !this.kind.equals(r.kind))
+                {
+                    return false;
+                }
+            }
+            if(this.name != r.name)
+            {
+                if(this.name == null || r.name == null || !this.name.equals(r.name))
+                {
+                    return false;
+                }
+            }
+            if(this.payload != r.payload)
+            {
+                if(this.payload == null || r.payload == null || !this.payload.equals(r.payload))
+                {
+                    return false;
+                }
+            }
+            if(!java.util.Arrays.equals(this.data, r.data))
+            {
+                return false;
+            }
+
+            return true;
+        }
+
+        return false;
+    }
+
+    public int hashCode()
+    {
+        int h_ = 5381;
+        h_ = com.zeroc.IceInternal.HashUtil.hashAdd(h_, "::Chat::LogEntry");
+        h_ = com.zeroc.IceInternal.HashUtil.hashAdd(h_, seq);
+        h_ = com.zeroc.IceInternal.HashUtil.hashAdd(h_, timestamp);
+        h_ = com.zeroc.IceInternal.HashUtil.hashAdd(h_, kind);
+        h_ = com.zeroc.IceInternal.HashUtil.hashAdd(h_, name);
+        h_ = com.zeroc.IceInternal.HashUtil.hashAdd(h_, payload);
+        h_ = com.zeroc.IceInternal.HashUtil.hashAdd(h_, data);
+        return h_;
+    }
+
+    public LogEntry clone()
+    {
+        LogEntry c = null;
+        try
+        {
+            c = (LogEntry)super.clone();
+        }
+        catch(CloneNotSupportedException ex)
+        {
+            assert false; // impossible
+        }
+        return c;
+    }
+
+    public void ice_writeMembers(com.zeroc.Ice.OutputStream ostr)
+    {
+        ostr.writeLong(this.seq);
+        ostr.writeLong(this.timestamp);
+        ostr.writeString(this.kind);
+        ostr.writeString(this.name);
+        ostr.writeString(this.payload);
+        ostr.writeByteSeq(this.data);
+    }
+
+    public void ice_readMembers(com.zeroc.Ice.InputStream istr)
+    {
+        this.seq = istr.readLong();
+        this.timestamp = istr.readLong();
+        this.kind = istr.readString();
+        this.name = istr.readString();
+        this.payload = istr.readString();
+        this.data = istr.readByteSeq();
+    }
+
+    static public void ice_write(com.zeroc.Ice.OutputStream ostr, LogEntry v)
+    {
+        if(v == null)
+        {
+            _nullMarshalValue.ice_writeMembers(ostr);
+        }
+        else
+        {
+            v.ice_writeMembers(ostr);
+        }
+    }
+
+    static public LogEntry ice_read(com.zeroc.Ice.InputStream istr)
+    {
+        LogEntry v = new LogEntry();
+        v.ice_readMembers(istr);
+        return v;
+    }
+
+    static public void ice_write(com.zeroc.Ice.OutputStream ostr, int tag, java.util.Optional<LogEntry> v)
+    {
+        if(v != null && v.isPresent())
+        {
+            ice_write(ostr, tag, v.get());
+        }
+    }
+
+    static public void ice_write(com.zeroc.Ice.OutputStream ostr, int tag, LogEntry v)
+    {
+        if(ostr.writeOptional(tag, com.zeroc.Ice.OptionalFormat.FSize))
+        {
+            int pos = ostr.startSize();
+            ice_write(ostr, v);
+            ostr.endSize(pos);
+        }
+    }
+
+    static public java.util.Optional<LogEntry> ice_read(com.zeroc.Ice.InputStream istr, int tag)
+    {
+        if(istr.readOptional(tag, com.zeroc.Ice.OptionalFormat.FSize))
+        {
+            istr.skip(4);
+            return java.util.Optional.of(LogEntry.ice_read(istr));
+        }
+        else
+        {
+            return java.util.Optional.empty();
+        }
+    }
+
+    private static final LogEntry _nullMarshalValue = new LogEntry();
+
+    /** @hidden */
+    public static final long serialVersionUID = 3316846907241519873L;
+}
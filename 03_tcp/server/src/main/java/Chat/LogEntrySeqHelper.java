@@ -0,0 +1,83 @@
+//
+// Copyright (c) ZeroC, Inc. All rights reserved.
+//
+//
+// Ice version 3.7.10
+//
+// <auto-generated>
+//
+// Generated from file `Cluster.ice'
+//
+// Warning: do not edit this file.
+//
+// </auto-generated>
+//
+
+package Chat;
+
+/**
+ * Helper class for marshaling/unmarshaling LogEntrySeq.
+ **/
+public final class LogEntrySeqHelper
+{
+    public static void write(com.zeroc.Ice.OutputStream ostr, LogEntry[] v)
+    {
+        if(v == null)
+        {
+            ostr.writeSize(0);
+        }
+        else
+        {
+            ostr.writeSize(v.length);
+            for(int i0 = 0; i0 < v.length; i0++)
+            {
+                LogEntry.ice_write(ostr, v[i0]);
+            }
+        }
+    }
+
+    public static LogEntry[] read(com.zeroc.Ice.InputStream istr)
+    {
+        final LogEntry[] v;
+        final int len0 = istr.readAndCheckSeqSize(20);
+        v = new LogEntry[len0];
+        for(int i0 = 0; i0 < len0; i0++)
+        {
+            v[i0] = LogEntry.ice_read(istr);
+        }
+        return v;
+    }
+
+    public static void write(com.zeroc.Ice.OutputStream ostr, int tag, java.util.Optional<LogEntry[]> v)
+    {
+        if(v != null && v.isPresent())
+        {
+            write(ostr, tag, v.get());
+        }
+    }
+
+    public static void write(com.zeroc.Ice.OutputStream ostr, int tag, LogEntry[] v)
+    {
+        if(ostr.writeOptional(tag, com.zeroc.Ice.OptionalFormat.FSize))
+        {
+            int pos = ostr.startSize();
+            LogEntrySeqHelper.write(ostr, v);
+            ostr.endSize(pos);
+        }
+    }
+
+    public static java.util.Optional<LogEntry[]> read(com.zeroc.Ice.InputStream istr, int tag)
+    {
+        if(istr.readOptional(tag, com.zeroc.Ice.OptionalFormat.FSize))
+        {
+            istr.skip(4);
+            LogEntry[] v;
+            v = LogEntrySeqHelper.read(istr);
+            return java.util.Optional.of(v);
+        }
+        else
+        {
+            return java.util.Optional.empty();
+        }
+    }
+}
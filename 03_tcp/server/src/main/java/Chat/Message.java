@@ -28,6 +28,8 @@ public class Message implements java.lang.Cloneable,
 
     public boolean isGroup;
 
+    public long id;
+
     public Message()
     {
         this.from = "";
@@ -35,13 +37,14 @@ public class Message implements java.lang.Cloneable,
         this.content = "";
     }
 
-    public Message(String from, String to, String content, long timestamp, boolean isGroup)
+    public Message(String from, String to, String content, long timestamp, boolean isGroup, long id)
     {
         this.from = from;
         this.to = to;
         this.content = content;
         this.timestamp = timestamp;
         this.isGroup = isGroup;
+        this.id = id;
     }
 
     public boolean equals(java.lang.Object rhs)
@@ -87,6 +90,10 @@ public class Message implements java.lang.Cloneable,
             {
                 return false;
             }
+            if(this.id != r.id)
+            {
+                return false;
+            }
 
             return true;
         }
@@ -103,6 +110,7 @@ public class Message implements java.lang.Cloneable,
         h_ = com.zeroc.IceInternal.HashUtil.hashAdd(h_, content);
         h_ = com.zeroc.IceInternal.HashUtil.hashAdd(h_, timestamp);
         h_ = com.zeroc.IceInternal.HashUtil.hashAdd(h_, isGroup);
+        h_ = com.zeroc.IceInternal.HashUtil.hashAdd(h_, id);
         return h_;
     }
 
@@ -127,6 +135,7 @@ public class Message implements java.lang.Cloneable,
         ostr.writeString(this.content);
         ostr.writeLong(this.timestamp);
         ostr.writeBool(this.isGroup);
+        ostr.writeLong(this.id);
     }
 
     public void ice_readMembers(com.zeroc.Ice.InputStream istr)
@@ -136,6 +145,7 @@ public class Message implements java.lang.Cloneable,
         this.content = istr.readString();
         this.timestamp = istr.readLong();
         this.isGroup = istr.readBool();
+        this.id = istr.readLong();
     }
 
     static public void ice_write(com.zeroc.Ice.OutputStream ostr, Message v)
@@ -191,5 +201,5 @@ public class Message implements java.lang.Cloneable,
     private static final Message _nullMarshalValue = new Message();
 
     /** @hidden */
-    public static final long serialVersionUID = -1613508490L;
+    public static final long serialVersionUID = 8113094250263468102L;
 }
@@ -39,7 +39,7 @@ public final class MessageSeqHelper
     public static Message[] read(com.zeroc.Ice.InputStream istr)
     {
         final Message[] v;
-        final int len0 = istr.readAndCheckSeqSize(12);
+        final int len0 = istr.readAndCheckSeqSize(20);
         v = new Message[len0];
         for(int i0 = 0; i0 < len0; i0++)
         {
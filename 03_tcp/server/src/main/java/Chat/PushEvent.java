@@ -0,0 +1,247 @@
+//
+// Copyright (c) ZeroC, Inc. All rights reserved.
+//
+//
+// Ice version 3.7.10
+//
+// <auto-generated>
+//
+// Generated from file `Cluster.ice'
+//
+// Warning: do not edit this file.
+//
+// </auto-generated>
+//
+
+package Chat;
+
+public class PushEvent implements java.lang.Cloneable,
+                                  java.io.Serializable
+{
+    public String[] recipients;
+
+    public String kind;
+
+    public Message msg;
+
+    public String from;
+
+    public String to;
+
+    public String text;
+
+    public String data;
+
+    public byte[] audio;
+
+    public boolean isGroup;
+
+    public PushEvent()
+    {
+        this.kind = "";
+        this.msg = new Message();
+        this.from = "";
+        this.to = "";
+        this.text = "";
+        this.data = "";
+    }
+
+    public PushEvent(String[] recipients, String kind, Message msg, String from, String to, String text, String data, byte[] audio, boolean isGroup)
+    {
+        this.recipients = recipients;
+        this.kind = kind;
+        this.msg = msg;
+        this.from = from;
+        this.to = to;
+        this.text = text;
+        this.data = data;
+        this.audio = audio;
+        this.isGroup = isGroup;
+    }
+
+    public boolean equals(java.lang.Object rhs)
+    {
+        if(this == rhs)
+        {
+            return true;
+        }
+        PushEvent r = null;
+        if(rhs instanceof PushEvent)
+        {
+            r = (PushEvent)rhs;
+        }
+
+        if(r != null)
+        {
+            if(!java.util.Arrays.equals(this.recipients, r.recipients))
+            {
+                return false;
+            }
+            if(this.kind != r.kind)
+            {
+                if(this.kind == null || r.kind == null || !this.kind.equals(r.kind))
+                {
+                    return false;
+                }
+            }
+            if(this.msg != r.msg)
+            {
+                if(this.msg == null || r.msg == null || !this.msg.equals(r.msg))
+                {
+                    return false;
+                }
+            }
+            if(this.from != r.from)
+            {
+                if(this.from == null || r.from == null || !this.from.equals(r.from))
+                {
+                    return false;
+                }
+            }
+            if(this.to != r.to)
+            {
+                if(this.to == null || r.to == null || !this.to.equals(r.to))
+                {
+                    return false;
+                }
+            }
+            if(this.text != r.text)
+            {
+                if(this.text == null || r.text == null || !this.text.equals(r.text))
+                {
+                    return false;
+                }
+            }
+            if(this.data != r.data)
+            {
+                if(this.data == null || r.data == null || !this.data.equals(r.data))
+                {
+                    return false;
+                }
+            }
+            if(!java.util.Arrays.equals(this.audio, r.audio))
+            {
+                return false;
+            }
+            if(this.isGroup != r.isGroup)
+            {
+                return false;
+            }
+
+            return true;
+        }
+
+        return false;
+    }
+
+    public int hashCode()
+    {
+        int h_ = 5381;
+        h_ = com.zeroc.IceInternal.HashUtil.hashAdd(h_, "::Chat::PushEvent");
+        h_ = com.zeroc.IceInternal.HashUtil.hashAdd(h_, recipients);
+        h_ = com.zeroc.IceInternal.HashUtil.hashAdd(h_, kind);
+        h_ = com.zeroc.IceInternal.HashUtil.hashAdd(h_, msg);
+        h_ = com.zeroc.IceInternal.HashUtil.hashAdd(h_, from);
+        h_ = com.zeroc.IceInternal.HashUtil.hashAdd(h_, to);
+        h_ = com.zeroc.IceInternal.HashUtil.hashAdd(h_, text);
+        h_ = com.zeroc.IceInternal.HashUtil.hashAdd(h_, data);
+        h_ = com.zeroc.IceInternal.HashUtil.hashAdd(h_, audio);
+        h_ = com.zeroc.IceInternal.HashUtil.hashAdd(h_, isGroup);
+        return h_;
+    }
+
+    public PushEvent clone()
+    {
+        PushEvent c = null;
+        try
+        {
+            c = (PushEvent)super.clone();
+        }
+        catch(CloneNotSupportedException ex)
+        {
+            assert false; // impossible
+        }
+        return c;
+    }
+
+    public void ice_writeMembers(com.zeroc.Ice.OutputStream ostr)
+    {
+        ostr.writeStringSeq(this.recipients);
+        ostr.writeString(this.kind);
+        Message.ice_write(ostr, this.msg);
+        ostr.writeString(this.from);
+        ostr.writeString(this.to);
+        ostr.writeString(this.text);
+        ostr.writeString(this.data);
+        ostr.writeByteSeq(this.audio);
+        ostr.writeBool(this.isGroup);
+    }
+
+    public void ice_readMembers(com.zeroc.Ice.InputStream istr)
+    {
+        this.recipients = istr.readStringSeq();
+        this.kind = istr.readString();
+        this.msg = Message.ice_read(istr);
+        this.from = istr.readString();
+        this.to = istr.readString();
+        this.text = istr.readString();
+        this.data = istr.readString();
+        this.audio = istr.readByteSeq();
+        this.isGroup = istr.readBool();
+    }
+
+    static public void ice_write(com.zeroc.Ice.OutputStream ostr, PushEvent v)
+    {
+        if(v == null)
+        {
+            _nullMarshalValue.ice_writeMembers(ostr);
+        }
+        else
+        {
+            v.ice_writeMembers(ostr);
+        }
+    }
+
+    static public PushEvent ice_read(com.zeroc.Ice.InputStream istr)
+    {
+        PushEvent v = new PushEvent();
+        v.ice_readMembers(istr);
+        return v;
+    }
+
+    static public void ice_write(com.zeroc.Ice.OutputStream ostr, int tag, java.util.Optional<PushEvent> v)
+    {
+        if(v != null && v.isPresent())
+        {
+            ice_write(ostr, tag, v.get());
+        }
+    }
+
+    static public void ice_write(com.zeroc.Ice.OutputStream ostr, int tag, PushEvent v)
+    {
+        if(ostr.writeOptional(tag, com.zeroc.Ice.OptionalFormat.FSize))
+        {
+            int pos = ostr.startSize();
+            ice_write(ostr, v);
+            ostr.endSize(pos);
+        }
+    }
+
+    static public java.util.Optional<PushEvent> ice_read(com.zeroc.Ice.InputStream istr, int tag)
+    {
+        if(istr.readOptional(tag, com.zeroc.Ice.OptionalFormat.FSize))
+        {
+            istr.skip(4);
+            return java.util.Optional.of(PushEvent.ice_read(istr));
+        }
+        else
+        {
+            return java.util.Optional.empty();
+        }
+    }
+
+    private static final PushEvent _nullMarshalValue = new PushEvent();
+
+    /** @hidden */
+    public static final long serialVersionUID = -1893271804365023122L;
+}
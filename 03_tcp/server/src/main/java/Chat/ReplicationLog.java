@@ -0,0 +1,167 @@
+//
+// Copyright (c) ZeroC, Inc. All rights reserved.
+//
+//
+// Ice version 3.7.10
+//
+// <auto-generated>
+//
+// Generated from file `Cluster.ice'
+//
+// Warning: do not edit this file.
+//
+// </auto-generated>
+//
+
+package Chat;
+
+public interface ReplicationLog extends com.zeroc.Ice.Object
+{
+    LogChunk fetch(long fromSeq, int maxEntries, com.zeroc.Ice.Current current);
+
+    ReplicationStatus getStatus(com.zeroc.Ice.Current current);
+
+    boolean promote(com.zeroc.Ice.Current current);
+
+    /** @hidden */
+    static final String[] _iceIds =
+    {
+        "::Chat::ReplicationLog",
+        "::Ice::Object"
+    };
+
+    @Override
+    default String[] ice_ids(com.zeroc.Ice.Current current)
+    {
+        return _iceIds;
+    }
+
+    @Override
+    default String ice_id(com.zeroc.Ice.Current current)
+    {
+        return ice_staticId();
+    }
+
+    static String ice_staticId()
+    {
+        return "::Chat::ReplicationLog";
+    }
+
+    /**
+     * @hidden
+     * @param obj -
+     * @param inS -
+     * @param current -
+     * @return -
+    **/
+    static java.util.concurrent.CompletionStage<com.zeroc.Ice.OutputStream> _iceD_fetch(ReplicationLog obj, final com.zeroc.IceInternal.Incoming inS, com.zeroc.Ice.Current current)
+    {
+        com.zeroc.Ice.Object._iceCheckMode(null, current.mode);
+        com.zeroc.Ice.InputStream istr = inS.startReadParams();
+        long iceP_fromSeq;
+        int iceP_maxEntries;
+        iceP_fromSeq = istr.readLong();
+        iceP_maxEntries = istr.readInt();
+        inS.endReadParams();
+        LogChunk ret = obj.fetch(iceP_fromSeq, iceP_maxEntries, current);
+        com.zeroc.Ice.OutputStream ostr = inS.startWriteParams();
+        LogChunk.ice_write(ostr, ret);
+        inS.endWriteParams(ostr);
+        return inS.setResult(ostr);
+    }
+
+    /**
+     * @hidden
+     * @param obj -
+     * @param inS -
+     * @param current -
+     * @return -
+    **/
+    static java.util.concurrent.CompletionStage<com.zeroc.Ice.OutputStream> _iceD_getStatus(ReplicationLog obj, final com.zeroc.IceInternal.Incoming inS, com.zeroc.Ice.Current current)
+    {
+        com.zeroc.Ice.Object._iceCheckMode(null, current.mode);
+        inS.readEmptyParams();
+        ReplicationStatus ret = obj.getStatus(current);
+        com.zeroc.Ice.OutputStream ostr = inS.startWriteParams();
+        ReplicationStatus.ice_write(ostr, ret);
+        inS.endWriteParams(ostr);
+        return inS.setResult(ostr);
+    }
+
+    /**
+     * @hidden
+     * @param obj -
+     * @param inS -
+     * @param current -
+     * @return -
+    **/
+    static java.util.concurrent.CompletionStage<com.zeroc.Ice.OutputStream> _iceD_promote(ReplicationLog obj, final com.zeroc.IceInternal.Incoming inS, com.zeroc.Ice.Current current)
+    {
+        com.zeroc.Ice.Object._iceCheckMode(null, current.mode);
+        inS.readEmptyParams();
+        boolean ret = obj.promote(current);
+        com.zeroc.Ice.OutputStream ostr = inS.startWriteParams();
+        ostr.writeBool(ret);
+        inS.endWriteParams(ostr);
+        return inS.setResult(ostr);
+    }
+
+    /** @hidden */
+    final static String[] _iceOps =
+    {
+        "fetch",
+        "getStatus",
+        "ice_id",
+        "ice_ids",
+        "ice_isA",
+        "ice_ping",
+        "promote"
+    };
+
+    /** @hidden */
+    @Override
+    default java.util.concurrent.CompletionStage<com.zeroc.Ice.OutputStream> _iceDispatch(com.zeroc.IceInternal.Incoming in, com.zeroc.Ice.Current current)
+        throws com.zeroc.Ice.UserException
+    {
+        int pos = java.util.Arrays.binarySearch(_iceOps, current.operation);
+        if(pos < 0)
+        {
+            throw new com.zeroc.Ice.OperationNotExistException(current.id, current.facet, current.operation);
+        }
+
+        switch(pos)
+        {
+            case 0:
+            {
+                return _iceD_fetch(this, in, current);
+            }
+            case 1:
+            {
+                return _iceD_getStatus(this, in, current);
+            }
+            case 2:
+            {
+                return com.zeroc.Ice.Object._iceD_ice_id(this, in, current);
+            }
+            case 3:
+            {
+                return com.zeroc.Ice.Object._iceD_ice_ids(this, in, current);
+            }
+            case 4:
+            {
+                return com.zeroc.Ice.Object._iceD_ice_isA(this, in, current);
+            }
+            case 5:
+            {
+                return com.zeroc.Ice.Object._iceD_ice_ping(this, in, current);
+            }
+            case 6:
+            {
+                return _iceD_promote(this, in, current);
+            }
+        }
+
+        assert(false);
+        throw new com.zeroc.Ice.OperationNotExistException(current.id, current.facet, current.operation);
+    }
+}
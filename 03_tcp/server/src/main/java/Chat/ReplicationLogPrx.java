@@ -0,0 +1,450 @@
+//
+// Copyright (c) ZeroC, Inc. All rights reserved.
+//
+//
+// Ice version 3.7.10
+//
+// <auto-generated>
+//
+// Generated from file `Cluster.ice'
+//
+// Warning: do not edit this file.
+//
+// </auto-generated>
+//
+
+package Chat;
+
+public interface ReplicationLogPrx extends com.zeroc.Ice.ObjectPrx
+{
+    default LogChunk fetch(long fromSeq, int maxEntries)
+    {
+        return fetch(fromSeq, maxEntries, com.zeroc.Ice.ObjectPrx.noExplicitContext);
+    }
+
+    default LogChunk fetch(long fromSeq, int maxEntries, java.util.Map<String, String> context)
+    {
+        return _iceI_fetchAsync(fromSeq, maxEntries, context, true).waitForResponse();
+    }
+
+    default java.util.concurrent.CompletableFuture<LogChunk> fetchAsync(long fromSeq, int maxEntries)
+    {
+        return _iceI_fetchAsync(fromSeq, maxEntries, com.zeroc.Ice.ObjectPrx.noExplicitContext, false);
+    }
+
+    default java.util.concurrent.CompletableFuture<LogChunk> fetchAsync(long fromSeq, int maxEntries, java.util.Map<String, String> context)
+    {
+        return _iceI_fetchAsync(fromSeq, maxEntries, context, false);
+    }
+
+    /**
+     * @hidden
+     * @param iceP_fromSeq -
+     * @param iceP_maxEntries -
+     * @param context -
+     * @param sync -
+     * @return -
+     **/
+    default com.zeroc.IceInternal.OutgoingAsync<LogChunk> _iceI_fetchAsync(long iceP_fromSeq, int iceP_maxEntries, java.util.Map<String, String> context, boolean sync)
+    {
+        com.zeroc.IceInternal.OutgoingAsync<LogChunk> f = new com.zeroc.IceInternal.OutgoingAsync<>(this, "fetch", null, sync, null);
+        f.invoke(true, context, null, ostr -> {
+                     ostr.writeLong(iceP_fromSeq);
+                     ostr.writeInt(iceP_maxEntries);
+                 }, istr -> {
+                     LogChunk ret;
+                     ret = LogChunk.ice_read(istr);
+                     return ret;
+                 });
+        return f;
+    }
+
+    default ReplicationStatus getStatus()
+    {
+        return getStatus(com.zeroc.Ice.ObjectPrx.noExplicitContext);
+    }
+
+    default ReplicationStatus getStatus(java.util.Map<String, String> context)
+    {
+        return _iceI_getStatusAsync(context, true).waitForResponse();
+    }
+
+    default java.util.concurrent.CompletableFuture<ReplicationStatus> getStatusAsync()
+    {
+        return _iceI_getStatusAsync(com.zeroc.Ice.ObjectPrx.noExplicitContext, false);
+    }
+
+    default java.util.concurrent.CompletableFuture<ReplicationStatus> getStatusAsync(java.util.Map<String, String> context)
+    {
+        return _iceI_getStatusAsync(context, false);
+    }
+
+    /**
+     * @hidden
+     * @param context -
+     * @param sync -
+     * @return -
+     **/
+    default com.zeroc.IceInternal.OutgoingAsync<ReplicationStatus> _iceI_getStatusAsync(java.util.Map<String, String> context, boolean sync)
+    {
+        com.zeroc.IceInternal.OutgoingAsync<ReplicationStatus> f = new com.zeroc.IceInternal.OutgoingAsync<>(this, "getStatus", null, sync, null);
+        f.invoke(true, context, null, null, istr -> {
+                     ReplicationStatus ret;
+                     ret = ReplicationStatus.ice_read(istr);
+                     return ret;
+                 });
+        return f;
+    }
+
+    default boolean promote()
+    {
+        return promote(com.zeroc.Ice.ObjectPrx.noExplicitContext);
+    }
+
+    default boolean promote(java.util.Map<String, String> context)
+    {
+        return _iceI_promoteAsync(context, true).waitForResponse();
+    }
+
+    default java.util.concurrent.CompletableFuture<java.lang.Boolean> promoteAsync()
+    {
+        return _iceI_promoteAsync(com.zeroc.Ice.ObjectPrx.noExplicitContext, false);
+    }
+
+    default java.util.concurrent.CompletableFuture<java.lang.Boolean> promoteAsync(java.util.Map<String, String> context)
+    {
+        return _iceI_promoteAsync(context, false);
+    }
+
+    /**
+     * @hidden
+     * @param context -
+     * @param sync -
+     * @return -
+     **/
+    default com.zeroc.IceInternal.OutgoingAsync<java.lang.Boolean> _iceI_promoteAsync(java.util.Map<String, String> context, boolean sync)
+    {
+        com.zeroc.IceInternal.OutgoingAsync<java.lang.Boolean> f = new com.zeroc.IceInternal.OutgoingAsync<>(this, "promote", null, sync, null);
+        f.invoke(true, context, null, null, istr -> {
+                     boolean ret;
+                     ret = istr.readBool();
+                     return ret;
+                 });
+        return f;
+    }
+
+    /**
+     * Contacts the remote server to verify that the object implements this type.
+     * Raises a local exception if a communication error occurs.
+     * @param obj The untyped proxy.
+     * @return A proxy for this type, or null if the object does not support this type.
+     **/
+    static ReplicationLogPrx checkedCast(com.zeroc.Ice.ObjectPrx obj)
+    {
+        return com.zeroc.Ice.ObjectPrx._checkedCast(obj, ice_staticId(), ReplicationLogPrx.class, _ReplicationLogPrxI.class);
+    }
+
+    /**
+     * Contacts the remote server to verify that the object implements this type.
+     * Raises a local exception if a communication error occurs.
+     * @param obj The untyped proxy.
+     * @param context The Context map to send with the invocation.
+     * @return A proxy for this type, or null if the object does not support this type.
+     **/
+    static ReplicationLogPrx checkedCast(com.zeroc.Ice.ObjectPrx obj, java.util.Map<String, String> context)
+    {
+        return com.zeroc.Ice.ObjectPrx._checkedCast(obj, context, ice_staticId(), ReplicationLogPrx.class, _ReplicationLogPrxI.class);
+    }
+
+    /**
+     * Contacts the remote server to verify that a facet of the object implements this type.
+     * Raises a local exception if a communication error occurs.
+     * @param obj The untyped proxy.
+     * @param facet The name of the desired facet.
+     * @return A proxy for this type, or null if the object does not support this type.
+     **/
+    static ReplicationLogPrx checkedCast(com.zeroc.Ice.ObjectPrx obj, String facet)
+    {
+        return com.zeroc.Ice.ObjectPrx._checkedCast(obj, facet, ice_staticId(), ReplicationLogPrx.class, _ReplicationLogPrxI.class);
+    }
+
+    /**
+     * Contacts the remote server to verify that a facet of the object implements this type.
+     * Raises a local exception if a communication error occurs.
+     * @param obj The untyped proxy.
+     * @param facet The name of the desired facet.
+     * @param context The Context map to send with the invocation.
+     * @return A proxy for this type, or null if the object does not support this type.
+     **/
+    static ReplicationLogPrx checkedCast(com.zeroc.Ice.ObjectPrx obj, String facet, java.util.Map<String, String> context)
+    {
+        return com.zeroc.Ice.ObjectPrx._checkedCast(obj, facet, context, ice_staticId(), ReplicationLogPrx.class, _ReplicationLogPrxI.class);
+    }
+
+    /**
+     * Downcasts the given proxy to this type without contacting the remote server.
+     * @param obj The untyped proxy.
+     * @return A proxy for this type.
+     **/
+    static ReplicationLogPrx uncheckedCast(com.zeroc.Ice.ObjectPrx obj)
+    {
+        return com.zeroc.Ice.ObjectPrx._uncheckedCast(obj, ReplicationLogPrx.class, _ReplicationLogPrxI.class);
+    }
+
+    /**
+     * Downcasts the given proxy to this type without contacting the remote server.
+     * @param obj The untyped proxy.
+     * @param facet The name of the desired facet.
+     * @return A proxy for this type.
+     **/
+    static ReplicationLogPrx uncheckedCast(com.zeroc.Ice.ObjectPrx obj, String facet)
+    {
+        return com.zeroc.Ice.ObjectPrx._uncheckedCast(obj, facet, ReplicationLogPrx.class, _ReplicationLogPrxI.class);
+    }
+
+    /**
+     * Returns a proxy that is identical to this proxy, except for the per-proxy context.
+     * @param newContext The context for the new proxy.
+     * @return A proxy with the specified per-proxy context.
+     **/
+    @Override
+    default ReplicationLogPrx ice_context(java.util.Map<String, String> newContext)
+    {
+        return (ReplicationLogPrx)_ice_context(newContext);
+    }
+
+    /**
+     * Returns a proxy that is identical to this proxy, except for the adapter ID.
+     * @param newAdapterId The adapter ID for the new proxy.
+     * @return A proxy with the specified adapter ID.
+     **/
+    @Override
+    default ReplicationLogPrx ice_adapterId(String newAdapterId)
+    {
+        return (ReplicationLogPrx)_ice_adapterId(newAdapterId);
+    }
+
+    /**
+     * Returns a proxy that is identical to this proxy, except for the endpoints.
+     * @param newEndpoints The endpoints for the new proxy.
+     * @return A proxy with the specified endpoints.
+     **/
+    @Override
+    default ReplicationLogPrx ice_endpoints(com.zeroc.Ice.Endpoint[] newEndpoints)
+    {
+        return (ReplicationLogPrx)_ice_endpoints(newEndpoints);
+    }
+
+    /**
+     * Returns a proxy that is identical to this proxy, except for the locator cache timeout.
+     * @param newTimeout The new locator cache timeout (in seconds).
+     * @return A proxy with the specified locator cache timeout.
+     **/
+    @Override
+    default ReplicationLogPrx ice_locatorCacheTimeout(int newTimeout)
+    {
+        return (ReplicationLogPrx)_ice_locatorCacheTimeout(newTimeout);
+    }
+
+    /**
+     * Returns a proxy that is identical to this proxy, except for the invocation timeout.
+     * @param newTimeout The new invocation timeout (in seconds).
+     * @return A proxy with the specified invocation timeout.
+     **/
+    @Override
+    default ReplicationLogPrx ice_invocationTimeout(int newTimeout)
+    {
+        return (ReplicationLogPrx)_ice_invocationTimeout(newTimeout);
+    }
+
+    /**
+     * Returns a proxy that is identical to this proxy, except for connection caching.
+     * @param newCache <code>true</code> if the new proxy should cache connections; <code>false</code> otherwise.
+     * @return A proxy with the specified caching policy.
+     **/
+    @Override
+    default ReplicationLogPrx ice_connectionCached(boolean newCache)
+    {
+        return (ReplicationLogPrx)_ice_connectionCached(newCache);
+    }
+
+    /**
+     * Returns a proxy that is identical to this proxy, except for the endpoint selection policy.
+     * @param newType The new endpoint selection policy.
+     * @return A proxy with the specified endpoint selection policy.
+     **/
+    @Override
+    default ReplicationLogPrx ice_endpointSelection(com.zeroc.Ice.EndpointSelectionType newType)
+    {
+        return (ReplicationLogPrx)_ice_endpointSelection(newType);
+    }
+
+    /**
+     * Returns a proxy that is identical to this proxy, except for how it selects endpoints.
+     * @param b If <code>b</code> is <code>true</code>, only endpoints that use a secure transport are
+     * used by the new proxy. If <code>b</code> is false, the returned proxy uses both secure and
+     * insecure endpoints.
+     * @return A proxy with the specified selection policy.
+     **/
+    @Override
+    default ReplicationLogPrx ice_secure(boolean b)
+    {
+        return (ReplicationLogPrx)_ice_secure(b);
+    }
+
+    /**
+     * Returns a proxy that is identical to this proxy, except for the encoding used to marshal parameters.
+     * @param e The encoding version to use to marshal request parameters.
+     * @return A proxy with the specified encoding version.
+     **/
+    @Override
+    default ReplicationLogPrx ice_encodingVersion(com.zeroc.Ice.EncodingVersion e)
+    {
+        return (ReplicationLogPrx)_ice_encodingVersion(e);
+    }
+
+    /**
+     * Returns a proxy that is identical to this proxy, except for its endpoint selection policy.
+     * @param b If <code>b</code> is <code>true</code>, the new proxy will use secure endpoints for invocations
+     * and only use insecure endpoints if an invocation cannot be made via secure endpoints. If <code>b</code> is
+     * <code>false</code>, the proxy prefers insecure endpoints to secure ones.
+     * @return A proxy with the specified selection policy.
+     **/
+    @Override
+    default ReplicationLogPrx ice_preferSecure(boolean b)
+    {
+        return (ReplicationLogPrx)_ice_preferSecure(b);
+    }
+
+    /**
+     * Returns a proxy that is identical to this proxy, except for the router.
+     * @param router The router for the new proxy.
+     * @return A proxy with the specified router.
+     **/
+    @Override
+    default ReplicationLogPrx ice_router(com.zeroc.Ice.RouterPrx router)
+    {
+        return (ReplicationLogPrx)_ice_router(router);
+    }
+
+    /**
+     * Returns a proxy that is identical to this proxy, except for the locator.
+     * @param locator The locator for the new proxy.
+     * @return A proxy with the specified locator.
+     **/
+    @Override
+    default ReplicationLogPrx ice_locator(com.zeroc.Ice.LocatorPrx locator)
+    {
+        return (ReplicationLogPrx)_ice_locator(locator);
+    }
+
+    /**
+     * Returns a proxy that is identical to this proxy, except for collocation optimization.
+     * @param b <code>true</code> if the new proxy enables collocation optimization; <code>false</code> otherwise.
+     * @return A proxy with the specified collocation optimization.
+     **/
+    @Override
+    default ReplicationLogPrx ice_collocationOptimized(boolean b)
+    {
+        return (ReplicationLogPrx)_ice_collocationOptimized(b);
+    }
+
+    /**
+     * Returns a proxy that is identical to this proxy, but uses twoway invocations.
+     * @return A proxy that uses twoway invocations.
+     **/
+    @Override
+    default ReplicationLogPrx ice_twoway()
+    {
+        return (ReplicationLogPrx)_ice_twoway();
+    }
+
+    /**
+     * Returns a proxy that is identical to this proxy, but uses oneway invocations.
+     * @return A proxy that uses oneway invocations.
+     **/
+    @Override
+    default ReplicationLogPrx ice_oneway()
+    {
+        return (ReplicationLogPrx)_ice_oneway();
+    }
+
+    /**
+     * Returns a proxy that is identical to this proxy, but uses batch oneway invocations.
+     * @return A proxy that uses batch oneway invocations.
+     **/
+    @Override
+    default ReplicationLogPrx ice_batchOneway()
+    {
+        return (ReplicationLogPrx)_ice_batchOneway();
+    }
+
+    /**
+     * Returns a proxy that is identical to this proxy, but uses datagram invocations.
+     * @return A proxy that uses datagram invocations.
+     **/
+    @Override
+    default ReplicationLogPrx ice_datagram()
+    {
+        return (ReplicationLogPrx)_ice_datagram();
+    }
+
+    /**
+     * Returns a proxy that is identical to this proxy, but uses batch datagram invocations.
+     * @return A proxy that uses batch datagram invocations.
+     **/
+    @Override
+    default ReplicationLogPrx ice_batchDatagram()
+    {
+        return (ReplicationLogPrx)_ice_batchDatagram();
+    }
+
+    /**
+     * Returns a proxy that is identical to this proxy, except for compression.
+     * @param co <code>true</code> enables compression for the new proxy; <code>false</code> disables compression.
+     * @return A proxy with the specified compression setting.
+     **/
+    @Override
+    default ReplicationLogPrx ice_compress(boolean co)
+    {
+        return (ReplicationLogPrx)_ice_compress(co);
+    }
+
+    /**
+     * Returns a proxy that is identical to this proxy, except for its connection timeout setting.
+     * @param t The connection timeout for the proxy in milliseconds.
+     * @return A proxy with the specified timeout.
+     **/
+    @Override
+    default ReplicationLogPrx ice_timeout(int t)
+    {
+        return (ReplicationLogPrx)_ice_timeout(t);
+    }
+
+    /**
+     * Returns a proxy that is identical to this proxy, except for its connection ID.
+     * @param connectionId The connection ID for the new proxy. An empty string removes the connection ID.
+     * @return A proxy with the specified connection ID.
+     **/
+    @Override
+    default ReplicationLogPrx ice_connectionId(String connectionId)
+    {
+        return (ReplicationLogPrx)_ice_connectionId(connectionId);
+    }
+
+    /**
+     * Returns a proxy that is identical to this proxy, except it's a fixed proxy bound
+     * the given connection.@param connection The fixed proxy connection.
+     * @return A fixed proxy bound to the given connection.
+     **/
+    @Override
+    default ReplicationLogPrx ice_fixed(com.zeroc.Ice.Connection connection)
+    {
+        return (ReplicationLogPrx)_ice_fixed(connection);
+    }
+
+    static String ice_staticId()
+    {
+        return "::Chat::ReplicationLog";
+    }
+}
@@ -0,0 +1,187 @@
+//
+// Copyright (c) ZeroC, Inc. All rights reserved.
+//
+//
+// Ice version 3.7.10
+//
+// <auto-generated>
+//
+// Generated from file `Cluster.ice'
+//
+// Warning: do not edit this file.
+//
+// </auto-generated>
+//
+
+package Chat;
+
+public class ReplicationStatus implements java.lang.Cloneable,
+                                          java.io.Serializable
+{
+    public String role;
+
+    public long lastSeq;
+
+    public long leaderSeq;
+
+    public long lagEntries;
+
+    public long lagMillis;
+
+    public ReplicationStatus()
+    {
+        this.role = "";
+    }
+
+    public ReplicationStatus(String role, long lastSeq, long leaderSeq, long lagEntries, long lagMillis)
+    {
+        this.role = role;
+        this.lastSeq = lastSeq;
+        this.leaderSeq = leaderSeq;
+        this.lagEntries = lagEntries;
+        this.lagMillis = lagMillis;
+    }
+
+    public boolean equals(java.lang.Object rhs)
+    {
+        if(this == rhs)
+        {
+            return true;
+        }
+        ReplicationStatus r = null;
+        if(rhs instanceof ReplicationStatus)
+        {
+            r = (ReplicationStatus)rhs;
+        }
+
+        if(r != null)
+        {
+            if(this.role != r.role)
+            {
+                if(this.role == null || r.role == null || !this.role.equals(r.role))
+                {
+                    return false;
+                }
+            }
+            if(this.lastSeq != r.lastSeq)
+            {
+                return false;
+            }
+            if(this.leaderSeq != r.leaderSeq)
+            {
+                return false;
+            }
+            if(this.lagEntries != r.lagEntries)
+            {
+                return false;
+            }
+            if(this.lagMillis != r.lagMillis)
+            {
+                return false;
+            }
+
+            return true;
+        }
+
+        return false;
+    }
+
+    public int hashCode()
+    {
+        int h_ = 5381;
+        h_ = com.zeroc.IceInternal.HashUtil.hashAdd(h_, "::Chat::ReplicationStatus");
+        h_ = com.zeroc.IceInternal.HashUtil.hashAdd(h_, role);
+        h_ = com.zeroc.IceInternal.HashUtil.hashAdd(h_, lastSeq);
+        h_ = com.zeroc.IceInternal.HashUtil.hashAdd(h_, leaderSeq);
+        h_ = com.zeroc.IceInternal.HashUtil.hashAdd(h_, lagEntries);
+        h_ = com.zeroc.IceInternal.HashUtil.hashAdd(h_, lagMillis);
+        return h_;
+    }
+
+    public ReplicationStatus clone()
+    {
+        ReplicationStatus c = null;
+        try
+        {
+            c = (ReplicationStatus)super.clone();
+        }
+        catch(CloneNotSupportedException ex)
+        {
+            assert false; // impossible
+        }
+        return c;
+    }
+
+    public void ice_writeMembers(com.zeroc.Ice.OutputStream ostr)
+    {
+        ostr.writeString(this.role);
+        ostr.writeLong(this.lastSeq);
+        ostr.writeLong(this.leaderSeq);
+        ostr.writeLong(this.lagEntries);
+        ostr.writeLong(this.lagMillis);
+    }
+
+    public void ice_readMembers(com.zeroc.Ice.InputStream istr)
+    {
+        this.role = istr.readString();
+        this.lastSeq = istr.readLong();
+        this.leaderSeq = istr.readLong();
+        this.lagEntries = istr.readLong();
+        this.lagMillis = istr.readLong();
+    }
+
+    static public void ice_write(com.zeroc.Ice.OutputStream ostr, ReplicationStatus v)
+    {
+        if(v == null)
+        {
+            _nullMarshalValue.ice_writeMembers(ostr);
+        }
+        else
+        {
+            v.ice_writeMembers(ostr);
+        }
+    }
+
+    static public ReplicationStatus ice_read(com.zeroc.Ice.InputStream istr)
+    {
+        ReplicationStatus v = new ReplicationStatus();
+        v.ice_readMembers(istr);
+        return v;
+    }
+
+    static public void ice_write(com.zeroc.Ice.OutputStream ostr, int tag, java.util.Optional<ReplicationStatus> v)
+    {
+        if(v != null && v.isPresent())
+        {
+            ice_write(ostr, tag, v.get());
+        }
+    }
+
+    static public void ice_write(com.zeroc.Ice.OutputStream ostr, int tag, ReplicationStatus v)
+    {
+        if(ostr.writeOptional(tag, com.zeroc.Ice.OptionalFormat.FSize))
+        {
+            int pos = ostr.startSize();
+            ice_write(ostr, v);
+            ostr.endSize(pos);
+        }
+    }
+
+    static public java.util.Optional<ReplicationStatus> ice_read(com.zeroc.Ice.InputStream istr, int tag)
+    {
+        if(istr.readOptional(tag, com.zeroc.Ice.OptionalFormat.FSize))
+        {
+            istr.skip(4);
+            return java.util.Optional.of(ReplicationStatus.ice_read(istr));
+        }
+        else
+        {
+            return java.util.Optional.empty();
+        }
+    }
+
+    private static final ReplicationStatus _nullMarshalValue = new ReplicationStatus();
+
+    /** @hidden */
+    public static final long serialVersionUID = 8824901452117605939L;
+}
@@ -0,0 +1,488 @@
+//
+// Copyright (c) ZeroC, Inc. All rights reserved.
+//
+//
+// Ice version 3.7.10
+//
+// <auto-generated>
+//
+// Generated from file `Cluster.ice'
+//
+// Warning: do not edit this file.
+//
+// </auto-generated>
+//
+
+package Chat;
+
+public interface ShardNodePrx extends com.zeroc.Ice.ObjectPrx
+{
+    default void deliverMessage(Message msg, String[] recipients)
+    {
+        deliverMessage(msg, recipients, com.zeroc.Ice.ObjectPrx.noExplicitContext);
+    }
+
+    default void deliverMessage(Message msg, String[] recipients, java.util.Map<String, String> context)
+    {
+        _iceI_deliverMessageAsync(msg, recipients, context, true).waitForResponse();
+    }
+
+    default java.util.concurrent.CompletableFuture<Void> deliverMessageAsync(Message msg, String[] recipients)
+    {
+        return _iceI_deliverMessageAsync(msg, recipients, com.zeroc.Ice.ObjectPrx.noExplicitContext, false);
+    }
+
+    default java.util.concurrent.CompletableFuture<Void> deliverMessageAsync(Message msg, String[] recipients, java.util.Map<String, String> context)
+    {
+        return _iceI_deliverMessageAsync(msg, recipients, context, false);
+    }
+
+    /**
+     * @hidden
+     * @param iceP_msg -
+     * @param iceP_recipients -
+     * @param context -
+     * @param sync -
+     * @return -
+     **/
+    default com.zeroc.IceInternal.OutgoingAsync<Void> _iceI_deliverMessageAsync(Message iceP_msg, String[] iceP_recipients, java.util.Map<String, String> context, boolean sync)
+    {
+        com.zeroc.IceInternal.OutgoingAsync<Void> f = new com.zeroc.IceInternal.OutgoingAsync<>(this, "deliverMessage", null, sync, null);
+        f.invoke(false, context, null, ostr -> {
+                     Message.ice_write(ostr, iceP_msg);
+                     ostr.writeStringSeq(iceP_recipients);
+                 }, null);
+        return f;
+    }
+
+    default int historySize(String username)
+    {
+        return historySize(username, com.zeroc.Ice.ObjectPrx.noExplicitContext);
+    }
+
+    default int historySize(String username, java.util.Map<String, String> context)
+    {
+        return _iceI_historySizeAsync(username, context, true).waitForResponse();
+    }
+
+    default java.util.concurrent.CompletableFuture<java.lang.Integer> historySizeAsync(String username)
+    {
+        return _iceI_historySizeAsync(username, com.zeroc.Ice.ObjectPrx.noExplicitContext, false);
+    }
+
+    default java.util.concurrent.CompletableFuture<java.lang.Integer> historySizeAsync(String username, java.util.Map<String, String> context)
+    {
+        return _iceI_historySizeAsync(username, context, false);
+    }
+
+    /**
+     * @hidden
+     * @param iceP_username -
+     * @param context -
+     * @param sync -
+     * @return -
+     **/
+    default com.zeroc.IceInternal.OutgoingAsync<java.lang.Integer> _iceI_historySizeAsync(String iceP_username, java.util.Map<String, String> context, boolean sync)
+    {
+        com.zeroc.IceInternal.OutgoingAsync<java.lang.Integer> f = new com.zeroc.IceInternal.OutgoingAsync<>(this, "historySize", null, sync, null);
+        f.invoke(true, context, null, ostr -> {
+                     ostr.writeString(iceP_username);
+                 }, istr -> {
+                     int ret;
+                     ret = istr.readInt();
+                     return ret;
+                 });
+        return f;
+    }
+
+    default void callChannel(String username, String nodeId, boolean joined)
+    {
+        callChannel(username, nodeId, joined, com.zeroc.Ice.ObjectPrx.noExplicitContext);
+    }
+
+    default void callChannel(String username, String nodeId, boolean joined, java.util.Map<String, String> context)
+    {
+        _iceI_callChannelAsync(username, nodeId, joined, context, true).waitForResponse();
+    }
+
+    default java.util.concurrent.CompletableFuture<Void> callChannelAsync(String username, String nodeId, boolean joined)
+    {
+        return _iceI_callChannelAsync(username, nodeId, joined, com.zeroc.Ice.ObjectPrx.noExplicitContext, false);
+    }
+
+    default java.util.concurrent.CompletableFuture<Void> callChannelAsync(String username, String nodeId, boolean joined, java.util.Map<String, String> context)
+    {
+        return _iceI_callChannelAsync(username, nodeId, joined, context, false);
+    }
+
+    /**
+     * @hidden
+     * @param iceP_username -
+     * @param iceP_nodeId -
+     * @param iceP_joined -
+     * @param context -
+     * @param sync -
+     * @return -
+     **/
+    default com.zeroc.IceInternal.OutgoingAsync<Void> _iceI_callChannelAsync(String iceP_username, String iceP_nodeId, boolean iceP_joined, java.util.Map<String, String> context, boolean sync)
+    {
+        com.zeroc.IceInternal.OutgoingAsync<Void> f = new com.zeroc.IceInternal.OutgoingAsync<>(this, "callChannel", null, sync, null);
+        f.invoke(false, context, null, ostr -> {
+                     ostr.writeString(iceP_username);
+                     ostr.writeString(iceP_nodeId);
+                     ostr.writeBool(iceP_joined);
+                 }, null);
+        return f;
+    }
+
+    default void registerUser(String username)
+    {
+        registerUser(username, com.zeroc.Ice.ObjectPrx.noExplicitContext);
+    }
+
+    default void registerUser(String username, java.util.Map<String, String> context)
+    {
+        _iceI_registerUserAsync(username, context, true).waitForResponse();
+    }
+
+    default java.util.concurrent.CompletableFuture<Void> registerUserAsync(String username)
+    {
+        return _iceI_registerUserAsync(username, com.zeroc.Ice.ObjectPrx.noExplicitContext, false);
+    }
+
+    default java.util.concurrent.CompletableFuture<Void> registerUserAsync(String username, java.util.Map<String, String> context)
+    {
+        return _iceI_registerUserAsync(username, context, false);
+    }
+
+    /**
+     * @hidden
+     * @param iceP_username -
+     * @param context -
+     * @param sync -
+     * @return -
+     **/
+    default com.zeroc.IceInternal.OutgoingAsync<Void> _iceI_registerUserAsync(String iceP_username, java.util.Map<String, String> context, boolean sync)
+    {
+        com.zeroc.IceInternal.OutgoingAsync<Void> f = new com.zeroc.IceInternal.OutgoingAsync<>(this, "registerUser", null, sync, null);
+        f.invoke(false, context, null, ostr -> {
+                     ostr.writeString(iceP_username);
+                 }, null);
+        return f;
+    }
+
+    /**
+     * Contacts the remote server to verify that the object implements this type.
+     * Raises a local exception if a communication error occurs.
+     * @param obj The untyped proxy.
+     * @return A proxy for this type, or null if the object does not support this type.
+     **/
+    static ShardNodePrx checkedCast(com.zeroc.Ice.ObjectPrx obj)
+    {
+        return com.zeroc.Ice.ObjectPrx._checkedCast(obj, ice_staticId(), ShardNodePrx.class, _ShardNodePrxI.class);
+    }
+
+    /**
+     * Contacts the remote server to verify that the object implements this type.
+     * Raises a local exception if a communication error occurs.
+     * @param obj The untyped proxy.
+     * @param context The Context map to send with the invocation.
+     * @return A proxy for this type, or null if the object does not support this type.
+     **/
+    static ShardNodePrx checkedCast(com.zeroc.Ice.ObjectPrx obj, java.util.Map<String, String> context)
+    {
+        return com.zeroc.Ice.ObjectPrx._checkedCast(obj, context, ice_staticId(), ShardNodePrx.class, _ShardNodePrxI.class);
+    }
+
+    /**
+     * Contacts the remote server to verify that a facet of the object implements this type.
+     * Raises a local exception if a communication error occurs.
+     * @param obj The untyped proxy.
+     * @param facet The name of the desired facet.
+     * @return A proxy for this type, or null if the object does not support this type.
+     **/
+    static ShardNodePrx checkedCast(com.zeroc.Ice.ObjectPrx obj, String facet)
+    {
+        return com.zeroc.Ice.ObjectPrx._checkedCast(obj, facet, ice_staticId(), ShardNodePrx.class, _ShardNodePrxI.class);
+    }
+
+    /**
+     * Contacts the remote server to verify that a facet of the object implements this type.
+     * Raises a local exception if a communication error occurs.
+     * @param obj The untyped proxy.
+     * @param facet The name of the desired facet.
+     * @param context The Context map to send with the invocation.
+     * @return A proxy for this type, or null if the object does not support this type.
+     **/
+    static ShardNodePrx checkedCast(com.zeroc.Ice.ObjectPrx obj, String facet, java.util.Map<String, String> context)
+    {
+        return com.zeroc.Ice.ObjectPrx._checkedCast(obj, facet, context, ice_staticId(), ShardNodePrx.class, _ShardNodePrxI.class);
+    }
+
+    /**
+     * Downcasts the given proxy to this type without contacting the remote server.
+     * @param obj The untyped proxy.
+     * @return A proxy for this type.
+     **/
+    static ShardNodePrx uncheckedCast(com.zeroc.Ice.ObjectPrx obj)
+    {
+        return com.zeroc.Ice.ObjectPrx._uncheckedCast(obj, ShardNodePrx.class, _ShardNodePrxI.class);
+    }
+
+    /**
+     * Downcasts the given proxy to this type without contacting the remote server.
+     * @param obj The untyped proxy.
+     * @param facet The name of the desired facet.
+     * @return A proxy for this type.
+     **/
+    static ShardNodePrx uncheckedCast(com.zeroc.Ice.ObjectPrx obj, String facet)
+    {
+        return com.zeroc.Ice.ObjectPrx._uncheckedCast(obj, facet, ShardNodePrx.class, _ShardNodePrxI.class);
+    }
+
+    /**
+     * Returns a proxy that is identical to this proxy, except for the per-proxy context.
+     * @param newContext The context for the new proxy.
+     * @return A proxy with the specified per-proxy context.
+     **/
+    @Override
+    default ShardNodePrx ice_context(java.util.Map<String, String> newContext)
+    {
+        return (ShardNodePrx)_ice_context(newContext);
+    }
+
+    /**
+     * Returns a proxy that is identical to this proxy, except for the adapter ID.
+     * @param newAdapterId The adapter ID for the new proxy.
+     * @return A proxy with the specified adapter ID.
+     **/
+    @Override
+    default ShardNodePrx ice_adapterId(String newAdapterId)
+    {
+        return (ShardNodePrx)_ice_adapterId(newAdapterId);
+    }
+
+    /**
+     * Returns a proxy that is identical to this proxy, except for the endpoints.
+     * @param newEndpoints The endpoints for the new proxy.
+     * @return A proxy with the specified endpoints.
+     **/
+    @Override
+    default ShardNodePrx ice_endpoints(com.zeroc.Ice.Endpoint[] newEndpoints)
+    {
+        return (ShardNodePrx)_ice_endpoints(newEndpoints);
+    }
+
+    /**
+     * Returns a proxy that is identical to this proxy, except for the locator cache timeout.
+     * @param newTimeout The new locator cache timeout (in seconds).
+     * @return A proxy with the specified locator cache timeout.
+     **/
+    @Override
+    default ShardNodePrx ice_locatorCacheTimeout(int newTimeout)
+    {
+        return (ShardNodePrx)_ice_locatorCacheTimeout(newTimeout);
+    }
+
+    /**
+     * Returns a proxy that is identical to this proxy, except for the invocation timeout.
+     * @param newTimeout The new invocation timeout (in seconds).
+     * @return A proxy with the specified invocation timeout.
+     **/
+    @Override
+    default ShardNodePrx ice_invocationTimeout(int newTimeout)
+    {
+        return (ShardNodePrx)_ice_invocationTimeout(newTimeout);
+    }
+
+    /**
+     * Returns a proxy that is identical to this proxy, except for connection caching.
+     * @param newCache <code>true</code> if the new proxy should cache connections; <code>false</code> otherwise.
+     * @return A proxy with the specified caching policy.
+     **/
+    @Override
+    default ShardNodePrx ice_connectionCached(boolean newCache)
+    {
+        return (ShardNodePrx)_ice_connectionCached(newCache);
+    }
+
+    /**
+     * Returns a proxy that is identical to this proxy, except for the endpoint selection policy.
+     * @param newType The new endpoint selection policy.
+     * @return A proxy with the specified endpoint selection policy.
+     **/
+    @Override
+    default ShardNodePrx ice_endpointSelection(com.zeroc.Ice.EndpointSelectionType newType)
+    {
+        return (ShardNodePrx)_ice_endpointSelection(newType);
+    }
+
+    /**
+     * Returns a proxy that is identical to this proxy, except for how it selects endpoints.
+     * @param b If <code>b</code> is <code>true</code>, only endpoints that use a secure transport are
+     * used by the new proxy. If <code>b</code> is false, the returned proxy uses both secure and
+     * insecure endpoints.
+     * @return A proxy with the specified selection policy.
+     **/
+    @Override
+    default ShardNodePrx ice_secure(boolean b)
+    {
+        return (ShardNodePrx)_ice_secure(b);
+    }
+
+    /**
+     * Returns a proxy that is identical to this proxy, except for the encoding used to marshal parameters.
+     * @param e The encoding version to use to marshal request parameters.
+     * @return A proxy with the specified encoding version.
+     **/
+    @Override
+    default ShardNodePrx ice_encodingVersion(com.zeroc.Ice.EncodingVersion e)
+    {
+        return (ShardNodePrx)_ice_encodingVersion(e);
+    }
+
+    /**
+     * Returns a proxy that is identical to this proxy, except for its endpoint selection policy.
+     * @param b If <code>b</code> is <code>true</code>, the new proxy will use secure endpoints for invocations
+     * and only use insecure endpoints if an invocation cannot be made via secure endpoints. If <code>b</code> is
+     * <code>false</code>, the proxy prefers insecure endpoints to secure ones.
+     * @return A proxy with the specified selection policy.
+     **/
+    @Override
+    default ShardNodePrx ice_preferSecure(boolean b)
+    {
+        return (ShardNodePrx)_ice_preferSecure(b);
+    }
+
+    /**
+     * Returns a proxy that is identical to this proxy, except for the router.
+     * @param router The router for the new proxy.
+     * @return A proxy with the specified router.
+     **/
+    @Override
+    default ShardNodePrx ice_router(com.zeroc.Ice.RouterPrx router)
+    {
+        return (ShardNodePrx)_ice_router(router);
+    }
+
+    /**
+     * Returns a proxy that is identical to this proxy, except for the locator.
+     * @param locator The locator for the new proxy.
+     * @return A proxy with the specified locator.
+     **/
+    @Override
+    default ShardNodePrx ice_locator(com.zeroc.Ice.LocatorPrx locator)
+    {
+        return (ShardNodePrx)_ice_locator(locator);
+    }
+
+    /**
+     * Returns a proxy that is identical to this proxy, except for collocation optimization.
+     * @param b <code>true</code> if the new proxy enables collocation optimization; <code>false</code> otherwise.
+     * @return A proxy with the specified collocation optimization.
+     **/
+    @Override
+    default ShardNodePrx ice_collocationOptimized(boolean b)
+    {
+        return (ShardNodePrx)_ice_collocationOptimized(b);
+    }
+
+    /**
+     * Returns a proxy that is identical to this proxy, but uses twoway invocations.
+     * @return A proxy that uses twoway invocations.
+     **/
+    @Override
+    default ShardNodePrx ice_twoway()
+    {
+        return (ShardNodePrx)_ice_twoway();
+    }
+
+    /**
+     * Returns a proxy that is identical to this proxy, but uses oneway invocations.
+     * @return A proxy that uses oneway invocations.
+     **/
+    @Override
+    default ShardNodePrx ice_oneway()
+    {
+        return (ShardNodePrx)_ice_oneway();
+    }
+
+    /**
+     * Returns a proxy that is identical to this proxy, but uses batch oneway invocations.
+     * @return A proxy that uses batch oneway invocations.
+     **/
+    @Override
+    default ShardNodePrx ice_batchOneway()
+    {
+        return (ShardNodePrx)_ice_batchOneway();
+    }
+
+    /**
+     * Returns a proxy that is identical to this proxy, but uses datagram invocations.
+     * @return A proxy that uses datagram invocations.
+     **/
+    @Override
+    default ShardNodePrx ice_datagram()
+    {
+        return (ShardNodePrx)_ice_datagram();
+    }
+
+    /**
+     * Returns a proxy that is identical to this proxy, but uses batch datagram invocations.
+     * @return A proxy that uses batch datagram invocations.
+     **/
+    @Override
+    default ShardNodePrx ice_batchDatagram()
+    {
+        return (ShardNodePrx)_ice_batchDatagram();
+    }
+
+    /**
+     * Returns a proxy that is identical to this proxy, except for compression.
+     * @param co <code>true</code> enables compression for the new proxy; <code>false</code> disables compression.
+     * @return A proxy with the specified compression setting.
+     **/
+    @Override
+    default ShardNodePrx ice_compress(boolean co)
+    {
+        return (ShardNodePrx)_ice_compress(co);
+    }
+
+    /**
+     * Returns a proxy that is identical to this proxy, except for its connection timeout setting.
+     * @param t The connection timeout for the proxy in milliseconds.
+     * @return A proxy with the specified timeout.
+     **/
+    @Override
+    default ShardNodePrx ice_timeout(int t)
+    {
+        return (ShardNodePrx)_ice_timeout(t);
+    }
+
+    /**
+     * Returns a proxy that is identical to this proxy, except for its connection ID.
+     * @param connectionId The connection ID for the new proxy. An empty string removes the connection ID.
+     * @return A proxy with the specified connection ID.
+     **/
+    @Override
+    default ShardNodePrx ice_connectionId(String connectionId)
+    {
+        return (ShardNodePrx)_ice_connectionId(connectionId);
+    }
+
+    /**
+     * Returns a proxy that is identical to this proxy, except it's a fixed proxy bound
+     * the given connection.@param connection The fixed proxy connection.
+     * @return A fixed proxy bound to the given connection.
+     **/
+    @Override
+    default ShardNodePrx ice_fixed(com.zeroc.Ice.Connection connection)
+    {
+        return (ShardNodePrx)_ice_fixed(connection);
+    }
+
+    static String ice_staticId()
+    {
+        return "::Chat::ShardNode";
+    }
+}
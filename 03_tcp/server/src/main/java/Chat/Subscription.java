@@ -0,0 +1,171 @@
+//
+// Copyright (c) ZeroC, Inc. All rights reserved.
+//
+//
+// Ice version 3.7.10
+//
+// <auto-generated>
+//
+// Generated from file `Cluster.ice'
+//
+// Warning: do not edit this file.
+//
+// </auto-generated>
+//
+
+package Chat;
+
+public class Subscription implements java.lang.Cloneable,
+                                     java.io.Serializable
+{
+    public String username;
+
+    public String nodeId;
+
+    public boolean online;
+
+    public Subscription()
+    {
+        this.username = "";
+        this.nodeId = "";
+    }
+
+    public Subscription(String username, String nodeId, boolean online)
+    {
+        this.username = username;
+        this.nodeId = nodeId;
+        this.online = online;
+    }
+
+    public boolean equals(java.lang.Object rhs)
+    {
+        if(this == rhs)
+        {
+            return true;
+        }
+        Subscription r = null;
+        if(rhs instanceof Subscription)
+        {
+            r = (Subscription)rhs;
+        }
+
+        if(r != null)
+        {
+            if(this.username != r.username)
+            {
+                if(this.username == null || r.username == null || !this.username.equals(r.username))
+                {
+                    return false;
+                }
+            }
+            if(this.nodeId != r.nodeId)
+            {
+                if(this.nodeId == null || r.nodeId == null || !this.nodeId.equals(r.nodeId))
+                {
+                    return false;
+                }
+            }
+            if(this.online != r.online)
+            {
+                return false;
+            }
+
+            return true;
+        }
+
+        return false;
+    }
+
+    public int hashCode()
+    {
+        int h_ = 5381;
+        h_ = com.zeroc.IceInternal.HashUtil.hashAdd(h_, "::Chat::Subscription");
+        h_ = com.zeroc.IceInternal.HashUtil.hashAdd(h_, username);
+        h_ = com.zeroc.IceInternal.HashUtil.hashAdd(h_, nodeId);
+        h_ = com.zeroc.IceInternal.HashUtil.hashAdd(h_, online);
+        return h_;
+    }
+
+    public Subscription clone()
+    {
+        Subscription c = null;
+        try
+        {
+            c = (Subscription)super.clone();
+        }
+        catch(CloneNotSupportedException ex)
+        {
+            assert false; // impossible
+        }
+        return c;
+    }
+
+    public void ice_writeMembers(com.zeroc.Ice.OutputStream ostr)
+    {
+        ostr.writeString(this.username);
+        ostr.writeString(this.nodeId);
+        ostr.writeBool(this.online);
+    }
+
+    public void ice_readMembers(com.zeroc.Ice.InputStream istr)
+    {
+        this.username = istr.readString();
+        this.nodeId = istr.readString();
+        this.online = istr.readBool();
+    }
+
+    static public void ice_write(com.zeroc.Ice.OutputStream ostr, Subscription v)
+    {
+        if(v == null)
+        {
+            _nullMarshalValue.ice_writeMembers(ostr);
+        }
+        else
+        {
+            v.ice_writeMembers(ostr);
+        }
+    }
+
+    static public Subscription ice_read(com.zeroc.Ice.InputStream istr)
+    {
+        Subscription v = new Subscription();
+        v.ice_readMembers(istr);
+        return v;
+    }
+
+    static public void ice_write(com.zeroc.Ice.OutputStream ostr, int tag, java.util.Optional<Subscription> v)
+    {
+        if(v != null && v.isPresent())
+        {
+            ice_write(ostr, tag, v.get());
+        }
+    }
+
+    static public void ice_write(com.zeroc.Ice.OutputStream ostr, int tag, Subscription v)
+    {
+        if(ostr.writeOptional(tag, com.zeroc.Ice.OptionalFormat.FSize))
+        {
+            int pos = ostr.startSize();
+            ice_write(ostr, v);
+            ostr.endSize(pos);
+        }
+    }
+
+    static public java.util.Optional<Subscription> ice_read(com.zeroc.Ice.InputStream istr, int tag)
+    {
+        if(istr.readOptional(tag, com.zeroc.Ice.OptionalFormat.FSize))
+        {
+            istr.skip(4);
+            return java.util.Optional.of(Subscription.ice_read(istr));
+        }
+        else
+        {
+            return java.util.Optional.empty();
+        }
+    }
+
+    private static final Subscription _nullMarshalValue = new Subscription();
+
+    /** @hidden */
+    public static final long serialVersionUID = 5203368711439816237L;
+}
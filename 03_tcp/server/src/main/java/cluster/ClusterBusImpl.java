@@ -0,0 +1,45 @@
+package cluster;
+
+import Chat.ClusterBus;
+import Chat.EventBatch;
+import Chat.PushEvent;
+import Chat.Subscription;
+import com.zeroc.Ice.Current;
+import ice.ChatServiceImpl;
+
+/**
+ * Servant que recibe los lotes de eventos publicados por otros nodos
+ */
+public class ClusterBusImpl implements ClusterBus {
+
+    private final ChatServiceImpl chatService;
+    private final EventBus bus;
+
+    public ClusterBusImpl(ChatServiceImpl chatService, EventBus bus) {
+        this.chatService = chatService;
+        this.bus = bus;
+    }
+
+    @Override
+    public void publish(EventBatch batch, Current current) {
+        for (Subscription subscription : batch.subscriptions) {
+            if (bus.getRegistry().apply(subscription)) {
+                chatService.deliverStatusFromPeer(subscription.username, subscription.online);
+            }
+        }
+        for (PushEvent event : batch.events) {
+            chatService.deliverEventFromPeer(event);
+        }
+    }
+
+    @Override
+    public Subscription[] getSubscriptions(Current current) {
+        String selfId = bus.getSelfId();
+        String[] users = chatService.getLocalUsers();
+        Subscription[] subscriptions = new Subscription[users.length];
+        for (int i = 0; i < users.length; i++) {
+            subscriptions[i] = new Subscription(users[i], selfId, true);
+        }
+        return subscriptions;
+    }
+}
@@ -0,0 +1,277 @@
+package cluster;
+
+import Chat.ClusterBusPrx;
+import Chat.EventBatch;
+import Chat.PushEvent;
+import Chat.Subscription;
+import logging.Log;
+import logging.Logger;
+import org.roaringbitmap.RoaringBitmap;
+import services.IdBitmap;
+import services.SymbolTable;
+
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Envía push a usuarios conectados en otros nodos.
+ *
+ * Cada nodo destino tiene su cola; mientras hay un publish en vuelo hacia ese nodo, los eventos
+ * nuevos se acumulan y salen todos juntos en el siguiente EventBatch. Con poco tráfico cada
+ * evento viaja enseguida; con mucho, el costo es una invocación por lote y no por mensaje.
+ * Al haber un solo lote en vuelo por nodo, los eventos llegan en el orden en que se publicaron.
+ *
+ * Un lote que falla se reenvía, antes que lo encolado después, con backoff hasta MAX_RETRIES
+ * veces. Si el nodo sigue sin responder deja de recibir eventos (sus usuarios salen del
+ * registro) y sus suscripciones quedan encoladas para cuando vuelva. Los mensajes no se
+ * pierden: siguen en el buzón del nodo dueño hasta el ack, y se reenvían en el próximo login.
+ */
+public class EventBus {
+
+    private static final Logger logger = Log.get("cluster");
+
+    // Los lotes deben caber holgadamente en Ice.MessageSizeMax (1 MB por defecto)
+    private static final int MAX_BATCH_BYTES = 256 * 1024;
+    private static final int MAX_RETRIES = 5;
+    private static final long RETRY_BASE_MS = 100;
+
+    private final String selfId;
+    private final SymbolTable userIds;
+    private final SubscriptionRegistry registry;
+    private final Map<String, NodeQueue> queues = new HashMap<>();
+
+    public EventBus(ShardRouter router, SymbolTable userIds) {
+        this.selfId = router.getSelfId();
+        this.userIds = userIds;
+        this.registry = new SubscriptionRegistry(userIds);
+        for (String nodeId : router.remoteNodes()) {
+            queues.put(nodeId, new NodeQueue(nodeId, router.clusterBus(nodeId)));
+        }
+    }
+
+    // ---- Suscripciones ----
+
+    /**
+     * Anuncia a todos los nodos que el callback del usuario está (o dejó de estar) en este nodo
+     */
+    public void announce(String username, boolean online) {
+        Subscription subscription = new Subscription(username, selfId, online);
+        for (NodeQueue queue : queues.values()) {
+            queue.subscriptions.add(subscription);
+            flush(queue);
+        }
+    }
+
+    /**
+     * Pide a los demás nodos sus suscripciones actuales (al arrancar este nodo)
+     */
+    public void syncSubscriptions() {
+        for (NodeQueue queue : queues.values()) {
+            queue.bus.getSubscriptionsAsync().whenComplete((subscriptions, ex) -> {
+                if (ex != null) {
+                    logger.warn("No se pudieron obtener suscripciones", "node", queue.nodeId, "error", ex.getMessage());
+                    return;
+                }
+                for (Subscription subscription : subscriptions) {
+                    registry.apply(subscription);
+                }
+                logger.info("Suscripciones sincronizadas", "node", queue.nodeId, "users", subscriptions.length);
+            });
+        }
+    }
+
+    public String getSelfId() {
+        return selfId;
+    }
+
+    public SubscriptionRegistry getRegistry() {
+        return registry;
+    }
+
+    // ---- Eventos ----
+
+    /**
+     * Encola el evento para cada nodo remoto donde está conectado el usuario; false si no está
+     * en ninguno
+     */
+    public boolean publish(String username, PushEvent event) {
+        event.recipients = new String[] { username };
+        boolean queued = false;
+        for (String nodeId : registry.nodesOf(userIds.idOf(username))) {
+            NodeQueue queue = queues.get(nodeId);
+            if (queue != null) {
+                queue.events.add(event);
+                flush(queue);
+                queued = true;
+            }
+        }
+        return queued;
+    }
+
+    /**
+     * Encola el evento para el usuario en un nodo dado (su conexión de llamadas); false si no
+     * es un nodo del cluster
+     */
+    public boolean publishTo(String nodeId, String username, PushEvent event) {
+        NodeQueue queue = queues.get(nodeId);
+        if (queue == null) {
+            return false;
+        }
+        event.recipients = new String[] { username };
+        queue.events.add(event);
+        flush(queue);
+        return true;
+    }
+
+    /**
+     * Publica el evento a los usuarios del conjunto conectados en otros nodos,
+     * con un solo evento por nodo que lista a todos sus destinatarios
+     */
+    public void publishToUsers(IdBitmap users, int exceptId, PushEvent template) {
+        RoaringBitmap remote = registry.remoteAmong(users);
+        if (remote.isEmpty()) {
+            return;
+        }
+        Map<String, List<String>> byNode = new HashMap<>();
+        for (int userId : remote) {
+            if (userId == exceptId) {
+                continue;
+            }
+            for (String nodeId : registry.nodesOf(userId)) {
+                byNode.computeIfAbsent(nodeId, node -> new ArrayList<>()).add(userIds.nameOf(userId));
+            }
+        }
+        byNode.forEach((nodeId, recipients) -> {
+            NodeQueue queue = queues.get(nodeId);
+            if (queue != null) {
+                PushEvent event = template.clone();
+                event.recipients = recipients.toArray(new String[0]);
+                queue.events.add(event);
+                flush(queue);
+            }
+        });
+    }
+
+    // ---- Envío por lotes ----
+
+    private void flush(NodeQueue queue) {
+        if (!queue.sending.compareAndSet(false, true)) {
+            return; // El publish en vuelo volverá a vaciar la cola al terminar
+        }
+        // Primero el lote que falló: así los eventos llegan en el orden en que se publicaron
+        EventBatch batch = queue.failed != null ? queue.failed : queue.drain(selfId);
+        queue.failed = null;
+        if (batch == null) {
+            queue.sending.set(false);
+            // Un productor pudo encolar después de drain y antes de liberar la bandera
+            if (!queue.isEmpty()) {
+                flush(queue);
+            }
+            return;
+        }
+        CompletableFuture<Void> published;
+        try {
+            published = queue.bus.publishAsync(batch);
+        } catch (com.zeroc.Ice.CommunicatorDestroyedException e) {
+            // El nodo se está apagando (un reintento pendiente venció después): la bandera queda tomada
+            logger.debug("Comunicador destruido, se descarta el lote", "node", queue.nodeId, "events", batch.events.length);
+            return;
+        }
+        published.whenComplete((result, ex) -> {
+            if (ex == null) {
+                queue.failures = 0;
+            } else if (++queue.failures <= MAX_RETRIES) {
+                logger.warn("Error publicando eventos, se reintenta", "node", queue.nodeId, "events", batch.events.length, "error", ex.getMessage());
+                // La bandera sigue tomada: lo que se encole mientras tanto sale después de este lote
+                queue.failed = batch;
+                long delay = RETRY_BASE_MS << (queue.failures - 1);
+                CompletableFuture.delayedExecutor(delay, TimeUnit.MILLISECONDS).execute(() -> {
+                    queue.sending.set(false);
+                    flush(queue);
+                });
+                return;
+            } else {
+                logger.warn("Nodo sin responder, se descartan sus eventos", "node", queue.nodeId, "events", batch.events.length, "error", ex.getMessage());
+                queue.failures = 0;
+                queue.events.clear();
+                queue.requeue(batch.subscriptions);
+                // Sus callbacks tampoco son alcanzables: dejar de enrutarle eventos
+                registry.removeNode(queue.nodeId);
+            }
+            queue.sending.set(false);
+            if (!queue.isEmpty()) {
+                flush(queue);
+            }
+        });
+    }
+
+    public Set<String> getPeerIds() {
+        return queues.keySet();
+    }
+
+    /**
+     * Eventos esperando ser publicados al nodo (recorre la cola, solo para métricas)
+     */
+    public int getQueuedEvents(String nodeId) {
+        NodeQueue queue = queues.get(nodeId);
+        return queue != null ? queue.events.size() : 0;
+    }
+
+    private static class NodeQueue {
+        final String nodeId;
+        final ClusterBusPrx bus;
+        final Queue<Subscription> subscriptions = new ConcurrentLinkedQueue<>();
+        final Queue<PushEvent> events = new ConcurrentLinkedQueue<>();
+        final AtomicBoolean sending = new AtomicBoolean();
+        // Solo los usa quien tiene tomada la bandera sending
+        EventBatch failed;
+        int failures;
+
+        NodeQueue(String nodeId, ClusterBusPrx bus) {
+            this.nodeId = nodeId;
+            this.bus = bus;
+        }
+
+        boolean isEmpty() {
+            return subscriptions.isEmpty() && events.isEmpty();
+        }
+
+        /**
+         * Vuelve a poner suscripciones no entregadas delante de las encoladas después
+         */
+        void requeue(Subscription[] undelivered) {
+            List<Subscription> later = new ArrayList<>();
+            Subscription subscription;
+            while ((subscription = subscriptions.poll()) != null) {
+                later.add(subscription);
+            }
+            subscriptions.addAll(Arrays.asList(undelivered));
+            subscriptions.addAll(later);
+        }
+
+        /**
+         * Arma el siguiente lote (todas las suscripciones y eventos hasta MAX_BATCH_BYTES), o null si no hay nada
+         */
+        EventBatch drain(String sourceNode) {
+            List<Subscription> subs = new ArrayList<>();
+            Subscription subscription;
+            while ((subscription = subscriptions.poll()) != null) {
+                subs.add(subscription);
+            }
+            List<PushEvent> batchEvents = new ArrayList<>();
+            int bytes = 0;
+            PushEvent event;
+            while (bytes < MAX_BATCH_BYTES && (event = events.poll()) != null) {
+                batchEvents.add(event);
+                bytes += PushEvents.estimatedSize(event);
+            }
+            if (subs.isEmpty() && batchEvents.isEmpty()) {
+                return null;
+            }
+            return new EventBatch(sourceNode, subs.toArray(new Subscription[0]), batchEvents.toArray(new PushEvent[0]));
+        }
+    }
+}
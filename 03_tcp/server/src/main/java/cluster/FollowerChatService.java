@@ -0,0 +1,179 @@
+package cluster;
+
+import Chat.*;
+import com.zeroc.Ice.Current;
+
+import java.util.Arrays;
+import java.util.Map;
+
+/**
+ * ChatService de un seguidor: atiende lecturas (historial, usuarios, grupos) con su copia
+ * replicada y rechaza escrituras hasta que el nodo sea promovido a líder.
+ */
+public class FollowerChatService implements ChatService {
+
+    private static final String READ_ONLY = "Servidor en modo seguidor (solo lectura), conéctese al líder";
+
+    private final ChatService local;
+    private final LogFollower follower;
+
+    public FollowerChatService(ChatService local, LogFollower follower) {
+        this.local = local;
+        this.follower = follower;
+    }
+
+    private boolean readOnly() {
+        return !follower.isPromoted();
+    }
+
+    // ========== LECTURAS ==========
+
+    @Override
+    public String[] getOnlineUsers(Current current) {
+        return local.getOnlineUsers(current);
+    }
+
+    @Override
+    public Map<String, Boolean> getAllUsers(Current current) {
+        return local.getAllUsers(current);
+    }
+
+    @Override
+    public String[] getGroups(Current current) {
+        return local.getGroups(current);
+    }
+
+    @Override
+    public String[] getUserGroups(String username, Current current) {
+        return local.getUserGroups(username, current);
+    }
+
+    @Override
+    public String[] getGroupMembers(String groupName, Current current) {
+        return local.getGroupMembers(groupName, current);
+    }
+
+    @Override
+    public String[] getHistory(String username, Current current) {
+        return local.getHistory(username, current);
+    }
+
+    @Override
+    public String[] getHistoryPage(String username, int offset, int limit, Current current) {
+        return local.getHistoryPage(username, offset, limit, current);
+    }
+
+    @Override
+    public String[] searchMessages(String username, String query, int limit, Current current) {
+        return local.searchMessages(username, query, limit, current);
+    }
+
+    @Override
+    public ConversationSummary[] getConversationSummaries(String username, Current current) {
+        return local.getConversationSummaries(username, current);
+    }
+
+    @Override
+    public void markConversationRead(String username, String conversation, boolean isGroup, Current current) {
+        // Las marcas de lectura viven en memoria del líder, como los buzones
+        if (!readOnly()) {
+            local.markConversationRead(username, conversation, isGroup, current);
+        }
+    }
+
+    @Override
+    public Message[] getPendingMessages(String username, Current current) {
+        // Las colas de pendientes viven en memoria del líder; aquí solo existen tras la promoción
+        return readOnly() ? new Message[0] : local.getPendingMessages(username, current);
+    }
+
+    @Override
+    public void ackMessages(String username, long upToId, Current current) {
+        // Sin buzones antes de la promoción no hay nada que confirmar
+        if (!readOnly()) {
+            local.ackMessages(username, upToId, current);
+        }
+    }
+
+    // ========== ESCRITURAS ==========
+
+    @Override
+    public Response login(String username, ChatCallbackPrx callback, Current current) {
+        return readOnly() ? new Response(false, READ_ONLY) : local.login(username, callback, current);
+    }
+
+    @Override
+    public Response logout(String username, Current current) {
+        return readOnly() ? new Response(false, READ_ONLY) : local.logout(username, current);
+    }
+
+    @Override
+    public Response sendMessageToUser(String from, String to, String content, Current current) {
+        return readOnly() ? new Response(false, READ_ONLY) : local.sendMessageToUser(from, to, content, current);
+    }
+
+    @Override
+    public Response sendMessageToGroup(String from, String groupName, String content, Current current) {
+        return readOnly() ? new Response(false, READ_ONLY) : local.sendMessageToGroup(from, groupName, content, current);
+    }
+
+    @Override
+    public Response[] sendMessages(Message[] messages, Current current) {
+        if (!readOnly()) {
+            return local.sendMessages(messages, current);
+        }
+        Response[] results = new Response[messages.length];
+        Arrays.fill(results, new Response(false, READ_ONLY));
+        return results;
+    }
+
+    @Override
+    public Response createGroup(String groupName, String creator, Current current) {
+        return readOnly() ? new Response(false, READ_ONLY) : local.createGroup(groupName, creator, current);
+    }
+
+    @Override
+    public Response addToGroup(String groupName, String username, Current current) {
+        return readOnly() ? new Response(false, READ_ONLY) : local.addToGroup(groupName, username, current);
+    }
+
+    @Override
+    public Response sendVoiceNoteToUser(String from, String to, byte[] audioData, Current current) {
+        return readOnly() ? new Response(false, READ_ONLY) : local.sendVoiceNoteToUser(from, to, audioData, current);
+    }
+
+    @Override
+    public Response sendVoiceNoteToGroup(String from, String groupName, byte[] audioData, Current current) {
+        return readOnly() ? new Response(false, READ_ONLY) : local.sendVoiceNoteToGroup(from, groupName, audioData, current);
+    }
+
+    @Override
+    public Response initiateCall(String from, String to, Current current) {
+        return readOnly() ? new Response(false, READ_ONLY) : local.initiateCall(from, to, current);
+    }
+
+    @Override
+    public Response sendWebRTCSignal(String from, String to, String signalType, String signalData, Current current) {
+        return readOnly() ? new Response(false, READ_ONLY) : local.sendWebRTCSignal(from, to, signalType, signalData, current);
+    }
+
+    @Override
+    public Response sendICECandidate(String from, String to, String candidate, Current current) {
+        return readOnly() ? new Response(false, READ_ONLY) : local.sendICECandidate(from, to, candidate, current);
+    }
+
+    @Override
+    public Response endCall(String from, String to, Current current) {
+        return readOnly() ? new Response(false, READ_ONLY) : local.endCall(from, to, current);
+    }
+
+    @Override
+    public Response sendAudioChunk(String from, String to, byte[] audioData, Current current) {
+        return readOnly() ? new Response(false, READ_ONLY) : local.sendAudioChunk(from, to, audioData, current);
+    }
+
+    @Override
+    public Response acceptCall(String from, String to, Current current) {
+        return readOnly() ? new Response(false, READ_ONLY) : local.acceptCall(from, to, current);
+    }
+}
@@ -0,0 +1,55 @@
+package cluster;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Anillo de hashing consistente con nodos virtuales.
+ * Cada nodo aparece VIRTUAL_NODES veces en el anillo para repartir las claves
+ * de forma pareja; agregar o quitar un nodo solo mueve ~1/N de las claves.
+ */
+public class HashRing {
+
+    private static final int VIRTUAL_NODES = 128;
+
+    private final TreeMap<Long, String> ring = new TreeMap<>();
+
+    public HashRing(Collection<String> nodeIds) {
+        if (nodeIds.isEmpty()) {
+            throw new IllegalArgumentException("El anillo necesita al menos un nodo");
+        }
+        for (String nodeId : nodeIds) {
+            for (int i = 0; i < VIRTUAL_NODES; i++) {
+                ring.put(hash(nodeId + "#" + i), nodeId);
+            }
+        }
+    }
+
+    /**
+     * Nodo dueño de la clave: el primer punto del anillo en sentido horario
+     */
+    public String ownerOf(String key) {
+        Map.Entry<Long, String> entry = ring.ceilingEntry(hash(key));
+        return entry != null ? entry.getValue() : ring.firstEntry().getValue();
+    }
+
+    /**
+     * FNV-1a de 64 bits con el mezclado final de MurmurHash3.
+     * Es estable entre JVMs (a diferencia de depender de String.hashCode en 32 bits).
+     */
+    static long hash(String key) {
+        long h = 0xcbf29ce484222325L;
+        for (byte b : key.getBytes(StandardCharsets.UTF_8)) {
+            h ^= (b & 0xff);
+            h *= 0x100000001b3L;
+        }
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
+}
@@ -0,0 +1,149 @@
+package cluster;
+
+import Chat.LogChunk;
+import Chat.LogEntry;
+import Chat.ReplicationLogPrx;
+import Chat.ReplicationStatus;
+import logging.Log;
+import logging.Logger;
+import services.ChatServicesImpl;
+import services.MessageLog;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Hilo de un seguidor que lee el registro del líder por Ice y lo aplica localmente.
+ * Cuando está al día consulta cada pollMs; mientras hay atraso pide lotes seguidos.
+ */
+public class LogFollower implements Runnable {
+
+    private static final Logger logger = Log.get("repl");
+
+    private static final int FETCH_BATCH = 1000;
+
+    private final ReplicationLogPrx leader;
+    private final ChatServicesImpl chatServices;
+    private final MessageLog log;
+    private final long pollMs;
+    private final long autoPromoteMs; // 0 = solo promoción manual
+
+    private volatile boolean promoted;
+    private volatile long leaderSeq;
+    private Thread thread;
+
+    public LogFollower(ReplicationLogPrx leader, ChatServicesImpl chatServices, MessageLog log, long pollMs, long autoPromoteMs) {
+        this.leader = leader;
+        this.chatServices = chatServices;
+        this.log = log;
+        this.pollMs = pollMs;
+        this.autoPromoteMs = autoPromoteMs;
+        this.leaderSeq = log.lastSeq();
+    }
+
+    public void start() {
+        thread = new Thread(this, "log-follower");
+        thread.setDaemon(true);
+        thread.start();
+        logger.info("Seguidor iniciado", "seq", log.lastSeq());
+    }
+
+    @Override
+    public void run() {
+        long leaderLostAt = 0;
+        while (!promoted) {
+            try {
+                LogChunk chunk = leader.fetch(log.lastSeq() + 1, FETCH_BATCH);
+                if (leaderLostAt != 0) {
+                    logger.info("Líder disponible otra vez");
+                    leaderLostAt = 0;
+                }
+                leaderSeq = chunk.lastSeq;
+                if (chunk.entries.length > 0 && !promoted) {
+                    chatServices.applyReplicated(toEntries(chunk.entries));
+                    if (logger.isDebugEnabled()) {
+                        logger.debug("Entradas aplicadas", "count", chunk.entries.length, "seq", log.lastSeq(), "leaderSeq", leaderSeq);
+                    }
+                }
+                if (log.lastSeq() >= leaderSeq) {
+                    Thread.sleep(pollMs);
+                }
+            } catch (com.zeroc.Ice.LocalException e) {
+                long now = System.currentTimeMillis();
+                if (leaderLostAt == 0) {
+                    leaderLostAt = now;
+                    logger.warn("Líder no disponible", "error", e);
+                }
+                if (autoPromoteMs > 0 && now - leaderLostAt >= autoPromoteMs) {
+                    logger.warn("Sin líder, promoviendo este nodo", "millis", now - leaderLostAt);
+                    promote();
+                    return;
+                }
+                sleepQuietly(pollMs);
+            } catch (IOException e) {
+                // El estado local ya no coincide con el del líder: detener la replicación
+                logger.error("Error aplicando entradas, replicación detenida", "error", e.getMessage());
+                return;
+            } catch (InterruptedException e) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * Deja de replicar y pasa a aceptar escrituras; devuelve false si ya estaba promovido
+     */
+    public synchronized boolean promote() {
+        if (promoted) {
+            return false;
+        }
+        promoted = true;
+        if (thread != null && thread != Thread.currentThread()) {
+            thread.interrupt();
+        }
+        logger.warn("Nodo promovido a líder", "seq", log.lastSeq());
+        return true;
+    }
+
+    public boolean isPromoted() {
+        return promoted;
+    }
+
+    /**
+     * Entradas del líder que aún no se aplicaron
+     */
+    public long getLagEntries() {
+        return Math.max(0, leaderSeq - log.lastSeq());
+    }
+
+    /**
+     * Antigüedad de lo último aplicado mientras haya atraso (0 si está al día)
+     */
+    public long getLagMillis() {
+        return getLagEntries() == 0 ? 0 : System.currentTimeMillis() - log.lastTimestamp();
+    }
+
+    public ReplicationStatus getStatus() {
+        if (promoted) {
+            return new ReplicationStatus("leader", log.lastSeq(), log.lastSeq(), 0, 0);
+        }
+        return new ReplicationStatus("follower", log.lastSeq(), leaderSeq, getLagEntries(), getLagMillis());
+    }
+
+    private static List<MessageLog.Entry> toEntries(LogEntry[] entries) {
+        List<MessageLog.Entry> converted = new ArrayList<>(entries.length);
+        for (LogEntry entry : entries) {
+            converted.add(new MessageLog.Entry(entry.seq, entry.timestamp, entry.kind, entry.name, entry.payload, entry.data));
+        }
+        return converted;
+    }
+
+    private static void sleepQuietly(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,132 @@
+package cluster;
+
+import Chat.ChatCallbackPrx;
+import Chat.Message;
+import Chat.PushEvent;
+import logging.Log;
+import logging.Logger;
+
+/**
+ * Traducción entre las operaciones de ChatCallback y los PushEvent que viajan por el bus.
+ * Los eventos se crean sin destinatarios; EventBus los completa según el nodo destino.
+ */
+public final class PushEvents {
+
+    private static final Logger logger = Log.get("cluster");
+
+    public static final String NEW_MESSAGE = "onNewMessage";
+    public static final String GROUP_MEMBER_ADDED = "onGroupMemberAdded";
+    public static final String VOICE_NOTE = "onVoiceNoteReceived";
+    public static final String INCOMING_CALL = "onIncomingCall";
+    public static final String WEBRTC_SIGNAL = "onWebRTCSignal";
+    public static final String ICE_CANDIDATE = "onICECandidate";
+    public static final String CALL_ENDED = "onCallEnded";
+    public static final String AUDIO_CHUNK = "onAudioChunk";
+    public static final String CALL_ACCEPTED = "onCallAccepted";
+
+    private PushEvents() {
+    }
+
+    public static PushEvent newMessage(Message msg) {
+        PushEvent event = event(NEW_MESSAGE, msg.from);
+        event.msg = msg;
+        return event;
+    }
+
+    public static PushEvent groupMemberAdded(String groupName, String username) {
+        PushEvent event = event(GROUP_MEMBER_ADDED, "");
+        event.to = groupName;
+        event.text = username;
+        return event;
+    }
+
+    public static PushEvent voiceNote(String from, String to, byte[] audioData, boolean isGroup) {
+        PushEvent event = event(VOICE_NOTE, from);
+        event.to = to;
+        event.audio = audioData;
+        event.isGroup = isGroup;
+        return event;
+    }
+
+    public static PushEvent incomingCall(String from) {
+        return event(INCOMING_CALL, from);
+    }
+
+    public static PushEvent webRTCSignal(String from, String signalType, String signalData) {
+        PushEvent event = event(WEBRTC_SIGNAL, from);
+        event.text = signalType;
+        event.data = signalData;
+        return event;
+    }
+
+    public static PushEvent iceCandidate(String from, String candidate) {
+        PushEvent event = event(ICE_CANDIDATE, from);
+        event.text = candidate;
+        return event;
+    }
+
+    public static PushEvent callEnded(String from) {
+        return event(CALL_ENDED, from);
+    }
+
+    public static PushEvent audioChunk(String from, byte[] audioData) {
+        PushEvent event = event(AUDIO_CHUNK, from);
+        event.audio = audioData;
+        return event;
+    }
+
+    public static PushEvent callAccepted(String from) {
+        return event(CALL_ACCEPTED, from);
+    }
+
+    /**
+     * Audio y señalización de una llamada ya establecida: viajan por la conexión de llamadas
+     * del destinatario si la tiene (el aviso de llamada entrante va por la del login)
+     */
+    public static boolean isCallMedia(PushEvent event) {
+        return switch (event.kind) {
+            case WEBRTC_SIGNAL, ICE_CANDIDATE, CALL_ENDED, AUDIO_CHUNK, CALL_ACCEPTED -> true;
+            default -> false;
+        };
+    }
+
+    /**
+     * Invoca en el callback local la operación que representa el evento
+     */
+    public static void dispatch(PushEvent event, ChatCallbackPrx callback) {
+        switch (event.kind) {
+            case NEW_MESSAGE -> callback.onNewMessageAsync(event.msg);
+            case GROUP_MEMBER_ADDED -> callback.onGroupMemberAddedAsync(event.to, event.text);
+            case VOICE_NOTE -> callback.onVoiceNoteReceivedAsync(event.from, event.to, event.audio, event.isGroup);
+            case INCOMING_CALL -> callback.onIncomingCallAsync(event.from);
+            case WEBRTC_SIGNAL -> callback.onWebRTCSignalAsync(event.from, event.text, event.data);
+            case ICE_CANDIDATE -> callback.onICECandidateAsync(event.from, event.text);
+            case CALL_ENDED -> callback.onCallEndedAsync(event.from);
+            case AUDIO_CHUNK -> callback.onAudioChunkAsync(event.from, event.audio);
+            case CALL_ACCEPTED -> callback.onCallAcceptedAsync(event.from);
+            default -> logger.warn("Evento desconocido", "kind", event.kind);
+        }
+    }
+
+    /**
+     * Tamaño aproximado del evento en el cable, para acotar los lotes
+     */
+    static int estimatedSize(PushEvent event) {
+        int size = 64 + event.text.length() + event.data.length() + event.msg.content.length();
+        if (event.audio != null) {
+            size += event.audio.length;
+        }
+        for (String recipient : event.recipients) {
+            size += recipient.length() + 1;
+        }
+        return size;
+    }
+
+    private static PushEvent event(String kind, String from) {
+        PushEvent event = new PushEvent();
+        event.recipients = new String[0];
+        event.kind = kind;
+        event.from = from;
+        return event;
+    }
+}
@@ -0,0 +1,61 @@
+package cluster;
+
+import Chat.LogChunk;
+import Chat.LogEntry;
+import Chat.ReplicationLog;
+import Chat.ReplicationStatus;
+import com.zeroc.Ice.Current;
+import logging.Log;
+import logging.Logger;
+import services.MessageLog;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Servant que expone el registro de escrituras de este nodo a sus seguidores.
+ * En un seguidor también responde estado y promoción.
+ */
+public class ReplicationLogImpl implements ReplicationLog {
+
+    private static final Logger logger = Log.get("repl");
+
+    private static final int MAX_FETCH = 1000;
+
+    private final MessageLog log;
+    private final LogFollower follower; // null en el líder
+
+    public ReplicationLogImpl(MessageLog log, LogFollower follower) {
+        this.log = log;
+        this.follower = follower;
+    }
+
+    @Override
+    public LogChunk fetch(long fromSeq, int maxEntries, Current current) {
+        try {
+            List<MessageLog.Entry> entries = log.read(fromSeq, Math.min(Math.max(maxEntries, 1), MAX_FETCH));
+            LogEntry[] converted = new LogEntry[entries.size()];
+            for (int i = 0; i < converted.length; i++) {
+                MessageLog.Entry entry = entries.get(i);
+                converted[i] = new LogEntry(entry.seq, entry.timestamp, entry.kind, entry.name, entry.payload, entry.data);
+            }
+            return new LogChunk(converted, log.lastSeq());
+        } catch (IOException e) {
+            logger.error("Error leyendo el registro", "fromSeq", fromSeq, "error", e.getMessage());
+            return new LogChunk(new LogEntry[0], log.lastSeq());
+        }
+    }
+
+    @Override
+    public ReplicationStatus getStatus(Current current) {
+        if (follower == null) {
+            return new ReplicationStatus("leader", log.lastSeq(), log.lastSeq(), 0, 0);
+        }
+        return follower.getStatus();
+    }
+
+    @Override
+    public boolean promote(Current current) {
+        return follower != null && follower.promote();
+    }
+}
@@ -0,0 +1,46 @@
+package cluster;
+
+import Chat.Message;
+import Chat.ShardNode;
+import com.zeroc.Ice.Current;
+import ice.ChatServiceImpl;
+import tracing.Trace;
+import tracing.Tracing;
+
+/**
+ * Servant para las entregas que otros nodos hacen a esta partición
+ */
+public class ShardNodeImpl implements ShardNode {
+
+    private final ChatServiceImpl chatService;
+
+    public ShardNodeImpl(ChatServiceImpl chatService) {
+        this.chatService = chatService;
+    }
+
+    @Override
+    public void deliverMessage(Message msg, String[] recipients, Current current) {
+        // Si el nodo de origen trazaba el mensaje, el contexto trae su id
+        Trace trace = Tracing.begin("deliverFromPeer", msg.from, msg.to, current);
+        try {
+            chatService.deliverFromPeer(msg, recipients);
+        } finally {
+            Tracing.end(trace);
+        }
+    }
+
+    @Override
+    public int historySize(String username, Current current) {
+        return chatService.historySizeForPeer(username);
+    }
+
+    @Override
+    public void callChannel(String username, String nodeId, boolean joined, Current current) {
+        chatService.callChannelFromPeer(username, nodeId, joined);
+    }
+
+    @Override
+    public void registerUser(String username, Current current) {
+        chatService.registerFromPeer(username);
+    }
+}
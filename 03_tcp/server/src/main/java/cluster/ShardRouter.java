@@ -0,0 +1,133 @@
+package cluster;
+
+import Chat.ChatServicePrx;
+import Chat.ClusterBusPrx;
+import Chat.ShardNodePrx;
+import com.zeroc.Ice.Communicator;
+import com.zeroc.Ice.Properties;
+
+import java.util.*;
+
+/**
+ * Conoce la topología del cluster y decide qué nodo es dueño de cada usuario o grupo.
+ *
+ * Configuración (propiedades Ice, por ejemplo --Chat.Cluster.NodeId=node1):
+ *   Chat.Cluster.NodeId            id de este nodo
+ *   Chat.Cluster.Nodes             lista de ids separados por coma
+ *   Chat.Cluster.&lt;id&gt;.Endpoints  endpoints del ChatAdapter de cada nodo
+ */
+public class ShardRouter {
+
+    /** Marca de contexto para llamadas reenviadas entre nodos (se ejecutan siempre localmente) */
+    public static final String FORWARDED = "chat.forwarded";
+
+    private final String selfId;
+    private final HashRing ring;
+    private final Map<String, String> endpoints = new LinkedHashMap<>();
+    private final Map<String, ChatServicePrx> chatServices = new HashMap<>();
+    private final Map<String, ShardNodePrx> shardNodes = new HashMap<>();
+    private final Map<String, ClusterBusPrx> clusterBuses = new HashMap<>();
+
+    public ShardRouter(Communicator communicator, String selfId, Map<String, String> nodeEndpoints) {
+        this.selfId = selfId;
+        this.ring = new HashRing(nodeEndpoints.keySet());
+        this.endpoints.putAll(nodeEndpoints);
+
+        Map<String, String> forwardedContext = Map.of(FORWARDED, selfId);
+        for (Map.Entry<String, String> entry : nodeEndpoints.entrySet()) {
+            if (entry.getKey().equals(selfId)) {
+                continue;
+            }
+            chatServices.put(entry.getKey(), ChatServicePrx.uncheckedCast(
+                communicator.stringToProxy("ChatService:" + entry.getValue())).ice_context(forwardedContext));
+            shardNodes.put(entry.getKey(), ShardNodePrx.uncheckedCast(
+                communicator.stringToProxy("ShardNode:" + entry.getValue())));
+            clusterBuses.put(entry.getKey(), ClusterBusPrx.uncheckedCast(
+                communicator.stringToProxy("ClusterBus:" + entry.getValue())));
+        }
+    }
+
+    /**
+     * Crea el router desde las propiedades del comunicador, o null si no hay cluster configurado
+     */
+    public static ShardRouter fromProperties(Communicator communicator) {
+        Properties props = communicator.getProperties();
+        String[] nodeIds = props.getPropertyAsList("Chat.Cluster.Nodes");
+        if (nodeIds.length == 0) {
+            return null;
+        }
+        String selfId = props.getProperty("Chat.Cluster.NodeId");
+        Map<String, String> nodeEndpoints = new LinkedHashMap<>();
+        for (String nodeId : nodeIds) {
+            String ep = props.getProperty("Chat.Cluster." + nodeId + ".Endpoints");
+            if (ep.isEmpty()) {
+                throw new IllegalArgumentException("Falta Chat.Cluster." + nodeId + ".Endpoints");
+            }
+            nodeEndpoints.put(nodeId, ep);
+        }
+        if (!nodeEndpoints.containsKey(selfId)) {
+            throw new IllegalArgumentException("Chat.Cluster.NodeId '" + selfId + "' no está en Chat.Cluster.Nodes");
+        }
+        return new ShardRouter(communicator, selfId, nodeEndpoints);
+    }
+
+    /**
+     * Ajusta las propiedades antes de crear el comunicador: un nodo del cluster atiende
+     * llamadas reenviadas mientras espera las suyas, así que necesita más de un hilo de despacho
+     */
+    public static void applyServerDefaults(Properties props) {
+        if (props.getPropertyAsList("Chat.Cluster.Nodes").length == 0) {
+            return;
+        }
+        if (props.getProperty("Ice.ThreadPool.Server.Size").isEmpty()) {
+            props.setProperty("Ice.ThreadPool.Server.Size", "4");
+        }
+        if (props.getProperty("Ice.ThreadPool.Server.SizeMax").isEmpty()) {
+            props.setProperty("Ice.ThreadPool.Server.SizeMax", "16");
+        }
+    }
+
+    public String getSelfId() {
+        return selfId;
+    }
+
+    public String ownerOfUser(String username) {
+        return ring.ownerOf(username);
+    }
+
+    public String ownerOfGroup(String groupName) {
+        // Mismo prefijo que los archivos de historial de grupo
+        return ring.ownerOf("#" + groupName);
+    }
+
+    public boolean ownsUser(String username) {
+        return selfId.equals(ownerOfUser(username));
+    }
+
+    public boolean ownsGroup(String groupName) {
+        return selfId.equals(ownerOfGroup(groupName));
+    }
+
+    public String endpointsOf(String nodeId) {
+        return endpoints.get(nodeId);
+    }
+
+    public Collection<String> remoteNodes() {
+        return chatServices.keySet();
+    }
+
+    /**
+     * Proxy al ChatService de otro nodo; sus llamadas llevan la marca FORWARDED
+     */
+    public ChatServicePrx chatService(String nodeId) {
+        return chatServices.get(nodeId);
+    }
+
+    public ShardNodePrx shardNode(String nodeId) {
+        return shardNodes.get(nodeId);
+    }
+
+    public ClusterBusPrx clusterBus(String nodeId) {
+        return clusterBuses.get(nodeId);
+    }
+}
@@ -0,0 +1,479 @@
+package cluster;
+
+import Chat.*;
+import com.zeroc.Ice.Current;
+import ice.ChatServiceImpl;
+import logging.Log;
+import logging.Logger;
+import services.SearchIndex;
+
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
+
+/**
+ * Capa de enrutamiento del cluster delante del servant local.
+ * Cada operación se ejecuta en el nodo dueño del usuario o grupo involucrado:
+ * si es este nodo se delega a ChatServiceImpl, si no se reenvía por Ice al dueño.
+ * Las consultas globales (usuarios, grupos, historial) se reparten a todos los nodos
+ * y se combinan los resultados.
+ *
+ * Los clientes pueden conectarse a cualquier nodo: el login queda en el nodo de la conexión
+ * y los push hacia usuarios de otros nodos viajan por el EventBus.
+ */
+public class ShardedChatService implements ChatService {
+
+    private static final Logger logger = Log.get("cluster");
+
+    private final ChatServiceImpl local;
+    private final ShardRouter router;
+
+    public ShardedChatService(ChatServiceImpl local, ShardRouter router) {
+        this.local = local;
+        this.router = router;
+    }
+
+    // ========== AUTENTICACIÓN ==========
+
+    @Override
+    public Response login(String username, ChatCallbackPrx callback, Current current) {
+        // El callback queda atado a la conexión: se registra aquí y se anuncia a los demás nodos
+        Response response = local.login(username, callback, current);
+        if (response.success && !router.ownsUser(username)) {
+            // El buzón vive en el dueño: sin registro allí, lo que le escriban offline quedaría
+            // solo en el historial (el anuncio por el bus no sobrevive a un reinicio del dueño)
+            String owner = router.ownerOfUser(username);
+            try {
+                router.shardNode(owner).registerUser(username);
+            } catch (com.zeroc.Ice.LocalException e) {
+                logger.warn("Error registrando usuario en su nodo dueño", "user", username, "node", owner, "error", e);
+            }
+        }
+        return response;
+    }
+
+    @Override
+    public Response logout(String username, Current current) {
+        return local.logout(username, current);
+    }
+
+    // ========== GESTIÓN DE USUARIOS ==========
+
+    @Override
+    public String[] getOnlineUsers(Current current) {
+        if (isForwarded(current)) {
+            return local.getOnlineUsers(current);
+        }
+        return gatherDistinct(local.getOnlineUsers(current), ChatServicePrx::getOnlineUsersAsync);
+    }
+
+    @Override
+    public Map<String, Boolean> getAllUsers(Current current) {
+        Map<String, Boolean> users = new HashMap<>(local.getAllUsers(current));
+        if (isForwarded(current)) {
+            return users;
+        }
+        for (Map<String, Boolean> remote : gather(ChatServicePrx::getAllUsersAsync)) {
+            remote.forEach((username, online) -> users.merge(username, online, Boolean::logicalOr));
+        }
+        return users;
+    }
+
+    // ========== MENSAJERÍA ==========
+
+    @Override
+    public Response sendMessageToUser(String from, String to, String content, Current current) {
+        // El servant local guarda la copia del remitente y entrega al dueño del destinatario
+        return local.sendMessageToUser(from, to, content, current);
+    }
+
+    @Override
+    public Response sendMessageToGroup(String from, String groupName, String content, Current current) {
+        if (isForwarded(current) || router.ownsGroup(groupName)) {
+            return local.sendMessageToGroup(from, groupName, content, current);
+        }
+        return forward(router.ownerOfGroup(groupName), prx -> prx.sendMessageToGroupAsync(from, groupName, content));
+    }
+
+    @Override
+    public Response[] sendMessages(Message[] messages, Current current) {
+        if (isForwarded(current)) {
+            return local.sendMessages(messages, current);
+        }
+        // Los mensajes a grupos de otros nodos van en un sub-lote a cada dueño; el resto, como sendMessageToUser
+        Map<String, List<Integer>> byNode = new LinkedHashMap<>();
+        List<Integer> here = new ArrayList<>();
+        for (int i = 0; i < messages.length; i++) {
+            Message msg = messages[i];
+            if (msg.isGroup && !router.ownsGroup(msg.to)) {
+                byNode.computeIfAbsent(router.ownerOfGroup(msg.to), node -> new ArrayList<>()).add(i);
+            } else {
+                here.add(i);
+            }
+        }
+        if (byNode.isEmpty()) {
+            return local.sendMessages(messages, current);
+        }
+        
+        Map<String, CompletableFuture<Response[]>> pending = new LinkedHashMap<>();
+        byNode.forEach((nodeId, indexes) -> pending.put(nodeId, router.chatService(nodeId).sendMessagesAsync(pick(messages, indexes))));
+        Response[] results = new Response[messages.length];
+        if (!here.isEmpty()) {
+            scatter(results, here, local.sendMessages(pick(messages, here), current));
+        }
+        for (Map.Entry<String, CompletableFuture<Response[]>> entry : pending.entrySet()) {
+            List<Integer> indexes = byNode.get(entry.getKey());
+            try {
+                scatter(results, indexes, entry.getValue().join());
+            } catch (Exception e) {
+                logger.warn("Error reenviando lote", "node", entry.getKey(), "messages", indexes.size(), "error", e.getMessage());
+                for (int index : indexes) {
+                    results[index] = new Response(false, "Nodo " + entry.getKey() + " no disponible");
+                }
+            }
+        }
+        return results;
+    }
+
+    @Override
+    public Message[] getPendingMessages(String username, Current current) {
+        if (isForwarded(current) || router.ownsUser(username)) {
+            return local.getPendingMessages(username, current);
+        }
+        try {
+            return router.chatService(router.ownerOfUser(username)).getPendingMessages(username);
+        } catch (com.zeroc.Ice.LocalException e) {
+            logger.warn("Error obteniendo pendientes", "user", username, "error", e);
+            return new Message[0];
+        }
+    }
+
+    @Override
+    public void ackMessages(String username, long upToId, Current current) {
+        // El buzón vive en el nodo dueño; si la confirmación se pierde, ese nodo reintenta el push
+        if (isForwarded(current)) {
+            local.ackFromPeer(username, current.ctx.get(ShardRouter.FORWARDED), upToId);
+            return;
+        }
+        if (router.ownsUser(username)) {
+            local.ackMessages(username, upToId, current);
+            return;
+        }
+        // Los cursores de los dispositivos están en este nodo: al dueño le llega la confirmación ya acotada
+        long upTo = local.ackDevice(username, upToId, current);
+        if (upTo <= 0) {
+            return;
+        }
+        router.chatService(router.ownerOfUser(username)).ackMessagesAsync(username, upTo).whenComplete((result, ex) -> {
+            if (ex != null) {
+                logger.warn("Error reenviando confirmación", "user", username, "error", ex.getMessage());
+            }
+        });
+    }
+
+    // ========== GESTIÓN DE GRUPOS ==========
+
+    @Override
+    public Response createGroup(String groupName, String creator, Current current) {
+        if (isForwarded(current) || router.ownsGroup(groupName)) {
+            return local.createGroup(groupName, creator, current);
+        }
+        return forward(router.ownerOfGroup(groupName), prx -> prx.createGroupAsync(groupName, creator));
+    }
+
+    @Override
+    public Response addToGroup(String groupName, String username, Current current) {
+        if (isForwarded(current) || router.ownsGroup(groupName)) {
+            return local.addToGroup(groupName, username, current);
+        }
+        return forward(router.ownerOfGroup(groupName), prx -> prx.addToGroupAsync(groupName, username));
+    }
+
+    @Override
+    public String[] getGroups(Current current) {
+        if (isForwarded(current)) {
+            return local.getGroups(current);
+        }
+        return gatherDistinct(local.getGroups(current), ChatServicePrx::getGroupsAsync);
+    }
+
+    @Override
+    public String[] getUserGroups(String username, Current current) {
+        if (isForwarded(current)) {
+            return local.getUserGroups(username, current);
+        }
+        return gatherDistinct(local.getUserGroups(username, current), prx -> prx.getUserGroupsAsync(username));
+    }
+
+    @Override
+    public String[] getGroupMembers(String groupName, Current current) {
+        if (isForwarded(current) || router.ownsGroup(groupName)) {
+            return local.getGroupMembers(groupName, current);
+        }
+        try {
+            return router.chatService(router.ownerOfGroup(groupName)).getGroupMembers(groupName);
+        } catch (com.zeroc.Ice.LocalException e) {
+            logger.warn("Error obteniendo miembros", "group", groupName, "error", e);
+            return new String[0];
+        }
+    }
+
+    // ========== HISTORIAL ==========
+
+    @Override
+    public String[] getHistory(String username, Current current) {
+        if (isForwarded(current)) {
+            return local.getHistory(username, current);
+        }
+        // Cada nodo devuelve lo que guarda de este usuario: su archivo privado y los grupos que
+        // posee. Se concatenan en el orden de los ids de nodo, el mismo que usa getHistoryPage
+        Map<String, CompletableFuture<String[]>> pending = new LinkedHashMap<>();
+        for (String nodeId : historyNodes()) {
+            if (!nodeId.equals(router.getSelfId())) {
+                pending.put(nodeId, router.chatService(nodeId).getHistoryAsync(username));
+            }
+        }
+        List<String> history = new ArrayList<>();
+        for (String nodeId : historyNodes()) {
+            if (nodeId.equals(router.getSelfId())) {
+                history.addAll(Arrays.asList(local.getHistory(username, current)));
+            } else {
+                history.addAll(Arrays.asList(join(nodeId, pending.get(nodeId), new String[0])));
+            }
+        }
+        return history.toArray(new String[0]);
+    }
+
+    @Override
+    public String[] getHistoryPage(String username, int offset, int limit, Current current) {
+        if (isForwarded(current)) {
+            return local.getHistoryPage(username, offset, limit, current);
+        }
+        // El historial está repartido entre nodos: cada uno dice cuántas líneas guarda y solo
+        // se le pide la parte de la página que cae en las suyas (con la cola en memoria del
+        // nodo, la última página no toca el disco en ninguno)
+        List<String> nodes = historyNodes();
+        Map<String, CompletableFuture<Integer>> sizes = new LinkedHashMap<>();
+        for (String nodeId : nodes) {
+            if (!nodeId.equals(router.getSelfId())) {
+                sizes.put(nodeId, router.shardNode(nodeId).historySizeAsync(username));
+            }
+        }
+        long from = Math.max(offset, 0);
+        long to = from + Math.max(limit, 0);
+        long base = 0;
+        Map<String, CompletableFuture<String[]>> parts = new LinkedHashMap<>();
+        for (String nodeId : nodes) {
+            boolean self = nodeId.equals(router.getSelfId());
+            int size = self ? local.historySizeForPeer(username) : join(nodeId, sizes.get(nodeId), 0);
+            long end = base + size;
+            if (end > from && base < to) {
+                int partOffset = (int) (Math.max(from, base) - base);
+                int partLimit = (int) (Math.min(to, end) - base) - partOffset;
+                parts.put(nodeId, self
+                    ? CompletableFuture.completedFuture(local.getHistoryPage(username, partOffset, partLimit, current))
+                    : router.chatService(nodeId).getHistoryPageAsync(username, partOffset, partLimit));
+            }
+            base = end;
+        }
+        List<String> page = new ArrayList<>();
+        parts.forEach((nodeId, part) -> page.addAll(Arrays.asList(join(nodeId, part, new String[0]))));
+        return page.toArray(new String[0]);
+    }
+
+    @Override
+    public String[] searchMessages(String username, String query, int limit, Current current) {
+        if (isForwarded(current)) {
+            return local.searchMessages(username, query, limit, current);
+        }
+        // Cada nodo busca en lo que guarda de este usuario; se unen por fecha, del más nuevo al más viejo
+        Set<String> hits = new LinkedHashSet<>(Arrays.asList(local.searchMessages(username, query, limit, current)));
+        for (String[] remote : gather(prx -> prx.searchMessagesAsync(username, query, limit))) {
+            hits.addAll(Arrays.asList(remote));
+        }
+        List<String> merged = new ArrayList<>(hits);
+        merged.sort(Comparator.comparingLong(SearchIndex::timestampOf).reversed());
+        return merged.subList(0, Math.min(merged.size(), SearchIndex.limitOf(limit))).toArray(new String[0]);
+    }
+
+    // ========== CONVERSACIONES ==========
+
+    @Override
+    public ConversationSummary[] getConversationSummaries(String username, Current current) {
+        if (isForwarded(current)) {
+            return local.getConversationSummaries(username, current);
+        }
+        // Un privado vive en el nodo de cada destinatario y un grupo en el de su dueño: por
+        // conversación gana el último mensaje más nuevo y los no leídos son los del nodo que
+        // recibe (en el del remitente quedan en cero)
+        Map<String, ConversationSummary> merged = new LinkedHashMap<>();
+        List<ConversationSummary[]> parts = new ArrayList<>();
+        parts.add(local.getConversationSummaries(username, current));
+        parts.addAll(gather(prx -> prx.getConversationSummariesAsync(username)));
+        for (ConversationSummary[] part : parts) {
+            for (ConversationSummary summary : part) {
+                merged.merge((summary.isGroup ? "#" : "@") + summary.conversation, summary, (a, b) -> {
+                    ConversationSummary latest = (b.timestamp > a.timestamp ? b : a).clone();
+                    latest.unread = Math.max(a.unread, b.unread);
+                    return latest;
+                });
+            }
+        }
+        List<ConversationSummary> result = new ArrayList<>(merged.values());
+        result.sort(Comparator.comparingLong((ConversationSummary summary) -> summary.timestamp).reversed());
+        return result.toArray(new ConversationSummary[0]);
+    }
+
+    @Override
+    public void markConversationRead(String username, String conversation, boolean isGroup, Current current) {
+        local.markConversationRead(username, conversation, isGroup, current);
+        if (!isForwarded(current)) {
+            gather(prx -> prx.markConversationReadAsync(username, conversation, isGroup));
+        }
+    }
+
+    // ========== NOTAS DE VOZ ==========
+
+    @Override
+    public Response sendVoiceNoteToUser(String from, String to, byte[] audioData, Current current) {
+        if (isForwarded(current) || router.ownsUser(to)) {
+            return local.sendVoiceNoteToUser(from, to, audioData, current);
+        }
+        return forward(router.ownerOfUser(to), prx -> prx.sendVoiceNoteToUserAsync(from, to, audioData));
+    }
+
+    @Override
+    public Response sendVoiceNoteToGroup(String from, String groupName, byte[] audioData, Current current) {
+        if (isForwarded(current) || router.ownsGroup(groupName)) {
+            return local.sendVoiceNoteToGroup(from, groupName, audioData, current);
+        }
+        return forward(router.ownerOfGroup(groupName), prx -> prx.sendVoiceNoteToGroupAsync(from, groupName, audioData));
+    }
+
+    // ========== LLAMADAS WEBRTC ==========
+    // Se resuelven en el nodo dueño del destinatario, que sabe en qué nodo está su conexión de
+    // llamadas (CallService.joinCall). Si esa conexión está en este nodo el audio sale directo
+
+    @Override
+    public Response initiateCall(String from, String to, Current current) {
+        if (isForwarded(current) || router.ownsUser(to)) {
+            return local.initiateCall(from, to, current);
+        }
+        return forward(router.ownerOfUser(to), prx -> prx.initiateCallAsync(from, to));
+    }
+
+    @Override
+    public Response sendWebRTCSignal(String from, String to, String signalType, String signalData, Current current) {
+        if (isForwarded(current) || router.ownsUser(to) || local.hasCallChannel(to)) {
+            return local.sendWebRTCSignal(from, to, signalType, signalData, current);
+        }
+        return forward(router.ownerOfUser(to), prx -> prx.sendWebRTCSignalAsync(from, to, signalType, signalData));
+    }
+
+    @Override
+    public Response sendICECandidate(String from, String to, String candidate, Current current) {
+        if (isForwarded(current) || router.ownsUser(to) || local.hasCallChannel(to)) {
+            return local.sendICECandidate(from, to, candidate, current);
+        }
+        return forward(router.ownerOfUser(to), prx -> prx.sendICECandidateAsync(from, to, candidate));
+    }
+
+    @Override
+    public Response endCall(String from, String to, Current current) {
+        if (isForwarded(current) || router.ownsUser(to) || local.hasCallChannel(to)) {
+            return local.endCall(from, to, current);
+        }
+        return forward(router.ownerOfUser(to), prx -> prx.endCallAsync(from, to));
+    }
+
+    @Override
+    public Response sendAudioChunk(String from, String to, byte[] audioData, Current current) {
+        if (isForwarded(current) || router.ownsUser(to) || local.hasCallChannel(to)) {
+            return local.sendAudioChunk(from, to, audioData, current);
+        }
+        return forward(router.ownerOfUser(to), prx -> prx.sendAudioChunkAsync(from, to, audioData));
+    }
+
+    @Override
+    public Response acceptCall(String from, String to, Current current) {
+        if (isForwarded(current) || router.ownsUser(to) || local.hasCallChannel(to)) {
+            return local.acceptCall(from, to, current);
+        }
+        return forward(router.ownerOfUser(to), prx -> prx.acceptCallAsync(from, to));
+    }
+
+    // ========== HELPERS ==========
+
+    private static boolean isForwarded(Current current) {
+        return current != null && current.ctx != null && current.ctx.containsKey(ShardRouter.FORWARDED);
+    }
+
+    private static Message[] pick(Message[] messages, List<Integer> indexes) {
+        Message[] picked = new Message[indexes.size()];
+        for (int i = 0; i < picked.length; i++) {
+            picked[i] = messages[indexes.get(i)];
+        }
+        return picked;
+    }
+
+    private static void scatter(Response[] results, List<Integer> indexes, Response[] partial) {
+        for (int i = 0; i < partial.length; i++) {
+            results[indexes.get(i)] = partial[i];
+        }
+    }
+
+    private Response forward(String nodeId, Function<ChatServicePrx, CompletableFuture<Response>> call) {
+        try {
+            return call.apply(router.chatService(nodeId)).join();
+        } catch (Exception e) {
+            logger.warn("Error reenviando", "node", nodeId, "error", e.getMessage());
+            return new Response(false, "Nodo " + nodeId + " no disponible");
+        }
+    }
+
+    /**
+     * Invoca la operación en todos los nodos remotos en paralelo; los nodos caídos se omiten
+     */
+    private <T> List<T> gather(Function<ChatServicePrx, CompletableFuture<T>> call) {
+        Map<String, CompletableFuture<T>> pending = new LinkedHashMap<>();
+        for (String nodeId : router.remoteNodes()) {
+            pending.put(nodeId, call.apply(router.chatService(nodeId)));
+        }
+        List<T> results = new ArrayList<>();
+        for (Map.Entry<String, CompletableFuture<T>> entry : pending.entrySet()) {
+            try {
+                results.add(entry.getValue().join());
+            } catch (Exception e) {
+                logger.warn("Nodo no respondió", "node", entry.getKey(), "error", e.getMessage());
+            }
+        }
+        return results;
+    }
+
+    /**
+     * Todos los nodos, este incluido, en un orden que no depende de cuál atiende la consulta
+     */
+    private List<String> historyNodes() {
+        List<String> nodes = new ArrayList<>(router.remoteNodes());
+        nodes.add(router.getSelfId());
+        Collections.sort(nodes);
+        return nodes;
+    }
+
+    private static <T> T join(String nodeId, CompletableFuture<T> call, T fallback) {
+        try {
+            return call.join();
+        } catch (Exception e) {
+            logger.warn("Nodo no respondió", "node", nodeId, "error", e.getMessage());
+            return fallback;
+        }
+    }
+
+    private String[] gatherDistinct(String[] localResult, Function<ChatServicePrx, CompletableFuture<String[]>> call) {
+        Set<String> merged = new LinkedHashSet<>(Arrays.asList(localResult));
+        for (String[] remote : gather(call)) {
+            merged.addAll(Arrays.asList(remote));
+        }
+        return merged.toArray(new String[0]);
+    }
+}
@@ -0,0 +1,97 @@
+package cluster;
+
+import Chat.Subscription;
+import org.roaringbitmap.RoaringBitmap;
+import services.IdBitmap;
+import services.IdTable;
+import services.SymbolTable;
+
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Registro de en qué nodos remotos tiene callbacks cada usuario. Con varios dispositivos un
+ * usuario puede estar conectado a la vez a varios nodos, y también a este: los callbacks
+ * locales no figuran aquí, están en el servant.
+ */
+public class SubscriptionRegistry {
+
+    private final SymbolTable userIds;
+    private final IdTable<Set<String>> nodesByUser = new IdTable<>(); // Conjuntos inmutables
+    private final IdBitmap remoteUsers = new IdBitmap(); // Para intersecciones con miembros de grupo
+
+    public SubscriptionRegistry(SymbolTable userIds) {
+        this.userIds = userIds;
+    }
+
+    /**
+     * Aplica un alta o baja; devuelve false si no cambió nada (alta repetida, o baja de un nodo
+     * que ya no tenía al usuario)
+     */
+    public boolean apply(Subscription subscription) {
+        int userId = userIds.intern(subscription.username);
+        boolean[] changed = {false};
+        nodesByUser.compute(userId, nodes -> {
+            boolean present = nodes != null && nodes.contains(subscription.nodeId);
+            if (subscription.online == present) {
+                return nodes;
+            }
+            changed[0] = true;
+            Set<String> updated = nodes != null ? new HashSet<>(nodes) : new HashSet<>();
+            if (subscription.online) {
+                updated.add(subscription.nodeId);
+            } else {
+                updated.remove(subscription.nodeId);
+            }
+            return publish(userId, updated);
+        });
+        return changed[0];
+    }
+
+    /**
+     * Quita un nodo de todos sus usuarios (por ejemplo, si dejó de responder)
+     */
+    public void removeNode(String nodeId) {
+        nodesByUser.forEach((userId, nodes) -> {
+            if (nodes.contains(nodeId)) {
+                nodesByUser.compute(userId, current -> {
+                    if (current == null || !current.contains(nodeId)) {
+                        return current;
+                    }
+                    Set<String> updated = new HashSet<>(current);
+                    updated.remove(nodeId);
+                    return publish(userId, updated);
+                });
+            }
+        });
+    }
+
+    /**
+     * Nodos remotos donde el usuario tiene callbacks; vacío si ninguno
+     */
+    public Set<String> nodesOf(int userId) {
+        Set<String> nodes = userId >= 0 ? nodesByUser.get(userId) : null;
+        return nodes != null ? nodes : Set.of();
+    }
+
+    /**
+     * Usuarios del conjunto dado que están conectados a otro nodo
+     */
+    public RoaringBitmap remoteAmong(IdBitmap users) {
+        return IdBitmap.and(users, remoteUsers);
+    }
+
+    public int size() {
+        return remoteUsers.size();
+    }
+
+    // Bajo el lock de nodesByUser: el bitmap sigue al conjunto en el mismo orden
+    private Set<String> publish(int userId, Set<String> nodes) {
+        if (nodes.isEmpty()) {
+            remoteUsers.remove(userId);
+            return null;
+        }
+        remoteUsers.add(userId);
+        return Set.copyOf(nodes);
+    }
+}
@@ -0,0 +1,65 @@
+package ice;
+
+import Chat.CallService;
+import Chat.ChatCallbackPrx;
+import Chat.ChatService;
+import Chat.Response;
+import com.zeroc.Ice.Current;
+
+/**
+ * Servant de CallService, publicado en CallAdapter con su propio pool de hilos.
+ * Las operaciones de llamada pasan por la misma cadena de capas que ChatService
+ * (cluster, seguidor, métricas), que las resuelve en el nodo dueño del destinatario;
+ * joinCall y leaveCall van directo al servant local, que guarda el callback de la conexión
+ * de llamadas y le avisa al nodo dueño del usuario dónde quedó.
+ */
+public class CallServiceImpl implements CallService {
+
+    private final ChatService chat;
+    private final ChatServiceImpl local;
+
+    public CallServiceImpl(ChatService chat, ChatServiceImpl local) {
+        this.chat = chat;
+        this.local = local;
+    }
+
+    @Override
+    public Response joinCall(String username, ChatCallbackPrx callback, Current current) {
+        return local.joinCall(username, callback, current);
+    }
+
+    @Override
+    public void leaveCall(String username, Current current) {
+        local.leaveCall(username, current);
+    }
+
+    @Override
+    public Response initiateCall(String from, String to, Current current) {
+        return chat.initiateCall(from, to, current);
+    }
+
+    @Override
+    public Response acceptCall(String from, String to, Current current) {
+        return chat.acceptCall(from, to, current);
+    }
+
+    @Override
+    public Response endCall(String from, String to, Current current) {
+        return chat.endCall(from, to, current);
+    }
+
+    @Override
+    public Response sendWebRTCSignal(String from, String to, String signalType, String signalData, Current current) {
+        return chat.sendWebRTCSignal(from, to, signalType, signalData, current);
+    }
+
+    @Override
+    public Response sendICECandidate(String from, String to, String candidate, Current current) {
+        return chat.sendICECandidate(from, to, candidate, current);
+    }
+
+    @Override
+    public Response sendAudioChunk(String from, String to, byte[] audioData, Current current) {
+        return chat.sendAudioChunk(from, to, audioData, current);
+    }
+}
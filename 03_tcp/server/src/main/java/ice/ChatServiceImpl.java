@@ -1,14 +1,32 @@
 package ice;
 
 import Chat.*;
+import cluster.EventBus;
+import cluster.PushEvents;
+import cluster.ShardRouter;
 import com.zeroc.Ice.Current;
+import jfr.AudioRelayEvent;
+import jfr.GroupFanoutEvent;
+import logging.Log;
+import logging.Logger;
+import org.roaringbitmap.RoaringBitmap;
 import services.ChatServicesImpl;
+import services.ConversationIndex;
+import services.IdTable;
+import services.Mailbox;
+import services.SymbolTable;
+import tracing.Trace;
+import tracing.Tracing;
 
 import java.io.File;
 import java.io.IOException;
 import java.time.Instant;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
 
 /**
  * Implementación del Servant Ice para ChatService
@@ -16,57 +34,184 @@ import java.util.concurrent.ConcurrentHashMap;
  */
 public class ChatServiceImpl implements ChatService {
     
+    private static final Logger logger = Log.get("ice");
+    private static final long RETRY_TICK_MS = 250;
+    
     private final ChatServicesImpl chatServices;
+    private final SymbolTable userIds;
+    
+    // Dispositivos conectados por id de usuario (para notificaciones push), cada uno con su control de flujo
+    private final IdTable<DeviceSet> callbacks = new IdTable<>();
+    private PushLimits pushLimits = PushLimits.defaults();
+    
+    // Callbacks registrados en la conexión de llamadas (CallService.joinCall): audio y señalización
+    private final IdTable<PushChannel> callChannels = new IdTable<>();
+    // Nodo de la conexión de llamadas de los usuarios de esta partición que la abrieron en otro nodo
+    private final IdTable<String> callNodes = new IdTable<>();
+    
+    // Close y heartbeat callbacks: uno por conexión para todas las sesiones que la comparten
+    private final ConnectionSessions connections = new ConnectionSessions();
+    
+    // Usuarios con mensajes empujados esperando confirmación; los recorre el hilo de reintentos
+    private final Set<Integer> awaitingAck = ConcurrentHashMap.newKeySet();
+    private ScheduledExecutorService retryTimer;
+    
+    // Cursor de confirmación por nodo de los usuarios de esta partición conectados en otros nodos
+    private final IdTable<Map<String, Long>> peerAcks = new IdTable<>();
     
-    // Callbacks registrados por usuario (para notificaciones push)
-    private final Map<String, ChatCallbackPrx> callbacks = new ConcurrentHashMap<>();
+    // Vence las ventanas de los lotes de mensajes de cada conexión (null: un push por mensaje)
+    private ScheduledExecutorService flushTimer;
+    
+    // Cierra las conexiones que dejaron de dar señales de vida
+    private SessionLimits sessionLimits = SessionLimits.defaults();
+    private ScheduledExecutorService reaper;
+    
+    // Topología del cluster y bus hacia los demás nodos (null si el servidor corre en un solo nodo)
+    private ShardRouter router;
+    private EventBus bus;
     
     public ChatServiceImpl(ChatServicesImpl chatServices) {
         this.chatServices = chatServices;
+        this.userIds = chatServices.getUserIds();
+    }
+    
+    /**
+     * Activa el modo cluster: los destinatarios de otras particiones se entregan a su nodo dueño
+     */
+    public void setShardRouter(ShardRouter router) {
+        this.router = router;
+        chatServices.setUserOwnership(router::ownsUser);
+    }
+    
+    /**
+     * Los push a usuarios sin callback local se publican al nodo donde estén conectados
+     */
+    public void setEventBus(EventBus bus) {
+        this.bus = bus;
+    }
+    
+    /**
+     * Límites de push por conexión; aplican a los usuarios que hagan login después
+     */
+    public void setPushLimits(PushLimits pushLimits) {
+        this.pushLimits = pushLimits;
+    }
+    
+    public PushLimits getPushLimits() {
+        return pushLimits;
+    }
+    
+    public void setSessionLimits(SessionLimits sessionLimits) {
+        this.sessionLimits = sessionLimits;
+    }
+    
+    public SessionLimits getSessionLimits() {
+        return sessionLimits;
+    }
+    
+    /**
+     * Arranca el hilo que reintenta los mensajes empujados sin confirmar
+     */
+    public void startRetries() {
+        retryTimer = Executors.newSingleThreadScheduledExecutor(task -> {
+            Thread thread = new Thread(task, "push-retry");
+            thread.setDaemon(true);
+            return thread;
+        });
+        retryTimer.scheduleWithFixedDelay(this::retryUnacked, RETRY_TICK_MS, RETRY_TICK_MS, TimeUnit.MILLISECONDS);
+    }
+    
+    /**
+     * Arranca el hilo que envía los lotes de mensajes al vencer su ventana (Chat.Push.BatchWindowMs),
+     * que aplica a los usuarios que hagan login después, y vacía las notificaciones batch oneway
+     * de todas las conexiones cada Chat.Push.NotifyFlushMs
+     */
+    public void startBatching() {
+        flushTimer = Executors.newSingleThreadScheduledExecutor(task -> {
+            Thread thread = new Thread(task, "push-flush");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long period = pushLimits.getNotifyFlushMs();
+        flushTimer.scheduleWithFixedDelay(this::flushNotifications, period, period, TimeUnit.MILLISECONDS);
+    }
+    
+    /**
+     * Arranca el hilo que expira las sesiones sin señales de vida (Chat.Session.*)
+     */
+    public void startReaper() {
+        if (sessionLimits.idleMs == 0) {
+            return;
+        }
+        reaper = Executors.newSingleThreadScheduledExecutor(task -> {
+            Thread thread = new Thread(task, "session-reaper");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long period = sessionLimits.getReapMs();
+        reaper.scheduleWithFixedDelay(this::reapIdle, period, period, TimeUnit.MILLISECONDS);
     }
     
     // ========== AUTENTICACIÓN ==========
     
     @Override
     public Response login(String username, ChatCallbackPrx callback, Current current) {
-        System.out.println("[ICE] Login request from: " + username);
+        logger.info("Login", "user", username);
         
+        PushChannel channel = null;
+        boolean[] firstDevice = {true};
         try {
             // Registrar callback para notificaciones push usando ice_fixed
             if (callback != null && current.con != null) {
-                System.out.println("[ICE] Registering callback for: " + username);
-                System.out.println("[ICE] Callback proxy: " + callback.toString());
                 
                 // CRÍTICO: Usar ice_fixed para vincular el callback a la conexión actual
                 ChatCallbackPrx fixedCallback = callback.ice_fixed(current.con);
-                callbacks.put(username, fixedCallback);
+                int userId = userIds.intern(username);
+                PushChannel device = new PushChannel(username, fixedCallback, current.con, pushLimits);
+                channel = device;
+                // Otro dispositivo del mismo usuario se suma a los que ya estaban
+                DeviceSet devices = callbacks.compute(userId, existing -> {
+                    firstDevice[0] = existing == null;
+                    DeviceSet updated = existing != null ? existing : new DeviceSet(pushLimits, flushTimer);
+                    updated.add(device);
+                    return updated;
+                });
+                if (bus != null) {
+                    bus.announce(username, true);
+                }
                 
-                // Manejar desconexión automática
-                current.con.setCloseCallback(connection -> {
-                    System.out.println("[ICE] ⚠️  Conexión cerrada, eliminando callback: " + username);
-                    callbacks.remove(username);
-                    try {
-                        chatServices.logout(username);
-                    } catch (Exception e) {
-                        System.err.println("[ICE] Error en logout automático: " + e.getMessage());
+                // Manejar desconexión automática (junto con las demás sesiones de la conexión)
+                connections.bind(current.con, "chat:" + username, device, () -> expire(userId, username, device));
+                
+                logger.debug("Callback registrado", "user", username, "devices", devices.size());
+            } else if (current.con != null) {
+                // Sin callback el reaper no ve la sesión: se cierra con la conexión
+                int userId = userIds.intern(username);
+                connections.bind(current.con, "chat:" + username, null, () -> {
+                    if (callbacks.get(userId) == null && chatServices.logout(username)) {
+                        logger.info("Conexión cerrada, sesión sin callback", "user", username);
+                        notifyUserStatusChange(username, false);
                     }
                 });
-                
-                System.out.println("[ICE] ✅ Callback registered successfully for: " + username);
-                System.out.println("[ICE] Total callbacks now: " + callbacks.size());
+                logger.warn("Login sin callback", "user", username);
             } else {
-                System.err.println("[ICE] ❌ Callback is NULL or no connection for user: " + username);
+                logger.warn("Login sin callback o sin conexión", "user", username);
             }
             
             // Delegar al servicio existente
             boolean success = chatServices.login(username, 0, null);
             
             if (success) {
-                // Notificar a todos los usuarios online sobre el nuevo usuario
-                notifyUserStatusChange(username, true);
+                // Notificar a todos los usuarios online sobre el nuevo usuario (no por cada dispositivo)
+                if (firstDevice[0]) {
+                    notifyUserStatusChange(username, true);
+                }
+                
+                // Reenviar lo que quedó sin confirmar en el buzón (si el buzón vive en este nodo)
+                redeliver(userIds.intern(username), username);
                 
-                // Enviar notas de voz pendientes desde el historial
-                sendPendingVoiceNotes(username);
+                // Enviar notas de voz pendientes desde el historial al dispositivo que entra
+                sendPendingVoiceNotes(username, channel);
                 
                 return new Response(true, "Login exitoso");
             } else {
@@ -74,17 +219,39 @@ public class ChatServiceImpl implements ChatService {
             }
             
         } catch (IOException e) {
-            System.err.println("[ICE] Error en login: " + e.getMessage());
+            logger.error("Error en login", "user", username, "error", e.getMessage());
             return new Response(false, "Error: " + e.getMessage());
         }
     }
     
     @Override
     public Response logout(String username, Current current) {
-        System.out.println("[ICE] Logout request from: " + username);
+        logger.info("Logout", "user", username);
         
-        // Remover callback
-        callbacks.remove(username);
+        // Sale el dispositivo de esta conexión; lo que quedó en su lote de notificaciones sale ahora
+        int userId = userIds.idOf(username);
+        DeviceSet devices = callbacks.get(userId);
+        PushChannel device = devices != null ? devices.find(current.con) : null;
+        if (devices != null && device == null) {
+            // Conexión sin callback (poll, otra pestaña): los dispositivos del usuario siguen conectados
+            logger.debug("Logout de una conexión sin dispositivo", "user", username, "devices", devices.size());
+            return new Response(true, "Logout exitoso");
+        }
+        int remaining = device != null ? detach(userId, device) : -1;
+        if (remaining > 0) {
+            device.flushNotifications();
+            logger.debug("Dispositivo desconectado", "user", username, "devices", remaining);
+            return new Response(true, "Logout exitoso");
+        }
+        if (callChannels.remove(userId) != null) {
+            announceCallChannel(username, false);
+        }
+        if (remaining == 0) {
+            device.flushNotifications();
+            if (bus != null) {
+                bus.announce(username, false);
+            }
+        }
         
         // Delegar al servicio existente
         boolean success = chatServices.logout(username);
@@ -115,31 +282,27 @@ public class ChatServiceImpl implements ChatService {
     
     @Override
     public Response sendMessageToUser(String from, String to, String content, Current current) {
-        System.out.println("[ICE] Message from " + from + " to " + to + ": " + content);
+        if (logger.isDebugEnabled()) {
+            logger.debug("Mensaje privado", "from", from, "to", to, "length", content.length());
+        }
         
+        Trace trace = Tracing.begin("sendMessageToUser", from, to, current);
         try {
-            boolean success = chatServices.sendMessageToUser(from, to, content);
+            long timestamp = System.currentTimeMillis();
+            boolean success = chatServices.sendMessageToUser(from, to, content, timestamp);
+            
+            if (success && router != null && !router.ownsUser(to)) {
+                // El buzón del destinatario vive en su nodo dueño, que asigna el id y hace el push;
+                // la fecha es la que quedó en el historial del remitente
+                Message msg = new Message(from, to, content, timestamp, false, 0);
+                deliverToNode(router.ownerOfUser(to), msg, new String[] { to });
+                return new Response(true, "Mensaje enviado");
+            }
             
             if (success) {
-                // Notificación push en tiempo real al destinatario
-                System.out.println("[ICE] Looking for callback for user: " + to);
-                System.out.println("[ICE] Total callbacks registered: " + callbacks.size());
-                System.out.println("[ICE] Registered users: " + callbacks.keySet());
-                
-                ChatCallbackPrx callback = callbacks.get(to);
-                if (callback != null) {
-                    System.out.println("[ICE] ✓ Callback found for: " + to);
-                    Message msg = new Message(from, to, content, System.currentTimeMillis(), false);
-                    try {
-                        System.out.println("[ICE] Sending async notification...");
-                        callback.onNewMessageAsync(msg); // Async para no bloquear
-                        System.out.println("[ICE] ✅ Push notification sent to: " + to);
-                    } catch (Exception e) {
-                        System.err.println("[ICE] ❌ Error sending push notification: " + e.getMessage());
-                        e.printStackTrace();
-                    }
-                } else {
-                    System.err.println("[ICE] ❌ No callback registered for user: " + to);
+                // Notificación push en tiempo real al destinatario desde su buzón
+                if (deliverMailbox(userIds.idOf(to), to, trace) == 0) {
+                    logger.trace("Destinatario sin conexión, el mensaje queda en el buzón", "to", to);
                 }
                 
                 return new Response(true, "Mensaje enviado");
@@ -148,36 +311,51 @@ public class ChatServiceImpl implements ChatService {
             }
             
         } catch (IOException e) {
-            System.err.println("[ICE] Error sending message: " + e.getMessage());
+            logger.error("Error enviando mensaje", "from", from, "to", to, "error", e.getMessage());
             return new Response(false, "Error: " + e.getMessage());
+        } finally {
+            Tracing.end(trace);
         }
     }
     
     @Override
     public Response sendMessageToGroup(String from, String groupName, String content, Current current) {
-        System.out.println("[ICE] Group message from " + from + " to " + groupName + ": " + content);
+        if (logger.isDebugEnabled()) {
+            logger.debug("Mensaje de grupo", "from", from, "group", groupName, "length", content.length());
+        }
         
+        Trace trace = Tracing.begin("sendMessageToGroup", from, groupName, current);
         try {
-            boolean success = chatServices.sendMessageToGroup(from, groupName, content);
+            long timestamp = System.currentTimeMillis();
+            boolean success = chatServices.sendMessageToGroup(from, groupName, content, timestamp);
             
             if (success) {
-                // Notificar a todos los miembros del grupo (excepto el remitente)
-                List<String> members = chatServices.getGroupMembers(groupName);
-                Message msg = new Message(from, groupName, content, System.currentTimeMillis(), true);
+                // Notificar a los miembros online del grupo (excepto el remitente), cada uno desde su buzón.
+                // Los conectados a otro nodo también se empujan desde aquí si su buzón vive en este nodo.
+                RoaringBitmap members = chatServices.getOnlineGroupMembers(groupName);
+                if (bus != null) {
+                    members.or(bus.getRegistry().remoteAmong(chatServices.getGroupMemberSet(groupName)));
+                }
+                int fromId = userIds.idOf(from);
                 
-                for (String member : members) {
-                    if (!member.equals(from)) {
-                        ChatCallbackPrx callback = callbacks.get(member);
-                        if (callback != null) {
-                            try {
-                                callback.onNewMessageAsync(msg);
-                                System.out.println("[ICE] Push notification sent to group member: " + member);
-                            } catch (Exception e) {
-                                System.err.println("[ICE] Error sending push to " + member + ": " + e.getMessage());
-                            }
-                        }
+                GroupFanoutEvent fanout = new GroupFanoutEvent();
+                fanout.begin();
+                long fanoutStart = System.nanoTime();
+                int pushes = 0;
+                for (int memberId : members) {
+                    if (memberId != fromId && ownsUser(memberId)) {
+                        pushes += deliverMailbox(memberId, userIds.nameOf(memberId), trace);
                     }
                 }
+                Tracing.span("fanout", "online", members.getCardinality(), fanoutStart);
+                commitFanout(fanout, "message", groupName, fromId, members.getCardinality(), pushes, 0);
+                
+                // Los miembros de otras particiones los encola y empuja su nodo dueño
+                if (router != null) {
+                    long remoteStart = System.nanoTime();
+                    deliverToRemoteMembers(groupName, fromId, new Message(from, groupName, content, timestamp, true, 0));
+                    Tracing.span("remote", null, remoteStart);
+                }
                 
                 return new Response(true, "Mensaje enviado al grupo");
             } else {
@@ -185,35 +363,177 @@ public class ChatServiceImpl implements ChatService {
             }
             
         } catch (IOException e) {
-            System.err.println("[ICE] Error sending group message: " + e.getMessage());
+            logger.error("Error enviando mensaje de grupo", "from", from, "group", groupName, "error", e.getMessage());
             return new Response(false, "Error: " + e.getMessage());
+        } finally {
+            Tracing.end(trace);
         }
     }
     
     @Override
-    public Message[] getPendingMessages(String username, Current current) {
-        List<String> pending = chatServices.getPendingMessages(username);
-        List<Message> messages = new ArrayList<>();
+    public Response[] sendMessages(Message[] messages, Current current) {
+        Response[] results = new Response[messages.length];
+        if (messages.length == 0) {
+            return results;
+        }
+        logger.debug("Lote de mensajes", "from", messages[0].from, "messages", messages.length);
         
-        for (String msg : pending) {
-            // Parsear formato: "MSG|from|content" o "GROUP|groupName|from|content"
-            String[] parts = msg.split("\\|");
+        Trace trace = Tracing.begin("sendMessages", messages[0].from, messages.length + " mensajes", current);
+        try {
+            List<ChatServicesImpl.Outgoing> batch = new ArrayList<>(messages.length);
+            List<Integer> indexes = new ArrayList<>(messages.length);
+            for (int i = 0; i < messages.length; i++) {
+                Message msg = messages[i];
+                String error = validate(msg);
+                if (error != null) {
+                    results[i] = new Response(false, error);
+                } else {
+                    batch.add(new ChatServicesImpl.Outgoing(msg.from, msg.to, msg.content, msg.isGroup));
+                    indexes.add(i);
+                }
+            }
+            if (batch.isEmpty()) {
+                return results;
+            }
+            
+            long timestamp = System.currentTimeMillis();
+            RoaringBitmap recipients = chatServices.sendMessages(batch, timestamp);
+            
+            // Solo fallan los mensajes cuyo archivo no se pudo escribir: los demás ya quedaron
+            // guardados y se entregan, así el reintento del cliente no los duplica
+            int failed = 0;
+            for (int i = 0; i < batch.size(); i++) {
+                ChatServicesImpl.Outgoing outgoing = batch.get(i);
+                if (outgoing.error != null) {
+                    results[indexes.get(i)] = new Response(false, "Error: " + outgoing.error.getMessage());
+                    failed++;
+                } else {
+                    results[indexes.get(i)] = new Response(true, outgoing.isGroup ? "Mensaje enviado al grupo" : "Mensaje enviado");
+                }
+            }
+            if (failed > 0) {
+                logger.error("Mensajes del lote sin guardar", "from", messages[0].from, "messages", messages.length, "failed", failed);
+            }
+            
+            // Un solo recorrido del buzón por destinatario: sus mensajes del lote salen juntos y en orden
+            long fanoutStart = System.nanoTime();
+            for (int userId : recipients) {
+                deliverMailbox(userId, userIds.nameOf(userId), trace);
+            }
+            Tracing.span("fanout", "destinatarios", recipients.getCardinality(), fanoutStart);
             
-            if (parts[0].equals("MSG") && parts.length >= 3) {
-                messages.add(new Message(parts[1], username, parts[2], System.currentTimeMillis(), false));
-            } else if (parts[0].equals("GROUP") && parts.length >= 4) {
-                messages.add(new Message(parts[2], parts[1], parts[3], System.currentTimeMillis(), true));
+            if (router != null) {
+                long remoteStart = System.nanoTime();
+                for (ChatServicesImpl.Outgoing outgoing : batch) {
+                    if (outgoing.error != null) {
+                        continue;
+                    }
+                    Message msg = new Message(outgoing.from, outgoing.target, outgoing.content, timestamp, outgoing.isGroup, 0);
+                    if (outgoing.isGroup) {
+                        deliverToRemoteMembers(outgoing.target, userIds.idOf(outgoing.from), msg);
+                    } else if (!router.ownsUser(outgoing.target)) {
+                        deliverToNode(router.ownerOfUser(outgoing.target), msg, new String[] { outgoing.target });
+                    }
+                }
+                Tracing.span("remote", null, remoteStart);
             }
+            return results;
+            
+        } finally {
+            Tracing.end(trace);
         }
-        
-        return messages.toArray(new Message[0]);
+    }
+    
+    @Override
+    public Message[] getPendingMessages(String username, Current current) {
+        List<Mailbox.Entry> pending = chatServices.getPendingMessages(username);
+        Message[] messages = new Message[pending.size()];
+        for (int i = 0; i < messages.length; i++) {
+            messages[i] = toMessage(pending.get(i));
+        }
+        return messages;
+    }
+    
+    @Override
+    public void ackMessages(String username, long upToId, Current current) {
+        // Cada dispositivo lleva su cursor; el buzón se descarta hasta donde confirmaron todos
+        long upTo = ackDevice(username, upToId, current);
+        if (upTo > 0) {
+            trimMailbox(userIds.idOf(username), username, null, upTo);
+        }
+    }
+    
+    /**
+     * Avanza el cursor del dispositivo de esta conexión y devuelve hasta dónde confirmaron los
+     * dispositivos del usuario en este nodo, o upToId si aquí no tiene ninguno (cliente que solo
+     * hace polling). -1 si tiene dispositivos y la conexión no es uno de ellos (otra sesión, una
+     * reconexión antes del login): esa confirmación se ignora para no descartar lo que los
+     * dispositivos conectados todavía no recibieron.
+     */
+    public long ackDevice(String username, long upToId, Current current) {
+        DeviceSet devices = callbacks.get(userIds.idOf(username));
+        if (devices == null) {
+            return upToId;
+        }
+        PushChannel device = current.con != null ? devices.find(current.con) : null;
+        if (device == null) {
+            logger.debug("Confirmación de una conexión sin dispositivo: se ignora", "user", username, "upTo", upToId);
+            return -1;
+        }
+        device.ack(upToId);
+        return devices.ackedUpTo();
+    }
+    
+    /**
+     * Confirmación reenviada por el nodo donde está conectado el usuario, ya acotada por sus
+     * dispositivos en ese nodo (ver ackDevice)
+     */
+    public void ackFromPeer(String username, String nodeId, long upTo) {
+        int userId = userIds.idOf(username);
+        if (userId < 0 || upTo <= 0) {
+            return;
+        }
+        peerAcks.computeIfAbsent(userId, id -> new ConcurrentHashMap<>()).merge(nodeId, upTo, Math::max);
+        trimMailbox(userId, username, nodeId, upTo);
+    }
+    
+    /**
+     * Descarta el buzón hasta upTo sin pasar del cursor de los dispositivos de este nodo ni del
+     * de los otros nodos donde el usuario sigue conectado. sourceNode: nodo que reenvió la
+     * confirmación (null si llegó a este)
+     */
+    private void trimMailbox(int userId, String username, String sourceNode, long upTo) {
+        if (sourceNode != null) {
+            DeviceSet devices = callbacks.get(userId);
+            long local = devices != null ? devices.ackedUpTo() : 0;
+            if (local > 0) {
+                upTo = Math.min(upTo, local);
+            }
+        }
+        Map<String, Long> peers = peerAcks.get(userId);
+        if (peers != null) {
+            for (Map.Entry<String, Long> peer : peers.entrySet()) {
+                if (peer.getKey().equals(sourceNode)) {
+                    continue;
+                }
+                if (bus == null || !bus.getRegistry().nodesOf(userId).contains(peer.getKey())) {
+                    // El usuario ya no está conectado a ese nodo: su cursor no retiene el buzón
+                    peers.remove(peer.getKey(), peer.getValue());
+                    continue;
+                }
+                upTo = Math.min(upTo, peer.getValue());
+            }
+        }
+        int removed = chatServices.ackMessages(username, upTo);
+        pushLimits.acked.add(removed);
+        logger.trace("Confirmación", "user", username, "upTo", upTo, "removed", removed);
     }
     
     // ========== GESTIÓN DE GRUPOS ==========
     
     @Override
     public Response createGroup(String groupName, String creator, Current current) {
-        System.out.println("[ICE] Creating group: " + groupName + " by " + creator);
+        logger.info("Creando grupo", "group", groupName, "creator", creator);
         
         boolean success = chatServices.createGroup(groupName, creator);
         
@@ -226,23 +546,25 @@ public class ChatServiceImpl implements ChatService {
     
     @Override
     public Response addToGroup(String groupName, String username, Current current) {
-        System.out.println("[ICE] Adding " + username + " to group: " + groupName);
+        logger.info("Agregando miembro", "group", groupName, "user", username);
         
         boolean success = chatServices.addToGroup(groupName, username);
         
         if (success) {
             // Notificar a todos los miembros del grupo
-            List<String> members = chatServices.getGroupMembers(groupName);
-            for (String member : members) {
-                ChatCallbackPrx callback = callbacks.get(member);
+            for (int memberId : chatServices.getOnlineGroupMembers(groupName)) {
+                DeviceSet callback = callbacks.get(memberId);
                 if (callback != null) {
                     try {
-                        callback.onGroupMemberAddedAsync(groupName, username);
+                        callback.groupMemberAdded(groupName, username);
                     } catch (Exception e) {
-                        System.err.println("[ICE] Error notifying member: " + e.getMessage());
+                        logger.warn("Error notificando a miembro", "group", groupName, "error", e.getMessage());
                     }
                 }
             }
+            if (bus != null) {
+                bus.publishToUsers(chatServices.getGroupMemberSet(groupName), -1, PushEvents.groupMemberAdded(groupName, username));
+            }
             
             return new Response(true, "Usuario agregado al grupo");
         } else {
@@ -276,31 +598,70 @@ public class ChatServiceImpl implements ChatService {
             List<String> history = chatServices.getHistory(username);
             return history.toArray(new String[0]);
         } catch (IOException e) {
-            System.err.println("[ICE] Error getting history: " + e.getMessage());
+            logger.error("Error leyendo historial", "user", username, "error", e.getMessage());
             return new String[0];
         }
     }
     
+    @Override
+    public String[] getHistoryPage(String username, int offset, int limit, Current current) {
+        try {
+            List<String> page = chatServices.getHistoryPage(username, offset, limit);
+            return page.toArray(new String[0]);
+        } catch (IOException e) {
+            logger.error("Error leyendo página de historial", "user", username, "error", e.getMessage());
+            return new String[0];
+        }
+    }
+    
+    @Override
+    public String[] searchMessages(String username, String query, int limit, Current current) {
+        return chatServices.searchMessages(username, query, limit).toArray(new String[0]);
+    }
+    
+    // ========== CONVERSACIONES ==========
+    
+    @Override
+    public ConversationSummary[] getConversationSummaries(String username, Current current) {
+        List<ConversationIndex.Summary> summaries = chatServices.getConversationSummaries(username);
+        ConversationSummary[] result = new ConversationSummary[summaries.size()];
+        for (int i = 0; i < result.length; i++) {
+            ConversationIndex.Summary s = summaries.get(i);
+            result[i] = new ConversationSummary(s.conversation, s.isGroup, s.lastId, s.timestamp, s.from, s.preview, s.unread);
+        }
+        return result;
+    }
+    
+    @Override
+    public void markConversationRead(String username, String conversation, boolean isGroup, Current current) {
+        chatServices.markConversationRead(username, conversation, isGroup);
+    }
+    
     // ========== NOTAS DE VOZ ==========
     
     @Override
     public Response sendVoiceNoteToUser(String from, String to, byte[] audioData, Current current) {
-        System.out.println("[ICE] Voice note from " + from + " to " + to + " (" + audioData.length + " bytes)");
+        if (logger.isDebugEnabled()) {
+            logger.debug("Nota de voz", "from", from, "to", to, "bytes", audioData.length);
+        }
         
+        Trace trace = Tracing.begin("sendVoiceNoteToUser", from, to, current);
         try {
             boolean success = chatServices.sendVoiceNoteToUser(from, to, audioData);
             
             if (success) {
                 // Notificación push con audio (privado)
-                ChatCallbackPrx callback = callbacks.get(to);
+                DeviceSet callback = callbacks.get(userIds.idOf(to));
                 if (callback != null) {
                     try {
-                        callback.onVoiceNoteReceivedAsync(from, to, audioData, false);
-                        System.out.println("[ICE] Voice note push sent to: " + to);
+                        track(trace, to, callback.voiceNote(from, to, audioData, false));
+                        logger.trace("Push de nota de voz enviado", "to", to);
                     } catch (Exception e) {
-                        System.err.println("[ICE] Error sending voice note push: " + e.getMessage());
+                        logger.warn("Error enviando push de nota de voz", "to", to, "error", e.getMessage());
                     }
                 }
+                // Y a sus dispositivos en otros nodos
+                pushRemote(to, PushEvents.voiceNote(from, to, audioData, false));
                 
                 return new Response(true, "Nota de voz enviada");
             } else {
@@ -308,34 +669,52 @@ public class ChatServiceImpl implements ChatService {
             }
             
         } catch (IOException e) {
-            System.err.println("[ICE] Error sending voice note: " + e.getMessage());
+            logger.error("Error enviando nota de voz", "from", from, "to", to, "error", e.getMessage());
             return new Response(false, "Error: " + e.getMessage());
+        } finally {
+            Tracing.end(trace);
         }
     }
     
     @Override
     public Response sendVoiceNoteToGroup(String from, String groupName, byte[] audioData, Current current) {
-        System.out.println("[ICE] Voice note from " + from + " to group " + groupName + " (" + audioData.length + " bytes)");
+        if (logger.isDebugEnabled()) {
+            logger.debug("Nota de voz a grupo", "from", from, "group", groupName, "bytes", audioData.length);
+        }
         
+        Trace trace = Tracing.begin("sendVoiceNoteToGroup", from, groupName, current);
         try {
             boolean success = chatServices.sendVoiceNoteToGroup(from, groupName, audioData);
             
             if (success) {
                 // Notificar a todos los miembros del grupo
-                List<String> members = chatServices.getGroupMembers(groupName);
-                for (String member : members) {
-                    if (!member.equals(from)) {
-                        ChatCallbackPrx callback = callbacks.get(member);
+                int fromId = userIds.idOf(from);
+                RoaringBitmap members = chatServices.getOnlineGroupMembers(groupName);
+                GroupFanoutEvent fanout = new GroupFanoutEvent();
+                fanout.begin();
+                long fanoutStart = System.nanoTime();
+                int pushes = 0;
+                int failures = 0;
+                for (int memberId : members) {
+                    if (memberId != fromId) {
+                        DeviceSet callback = callbacks.get(memberId);
                         if (callback != null) {
                             try {
-                                callback.onVoiceNoteReceivedAsync(from, groupName, audioData, true);
-                                System.out.println("[ICE] Voice note push sent to group member: " + member);
+                                if (track(trace, userIds.nameOf(memberId), callback.voiceNote(from, groupName, audioData, true))) {
+                                    pushes++;
+                                }
                             } catch (Exception e) {
-                                System.err.println("[ICE] Error sending voice note to " + member);
+                                failures++;
+                                logger.warn("Error enviando nota de voz a miembro", "to", userIds.nameOf(memberId), "error", e.getMessage());
                             }
                         }
                     }
                 }
+                Tracing.span("fanout", "online", members.getCardinality(), fanoutStart);
+                commitFanout(fanout, "voiceNote", groupName, fromId, members.getCardinality(), pushes, failures);
+                if (bus != null) {
+                    bus.publishToUsers(chatServices.getGroupMemberSet(groupName), fromId, PushEvents.voiceNote(from, groupName, audioData, true));
+                }
                 
                 return new Response(true, "Nota de voz enviada al grupo");
             } else {
@@ -343,8 +722,10 @@ public class ChatServiceImpl implements ChatService {
             }
             
         } catch (IOException e) {
-            System.err.println("[ICE] Error sending group voice note: " + e.getMessage());
+            logger.error("Error enviando nota de voz a grupo", "from", from, "group", groupName, "error", e.getMessage());
             return new Response(false, "Error: " + e.getMessage());
+        } finally {
+            Tracing.end(trace);
         }
     }
     
@@ -352,18 +733,20 @@ public class ChatServiceImpl implements ChatService {
     
     @Override
     public Response initiateCall(String from, String to, Current current) {
-        System.out.println("[ICE] Call from " + from + " to " + to);
+        logger.debug("Llamada", "from", from, "to", to);
         
-        ChatCallbackPrx callback = callbacks.get(to);
+        DeviceSet callback = callbacks.get(userIds.idOf(to));
         if (callback != null) {
             try {
-                callback.onIncomingCallAsync(from);
-                System.out.println("[ICE] ✅ Call notification sent to " + to);
+                callback.incomingCall(from);
+                logger.trace("Aviso de llamada enviado", "to", to);
                 return new Response(true, "Llamada iniciada");
             } catch (Exception e) {
-                System.err.println("[ICE] Error notifying incoming call: " + e.getMessage());
+                logger.warn("Error avisando llamada entrante", "to", to, "error", e.getMessage());
                 return new Response(false, "Usuario no disponible");
             }
+        } else if (pushRemote(to, PushEvents.incomingCall(from))) {
+            return new Response(true, "Llamada iniciada");
         } else {
             return new Response(false, "Usuario offline");
         }
@@ -371,17 +754,19 @@ public class ChatServiceImpl implements ChatService {
     
     @Override
     public Response sendWebRTCSignal(String from, String to, String signalType, String signalData, Current current) {
-        System.out.println("[ICE] WebRTC " + signalType + " from " + from + " to " + to);
+        logger.trace("Señal WebRTC", "type", signalType, "from", from, "to", to);
         
-        ChatCallbackPrx callback = callbacks.get(to);
+        PushChannel callback = mediaChannel(userIds.idOf(to));
         if (callback != null) {
             try {
-                callback.onWebRTCSignalAsync(from, signalType, signalData);
+                callback.proxy().onWebRTCSignalAsync(from, signalType, signalData);
                 return new Response(true, "Señal enviada");
             } catch (Exception e) {
-                System.err.println("[ICE] Error sending WebRTC signal: " + e.getMessage());
+                logger.warn("Error enviando señal WebRTC", "to", to, "error", e.getMessage());
                 return new Response(false, "Error al enviar señal");
             }
+        } else if (pushMedia(to, PushEvents.webRTCSignal(from, signalType, signalData))) {
+            return new Response(true, "Señal enviada");
         } else {
             return new Response(false, "Usuario offline");
         }
@@ -389,17 +774,19 @@ public class ChatServiceImpl implements ChatService {
     
     @Override
     public Response sendICECandidate(String from, String to, String candidate, Current current) {
-        System.out.println("[ICE] ICE candidate from " + from + " to " + to);
+        logger.trace("Candidato ICE", "from", from, "to", to);
         
-        ChatCallbackPrx callback = callbacks.get(to);
+        PushChannel callback = mediaChannel(userIds.idOf(to));
         if (callback != null) {
             try {
-                callback.onICECandidateAsync(from, candidate);
+                callback.proxy().onICECandidateAsync(from, candidate);
                 return new Response(true, "Candidato ICE enviado");
             } catch (Exception e) {
-                System.err.println("[ICE] Error sending ICE candidate: " + e.getMessage());
+                logger.warn("Error enviando candidato ICE", "to", to, "error", e.getMessage());
                 return new Response(false, "Error al enviar candidato");
             }
+        } else if (pushMedia(to, PushEvents.iceCandidate(from, candidate))) {
+            return new Response(true, "Candidato ICE enviado");
         } else {
             return new Response(false, "Usuario offline");
         }
@@ -407,18 +794,19 @@ public class ChatServiceImpl implements ChatService {
     
     @Override
     public Response endCall(String from, String to, Current current) {
-        System.out.println("[ICE] Call ended from " + from + " to " + to);
+        logger.debug("Fin de llamada", "from", from, "to", to);
         
-        ChatCallbackPrx callback = callbacks.get(to);
+        PushChannel callback = mediaChannel(userIds.idOf(to));
         if (callback != null) {
             try {
-                callback.onCallEndedAsync(from);
+                callback.proxy().onCallEndedAsync(from);
                 return new Response(true, "Llamada terminada");
             } catch (Exception e) {
-                System.err.println("[ICE] Error ending call: " + e.getMessage());
+                logger.warn("Error avisando fin de llamada", "to", to, "error", e.getMessage());
                 return new Response(false, "Error");
             }
         } else {
+            pushMedia(to, PushEvents.callEnded(from));
             return new Response(true, "Llamada terminada");
         }
     }
@@ -427,67 +815,559 @@ public class ChatServiceImpl implements ChatService {
     
     @Override
     public Response sendAudioChunk(String from, String to, byte[] audioData, Current current) {
-        System.out.println("[ICE] Audio chunk from " + from + " to " + to + " (" + audioData.length + " bytes)");
+        if (logger.isTraceEnabled()) {
+            logger.trace("Chunk de audio", "from", from, "to", to, "bytes", audioData.length);
+        }
         
-        ChatCallbackPrx callback = callbacks.get(to);
+        AudioRelayEvent relay = new AudioRelayEvent();
+        relay.begin();
+        int toId = userIds.idOf(to);
+        PushChannel callback = mediaChannel(toId);
         if (callback != null) {
             try {
-                callback.onAudioChunkAsync(from, audioData);
+                callback.audioChunk(from, audioData);
+                commitRelay(relay, from, toId, audioData.length, "local");
                 return new Response(true, "Audio chunk enviado");
             } catch (Exception e) {
-                System.err.println("[ICE] Error sending audio chunk: " + e.getMessage());
+                logger.warn("Error enviando chunk de audio", "to", to, "error", e.getMessage());
                 return new Response(false, "Error al enviar audio");
             }
+        } else if (pushMedia(to, PushEvents.audioChunk(from, audioData))) {
+            commitRelay(relay, from, toId, audioData.length, "remote");
+            return new Response(true, "Audio chunk enviado");
         } else {
+            commitRelay(relay, from, toId, audioData.length, "offline");
             return new Response(false, "Usuario offline");
         }
     }
     
     @Override
     public Response acceptCall(String from, String to, Current current) {
-        System.out.println("[ICE] Call accepted: " + from + " accepted call from " + to);
+        logger.debug("Llamada aceptada", "from", from, "to", to);
         
-        ChatCallbackPrx callback = callbacks.get(to);
+        PushChannel callback = mediaChannel(userIds.idOf(to));
         if (callback != null) {
             try {
-                callback.onCallAcceptedAsync(from);
+                callback.proxy().onCallAcceptedAsync(from);
                 return new Response(true, "Llamada aceptada");
             } catch (Exception e) {
-                System.err.println("[ICE] Error notifying call acceptance: " + e.getMessage());
+                logger.warn("Error avisando aceptación de llamada", "to", to, "error", e.getMessage());
                 return new Response(false, "Error");
             }
+        } else if (pushMedia(to, PushEvents.callAccepted(from))) {
+            return new Response(true, "Llamada aceptada");
         } else {
             return new Response(false, "Usuario offline");
         }
     }
     
+    /**
+     * Registra el callback de la conexión de llamadas (CallService). Mientras exista, el audio
+     * y la señalización van por ella y no compiten con el tráfico del chat en la conexión del login.
+     */
+    public Response joinCall(String username, ChatCallbackPrx callback, Current current) {
+        if (callback == null || current.con == null) {
+            return new Response(false, "Callback o conexión inválidos");
+        }
+        // La sesión de chat puede estar en otro nodo: la conexión de llamadas cae donde la balancee el cliente
+        int userId = userIds.idOf(username);
+        if (userId < 0 || !isConnected(userId)) {
+            return new Response(false, "Usuario sin sesión");
+        }
+        PushChannel channel = new PushChannel(username, callback.ice_fixed(current.con), current.con, pushLimits);
+        callChannels.put(userId, channel);
+        connections.bind(current.con, "call:" + username, channel, () -> {
+            if (callChannels.remove(userId, channel)) {
+                announceCallChannel(username, false);
+            }
+        });
+        announceCallChannel(username, true);
+        logger.debug("Conexión de llamadas registrada", "user", username);
+        return new Response(true, "Conectado al servicio de llamadas");
+    }
+    
+    public void leaveCall(String username, Current current) {
+        if (callChannels.remove(userIds.idOf(username)) != null) {
+            announceCallChannel(username, false);
+            logger.debug("Conexión de llamadas liberada", "user", username);
+        }
+    }
+    
+    /**
+     * Hay una conexión de llamadas del usuario en este nodo
+     */
+    public boolean hasCallChannel(String username) {
+        return callChannels.get(userIds.idOf(username)) != null;
+    }
+    
+    /**
+     * Avisa al nodo dueño del usuario dónde está su conexión de llamadas
+     */
+    private void announceCallChannel(String username, boolean joined) {
+        if (router == null || router.ownsUser(username)) {
+            return;
+        }
+        router.shardNode(router.ownerOfUser(username)).callChannelAsync(username, router.getSelfId(), joined).whenComplete((result, ex) -> {
+            if (ex != null) {
+                logger.warn("Error avisando conexión de llamadas", "user", username, "error", ex.getMessage());
+            }
+        });
+    }
+    
+    /**
+     * Un usuario de esta partición abrió o cerró su conexión de llamadas en otro nodo
+     */
+    public void callChannelFromPeer(String username, String nodeId, boolean joined) {
+        int userId = userIds.intern(username);
+        if (joined) {
+            callNodes.put(userId, nodeId);
+        } else {
+            callNodes.compute(userId, current -> nodeId.equals(current) ? null : current);
+        }
+    }
+    
+    // ========== CLUSTER ==========
+    
+    /**
+     * Entrega de otro nodo para usuarios de esta partición: se encola en su buzón
+     * y se empuja desde aquí, donde se asigna el id que el cliente confirma
+     */
+    public void deliverFromPeer(Message msg, String[] recipients) {
+        for (String recipient : recipients) {
+            if (msg.isGroup) {
+                chatServices.receiveGroupMessage(msg.from, msg.to, recipient, msg.content, msg.timestamp);
+            } else {
+                try {
+                    chatServices.receiveMessage(msg.from, recipient, msg.content, msg.timestamp);
+                } catch (IOException e) {
+                    logger.error("Error guardando mensaje remoto", "recipient", recipient, "error", e.getMessage());
+                    continue;
+                }
+            }
+            deliverMailbox(userIds.idOf(recipient), recipient, Tracing.current());
+        }
+    }
+    
+    /**
+     * Un usuario de esta partición inició sesión en otro nodo: queda registrado aquí, donde
+     * vive su buzón, aunque esté offline cuando le escriban o este nodo se reinicie
+     */
+    public void registerFromPeer(String username) {
+        chatServices.registerUser(username);
+    }
+    
+    /**
+     * Líneas del historial de un usuario que guarda este nodo, para que el nodo que atiende
+     * getHistoryPage pida a cada uno solo su parte de la página
+     */
+    public int historySizeForPeer(String username) {
+        try {
+            return chatServices.getHistorySize(username);
+        } catch (IOException e) {
+            logger.error("Error contando historial", "user", username, "error", e.getMessage());
+            return 0;
+        }
+    }
+    
+    /**
+     * Evento publicado por otro nodo para usuarios conectados a este
+     */
+    public void deliverEventFromPeer(PushEvent event) {
+        boolean media = PushEvents.isCallMedia(event);
+        for (String recipient : event.recipients) {
+            int recipientId = userIds.idOf(recipient);
+            PushChannel channel = media ? mediaChannel(recipientId) : null;
+            DeviceSet callback = media ? null : callbacks.get(recipientId);
+            if (channel != null || callback != null) {
+                try {
+                    if (channel != null) {
+                        channel.dispatch(event);
+                    } else {
+                        callback.dispatch(event);
+                    }
+                } catch (Exception e) {
+                    logger.warn("Error entregando evento", "kind", event.kind, "recipient", recipient, "error", e.getMessage());
+                }
+            }
+        }
+    }
+    
+    /**
+     * Un usuario se conectó o desconectó en otro nodo
+     */
+    public void deliverStatusFromPeer(String username, boolean isOnline) {
+        int userId = userIds.idOf(username);
+        if (!isOnline && userId >= 0 && isConnected(userId)) {
+            return; // Le quedan dispositivos aquí o en otro nodo
+        }
+        notifyUserStatusChange(username, isOnline);
+        if (isOnline && userId >= 0) {
+            // Conectado en otro nodo: si su buzón vive aquí se reenvía por el bus
+            redeliver(userId, username);
+        }
+    }
+    
+    /**
+     * Usuarios con callback en este nodo
+     */
+    public String[] getLocalUsers() {
+        IdTable.Snapshot<DeviceSet> online = callbacks.snapshot();
+        String[] users = new String[online.size()];
+        for (int i = 0; i < users.length; i++) {
+            users[i] = userIds.nameOf(online.id(i));
+        }
+        return users;
+    }
+    
+    /**
+     * Push para los dispositivos del usuario en otros nodos: lo entrega cada nodo donde esté conectado
+     */
+    private boolean pushRemote(String username, PushEvent event) {
+        return bus != null && bus.publish(username, event);
+    }
+    
+    /**
+     * Audio o señalización de una llamada para un usuario sin canal local: a su conexión de
+     * llamadas en otro nodo si la abrió, si no a sus dispositivos en otros nodos
+     */
+    private boolean pushMedia(String username, PushEvent event) {
+        String callNode = callNodes.get(userIds.idOf(username));
+        if (callNode != null && bus != null && bus.publishTo(callNode, username, event)) {
+            return true;
+        }
+        return pushRemote(username, event);
+    }
+    
+    /**
+     * Agrupa los miembros de otras particiones por nodo y envía una sola entrega a cada uno
+     */
+    private void deliverToRemoteMembers(String groupName, int fromId, Message msg) {
+        Map<String, List<String>> byNode = new HashMap<>();
+        for (int memberId : chatServices.getGroupMemberIds(groupName)) {
+            if (memberId == fromId) {
+                continue;
+            }
+            String member = userIds.nameOf(memberId);
+            String owner = router.ownerOfUser(member);
+            if (!owner.equals(router.getSelfId())) {
+                byNode.computeIfAbsent(owner, node -> new ArrayList<>()).add(member);
+            }
+        }
+        byNode.forEach((node, members) -> deliverToNode(node, msg, members.toArray(new String[0])));
+    }
+    
+    private void deliverToNode(String nodeId, Message msg, String[] recipients) {
+        // El nodo destino continúa la traza con el mismo id
+        router.shardNode(nodeId).deliverMessageAsync(msg, recipients, Tracing.propagate()).whenComplete((result, ex) -> {
+            if (ex != null) {
+                logger.warn("Error entregando mensaje a nodo", "node", nodeId, "error", ex.getMessage());
+            }
+        });
+    }
+    
+    // ========== BUZÓN Y REINTENTOS ==========
+    
+    /**
+     * Empuja las entradas del buzón que todavía no salieron, al callback local o por el bus
+     * al nodo donde esté conectado el usuario. Sin conexión en ningún nodo quedan para el
+     * próximo login o poll. Devuelve los push enviados.
+     */
+    private int deliverMailbox(int userId, String username, Trace trace) {
+        Mailbox mailbox = userId >= 0 ? chatServices.getMailbox(userId) : null;
+        if (mailbox == null || !isConnected(userId)) {
+            return 0;
+        }
+        return pushEntries(userId, username, mailbox, mailbox.claimUnsent(System.currentTimeMillis(), pushLimits.retryMs), trace);
+    }
+    
+    /**
+     * Reenvía desde cero lo que quedó en el buzón de una sesión anterior
+     */
+    private void redeliver(int userId, String username) {
+        Mailbox mailbox = chatServices.getMailbox(userId);
+        if (mailbox != null && ownsUser(userId) && mailbox.size() > 0) {
+            mailbox.rearm();
+            int pushes = deliverMailbox(userId, username, null);
+            logger.debug("Buzón reenviado", "user", username, "pushes", pushes);
+        }
+    }
+    
+    private int pushEntries(int userId, String username, Mailbox mailbox, List<Mailbox.Entry> entries, Trace trace) {
+        if (entries.isEmpty()) {
+            return 0;
+        }
+        awaitingAck.add(userId);
+        DeviceSet callback = callbacks.get(userId);
+        int pushes = 0;
+        for (Mailbox.Entry entry : entries) {
+            Message msg = toMessage(entry);
+            // Los dispositivos del usuario pueden estar aquí y en otros nodos a la vez
+            boolean remote = pushRemote(username, PushEvents.newMessage(msg));
+            if (remote) {
+                pushes++;
+            }
+            if (callback != null) {
+                CompletableFuture<Void> push = null;
+                try {
+                    push = callback.message(msg); // Async para no bloquear
+                } catch (Exception e) {
+                    logger.warn("Error enviando push", "to", username, "error", e.getMessage());
+                }
+                if (track(trace, username, push)) {
+                    pushes++;
+                    // Sin respuesta del cliente no cuenta para las confirmaciones: se reintenta
+                    push.whenComplete((result, ex) -> {
+                        if (ex != null && !remote) {
+                            mailbox.failed(entry);
+                        }
+                    });
+                } else if (!remote) {
+                    mailbox.failed(entry);
+                }
+            } else if (!remote) {
+                mailbox.failed(entry);
+            }
+        }
+        return pushes;
+    }
+    
+    /**
+     * Hilo de reintentos: vuelve a empujar lo que no se confirmó a tiempo, con backoff
+     */
+    private void retryUnacked() {
+        try {
+            long now = System.currentTimeMillis();
+            PushLimits limits = pushLimits;
+            int[] exhausted = new int[1];
+            for (int userId : awaitingAck) {
+                Mailbox mailbox = chatServices.getMailbox(userId);
+                if (mailbox == null || !mailbox.awaitingAck() || !isConnected(userId)) {
+                    // Offline: el login vuelve a empujar todo. Se revisa de nuevo por si otro hilo reclamó entre medio
+                    awaitingAck.remove(userId);
+                    if (mailbox != null && mailbox.awaitingAck() && isConnected(userId)) {
+                        awaitingAck.add(userId);
+                    }
+                    continue;
+                }
+                List<Mailbox.Entry> due = mailbox.claimDue(now, limits.retryMs, limits.retryMaxMs, limits.maxAttempts, exhausted);
+                if (!due.isEmpty()) {
+                    limits.retries.add(due.size());
+                    pushEntries(userId, userIds.nameOf(userId), mailbox, due, null);
+                }
+            }
+            if (exhausted[0] > 0) {
+                limits.retriesExhausted.add(exhausted[0]);
+                logger.debug("Mensajes sin confirmar tras los reintentos", "messages", exhausted[0]);
+            }
+        } catch (Exception e) {
+            logger.error("Error en el hilo de reintentos", e);
+        }
+    }
+    
+    /**
+     * Quita un dispositivo del usuario. Devuelve los que le quedan, o -1 si no estaba (ya hizo
+     * logout o volvió a entrar por la misma conexión).
+     */
+    private int detach(int userId, PushChannel device) {
+        int[] remaining = {-1};
+        callbacks.compute(userId, devices -> {
+            if (devices == null || !devices.remove(device)) {
+                return devices;
+            }
+            remaining[0] = devices.size();
+            return remaining[0] > 0 ? devices : null;
+        });
+        return remaining[0];
+    }
+    
+    /**
+     * Cierre de la conexión de un dispositivo: si era el último del usuario se hace el logout
+     * y se avisa a los demás
+     */
+    private void expire(int userId, String username, PushChannel channel) {
+        int remaining = detach(userId, channel);
+        if (remaining < 0) {
+            return;
+        }
+        if (remaining > 0) {
+            logger.info("Conexión cerrada, quedan otros dispositivos", "user", username, "devices", remaining);
+            return;
+        }
+        logger.info("Conexión cerrada, eliminando callback", "user", username);
+        if (callChannels.remove(userId) != null) {
+            announceCallChannel(username, false);
+        }
+        if (bus != null) {
+            bus.announce(username, false);
+        }
+        try {
+            if (chatServices.logout(username)) {
+                notifyUserStatusChange(username, false);
+            }
+        } catch (Exception e) {
+            logger.warn("Error en logout automático", "user", username, "error", e.getMessage());
+        }
+    }
+    
+    /**
+     * Recorrido del reaper: ping a las conexiones en silencio y cierre de las vencidas
+     */
+    private void reapIdle() {
+        try {
+            long now = System.currentTimeMillis();
+            IdTable.Snapshot<DeviceSet> online = callbacks.snapshot();
+            for (int i = 0; i < online.size(); i++) {
+                for (PushChannel device : online.value(i).devices()) {
+                    if (reapOrProbe(device, now)) {
+                        sessionLimits.reaped.increment();
+                    }
+                }
+            }
+            IdTable.Snapshot<PushChannel> calls = callChannels.snapshot();
+            for (int i = 0; i < calls.size(); i++) {
+                if (reapOrProbe(calls.value(i), now)) {
+                    sessionLimits.callsReaped.increment();
+                }
+            }
+        } catch (Exception e) {
+            logger.error("Error en el reaper de sesiones", e);
+        }
+    }
+    
+    private boolean reapOrProbe(PushChannel channel, long now) {
+        long idle = channel.idleMillis(now);
+        if (idle >= sessionLimits.idleMs) {
+            return channel.reap(idle);
+        }
+        if (idle >= sessionLimits.probeMs && channel.probe()) {
+            sessionLimits.probes.increment();
+        }
+        return false;
+    }
+    
+    private void flushNotifications() {
+        IdTable.Snapshot<DeviceSet> online = callbacks.snapshot();
+        for (int i = 0; i < online.size(); i++) {
+            for (PushChannel device : online.value(i).devices()) {
+                try {
+                    device.flushNotifications();
+                } catch (Exception e) {
+                    logger.warn("Error vaciando notificaciones", "user", userIds.nameOf(online.id(i)), "error", e.getMessage());
+                }
+            }
+        }
+    }
+    
+    /**
+     * Canal para el audio y la señalización de una llamada en curso: la conexión de llamadas
+     * si el usuario se unió, si no la del último dispositivo que hizo login
+     */
+    private PushChannel mediaChannel(int userId) {
+        PushChannel channel = callChannels.get(userId);
+        if (channel != null) {
+            return channel;
+        }
+        if (callNodes.get(userId) != null) {
+            return null; // La conexión de llamadas está en otro nodo: ver pushMedia
+        }
+        DeviceSet devices = callbacks.get(userId);
+        return devices != null ? devices.newest() : null;
+    }
+    
+    private boolean isConnected(int userId) {
+        return callbacks.get(userId) != null || (bus != null && !bus.getRegistry().nodesOf(userId).isEmpty());
+    }
+    
+    private boolean ownsUser(int userId) {
+        return router == null || router.ownsUser(userIds.nameOf(userId));
+    }
+    
+    /**
+     * Motivo por el que un mensaje de un lote se rechaza, o null si es válido
+     */
+    private String validate(Message msg) {
+        if (msg == null || msg.from == null || msg.from.isEmpty() || msg.to == null || msg.to.isEmpty()) {
+            return "Remitente o destinatario vacío";
+        }
+        if (msg.content == null || msg.content.isEmpty()) {
+            return "Mensaje vacío";
+        }
+        if (msg.isGroup && !chatServices.hasGroup(msg.to)) {
+            return "Grupo no encontrado";
+        }
+        return null;
+    }
+    
+    private static Message toMessage(Mailbox.Entry entry) {
+        return new Message(entry.from, entry.target, entry.content, entry.timestamp, entry.isGroup, entry.id);
+    }
+    
     // ========== HELPERS ==========
     
     /**
-     * Notifica a todos los usuarios online sobre cambio de estado
+     * Agrega el push a la traza; devuelve false si el canal no lo envió por saturación
+     */
+    private static boolean track(Trace trace, String to, CompletableFuture<?> push) {
+        if (push == null) {
+            return false;
+        }
+        if (trace != null) {
+            trace.push(to, push);
+        }
+        return true;
+    }
+    
+    private void commitFanout(GroupFanoutEvent event, String kind, String groupName, int fromId, int online, int pushes, int failures) {
+        event.end();
+        if (event.shouldCommit()) {
+            event.kind = kind;
+            event.group = groupName;
+            event.groupId = chatServices.getGroupIds().idOf(groupName);
+            event.fromId = fromId;
+            event.online = online;
+            event.pushes = pushes;
+            event.failures = failures;
+            event.commit();
+        }
+    }
+    
+    private void commitRelay(AudioRelayEvent event, String from, int toId, int bytes, String route) {
+        event.end();
+        if (event.shouldCommit()) {
+            event.fromId = userIds.idOf(from);
+            event.toId = toId;
+            event.bytes = bytes;
+            event.route = route;
+            event.commit();
+        }
+    }
+    
+    /**
+     * Notifica a todos los usuarios online sobre cambio de estado. Recorre el snapshot de
+     * la época actual: un login o logout concurrente no cambia la lista a mitad del recorrido
      */
     private void notifyUserStatusChange(String username, boolean isOnline) {
         User user = new User(username, isOnline);
         
-        for (Map.Entry<String, ChatCallbackPrx> entry : callbacks.entrySet()) {
+        IdTable.Snapshot<DeviceSet> online = callbacks.snapshot();
+        for (int i = 0; i < online.size(); i++) {
             try {
-                entry.getValue().onUserStatusChangedAsync(user);
+                online.value(i).userStatusChanged(user);
             } catch (Exception e) {
-                System.err.println("[ICE] Error notifying user status change: " + e.getMessage());
+                logger.warn("Error notificando cambio de estado", "error", e.getMessage());
             }
         }
     }
     
     /**
-     * Envía notas de voz pendientes desde el historial al usuario que acaba de hacer login
+     * Envía notas de voz pendientes desde el historial al dispositivo que acaba de hacer login
      * Solo envía las notas de voz que el usuario NO pudo recibir en tiempo real porque estaba offline
      */
-    private void sendPendingVoiceNotes(String username) {
-        System.out.println("[ICE] Checking pending voice notes for: " + username);
+    private void sendPendingVoiceNotes(String username, PushChannel callback) {
+        logger.debug("Buscando notas de voz pendientes", "user", username);
         
-        ChatCallbackPrx callback = callbacks.get(username);
         if (callback == null) {
-            System.out.println("[ICE] No callback registered for " + username);
+            logger.debug("Sin callback para notas de voz pendientes", "user", username);
             return;
         }
         
@@ -515,22 +1395,21 @@ public class ChatServiceImpl implements ChatService {
                         if (audioFile.exists()) {
                             byte[] audioData = java.nio.file.Files.readAllBytes(audioFile.toPath());
                             
-                            // Enviar al cliente usando el callback
-                            callback.onVoiceNoteReceivedAsync(from, target, audioData, isGroup);
-                            System.out.println("[ICE] ✅ Sent pending voice note from " + from + " to " + username + " (isGroup=" + isGroup + ")");
+                            // Enviar al cliente usando el callback; con la conexión saturada se reintenta en el próximo login
+                            callback.voiceNote(from, target, audioData, isGroup);
+                            logger.trace("Nota de voz pendiente enviada", "from", from, "to", username, "group", isGroup);
                             
                             processedFiles.add(filePath);
                         } else {
-                            System.err.println("[ICE] ❌ Voice note file not found: " + filePath);
+                            logger.warn("Archivo de nota de voz no encontrado", "path", filePath);
                         }
                     }
                 }
             }
             
-            System.out.println("[ICE] Sent " + processedFiles.size() + " pending voice notes to " + username);
+            logger.debug("Notas de voz pendientes enviadas", "user", username, "count", processedFiles.size());
         } catch (Exception e) {
-            System.err.println("[ICE] Error sending pending voice notes: " + e.getMessage());
-            e.printStackTrace();
+            logger.error("Error enviando notas de voz pendientes", e);
         }
     }
     
@@ -553,9 +1432,52 @@ public class ChatServiceImpl implements ChatService {
     }
     
     /**
-     * Obtiene el número de callbacks registrados (para debug)
+     * Obtiene el número de usuarios con callbacks registrados (para debug)
      */
     public int getRegisteredCallbacksCount() {
-        return callbacks.size();
+        return callbacks.snapshot().size();
+    }
+    
+    /**
+     * Dispositivos conectados, sumados sobre todos los usuarios
+     */
+    public int getConnectedDevices() {
+        IdTable.Snapshot<DeviceSet> online = callbacks.snapshot();
+        int total = 0;
+        for (int i = 0; i < online.size(); i++) {
+            total += online.value(i).size();
+        }
+        return total;
+    }
+    
+    /**
+     * Usuarios con mensajes empujados que esperan confirmación o reintento
+     */
+    public int getAwaitingAckUsers() {
+        return awaitingAck.size();
+    }
+    
+    /**
+     * Invocaciones push sin respuesta, sumadas sobre todas las conexiones
+     */
+    public long getOutstandingPushes() {
+        IdTable.Snapshot<DeviceSet> online = callbacks.snapshot();
+        long total = 0;
+        for (int i = 0; i < online.size(); i++) {
+            total += online.value(i).getOutstanding();
+        }
+        return total;
+    }
+    
+    /**
+     * Invocaciones push sin respuesta de la conexión más atrasada
+     */
+    public long getMaxOutstandingPushes() {
+        IdTable.Snapshot<DeviceSet> online = callbacks.snapshot();
+        long max = 0;
+        for (int i = 0; i < online.size(); i++) {
+            max = Math.max(max, online.value(i).getMaxOutstanding());
+        }
+        return max;
     }
 }
@@ -0,0 +1,107 @@
+package ice;
+
+import com.zeroc.Ice.Connection;
+import logging.Log;
+import logging.Logger;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Sesiones atadas a cada conexión Ice: los logins de uno o varios usuarios y la conexión de
+ * llamadas. Ice guarda un solo close callback y un solo heartbeat callback por conexión, así
+ * que instalar uno por sesión haría que el último login pise a los anteriores: sus sesiones no
+ * se cerrarían con la conexión ni el reaper vería sus señales de vida. Aquí se instala uno por
+ * conexión, que recorre todas las sesiones que la comparten.
+ *
+ * Cada sesión tiene una clave ("chat:alice", "call:alice"); un nuevo login con la misma clave
+ * por la misma conexión reemplaza al anterior.
+ */
+class ConnectionSessions {
+
+    private static final Logger logger = Log.get("ice");
+
+    private final ConcurrentHashMap<Connection, Bound> byConnection = new ConcurrentHashMap<>();
+
+    private static final class Session {
+        final PushChannel channel; // null: sesión sin callback
+        final Runnable onClose;
+
+        Session(PushChannel channel, Runnable onClose) {
+            this.channel = channel;
+            this.onClose = onClose;
+        }
+    }
+
+    private static final class Bound {
+        // Protegidos por this
+        final Map<String, Session> sessions = new LinkedHashMap<>();
+        boolean closed;
+    }
+
+    /**
+     * Ata una sesión a la conexión: channel recibe sus heartbeats (puede ser null) y onClose
+     * corre cuando se cierra. Si la conexión ya se cerró, onClose corre enseguida.
+     */
+    void bind(Connection connection, String key, PushChannel channel, Runnable onClose) {
+        Session session = new Session(channel, onClose);
+        while (true) {
+            boolean[] created = {false};
+            Bound bound = byConnection.computeIfAbsent(connection, con -> {
+                created[0] = true;
+                return new Bound();
+            });
+            synchronized (bound) {
+                if (!bound.closed) {
+                    bound.sessions.put(key, session);
+                } else {
+                    // Se cerró entre computeIfAbsent y el lock: probar con una entrada nueva
+                    byConnection.remove(connection, bound);
+                    continue;
+                }
+            }
+            if (created[0]) {
+                // Fuera del computeIfAbsent: con la conexión ya cerrada Ice llama al callback enseguida
+                connection.setCloseCallback(this::closed);
+                connection.setHeartbeatCallback(this::heartbeat);
+            }
+            return;
+        }
+    }
+
+    private void closed(Connection connection) {
+        Bound bound = byConnection.remove(connection);
+        if (bound == null) {
+            return;
+        }
+        List<Session> sessions;
+        synchronized (bound) {
+            bound.closed = true;
+            sessions = new ArrayList<>(bound.sessions.values());
+        }
+        for (Session session : sessions) {
+            try {
+                session.onClose.run();
+            } catch (Exception e) {
+                logger.warn("Error cerrando sesión de la conexión", "error", e.getMessage());
+            }
+        }
+    }
+
+    private void heartbeat(Connection connection) {
+        Bound bound = byConnection.get(connection);
+        if (bound == null) {
+            return;
+        }
+        synchronized (bound) {
+            for (Session session : bound.sessions.values()) {
+                if (session.channel != null) {
+                    session.channel.heard();
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,354 @@
+package ice;
+
+import Chat.Message;
+import Chat.PushEvent;
+import Chat.User;
+import cluster.PushEvents;
+import com.zeroc.Ice.Connection;
+import com.zeroc.Ice.OperationNotExistException;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Dispositivos conectados de un usuario (un teléfono y una laptop, varias pestañas): cada uno
+ * es un {@link PushChannel} sobre su propia conexión, con su control de flujo, su señal de vida
+ * y su cursor de entrega. El usuario está online mientras le quede algún dispositivo.
+ *
+ * Los mensajes se agrupan por usuario y no por dispositivo: durante Chat.Push.BatchWindowMs
+ * se arma un solo lote, con una sola ventana, y el mismo arreglo sale a cada dispositivo que
+ * todavía no lo confirmó. Ice serializa cada invocación en el buffer de su conexión; enviar
+ * el lote ya codificado con ice_invoke cuesta más, porque Ice lo copia igual en cada request
+ * (ver DeviceFanoutBenchmark). El arreglo de dispositivos es copy-on-write, así que los push
+ * lo recorren sin lock; las altas y bajas se serializan en el objeto.
+ */
+public class DeviceSet {
+
+    private static final PushChannel[] NONE = new PushChannel[0];
+
+    private final PushLimits limits;
+    private final ScheduledExecutorService flushTimer; // null: un push por mensaje
+    private volatile PushChannel[] devices = NONE;
+
+    // Lote en armado, protegido por this: se envía al vencer la ventana o al llenarse
+    private List<Message> batch;
+    private CompletableFuture<Void> batchDone;
+
+    public DeviceSet(PushLimits limits, ScheduledExecutorService flushTimer) {
+        this.limits = limits;
+        this.flushTimer = flushTimer;
+    }
+
+    /**
+     * Agrega un dispositivo; un nuevo login por la misma conexión reemplaza al anterior
+     */
+    public synchronized void add(PushChannel device) {
+        PushChannel[] current = devices;
+        for (int i = 0; i < current.length; i++) {
+            if (current[i].connection() != null && current[i].connection() == device.connection()) {
+                PushChannel[] replaced = current.clone();
+                replaced[i] = device;
+                devices = replaced;
+                return;
+            }
+        }
+        PushChannel[] grown = Arrays.copyOf(current, current.length + 1);
+        grown[current.length] = device;
+        devices = grown;
+    }
+
+    /**
+     * Quita un dispositivo; false si ya no estaba
+     */
+    public synchronized boolean remove(PushChannel device) {
+        PushChannel[] current = devices;
+        for (int i = 0; i < current.length; i++) {
+            if (current[i] == device) {
+                PushChannel[] shrunk = new PushChannel[current.length - 1];
+                System.arraycopy(current, 0, shrunk, 0, i);
+                System.arraycopy(current, i + 1, shrunk, i, current.length - i - 1);
+                devices = shrunk;
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public PushChannel[] devices() {
+        return devices;
+    }
+
+    public int size() {
+        return devices.length;
+    }
+
+    public boolean isEmpty() {
+        return devices.length == 0;
+    }
+
+    /**
+     * Dispositivo conectado por esta conexión, o null
+     */
+    public PushChannel find(Connection connection) {
+        for (PushChannel device : devices) {
+            if (connection != null && device.connection() == connection) {
+                return device;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * El último dispositivo que hizo login: recibe el audio de las llamadas sin CallService
+     */
+    public PushChannel newest() {
+        PushChannel[] current = devices;
+        return current.length == 0 ? null : current[current.length - 1];
+    }
+
+    /**
+     * Hasta dónde confirmaron todos los dispositivos que confirman: el buzón puede descartar
+     * hasta aquí. Los que nunca confirmaron (clientes sin ackMessages o recién conectados)
+     * no retienen el buzón. 0 si ninguno confirmó.
+     */
+    public long ackedUpTo() {
+        long min = Long.MAX_VALUE;
+        for (PushChannel device : devices) {
+            long acked = device.getAckedUpTo();
+            if (acked > 0) {
+                min = Math.min(min, acked);
+            }
+        }
+        return min == Long.MAX_VALUE ? 0 : min;
+    }
+
+    // ========== PUSH ==========
+
+    /**
+     * Push de un mensaje a todos los dispositivos; null si ninguno lo pudo recibir. El mensaje
+     * se suma al lote abierto y el futuro se completa con la respuesta de los dispositivos al
+     * lote que lo lleva; falla si alguno no respondió.
+     */
+    public CompletableFuture<Void> message(Message msg) {
+        if (!anyAccepting(msg.id)) {
+            limits.messageFallbacks.increment();
+            return null;
+        }
+        if (flushTimer == null || limits.batchWindowMs == 0) {
+            return send(List.of(msg));
+        }
+        List<Message> full = null;
+        CompletableFuture<Void> fullDone = null;
+        CompletableFuture<Void> done;
+        synchronized (this) {
+            if (batch == null) {
+                batch = new ArrayList<>();
+                batchDone = new CompletableFuture<>();
+                List<Message> opened = batch;
+                flushTimer.schedule(() -> flush(opened), limits.batchWindowMs, TimeUnit.MILLISECONDS);
+            }
+            batch.add(msg);
+            done = batchDone;
+            if (batch.size() >= limits.batchMax) {
+                full = batch;
+                fullDone = batchDone;
+                batch = null;
+            }
+        }
+        if (full != null) {
+            forward(send(full), fullDone);
+        }
+        return done;
+    }
+
+    /**
+     * Vence la ventana de un lote; si ya salió por tamaño no hay nada que hacer
+     */
+    private void flush(List<Message> opened) {
+        CompletableFuture<Void> done;
+        synchronized (this) {
+            if (batch != opened) {
+                return;
+            }
+            done = batchDone;
+            batch = null;
+        }
+        forward(send(opened), done);
+    }
+
+    /**
+     * Envía el lote a cada dispositivo con algo sin confirmar
+     */
+    private CompletableFuture<Void> send(List<Message> messages) {
+        long last = 0;
+        for (Message msg : messages) {
+            last = Math.max(last, msg.id);
+        }
+        Message[] batch = messages.size() > 1 ? messages.toArray(new Message[0]) : null;
+        List<CompletableFuture<Void>> pushes = new ArrayList<>();
+        boolean refused = false;
+        for (PushChannel device : devices) {
+            if (last > 0 && device.getAckedUpTo() >= last) {
+                continue;
+            }
+            CompletableFuture<Void> push;
+            if (batch == null) {
+                push = device.message(messages.get(0));
+            } else if (device.isBatchUnsupported()) {
+                push = sendEach(device, messages);
+            } else {
+                push = sendBatch(device, batch, messages);
+            }
+            if (push != null) {
+                pushes.add(push);
+            } else {
+                refused = true;
+            }
+        }
+        if (pushes.isEmpty()) {
+            if (refused) {
+                // Ningún dispositivo pudo recibirlo: queda en el buzón para el reintento
+                limits.messageFallbacks.add(messages.size());
+            }
+            return CompletableFuture.failedFuture(new IllegalStateException("Sin dispositivos disponibles"));
+        }
+        return CompletableFuture.allOf(pushes.toArray(new CompletableFuture[0]));
+    }
+
+    private CompletableFuture<Void> sendBatch(PushChannel device, Message[] batch, List<Message> messages) {
+        CompletableFuture<Void> push = device.messages(batch);
+        if (push == null) {
+            return null;
+        }
+        limits.batches.increment();
+        limits.batchedMessages.add(batch.length);
+        CompletableFuture<Void> done = new CompletableFuture<>();
+        push.whenComplete((result, ex) -> {
+            Throwable cause = ex instanceof CompletionException && ex.getCause() != null ? ex.getCause() : ex;
+            if (cause instanceof OperationNotExistException) {
+                device.batchUnsupported();
+                CompletableFuture<Void> retry = sendEach(device, messages);
+                forward(retry != null ? retry : CompletableFuture.failedFuture(cause), done);
+            } else {
+                forward(push, done);
+            }
+        });
+        return done;
+    }
+
+    private static CompletableFuture<Void> sendEach(PushChannel device, List<Message> messages) {
+        List<CompletableFuture<Void>> pushes = new ArrayList<>(messages.size());
+        for (Message msg : messages) {
+            CompletableFuture<Void> push = device.message(msg);
+            if (push == null) {
+                return null;
+            }
+            pushes.add(push);
+        }
+        return CompletableFuture.allOf(pushes.toArray(new CompletableFuture[0]));
+    }
+
+    private static void forward(CompletableFuture<Void> from, CompletableFuture<Void> to) {
+        from.whenComplete((result, ex) -> {
+            if (ex != null) {
+                to.completeExceptionally(ex);
+            } else {
+                to.complete(null);
+            }
+        });
+    }
+
+    /**
+     * Algún dispositivo puede recibir el mensaje: no lo confirmó ya y su conexión no está saturada
+     */
+    private boolean anyAccepting(long id) {
+        for (PushChannel device : devices) {
+            if ((id <= 0 || device.getAckedUpTo() < id) && !device.saturated()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Push de una nota de voz a todos los dispositivos; null si ninguno la recibió
+     */
+    public CompletableFuture<Void> voiceNote(String from, String target, byte[] audioData, boolean isGroup) {
+        List<CompletableFuture<Void>> pushes = new ArrayList<>();
+        for (PushChannel device : devices) {
+            CompletableFuture<Void> push = device.voiceNote(from, target, audioData, isGroup);
+            if (push != null) {
+                pushes.add(push);
+            }
+        }
+        return pushes.isEmpty() ? null : CompletableFuture.allOf(pushes.toArray(new CompletableFuture[0]));
+    }
+
+    /**
+     * Cambio de estado de otro usuario, en el lote oneway de cada dispositivo
+     */
+    public void userStatusChanged(User user) {
+        for (PushChannel device : devices) {
+            device.notifications().onUserStatusChangedAsync(user);
+        }
+    }
+
+    public void groupMemberAdded(String groupName, String username) {
+        for (PushChannel device : devices) {
+            device.notifications().onGroupMemberAddedAsync(groupName, username);
+        }
+    }
+
+    /**
+     * La llamada entrante suena en todos los dispositivos; el audio va al que acepte
+     */
+    public void incomingCall(String from) {
+        for (PushChannel device : devices) {
+            device.proxy().onIncomingCallAsync(from);
+        }
+    }
+
+    /**
+     * Evento recibido de otro nodo que no es audio ni señalización de una llamada en curso
+     */
+    public CompletableFuture<Void> dispatch(PushEvent event) {
+        switch (event.kind) {
+            case PushEvents.NEW_MESSAGE -> {
+                return message(event.msg);
+            }
+            case PushEvents.VOICE_NOTE -> {
+                return voiceNote(event.from, event.to, event.audio, event.isGroup);
+            }
+            case PushEvents.GROUP_MEMBER_ADDED -> groupMemberAdded(event.to, event.text);
+            case PushEvents.INCOMING_CALL -> incomingCall(event.from);
+            default -> {
+                PushChannel device = newest();
+                if (device != null) {
+                    device.dispatch(event);
+                }
+            }
+        }
+        return null;
+    }
+
+    public long getOutstanding() {
+        long total = 0;
+        for (PushChannel device : devices) {
+            total += device.getOutstanding();
+        }
+        return total;
+    }
+
+    public int getMaxOutstanding() {
+        int max = 0;
+        for (PushChannel device : devices) {
+            max = Math.max(max, device.getOutstanding());
+        }
+        return max;
+    }
+}
@@ -0,0 +1,294 @@
+package ice;
+
+import Chat.ChatCallbackPrx;
+import Chat.Message;
+import Chat.PushEvent;
+import cluster.PushEvents;
+import com.zeroc.Ice.Connection;
+import com.zeroc.Ice.ConnectionClose;
+import com.zeroc.Ice.InvocationFuture;
+import com.zeroc.Ice.Util;
+import logging.Log;
+import logging.Logger;
+
+import java.util.ArrayDeque;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Callback de un dispositivo (una conexión) con control de flujo. Ice encola sin límite las
+ * invocaciones asíncronas de una conexión, así que un cliente lento acumula memoria en el
+ * servidor; aquí se cuentan las invocaciones sin respuesta y se aplica una política por clase:
+ *   mensajes      con la conexión saturada no se empujan (quedan en el buzón y se reintentan);
+ *                 el agrupado por Chat.Push.BatchWindowMs lo hace {@link DeviceSet} por usuario
+ *   notas de voz  ídem (se reenvían desde el historial al reconectar)
+ *   audio         oneway; solo se mantienen unos pocos chunks sin enviar y se descartan los más viejos
+ * Una conexión que sigue saturada por Chat.Push.DisconnectAfterMs se cierra.
+ * Las notificaciones sin respuesta (estado, miembros de grupo) van por {@link #notifications()},
+ * un proxy batch oneway que se vacía cada Chat.Push.NotifyFlushMs. La señalización de llamadas
+ * es poca y sensible a la latencia: se envía siempre por {@link #proxy()}.
+ * En conexiones tcp/ssl los proxies comprimen (Chat.Push.Compress); Ice solo comprime
+ * los mensajes de más de 100 bytes, es decir los lotes.
+ * El canal registra la última señal de vida de la conexión (heartbeats ACM y respuestas a
+ * los push twoway) para que el reaper expire las sesiones muertas, ver {@link SessionLimits},
+ * y el cursor de entrega del dispositivo: el id más alto que confirmó con ackMessages.
+ */
+public class PushChannel {
+
+    private static final Logger logger = Log.get("ice");
+
+    private final String username;
+    private final ChatCallbackPrx proxy;
+    private final ChatCallbackPrx notifications; // Batch oneway
+    private final ChatCallbackPrx oneway;
+    private final Connection connection;
+    private final PushLimits limits;
+
+    private final AtomicInteger outstanding = new AtomicInteger();
+    private final ArrayDeque<InvocationFuture<Void>> unsentAudio = new ArrayDeque<>(); // Protegida por sí misma
+    private volatile long saturatedSince; // 0 mientras la conexión no está saturada
+    private final AtomicBoolean closing = new AtomicBoolean();
+    private final AtomicBoolean notificationsQueued = new AtomicBoolean();
+    private volatile long lastSeen = System.currentTimeMillis();
+    private final AtomicBoolean probing = new AtomicBoolean();
+    private volatile long ackedUpTo; // 0: el dispositivo todavía no confirmó nada
+    private volatile boolean batchUnsupported; // Cliente sin onNewMessages: un push por mensaje
+
+    public PushChannel(String username, ChatCallbackPrx proxy, Connection connection, PushLimits limits) {
+        this.username = username;
+        // El cliente web (Ice para JavaScript) no descomprime: solo se comprime hacia tcp/ssl
+        boolean compress = limits.compress && connection != null && !connection.type().startsWith("ws");
+        this.proxy = compress ? proxy.ice_compress(true) : proxy;
+        this.notifications = this.proxy.ice_batchOneway();
+        this.oneway = this.proxy.ice_oneway();
+        this.connection = connection;
+        this.limits = limits;
+    }
+
+    public ChatCallbackPrx proxy() {
+        return proxy;
+    }
+
+    public Connection connection() {
+        return connection;
+    }
+
+    /**
+     * Proxy batch oneway para notificaciones sin respuesta; quedan en la cola de la conexión
+     * hasta el próximo {@link #flushNotifications()}
+     */
+    public ChatCallbackPrx notifications() {
+        notificationsQueued.set(true);
+        return notifications;
+    }
+
+    /**
+     * Envía en una sola trama las notificaciones encoladas desde el último vaciado
+     */
+    public void flushNotifications() {
+        if (!notificationsQueued.compareAndSet(true, false)) {
+            return;
+        }
+        limits.notificationFlushes.increment();
+        track(notifications.ice_flushBatchRequestsAsync());
+    }
+
+    public int getOutstanding() {
+        return outstanding.get();
+    }
+
+    /**
+     * Heartbeat de la conexión (ver {@link ConnectionSessions}); con Heartbeat=Always en el
+     * cliente llega uno cada cuarto de su timeout ACM
+     */
+    void heard() {
+        lastSeen = System.currentTimeMillis();
+    }
+
+    /**
+     * Milisegundos desde la última señal de vida de la conexión
+     */
+    public long idleMillis(long now) {
+        return now - lastSeen;
+    }
+
+    /**
+     * Ping por la conexión fija si no hay otro en curso; la respuesta cuenta como señal de vida.
+     * En una conexión a medio cerrar el ping queda sin respuesta y la sesión termina vencida.
+     */
+    public boolean probe() {
+        if (!probing.compareAndSet(false, true)) {
+            return false;
+        }
+        replied(proxy.ice_pingAsync()).whenComplete((result, ex) -> probing.set(false));
+        return true;
+    }
+
+    /**
+     * Cierra la conexión de una sesión vencida; el close callback hace el logout.
+     * Devuelve false si ya se estaba cerrando.
+     */
+    public boolean reap(long idleMillis) {
+        if (connection == null || !closing.compareAndSet(false, true)) {
+            return false;
+        }
+        logger.info("Cerrando conexión sin señales de vida", "user", username, "idleMs", idleMillis);
+        connection.close(ConnectionClose.Forcefully);
+        return true;
+    }
+
+    /**
+     * Avanza el cursor de entrega del dispositivo
+     */
+    public void ack(long upToId) {
+        if (upToId > ackedUpTo) {
+            ackedUpTo = upToId;
+        }
+    }
+
+    public long getAckedUpTo() {
+        return ackedUpTo;
+    }
+
+    boolean isBatchUnsupported() {
+        return batchUnsupported;
+    }
+
+    /**
+     * Cliente anterior a onNewMessages: a partir de ahora un push por mensaje
+     */
+    void batchUnsupported() {
+        if (!batchUnsupported) {
+            batchUnsupported = true;
+            logger.info("El cliente no implementa onNewMessages, push sin agrupar", "user", username);
+        }
+    }
+
+    /**
+     * Push de un mensaje; null si la conexión está saturada y no se envió (el fallback lo cuenta
+     * DeviceSet, una vez por mensaje y no por dispositivo)
+     */
+    public CompletableFuture<Void> message(Message msg) {
+        if (saturated()) {
+            return null;
+        }
+        return replied(proxy.onNewMessageAsync(msg));
+    }
+
+    /**
+     * Push de un lote de mensajes; null si la conexión está saturada y no se envió
+     */
+    public CompletableFuture<Void> messages(Message[] batch) {
+        if (saturated()) {
+            return null;
+        }
+        return replied(proxy.onNewMessagesAsync(batch));
+    }
+
+    /**
+     * Push de una nota de voz; null si la conexión está saturada y no se envió
+     */
+    public CompletableFuture<Void> voiceNote(String from, String target, byte[] audioData, boolean isGroup) {
+        if (saturated()) {
+            limits.voiceNoteFallbacks.increment();
+            return null;
+        }
+        return replied(proxy.onVoiceNoteReceivedAsync(from, target, audioData, isGroup));
+    }
+
+    /**
+     * Push de un chunk de audio; si quedan demasiados sin enviar se cancelan los más viejos,
+     * que ya no sirven en una llamada en curso
+     */
+    public void audioChunk(String from, byte[] audioData) {
+        // Oneway: el futuro se completa al enviarse, así que outstanding cuenta los chunks sin enviar
+        InvocationFuture<Void> sent = Util.getInvocationFuture(track(oneway.onAudioChunkAsync(from, audioData)));
+        int dropped = 0;
+        synchronized (unsentAudio) {
+            while (!unsentAudio.isEmpty() && unsentAudio.peekFirst().isSent()) {
+                unsentAudio.pollFirst();
+            }
+            if (!sent.isSent()) {
+                unsentAudio.addLast(sent);
+            }
+            while (unsentAudio.size() > limits.maxQueuedAudio) {
+                InvocationFuture<Void> oldest = unsentAudio.pollFirst();
+                if (!oldest.isSent()) {
+                    oldest.cancel();
+                    dropped++;
+                }
+            }
+        }
+        if (dropped > 0) {
+            limits.audioDropped.add(dropped);
+        }
+        overloaded(dropped > 0 || outstanding.get() >= limits.maxOutstanding);
+    }
+
+    /**
+     * Audio o señalización de una llamada recibidos de otro nodo para este dispositivo
+     */
+    public void dispatch(PushEvent event) {
+        if (PushEvents.AUDIO_CHUNK.equals(event.kind)) {
+            audioChunk(event.from, event.audio);
+        } else {
+            PushEvents.dispatch(event, proxy);
+        }
+    }
+
+    boolean saturated() {
+        boolean over = outstanding.get() >= limits.maxOutstanding;
+        overloaded(over);
+        return over;
+    }
+
+    /**
+     * Lleva el tiempo que la conexión pasa saturada y la cierra si no se recupera
+     */
+    private void overloaded(boolean over) {
+        if (!over) {
+            if (saturatedSince != 0) {
+                saturatedSince = 0;
+            }
+            return;
+        }
+        long now = System.currentTimeMillis();
+        long since = saturatedSince;
+        if (since == 0) {
+            saturatedSince = now;
+            logger.debug("Conexión saturada", "user", username, "outstanding", outstanding.get());
+        } else if (limits.disconnectAfterMs > 0 && now - since >= limits.disconnectAfterMs) {
+            disconnect(now - since);
+        }
+    }
+
+    private void disconnect(long saturatedMillis) {
+        if (connection == null || !closing.compareAndSet(false, true)) {
+            return;
+        }
+        limits.disconnects.increment();
+        logger.warn("Cerrando conexión de consumidor lento", "user", username,
+            "outstanding", outstanding.get(), "saturatedMs", saturatedMillis);
+        // El cierre dispara el close callback del login, que hace el logout
+        connection.close(ConnectionClose.Forcefully);
+    }
+
+    /**
+     * Push twoway: además de contarlo, su respuesta es señal de vida del cliente
+     */
+    private <T> CompletableFuture<T> replied(CompletableFuture<T> future) {
+        track(future).whenComplete((result, ex) -> {
+            if (ex == null) {
+                lastSeen = System.currentTimeMillis();
+            }
+        });
+        return future;
+    }
+
+    private <T> CompletableFuture<T> track(CompletableFuture<T> future) {
+        outstanding.incrementAndGet();
+        future.whenComplete((result, ex) -> outstanding.decrementAndGet());
+        return future;
+    }
+}
@@ -0,0 +1,156 @@
+package ice;
+
+import com.zeroc.Ice.Properties;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Límites de control de flujo y reintento de los push, y contadores de lo que se dejó de enviar.
+ *
+ * Propiedades:
+ *   Chat.Push.MaxOutstanding     invocaciones sin respuesta por conexión antes de dejar de enviar
+ *                                mensajes y notas de voz (por defecto 256)
+ *   Chat.Push.MaxQueuedAudio     chunks de audio sin enviar por conexión; al pasarse se descarta
+ *                                el más viejo (por defecto 4)
+ *   Chat.Push.DisconnectAfterMs  una conexión saturada por este tiempo se cierra (por defecto 15000; 0 nunca)
+ *   Chat.Push.RetryMs            espera por la confirmación (ackMessages) antes del primer reintento;
+ *                                se duplica en cada intento (por defecto 2000)
+ *   Chat.Push.RetryMaxMs         tope del backoff (por defecto 30000)
+ *   Chat.Push.MaxAttempts        push por mensaje antes de dejarlo en el buzón para el próximo poll
+ *                                o login (por defecto 5)
+ *   Chat.Push.BatchWindowMs      los mensajes a una conexión se agrupan en un solo onNewMessages
+ *                                durante esta ventana; es la latencia máxima que se agrega
+ *                                (por defecto 5; 0 un push por mensaje)
+ *   Chat.Push.BatchMax           mensajes por lote; al llegar se envía sin esperar la ventana (por defecto 64)
+ *   Chat.Push.NotifyFlushMs      las notificaciones sin respuesta (estado, miembros de grupo) viajan
+ *                                en lotes oneway que se vacían con esta frecuencia (por defecto 10)
+ *   Chat.Push.Compress           compresión bzip2 del protocolo en conexiones tcp/ssl; los clientes
+ *                                web (ws/wss) no la soportan. Reduce ~10x los lotes de texto pero
+ *                                cuesta ~50x de CPU por lote: solo para enlaces lentos (por defecto 0)
+ */
+public class PushLimits {
+
+    final int maxOutstanding;
+    final int maxQueuedAudio;
+    final long disconnectAfterMs;
+    final long retryMs;
+    final long retryMaxMs;
+    final int maxAttempts;
+    final long batchWindowMs;
+    final int batchMax;
+    final long notifyFlushMs;
+    final boolean compress;
+
+    final LongAdder messageFallbacks = new LongAdder();
+    final LongAdder voiceNoteFallbacks = new LongAdder();
+    final LongAdder audioDropped = new LongAdder();
+    final LongAdder disconnects = new LongAdder();
+    final LongAdder retries = new LongAdder();
+    final LongAdder retriesExhausted = new LongAdder();
+    final LongAdder acked = new LongAdder();
+    final LongAdder batches = new LongAdder();
+    final LongAdder batchedMessages = new LongAdder();
+    final LongAdder notificationFlushes = new LongAdder();
+
+    public PushLimits(int maxOutstanding, int maxQueuedAudio, long disconnectAfterMs,
+                      long retryMs, long retryMaxMs, int maxAttempts,
+                      long batchWindowMs, int batchMax, long notifyFlushMs, boolean compress) {
+        this.maxOutstanding = Math.max(maxOutstanding, 1);
+        this.maxQueuedAudio = Math.max(maxQueuedAudio, 1);
+        this.disconnectAfterMs = disconnectAfterMs;
+        this.retryMs = Math.max(retryMs, 1);
+        this.retryMaxMs = Math.max(retryMaxMs, this.retryMs);
+        this.maxAttempts = Math.max(maxAttempts, 1);
+        this.batchWindowMs = Math.max(batchWindowMs, 0);
+        this.batchMax = Math.max(batchMax, 1);
+        this.notifyFlushMs = Math.max(notifyFlushMs, 1);
+        this.compress = compress;
+    }
+
+    public static PushLimits defaults() {
+        return new PushLimits(256, 4, 15_000, 2_000, 30_000, 5, 5, 64, 10, false);
+    }
+
+    public static PushLimits fromProperties(Properties props) {
+        return new PushLimits(
+            props.getPropertyAsIntWithDefault("Chat.Push.MaxOutstanding", 256),
+            props.getPropertyAsIntWithDefault("Chat.Push.MaxQueuedAudio", 4),
+            props.getPropertyAsIntWithDefault("Chat.Push.DisconnectAfterMs", 15_000),
+            props.getPropertyAsIntWithDefault("Chat.Push.RetryMs", 2_000),
+            props.getPropertyAsIntWithDefault("Chat.Push.RetryMaxMs", 30_000),
+            props.getPropertyAsIntWithDefault("Chat.Push.MaxAttempts", 5),
+            props.getPropertyAsIntWithDefault("Chat.Push.BatchWindowMs", 5),
+            props.getPropertyAsIntWithDefault("Chat.Push.BatchMax", 64),
+            props.getPropertyAsIntWithDefault("Chat.Push.NotifyFlushMs", 10),
+            props.getPropertyAsIntWithDefault("Chat.Push.Compress", 0) > 0);
+    }
+
+    public long getRetryMs() {
+        return retryMs;
+    }
+
+    public long getNotifyFlushMs() {
+        return notifyFlushMs;
+    }
+
+    /**
+     * Mensajes no empujados por saturación; quedan en el buzón y se reintentan con backoff
+     */
+    public long getMessageFallbacks() {
+        return messageFallbacks.sum();
+    }
+
+    /**
+     * Notas de voz no empujadas por saturación; se reenvían desde el historial al reconectar
+     */
+    public long getVoiceNoteFallbacks() {
+        return voiceNoteFallbacks.sum();
+    }
+
+    public long getAudioDropped() {
+        return audioDropped.sum();
+    }
+
+    public long getDisconnects() {
+        return disconnects.sum();
+    }
+
+    /**
+     * Push repetidos porque el cliente no confirmó a tiempo
+     */
+    public long getRetries() {
+        return retries.sum();
+    }
+
+    /**
+     * Mensajes que agotaron los reintentos y esperan en el buzón al próximo poll o login
+     */
+    public long getRetriesExhausted() {
+        return retriesExhausted.sum();
+    }
+
+    public long getAcked() {
+        return acked.sum();
+    }
+
+    /**
+     * Invocaciones onNewMessages enviadas
+     */
+    public long getBatches() {
+        return batches.sum();
+    }
+
+    /**
+     * Mensajes que viajaron dentro de un onNewMessages
+     */
+    public long getBatchedMessages() {
+        return batchedMessages.sum();
+    }
+
+    /**
+     * Lotes oneway de notificaciones enviados
+     */
+    public long getNotificationFlushes() {
+        return notificationFlushes.sum();
+    }
+}
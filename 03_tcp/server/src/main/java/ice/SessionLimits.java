@@ -0,0 +1,72 @@
+package ice;
+
+import com.zeroc.Ice.Properties;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Vencimiento de sesiones con la conexión muerta (laptops suspendidas, redes que cambian,
+ * WebSockets a medio cerrar) y contadores de lo que se expiró. Cada conexión con callback
+ * recuerda su última señal de vida: un heartbeat ACM del cliente o la respuesta a un push
+ * o a un ping. El reaper recorre las conexiones cada Chat.Session.ReapMs; a las que pasan
+ * Chat.Session.ProbeMs en silencio les envía un ice_ping (los clientes sin heartbeats
+ * también responden) y las que llegan a Chat.Session.IdleMs se cierran, lo que dispara
+ * el logout y la notificación de desconexión.
+ *
+ * Propiedades:
+ *   Chat.Session.IdleMs   silencio tras el que se cierra la conexión (por defecto 60000; 0 nunca)
+ *   Chat.Session.ProbeMs  silencio tras el que se envía un ping (por defecto 20000)
+ *   Chat.Session.ReapMs   período del reaper (por defecto 5000)
+ */
+public class SessionLimits {
+
+    final long idleMs;
+    final long probeMs;
+    final long reapMs;
+
+    final LongAdder reaped = new LongAdder();
+    final LongAdder callsReaped = new LongAdder();
+    final LongAdder probes = new LongAdder();
+
+    public SessionLimits(long idleMs, long probeMs, long reapMs) {
+        this.idleMs = Math.max(idleMs, 0);
+        this.probeMs = Math.max(probeMs, 1);
+        this.reapMs = Math.max(reapMs, 100);
+    }
+
+    public static SessionLimits defaults() {
+        return new SessionLimits(60_000, 20_000, 5_000);
+    }
+
+    public static SessionLimits fromProperties(Properties props) {
+        return new SessionLimits(
+            props.getPropertyAsIntWithDefault("Chat.Session.IdleMs", 60_000),
+            props.getPropertyAsIntWithDefault("Chat.Session.ProbeMs", 20_000),
+            props.getPropertyAsIntWithDefault("Chat.Session.ReapMs", 5_000));
+    }
+
+    public long getReapMs() {
+        return reapMs;
+    }
+
+    /**
+     * Sesiones cerradas por no dar señales de vida
+     */
+    public long getReaped() {
+        return reaped.sum();
+    }
+
+    /**
+     * Conexiones de llamadas (CallService) cerradas por no dar señales de vida
+     */
+    public long getCallsReaped() {
+        return callsReaped.sum();
+    }
+
+    /**
+     * Pings enviados a conexiones en silencio
+     */
+    public long getProbes() {
+        return probes.sum();
+    }
+}
@@ -0,0 +1,35 @@
+package jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Reenvío de un chunk de audio de una llamada al otro participante
+ */
+@Name("chat.AudioRelay")
+@Label("Audio Relay")
+@Category({"Chat", "Calls"})
+@Description("Un chunk de audio recibido y reenviado por push o por el bus del cluster")
+@Enabled(false)
+@StackTrace(false)
+public class AudioRelayEvent extends jdk.jfr.Event {
+
+    @Label("From Id")
+    public int fromId;
+
+    @Label("To Id")
+    public int toId;
+
+    @Label("Bytes")
+    @DataAmount
+    public int bytes;
+
+    @Label("Route")
+    @Description("local, remote u offline")
+    public String route;
+}
@@ -0,0 +1,44 @@
+package jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Programación de los push de un mensaje o nota de voz a los miembros online de un grupo
+ */
+@Name("chat.GroupFanout")
+@Label("Group Fan-out")
+@Category({"Chat", "Delivery"})
+@Description("Recorrido de los miembros online de un grupo encolando los push asíncronos")
+@Enabled(false)
+@StackTrace(false)
+public class GroupFanoutEvent extends jdk.jfr.Event {
+
+    @Label("Kind")
+    @Description("message o voiceNote")
+    public String kind;
+
+    @Label("Group")
+    public String group;
+
+    @Label("Group Id")
+    public int groupId;
+
+    @Label("Sender Id")
+    public int fromId;
+
+    @Label("Online Members")
+    public int online;
+
+    @Label("Pushes")
+    @Description("Push programados (miembros online con callback en este nodo)")
+    public int pushes;
+
+    @Label("Failures")
+    @Description("Push que fallaron al programarse")
+    public int failures;
+}
@@ -0,0 +1,38 @@
+package jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Lectura del historial de un usuario (privados más los de sus grupos)
+ */
+@Name("chat.HistoryRead")
+@Label("History Read")
+@Category({"Chat", "Storage"})
+@Description("Carga del historial completo o de una página")
+@Enabled(false)
+@StackTrace(false)
+public class HistoryReadEvent extends jdk.jfr.Event {
+
+    @Label("User")
+    public String user;
+
+    @Label("User Id")
+    public int userId;
+
+    @Label("Groups")
+    @Description("Historiales de grupo leídos además del privado")
+    public int groups;
+
+    @Label("Lines")
+    @Description("Líneas leídas del disco")
+    public int lines;
+
+    @Label("Cached Lines")
+    @Description("Líneas servidas desde la cola en memoria, ver HistoryCache")
+    public int cached;
+}
@@ -0,0 +1,29 @@
+package jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Append de una línea a un archivo de historial (remitente, destinatario o grupo)
+ */
+@Name("chat.MessagePersist")
+@Label("Message Persist")
+@Category({"Chat", "Storage"})
+@Description("Escritura de una línea en data/history")
+@Enabled(false)
+@StackTrace(false)
+public class MessagePersistEvent extends jdk.jfr.Event {
+
+    @Label("History")
+    @Description("Archivo de historial: usuario o #grupo")
+    public String history;
+
+    @Label("Bytes")
+    @DataAmount
+    public int bytes;
+}
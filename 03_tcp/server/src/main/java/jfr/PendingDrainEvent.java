@@ -0,0 +1,30 @@
+package jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Lectura de la cola de pendientes de un usuario (getPendingMessages); las entradas siguen
+ * ahí hasta que el cliente las confirma
+ */
+@Name("chat.PendingDrain")
+@Label("Pending Drain")
+@Category({"Chat", "Delivery"})
+@Description("Mensajes sin confirmar devueltos por un poll")
+@Enabled(false)
+@StackTrace(false)
+public class PendingDrainEvent extends jdk.jfr.Event {
+
+    @Label("User")
+    public String user;
+
+    @Label("User Id")
+    public int userId;
+
+    @Label("Messages")
+    public int messages;
+}
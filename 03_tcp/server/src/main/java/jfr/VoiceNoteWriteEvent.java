@@ -0,0 +1,28 @@
+package jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Escritura del audio de una nota de voz en data/media
+ */
+@Name("chat.VoiceNoteWrite")
+@Label("Voice Note Write")
+@Category({"Chat", "Storage"})
+@Description("Escritura de un archivo de nota de voz")
+@Enabled(false)
+@StackTrace(false)
+public class VoiceNoteWriteEvent extends jdk.jfr.Event {
+
+    @Label("File")
+    public String file;
+
+    @Label("Bytes")
+    @DataAmount
+    public int bytes;
+}
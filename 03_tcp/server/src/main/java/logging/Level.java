@@ -0,0 +1,8 @@
+package logging;
+
+/**
+ * Niveles del logger, de más a menos detallado
+ */
+public enum Level {
+    TRACE, DEBUG, INFO, WARN, ERROR, OFF
+}
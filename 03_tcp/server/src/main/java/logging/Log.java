@@ -0,0 +1,88 @@
+package logging;
+
+import com.zeroc.Ice.Properties;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Punto de entrada del logging del servidor:
+ *   private static final Logger logger = Log.get("ice");
+ *
+ * Los eventos van a un ring buffer sin locks y un hilo de fondo los escribe en stdout
+ * (WARN y ERROR en stderr) con el formato: fecha NIVEL [componente] mensaje clave=valor ...
+ *
+ * Propiedades (ver {@link #configure}):
+ *   Chat.Log.Level               nivel global (por defecto INFO: sin logs por mensaje ni por chunk de audio)
+ *   Chat.Log.Level.&lt;componente&gt;  nivel de un componente, p. ej. Chat.Log.Level.ice=DEBUG
+ */
+public final class Log {
+
+    private static final int RING_CAPACITY = 16 * 1024;
+
+    private static final Map<String, Logger> loggers = new ConcurrentHashMap<>();
+    private static final Map<String, Level> overrides = new ConcurrentHashMap<>();
+    private static volatile Level defaultLevel = Level.INFO;
+    private static volatile LogRing ring;
+
+    private Log() {
+    }
+
+    public static Logger get(String component) {
+        return loggers.computeIfAbsent(component, name -> new Logger(name, levelFor(name)));
+    }
+
+    /**
+     * Aplica los niveles de las propiedades Chat.Log.* a los loggers existentes y futuros
+     */
+    public static void configure(Properties props) {
+        String level = props.getProperty("Chat.Log.Level");
+        if (!level.isEmpty()) {
+            defaultLevel = parse(level);
+        }
+        props.getPropertiesForPrefix("Chat.Log.Level.").forEach((key, value) ->
+            overrides.put(key.substring("Chat.Log.Level.".length()), parse(value)));
+        loggers.values().forEach(logger -> logger.threshold = levelFor(logger.getComponent()).ordinal());
+    }
+
+    public static void setLevel(Level level) {
+        defaultLevel = level;
+        overrides.clear();
+        loggers.values().forEach(logger -> logger.threshold = level.ordinal());
+    }
+
+    /**
+     * Eventos descartados porque el buffer estaba lleno
+     */
+    public static long getDropped() {
+        LogRing current = ring;
+        return current != null ? current.getDropped() : 0;
+    }
+
+    static LogRing ring() {
+        LogRing current = ring;
+        if (current == null) {
+            synchronized (Log.class) {
+                current = ring;
+                if (current == null) {
+                    current = new LogRing(RING_CAPACITY);
+                    ring = current;
+                }
+            }
+        }
+        return current;
+    }
+
+    private static Level levelFor(String component) {
+        return overrides.getOrDefault(component, defaultLevel);
+    }
+
+    private static Level parse(String value) {
+        try {
+            return Level.valueOf(value.trim().toUpperCase());
+        } catch (IllegalArgumentException e) {
+            System.err.println("Nivel de log desconocido: " + value + " (se usa INFO)");
+            return Level.INFO;
+        }
+    }
+}
@@ -0,0 +1,183 @@
+package logging;
+
+import java.io.PrintStream;
+import java.time.Instant;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Ring buffer acotado de muchos productores y un consumidor (esquema de Vyukov): cada casilla
+ * lleva un número de secuencia que indica si está libre o publicada, así los hilos de dispatch
+ * reservan con un CAS y nunca esperan al escritor. Las casillas se reservan una vez y se reutilizan.
+ * Si el buffer está lleno el evento se descarta y se cuenta; el servidor no se frena por el log.
+ */
+final class LogRing implements Runnable {
+
+    static final int MAX_FIELDS = 3;
+
+    static final class Slot {
+        volatile long sequence;
+        long timestamp;
+        Level level;
+        String component;
+        String message;
+        final String[] keys = new String[MAX_FIELDS];
+        final Object[] values = new Object[MAX_FIELDS];
+        int fieldCount;
+        Throwable error;
+    }
+
+    private final Slot[] slots;
+    private final int mask;
+    private final AtomicLong tail = new AtomicLong();
+    private final LongAdder dropped = new LongAdder();
+    private long head; // Solo lo usa el hilo escritor
+    private final StringBuilder line = new StringBuilder(256);
+    private volatile boolean running = true;
+    private final Thread writer;
+
+    LogRing(int capacity) {
+        int size = Integer.highestOneBit(Math.max(capacity, 2) - 1) << 1;
+        slots = new Slot[size];
+        for (int i = 0; i < size; i++) {
+            slots[i] = new Slot();
+            slots[i].sequence = i;
+        }
+        mask = size - 1;
+        writer = new Thread(this, "log-writer");
+        writer.setDaemon(true);
+        writer.start();
+        Runtime.getRuntime().addShutdownHook(new Thread(this::shutdown, "log-flush"));
+    }
+
+    /**
+     * Reserva una casilla para escribir, o null si el buffer está lleno
+     */
+    Slot claim() {
+        long position = tail.get();
+        while (true) {
+            Slot slot = slots[(int) (position & mask)];
+            long difference = slot.sequence - position;
+            if (difference == 0) {
+                if (tail.compareAndSet(position, position + 1)) {
+                    return slot;
+                }
+                position = tail.get();
+            } else if (difference < 0) {
+                dropped.increment();
+                return null;
+            } else {
+                position = tail.get();
+            }
+        }
+    }
+
+    /**
+     * Publica la casilla reservada para que el escritor la consuma
+     */
+    void publish(Slot slot) {
+        // Reservada en la posición p (sequence == p); publicada queda en p + 1. Solo la escribe quien la reservó
+        slot.sequence = slot.sequence + 1;
+    }
+
+    long getDropped() {
+        return dropped.sum();
+    }
+
+    @Override
+    public void run() {
+        while (running) {
+            if (drain() == 0) {
+                LockSupport.parkNanos(1_000_000);
+            }
+        }
+        drain();
+    }
+
+    /**
+     * Escribe todo lo publicado y devuelve cuántos eventos procesó
+     */
+    private synchronized int drain() {
+        int written = 0;
+        PrintStream out = System.out;
+        while (true) {
+            Slot slot = slots[(int) (head & mask)];
+            if (slot.sequence != head + 1) {
+                break;
+            }
+            format(slot);
+            (slot.level.compareTo(Level.WARN) >= 0 ? System.err : out).append(line);
+            if (slot.error != null) {
+                slot.error.printStackTrace(System.err);
+            }
+            clear(slot);
+            slot.sequence = head + mask + 1;
+            head++;
+            written++;
+        }
+        if (written > 0) {
+            out.flush();
+            System.err.flush();
+        }
+        return written;
+    }
+
+    private void format(Slot slot) {
+        line.setLength(0);
+        line.append(Instant.ofEpochMilli(slot.timestamp)).append(' ')
+            .append(slot.level.name());
+        for (int pad = slot.level.name().length(); pad < 5; pad++) {
+            line.append(' ');
+        }
+        line.append(" [").append(slot.component).append("] ").append(slot.message);
+        for (int i = 0; i < slot.fieldCount; i++) {
+            line.append(' ').append(slot.keys[i]).append('=');
+            appendValue(String.valueOf(slot.values[i]));
+        }
+        if (slot.error != null) {
+            line.append(" error=");
+            appendValue(String.valueOf(slot.error));
+        }
+        line.append(System.lineSeparator());
+    }
+
+    private void appendValue(String value) {
+        boolean quote = value.isEmpty();
+        for (int i = 0; i < value.length() && !quote; i++) {
+            char c = value.charAt(i);
+            quote = c == ' ' || c == '"' || c == '=' || c < 0x20;
+        }
+        if (!quote) {
+            line.append(value);
+            return;
+        }
+        line.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '"' || c == '\\') {
+                line.append('\\').append(c);
+            } else if (c == '\n') {
+                line.append("\\n");
+            } else {
+                line.append(c);
+            }
+        }
+        line.append('"');
+    }
+
+    private static void clear(Slot slot) {
+        slot.message = null;
+        slot.error = null;
+        for (int i = 0; i < slot.fieldCount; i++) {
+            slot.values[i] = null;
+        }
+        slot.fieldCount = 0;
+    }
+
+    private void shutdown() {
+        running = false;
+        LockSupport.unpark(writer);
+        drain();
+    }
+}
@@ -0,0 +1,194 @@
+package logging;
+
+/**
+ * Logger de un componente ("ice", "chat", "cluster", ...). Cada llamada compara el nivel
+ * contra un int antes de tocar nada, y los campos clave/valor se pasan como argumentos
+ * separados (sin concatenar ni varargs), así un log apagado no construye strings ni arreglos.
+ * El formateo y la escritura los hace el hilo escritor de {@link Log}.
+ */
+public final class Logger {
+
+    private final String component;
+    volatile int threshold;
+
+    Logger(String component, Level level) {
+        this.component = component;
+        this.threshold = level.ordinal();
+    }
+
+    public String getComponent() {
+        return component;
+    }
+
+    public boolean isEnabled(Level level) {
+        return level.ordinal() >= threshold;
+    }
+
+    public boolean isTraceEnabled() {
+        return threshold <= Level.TRACE.ordinal();
+    }
+
+    public boolean isDebugEnabled() {
+        return threshold <= Level.DEBUG.ordinal();
+    }
+
+    // ========== TRACE ==========
+
+    public void trace(String message) {
+        if (threshold <= Level.TRACE.ordinal()) {
+            log(Level.TRACE, message, 0, null, null, null, null, null, null, null);
+        }
+    }
+
+    public void trace(String message, String k1, Object v1) {
+        if (threshold <= Level.TRACE.ordinal()) {
+            log(Level.TRACE, message, 1, k1, v1, null, null, null, null, null);
+        }
+    }
+
+    public void trace(String message, String k1, Object v1, String k2, Object v2) {
+        if (threshold <= Level.TRACE.ordinal()) {
+            log(Level.TRACE, message, 2, k1, v1, k2, v2, null, null, null);
+        }
+    }
+
+    public void trace(String message, String k1, Object v1, String k2, Object v2, String k3, Object v3) {
+        if (threshold <= Level.TRACE.ordinal()) {
+            log(Level.TRACE, message, 3, k1, v1, k2, v2, k3, v3, null);
+        }
+    }
+
+    // ========== DEBUG ==========
+
+    public void debug(String message) {
+        if (threshold <= Level.DEBUG.ordinal()) {
+            log(Level.DEBUG, message, 0, null, null, null, null, null, null, null);
+        }
+    }
+
+    public void debug(String message, String k1, Object v1) {
+        if (threshold <= Level.DEBUG.ordinal()) {
+            log(Level.DEBUG, message, 1, k1, v1, null, null, null, null, null);
+        }
+    }
+
+    public void debug(String message, String k1, Object v1, String k2, Object v2) {
+        if (threshold <= Level.DEBUG.ordinal()) {
+            log(Level.DEBUG, message, 2, k1, v1, k2, v2, null, null, null);
+        }
+    }
+
+    public void debug(String message, String k1, Object v1, String k2, Object v2, String k3, Object v3) {
+        if (threshold <= Level.DEBUG.ordinal()) {
+            log(Level.DEBUG, message, 3, k1, v1, k2, v2, k3, v3, null);
+        }
+    }
+
+    // ========== INFO ==========
+
+    public void info(String message) {
+        if (threshold <= Level.INFO.ordinal()) {
+            log(Level.INFO, message, 0, null, null, null, null, null, null, null);
+        }
+    }
+
+    public void info(String message, String k1, Object v1) {
+        if (threshold <= Level.INFO.ordinal()) {
+            log(Level.INFO, message, 1, k1, v1, null, null, null, null, null);
+        }
+    }
+
+    public void info(String message, String k1, Object v1, String k2, Object v2) {
+        if (threshold <= Level.INFO.ordinal()) {
+            log(Level.INFO, message, 2, k1, v1, k2, v2, null, null, null);
+        }
+    }
+
+    public void info(String message, String k1, Object v1, String k2, Object v2, String k3, Object v3) {
+        if (threshold <= Level.INFO.ordinal()) {
+            log(Level.INFO, message, 3, k1, v1, k2, v2, k3, v3, null);
+        }
+    }
+
+    // ========== WARN ==========
+
+    public void warn(String message) {
+        if (threshold <= Level.WARN.ordinal()) {
+            log(Level.WARN, message, 0, null, null, null, null, null, null, null);
+        }
+    }
+
+    public void warn(String message, String k1, Object v1) {
+        if (threshold <= Level.WARN.ordinal()) {
+            log(Level.WARN, message, 1, k1, v1, null, null, null, null, null);
+        }
+    }
+
+    public void warn(String message, String k1, Object v1, String k2, Object v2) {
+        if (threshold <= Level.WARN.ordinal()) {
+            log(Level.WARN, message, 2, k1, v1, k2, v2, null, null, null);
+        }
+    }
+
+    public void warn(String message, String k1, Object v1, String k2, Object v2, String k3, Object v3) {
+        if (threshold <= Level.WARN.ordinal()) {
+            log(Level.WARN, message, 3, k1, v1, k2, v2, k3, v3, null);
+        }
+    }
+
+    // ========== ERROR ==========
+
+    public void error(String message) {
+        if (threshold <= Level.ERROR.ordinal()) {
+            log(Level.ERROR, message, 0, null, null, null, null, null, null, null);
+        }
+    }
+
+    public void error(String message, String k1, Object v1) {
+        if (threshold <= Level.ERROR.ordinal()) {
+            log(Level.ERROR, message, 1, k1, v1, null, null, null, null, null);
+        }
+    }
+
+    public void error(String message, String k1, Object v1, String k2, Object v2) {
+        if (threshold <= Level.ERROR.ordinal()) {
+            log(Level.ERROR, message, 2, k1, v1, k2, v2, null, null, null);
+        }
+    }
+
+    public void error(String message, String k1, Object v1, String k2, Object v2, String k3, Object v3) {
+        if (threshold <= Level.ERROR.ordinal()) {
+            log(Level.ERROR, message, 3, k1, v1, k2, v2, k3, v3, null);
+        }
+    }
+
+    /**
+     * Error con excepción: se imprime también la traza completa
+     */
+    public void error(String message, Throwable error) {
+        if (threshold <= Level.ERROR.ordinal()) {
+            log(Level.ERROR, message, 0, null, null, null, null, null, null, error);
+        }
+    }
+
+    private void log(Level level, String message, int fieldCount,
+                     String k1, Object v1, String k2, Object v2, String k3, Object v3, Throwable error) {
+        LogRing.Slot slot = Log.ring().claim();
+        if (slot == null) {
+            return;
+        }
+        slot.timestamp = System.currentTimeMillis();
+        slot.level = level;
+        slot.component = component;
+        slot.message = message;
+        slot.fieldCount = fieldCount;
+        slot.keys[0] = k1;
+        slot.values[0] = v1;
+        slot.keys[1] = k2;
+        slot.values[1] = v2;
+        slot.keys[2] = k3;
+        slot.values[2] = v3;
+        slot.error = error;
+        Log.ring().publish(slot);
+    }
+}
@@ -0,0 +1,75 @@
+package metrics;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import logging.Log;
+import logging.Logger;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.Executors;
+import java.util.function.Supplier;
+
+/**
+ * Endpoint HTTP de administración (JDK httpserver, un solo hilo):
+ *   GET /metrics       texto de exposición Prometheus
+ *   GET /metrics.json  el mismo contenido en JSON
+ * Pensado para escucharse en localhost o en una red de administración, no hacia los clientes.
+ */
+public class AdminServer {
+
+    private static final Logger logger = Log.get("admin");
+
+    private final HttpServer server;
+
+    public AdminServer(String host, int port, MetricsExporter exporter) throws IOException {
+        server = HttpServer.create(new InetSocketAddress(host, port), 0);
+        server.setExecutor(Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "admin-http");
+            thread.setDaemon(true);
+            return thread;
+        }));
+        route("/metrics", "text/plain; version=0.0.4; charset=utf-8", exporter::prometheus);
+        route("/metrics.json", "application/json; charset=utf-8", exporter::json);
+    }
+
+    /**
+     * Publica una ruta de solo lectura; el contenido se genera en cada GET
+     */
+    public void route(String path, String contentType, Supplier<String> body) {
+        server.createContext(path, exchange -> {
+            try {
+                if (!exchange.getRequestURI().getPath().equals(path)) {
+                    respond(exchange, 404, "text/plain; charset=utf-8", "No encontrado\n");
+                } else if (!exchange.getRequestMethod().equals("GET")) {
+                    respond(exchange, 405, "text/plain; charset=utf-8", "Solo GET\n");
+                } else {
+                    respond(exchange, 200, contentType, body.get());
+                }
+            } catch (RuntimeException e) {
+                logger.warn("Error atendiendo ruta", "path", path, "error", e);
+                respond(exchange, 500, "text/plain; charset=utf-8", "Error interno\n");
+            }
+        });
+    }
+
+    public void start() {
+        server.start();
+        logger.info("Métricas publicadas", "url", "http://" + server.getAddress().getHostString() + ":" + server.getAddress().getPort() + "/metrics");
+    }
+
+    public void stop() {
+        server.stop(0);
+    }
+
+    private static void respond(HttpExchange exchange, int status, String contentType, String body) throws IOException {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", contentType);
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+}
@@ -0,0 +1,115 @@
+package metrics;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Histograma log-lineal de latencias en microsegundos (estilo HDR): valores menores a 64 µs
+ * exactos y luego 32 sub-buckets por potencia de dos, con error relativo menor al 3%.
+ * record() no reserva memoria ni toma locks: se llama desde los hilos de dispatch de Ice.
+ */
+public class Histogram {
+
+    private static final int LINEAR = 64;
+    private static final int SUB_BITS = 5;
+    private static final int SUB_BUCKETS = 1 << SUB_BITS;
+    private static final int MAX_EXPONENT = 40; // 2^40 µs ≈ 12 días
+    private static final int BUCKETS = LINEAR + (MAX_EXPONENT - 6 + 1) * SUB_BUCKETS;
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+    private final LongAdder total = new LongAdder();
+    private final LongAdder sum = new LongAdder();
+    private final AtomicLong max = new AtomicLong();
+
+    public void recordNanos(long nanos) {
+        record(Math.max(0, nanos / 1000));
+    }
+
+    public void record(long micros) {
+        counts.incrementAndGet(indexOf(micros));
+        total.increment();
+        sum.add(micros);
+        long currentMax = max.get();
+        while (micros > currentMax && !max.compareAndSet(currentMax, micros)) {
+            currentMax = max.get();
+        }
+    }
+
+    public long count() {
+        return total.sum();
+    }
+
+    /**
+     * Suma de todas las muestras en microsegundos
+     */
+    public long sum() {
+        return sum.sum();
+    }
+
+    public long max() {
+        return max.get();
+    }
+
+    /**
+     * Valor (límite superior del bucket) bajo el cual cae la fracción q de las muestras
+     */
+    public long percentile(double q) {
+        long n = count();
+        if (n == 0) {
+            return 0;
+        }
+        long rank = Math.max(1, (long) Math.ceil(q * n));
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += counts.get(i);
+            if (seen >= rank) {
+                return Math.min(upperBound(i), max.get());
+            }
+        }
+        return max.get();
+    }
+
+    /**
+     * Muestras menores o iguales a micros (para exportar buckets acumulados)
+     */
+    public long countAtOrBelow(long micros) {
+        int last = indexOf(micros);
+        // El bucket de micros puede incluir valores algo mayores: solo se cuenta si cae completo
+        if (upperBound(last) > micros) {
+            last--;
+        }
+        long seen = 0;
+        for (int i = 0; i <= last; i++) {
+            seen += counts.get(i);
+        }
+        return seen;
+    }
+
+    public void reset() {
+        for (int i = 0; i < BUCKETS; i++) {
+            counts.set(i, 0);
+        }
+        total.reset();
+        sum.reset();
+        max.set(0);
+    }
+
+    private static int indexOf(long micros) {
+        if (micros < LINEAR) {
+            return (int) micros;
+        }
+        int exponent = Math.min(63 - Long.numberOfLeadingZeros(micros), MAX_EXPONENT);
+        int sub = (int) ((micros >>> (exponent - SUB_BITS)) & (SUB_BUCKETS - 1));
+        return LINEAR + (exponent - 6) * SUB_BUCKETS + sub;
+    }
+
+    private static long upperBound(int index) {
+        if (index < LINEAR) {
+            return index;
+        }
+        int exponent = (index - LINEAR) / SUB_BUCKETS + 6;
+        int sub = (index - LINEAR) % SUB_BUCKETS;
+        return ((long) (SUB_BUCKETS + sub + 1) << (exponent - SUB_BITS)) - 1;
+    }
+}
@@ -0,0 +1,134 @@
+package metrics;
+
+import com.zeroc.Ice.ConnectionInfo;
+import com.zeroc.Ice.Current;
+import com.zeroc.Ice.Endpoint;
+import com.zeroc.Ice.ObjectPrx;
+import com.zeroc.Ice.Instrumentation.*;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Observador de Ice que cuenta, por pool de hilos (Ice.ThreadPool.Server, Ice.ThreadPool.Client,
+ * pools propios de adaptadores), cuántos hilos existen y cuántos están ocupados.
+ * Se instala en InitializationData.observer antes de crear el comunicador; el resto de
+ * los observadores se dejan en null para no agregar costo a invocaciones ni conexiones.
+ */
+public class IceThreadPoolObserver implements CommunicatorObserver {
+
+    public static class PoolStats {
+        final AtomicInteger threads = new AtomicInteger();
+        final AtomicInteger inUse = new AtomicInteger();
+
+        public int getThreads() {
+            return threads.get();
+        }
+
+        public int getInUse() {
+            return inUse.get();
+        }
+    }
+
+    private final Map<String, PoolStats> pools = new ConcurrentHashMap<>();
+
+    public Map<String, PoolStats> getPools() {
+        return pools;
+    }
+
+    @Override
+    public ThreadObserver getThreadObserver(String parent, String id, ThreadState threadState, ThreadObserver old) {
+        if (old != null) {
+            return old;
+        }
+        return new PoolThread(pools.computeIfAbsent(parent, name -> new PoolStats()), threadState);
+    }
+
+    private static boolean busy(ThreadState state) {
+        return state != ThreadState.ThreadStateIdle;
+    }
+
+    private static class PoolThread implements ThreadObserver {
+        private final PoolStats pool;
+        private ThreadState state; // Solo lo modifica el propio hilo
+        private boolean attached;
+
+        PoolThread(PoolStats pool, ThreadState state) {
+            this.pool = pool;
+            this.state = state;
+        }
+
+        @Override
+        public void attach() {
+            if (attached) {
+                return;
+            }
+            attached = true;
+            pool.threads.incrementAndGet();
+            if (busy(state)) {
+                pool.inUse.incrementAndGet();
+            }
+        }
+
+        @Override
+        public void detach() {
+            if (!attached) {
+                return;
+            }
+            attached = false;
+            pool.threads.decrementAndGet();
+            if (busy(state)) {
+                pool.inUse.decrementAndGet();
+            }
+        }
+
+        @Override
+        public void stateChanged(ThreadState oldState, ThreadState newState) {
+            state = newState;
+            if (!attached || busy(oldState) == busy(newState)) {
+                return;
+            }
+            if (busy(newState)) {
+                pool.inUse.incrementAndGet();
+            } else {
+                pool.inUse.decrementAndGet();
+            }
+        }
+
+        @Override
+        public void failed(String exceptionName) {
+        }
+    }
+
+    // ========== OBSERVADORES NO USADOS ==========
+
+    @Override
+    public Observer getConnectionEstablishmentObserver(Endpoint endpoint, String connector) {
+        return null;
+    }
+
+    @Override
+    public Observer getEndpointLookupObserver(Endpoint endpoint) {
+        return null;
+    }
+
+    @Override
+    public ConnectionObserver getConnectionObserver(ConnectionInfo info, Endpoint endpoint, ConnectionState state, ConnectionObserver old) {
+        return null;
+    }
+
+    @Override
+    public InvocationObserver getInvocationObserver(ObjectPrx prx, String operation, Map<String, String> context) {
+        return null;
+    }
+
+    @Override
+    public DispatchObserver getDispatchObserver(Current current, int size) {
+        return null;
+    }
+
+    @Override
+    public void setObserverUpdater(ObserverUpdater updater) {
+    }
+}
@@ -0,0 +1,427 @@
+package metrics;
+
+import Chat.*;
+import com.zeroc.Ice.Current;
+
+import java.util.Map;
+
+/**
+ * Capa de instrumentación alrededor del servant: cuenta llamadas, respuestas con
+ * success=false y excepciones, y mide la latencia de cada operación de ChatService.
+ * Va por fuera de las demás capas (cluster, seguidor) para medir lo que ve el cliente.
+ */
+public class MeteredChatService implements ChatService {
+
+    private final ChatService local;
+    private final OpMetrics getOnlineUsersOp;
+    private final OpMetrics getAllUsersOp;
+    private final OpMetrics getGroupsOp;
+    private final OpMetrics getUserGroupsOp;
+    private final OpMetrics getGroupMembersOp;
+    private final OpMetrics getHistoryOp;
+    private final OpMetrics getHistoryPageOp;
+    private final OpMetrics searchMessagesOp;
+    private final OpMetrics getConversationSummariesOp;
+    private final OpMetrics markConversationReadOp;
+    private final OpMetrics sendMessagesOp;
+    private final OpMetrics getPendingMessagesOp;
+    private final OpMetrics ackMessagesOp;
+    private final OpMetrics loginOp;
+    private final OpMetrics logoutOp;
+    private final OpMetrics sendMessageToUserOp;
+    private final OpMetrics sendMessageToGroupOp;
+    private final OpMetrics createGroupOp;
+    private final OpMetrics addToGroupOp;
+    private final OpMetrics sendVoiceNoteToUserOp;
+    private final OpMetrics sendVoiceNoteToGroupOp;
+    private final OpMetrics initiateCallOp;
+    private final OpMetrics sendWebRTCSignalOp;
+    private final OpMetrics sendICECandidateOp;
+    private final OpMetrics endCallOp;
+    private final OpMetrics sendAudioChunkOp;
+    private final OpMetrics acceptCallOp;
+
+    public MeteredChatService(ChatService local, MetricsRegistry metrics) {
+        this.local = local;
+        getOnlineUsersOp = metrics.operation("getOnlineUsers");
+        getAllUsersOp = metrics.operation("getAllUsers");
+        getGroupsOp = metrics.operation("getGroups");
+        getUserGroupsOp = metrics.operation("getUserGroups");
+        getGroupMembersOp = metrics.operation("getGroupMembers");
+        getHistoryOp = metrics.operation("getHistory");
+        getHistoryPageOp = metrics.operation("getHistoryPage");
+        searchMessagesOp = metrics.operation("searchMessages");
+        getConversationSummariesOp = metrics.operation("getConversationSummaries");
+        markConversationReadOp = metrics.operation("markConversationRead");
+        sendMessagesOp = metrics.operation("sendMessages");
+        getPendingMessagesOp = metrics.operation("getPendingMessages");
+        ackMessagesOp = metrics.operation("ackMessages");
+        loginOp = metrics.operation("login");
+        logoutOp = metrics.operation("logout");
+        sendMessageToUserOp = metrics.operation("sendMessageToUser");
+        sendMessageToGroupOp = metrics.operation("sendMessageToGroup");
+        createGroupOp = metrics.operation("createGroup");
+        addToGroupOp = metrics.operation("addToGroup");
+        sendVoiceNoteToUserOp = metrics.operation("sendVoiceNoteToUser");
+        sendVoiceNoteToGroupOp = metrics.operation("sendVoiceNoteToGroup");
+        initiateCallOp = metrics.operation("initiateCall");
+        sendWebRTCSignalOp = metrics.operation("sendWebRTCSignal");
+        sendICECandidateOp = metrics.operation("sendICECandidate");
+        endCallOp = metrics.operation("endCall");
+        sendAudioChunkOp = metrics.operation("sendAudioChunk");
+        acceptCallOp = metrics.operation("acceptCall");
+    }
+
+    @Override
+    public String[] getOnlineUsers(Current current) {
+        long start = System.nanoTime();
+        try {
+            String[] result = local.getOnlineUsers(current);
+            getOnlineUsersOp.record(start, true);
+            return result;
+        } catch (RuntimeException e) {
+            getOnlineUsersOp.recordError(start);
+            throw e;
+        }
+    }
+
+    @Override
+    public Map<String, Boolean> getAllUsers(Current current) {
+        long start = System.nanoTime();
+        try {
+            Map<String, Boolean> result = local.getAllUsers(current);
+            getAllUsersOp.record(start, true);
+            return result;
+        } catch (RuntimeException e) {
+            getAllUsersOp.recordError(start);
+            throw e;
+        }
+    }
+
+    @Override
+    public String[] getGroups(Current current) {
+        long start = System.nanoTime();
+        try {
+            String[] result = local.getGroups(current);
+            getGroupsOp.record(start, true);
+            return result;
+        } catch (RuntimeException e) {
+            getGroupsOp.recordError(start);
+            throw e;
+        }
+    }
+
+    @Override
+    public String[] getUserGroups(String username, Current current) {
+        long start = System.nanoTime();
+        try {
+            String[] result = local.getUserGroups(username, current);
+            getUserGroupsOp.record(start, true);
+            return result;
+        } catch (RuntimeException e) {
+            getUserGroupsOp.recordError(start);
+            throw e;
+        }
+    }
+
+    @Override
+    public String[] getGroupMembers(String groupName, Current current) {
+        long start = System.nanoTime();
+        try {
+            String[] result = local.getGroupMembers(groupName, current);
+            getGroupMembersOp.record(start, true);
+            return result;
+        } catch (RuntimeException e) {
+            getGroupMembersOp.recordError(start);
+            throw e;
+        }
+    }
+
+    @Override
+    public String[] getHistory(String username, Current current) {
+        long start = System.nanoTime();
+        try {
+            String[] result = local.getHistory(username, current);
+            getHistoryOp.record(start, true);
+            return result;
+        } catch (RuntimeException e) {
+            getHistoryOp.recordError(start);
+            throw e;
+        }
+    }
+
+    @Override
+    public String[] getHistoryPage(String username, int offset, int limit, Current current) {
+        long start = System.nanoTime();
+        try {
+            String[] result = local.getHistoryPage(username, offset, limit, current);
+            getHistoryPageOp.record(start, true);
+            return result;
+        } catch (RuntimeException e) {
+            getHistoryPageOp.recordError(start);
+            throw e;
+        }
+    }
+
+    @Override
+    public String[] searchMessages(String username, String query, int limit, Current current) {
+        long start = System.nanoTime();
+        try {
+            String[] result = local.searchMessages(username, query, limit, current);
+            searchMessagesOp.record(start, true);
+            return result;
+        } catch (RuntimeException e) {
+            searchMessagesOp.recordError(start);
+            throw e;
+        }
+    }
+
+    @Override
+    public ConversationSummary[] getConversationSummaries(String username, Current current) {
+        long start = System.nanoTime();
+        try {
+            ConversationSummary[] result = local.getConversationSummaries(username, current);
+            getConversationSummariesOp.record(start, true);
+            return result;
+        } catch (RuntimeException e) {
+            getConversationSummariesOp.recordError(start);
+            throw e;
+        }
+    }
+
+    @Override
+    public void markConversationRead(String username, String conversation, boolean isGroup, Current current) {
+        long start = System.nanoTime();
+        try {
+            local.markConversationRead(username, conversation, isGroup, current);
+            markConversationReadOp.record(start, true);
+        } catch (RuntimeException e) {
+            markConversationReadOp.recordError(start);
+            throw e;
+        }
+    }
+
+    @Override
+    public Response[] sendMessages(Message[] messages, Current current) {
+        long start = System.nanoTime();
+        try {
+            Response[] results = local.sendMessages(messages, current);
+            boolean success = true;
+            for (Response result : results) {
+                success &= result.success;
+            }
+            sendMessagesOp.record(start, success);
+            return results;
+        } catch (RuntimeException e) {
+            sendMessagesOp.recordError(start);
+            throw e;
+        }
+    }
+
+    @Override
+    public Message[] getPendingMessages(String username, Current current) {
+        long start = System.nanoTime();
+        try {
+            Message[] result = local.getPendingMessages(username, current);
+            getPendingMessagesOp.record(start, true);
+            return result;
+        } catch (RuntimeException e) {
+            getPendingMessagesOp.recordError(start);
+            throw e;
+        }
+    }
+
+    @Override
+    public void ackMessages(String username, long upToId, Current current) {
+        long start = System.nanoTime();
+        try {
+            local.ackMessages(username, upToId, current);
+            ackMessagesOp.record(start, true);
+        } catch (RuntimeException e) {
+            ackMessagesOp.recordError(start);
+            throw e;
+        }
+    }
+
+    @Override
+    public Response login(String username, ChatCallbackPrx callback, Current current) {
+        long start = System.nanoTime();
+        try {
+            Response response = local.login(username, callback, current);
+            loginOp.record(start, response.success);
+            return response;
+        } catch (RuntimeException e) {
+            loginOp.recordError(start);
+            throw e;
+        }
+    }
+
+    @Override
+    public Response logout(String username, Current current) {
+        long start = System.nanoTime();
+        try {
+            Response response = local.logout(username, current);
+            logoutOp.record(start, response.success);
+            return response;
+        } catch (RuntimeException e) {
+            logoutOp.recordError(start);
+            throw e;
+        }
+    }
+
+    @Override
+    public Response sendMessageToUser(String from, String to, String content, Current current) {
+        long start = System.nanoTime();
+        try {
+            Response response = local.sendMessageToUser(from, to, content, current);
+            sendMessageToUserOp.record(start, response.success);
+            return response;
+        } catch (RuntimeException e) {
+            sendMessageToUserOp.recordError(start);
+            throw e;
+        }
+    }
+
+    @Override
+    public Response sendMessageToGroup(String from, String groupName, String content, Current current) {
+        long start = System.nanoTime();
+        try {
+            Response response = local.sendMessageToGroup(from, groupName, content, current);
+            sendMessageToGroupOp.record(start, response.success);
+            return response;
+        } catch (RuntimeException e) {
+            sendMessageToGroupOp.recordError(start);
+            throw e;
+        }
+    }
+
+    @Override
+    public Response createGroup(String groupName, String creator, Current current) {
+        long start = System.nanoTime();
+        try {
+            Response response = local.createGroup(groupName, creator, current);
+            createGroupOp.record(start, response.success);
+            return response;
+        } catch (RuntimeException e) {
+            createGroupOp.recordError(start);
+            throw e;
+        }
+    }
+
+    @Override
+    public Response addToGroup(String groupName, String username, Current current) {
+        long start = System.nanoTime();
+        try {
+            Response response = local.addToGroup(groupName, username, current);
+            addToGroupOp.record(start, response.success);
+            return response;
+        } catch (RuntimeException e) {
+            addToGroupOp.recordError(start);
+            throw e;
+        }
+    }
+
+    @Override
+    public Response sendVoiceNoteToUser(String from, String to, byte[] audioData, Current current) {
+        long start = System.nanoTime();
+        try {
+            Response response = local.sendVoiceNoteToUser(from, to, audioData, current);
+            sendVoiceNoteToUserOp.record(start, response.success);
+            return response;
+        } catch (RuntimeException e) {
+            sendVoiceNoteToUserOp.recordError(start);
+            throw e;
+        }
+    }
+
+    @Override
+    public Response sendVoiceNoteToGroup(String from, String groupName, byte[] audioData, Current current) {
+        long start = System.nanoTime();
+        try {
+            Response response = local.sendVoiceNoteToGroup(from, groupName, audioData, current);
+            sendVoiceNoteToGroupOp.record(start, response.success);
+            return response;
+        } catch (RuntimeException e) {
+            sendVoiceNoteToGroupOp.recordError(start);
+            throw e;
+        }
+    }
+
+    @Override
+    public Response initiateCall(String from, String to, Current current) {
+        long start = System.nanoTime();
+        try {
+            Response response = local.initiateCall(from, to, current);
+            initiateCallOp.record(start, response.success);
+            return response;
+        } catch (RuntimeException e) {
+            initiateCallOp.recordError(start);
+            throw e;
+        }
+    }
+
+    @Override
+    public Response sendWebRTCSignal(String from, String to, String signalType, String signalData, Current current) {
+        long start = System.nanoTime();
+        try {
+            Response response = local.sendWebRTCSignal(from, to, signalType, signalData, current);
+            sendWebRTCSignalOp.record(start, response.success);
+            return response;
+        } catch (RuntimeException e) {
+            sendWebRTCSignalOp.recordError(start);
+            throw e;
+        }
+    }
+
+    @Override
+    public Response sendICECandidate(String from, String to, String candidate, Current current) {
+        long start = System.nanoTime();
+        try {
+            Response response = local.sendICECandidate(from, to, candidate, current);
+            sendICECandidateOp.record(start, response.success);
+            return response;
+        } catch (RuntimeException e) {
+            sendICECandidateOp.recordError(start);
+            throw e;
+        }
+    }
+
+    @Override
+    public Response endCall(String from, String to, Current current) {
+        long start = System.nanoTime();
+        try {
+            Response response = local.endCall(from, to, current);
+            endCallOp.record(start, response.success);
+            return response;
+        } catch (RuntimeException e) {
+            endCallOp.recordError(start);
+            throw e;
+        }
+    }
+
+    @Override
+    public Response sendAudioChunk(String from, String to, byte[] audioData, Current current) {
+        long start = System.nanoTime();
+        try {
+            Response response = local.sendAudioChunk(from, to, audioData, current);
+            sendAudioChunkOp.record(start, response.success);
+            return response;
+        } catch (RuntimeException e) {
+            sendAudioChunkOp.recordError(start);
+            throw e;
+        }
+    }
+
+    @Override
+    public Response acceptCall(String from, String to, Current current) {
+        long start = System.nanoTime();
+        try {
+            Response response = local.acceptCall(from, to, current);
+            acceptCallOp.record(start, response.success);
+            return response;
+        } catch (RuntimeException e) {
+            acceptCallOp.recordError(start);
+            throw e;
+        }
+    }
+}
@@ -0,0 +1,229 @@
+package metrics;
+
+import com.google.gson.GsonBuilder;
+
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryUsage;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Formatea el registro de métricas, los pools de hilos de Ice y las estadísticas de la JVM
+ * en texto de exposición Prometheus (0.0.4) o en JSON.
+ */
+public class MetricsExporter {
+
+    // Límites de los buckets exportados, en segundos (100 µs a 10 s)
+    private static final String[] BUCKETS = {
+        "0.0001", "0.00025", "0.0005", "0.001", "0.0025", "0.005", "0.01", "0.025",
+        "0.05", "0.1", "0.25", "0.5", "1", "2.5", "5", "10"
+    };
+
+    private final MetricsRegistry registry;
+    private final IceThreadPoolObserver threadPools; // null si el observador no se instaló
+
+    public MetricsExporter(MetricsRegistry registry, IceThreadPoolObserver threadPools) {
+        this.registry = registry;
+        this.threadPools = threadPools;
+    }
+
+    // ========== PROMETHEUS ==========
+
+    public String prometheus() {
+        StringBuilder out = new StringBuilder(16 * 1024);
+
+        header(out, "chat_op_calls_total", "counter", "Llamadas por operación de ChatService");
+        for (OpMetrics op : registry.getOperations()) {
+            sample(out, "chat_op_calls_total", label("op", op.getName()), op.getCalls());
+        }
+        header(out, "chat_op_rejected_total", "counter", "Respuestas con success=false por operación");
+        for (OpMetrics op : registry.getOperations()) {
+            sample(out, "chat_op_rejected_total", label("op", op.getName()), op.getRejected());
+        }
+        header(out, "chat_op_errors_total", "counter", "Excepciones por operación");
+        for (OpMetrics op : registry.getOperations()) {
+            sample(out, "chat_op_errors_total", label("op", op.getName()), op.getErrors());
+        }
+        header(out, "chat_op_latency_seconds", "histogram", "Latencia de cada operación de ChatService");
+        for (OpMetrics op : registry.getOperations()) {
+            histogram(out, "chat_op_latency_seconds", label("op", op.getName()), op.getLatency());
+        }
+
+        String lastGauge = null;
+        for (MetricsRegistry.Gauge gauge : registry.getGauges()) {
+            if (!gauge.name.equals(lastGauge)) {
+                header(out, gauge.name, "gauge", gauge.help);
+                lastGauge = gauge.name;
+            }
+            sample(out, gauge.name, gauge.labels, gauge.value());
+        }
+
+        for (MetricsRegistry.NamedHistogram named : registry.getHistograms()) {
+            header(out, named.name, "histogram", named.help);
+            histogram(out, named.name, "", named.histogram);
+        }
+
+        if (threadPools != null) {
+            header(out, "ice_thread_pool_threads", "gauge", "Hilos existentes por pool de Ice");
+            threadPools.getPools().forEach((pool, stats) ->
+                sample(out, "ice_thread_pool_threads", label("pool", pool), stats.getThreads()));
+            header(out, "ice_thread_pool_in_use", "gauge", "Hilos ocupados (no idle) por pool de Ice");
+            threadPools.getPools().forEach((pool, stats) ->
+                sample(out, "ice_thread_pool_in_use", label("pool", pool), stats.getInUse()));
+        }
+
+        jvmPrometheus(out);
+        return out.toString();
+    }
+
+    private void jvmPrometheus(StringBuilder out) {
+        MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+        MemoryUsage heap = memory.getHeapMemoryUsage();
+        MemoryUsage nonHeap = memory.getNonHeapMemoryUsage();
+        header(out, "jvm_memory_bytes_used", "gauge", "Memoria usada por área");
+        sample(out, "jvm_memory_bytes_used", label("area", "heap"), heap.getUsed());
+        sample(out, "jvm_memory_bytes_used", label("area", "nonheap"), nonHeap.getUsed());
+        header(out, "jvm_memory_bytes_committed", "gauge", "Memoria reservada por área");
+        sample(out, "jvm_memory_bytes_committed", label("area", "heap"), heap.getCommitted());
+        sample(out, "jvm_memory_bytes_committed", label("area", "nonheap"), nonHeap.getCommitted());
+        header(out, "jvm_memory_bytes_max", "gauge", "Memoria máxima por área (-1 sin límite)");
+        sample(out, "jvm_memory_bytes_max", label("area", "heap"), heap.getMax());
+        sample(out, "jvm_memory_bytes_max", label("area", "nonheap"), nonHeap.getMax());
+
+        header(out, "jvm_memory_pool_bytes_used", "gauge", "Memoria usada por pool");
+        for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+            sample(out, "jvm_memory_pool_bytes_used", label("pool", pool.getName()), pool.getUsage().getUsed());
+        }
+
+        header(out, "jvm_gc_collections_total", "counter", "Recolecciones por colector");
+        for (GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans()) {
+            sample(out, "jvm_gc_collections_total", label("gc", gc.getName()), gc.getCollectionCount());
+        }
+        header(out, "jvm_gc_collection_seconds_total", "counter", "Tiempo acumulado de recolección por colector");
+        for (GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans()) {
+            sample(out, "jvm_gc_collection_seconds_total", label("gc", gc.getName()), gc.getCollectionTime() / 1000.0);
+        }
+
+        header(out, "jvm_threads_live", "gauge", "Hilos vivos de la JVM");
+        sample(out, "jvm_threads_live", "", ManagementFactory.getThreadMXBean().getThreadCount());
+        header(out, "process_uptime_seconds", "gauge", "Tiempo desde el arranque de la JVM");
+        sample(out, "process_uptime_seconds", "", ManagementFactory.getRuntimeMXBean().getUptime() / 1000.0);
+    }
+
+    private static void histogram(StringBuilder out, String name, String labels, Histogram histogram) {
+        String prefix = labels.isEmpty() ? "" : labels + ",";
+        for (String bound : BUCKETS) {
+            long count = histogram.countAtOrBelow(Math.round(Double.parseDouble(bound) * 1_000_000));
+            sample(out, name + "_bucket", prefix + "le=\"" + bound + "\"", count);
+        }
+        long count = histogram.count();
+        sample(out, name + "_bucket", prefix + "le=\"+Inf\"", count);
+        sample(out, name + "_sum", labels, histogram.sum() / 1e6);
+        sample(out, name + "_count", labels, count);
+    }
+
+    private static void header(StringBuilder out, String name, String type, String help) {
+        out.append("# HELP ").append(name).append(' ').append(help).append('\n');
+        out.append("# TYPE ").append(name).append(' ').append(type).append('\n');
+    }
+
+    private static void sample(StringBuilder out, String name, String labels, long value) {
+        out.append(name);
+        if (!labels.isEmpty()) {
+            out.append('{').append(labels).append('}');
+        }
+        out.append(' ').append(value).append('\n');
+    }
+
+    private static void sample(StringBuilder out, String name, String labels, double value) {
+        out.append(name);
+        if (!labels.isEmpty()) {
+            out.append('{').append(labels).append('}');
+        }
+        out.append(' ').append(value).append('\n');
+    }
+
+    static String label(String key, String value) {
+        return key + "=\"" + value.replace("\\", "\\\\").replace("\"", "\\\"").replace("\n", "\\n") + "\"";
+    }
+
+    // ========== JSON ==========
+
+    public String json() {
+        Map<String, Object> root = new LinkedHashMap<>();
+
+        Map<String, Object> operations = new LinkedHashMap<>();
+        for (OpMetrics op : registry.getOperations()) {
+            Map<String, Object> entry = new LinkedHashMap<>();
+            entry.put("calls", op.getCalls());
+            entry.put("rejected", op.getRejected());
+            entry.put("errors", op.getErrors());
+            entry.put("latencyMicros", percentiles(op.getLatency()));
+            operations.put(op.getName(), entry);
+        }
+        root.put("operations", operations);
+
+        Map<String, Object> gauges = new LinkedHashMap<>();
+        for (MetricsRegistry.Gauge gauge : registry.getGauges()) {
+            gauges.put(gauge.labels.isEmpty() ? gauge.name : gauge.name + "{" + gauge.labels + "}", gauge.value());
+        }
+        root.put("gauges", gauges);
+
+        Map<String, Object> histograms = new LinkedHashMap<>();
+        for (MetricsRegistry.NamedHistogram named : registry.getHistograms()) {
+            histograms.put(named.name, percentiles(named.histogram));
+        }
+        root.put("histogramsMicros", histograms);
+
+        if (threadPools != null) {
+            Map<String, Object> pools = new LinkedHashMap<>();
+            threadPools.getPools().forEach((pool, stats) -> {
+                Map<String, Object> entry = new LinkedHashMap<>();
+                entry.put("threads", stats.getThreads());
+                entry.put("inUse", stats.getInUse());
+                entry.put("utilization", stats.getThreads() == 0 ? 0.0 : (double) stats.getInUse() / stats.getThreads());
+                pools.put(pool, entry);
+            });
+            root.put("iceThreadPools", pools);
+        }
+
+        root.put("jvm", jvmJson());
+        return new GsonBuilder().setPrettyPrinting().create().toJson(root);
+    }
+
+    private static Map<String, Object> percentiles(Histogram histogram) {
+        Map<String, Object> entry = new LinkedHashMap<>();
+        long count = histogram.count();
+        entry.put("count", count);
+        entry.put("mean", count == 0 ? 0 : histogram.sum() / count);
+        entry.put("p50", histogram.percentile(0.50));
+        entry.put("p90", histogram.percentile(0.90));
+        entry.put("p99", histogram.percentile(0.99));
+        entry.put("p999", histogram.percentile(0.999));
+        entry.put("max", histogram.max());
+        return entry;
+    }
+
+    private static Map<String, Object> jvmJson() {
+        Map<String, Object> jvm = new LinkedHashMap<>();
+        MemoryUsage heap = ManagementFactory.getMemoryMXBean().getHeapMemoryUsage();
+        jvm.put("heapUsed", heap.getUsed());
+        jvm.put("heapCommitted", heap.getCommitted());
+        jvm.put("heapMax", heap.getMax());
+        jvm.put("nonHeapUsed", ManagementFactory.getMemoryMXBean().getNonHeapMemoryUsage().getUsed());
+        Map<String, Object> gcs = new LinkedHashMap<>();
+        for (GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans()) {
+            Map<String, Object> entry = new LinkedHashMap<>();
+            entry.put("collections", gc.getCollectionCount());
+            entry.put("timeMillis", gc.getCollectionTime());
+            gcs.put(gc.getName(), entry);
+        }
+        jvm.put("gc", gcs);
+        jvm.put("threads", ManagementFactory.getThreadMXBean().getThreadCount());
+        jvm.put("uptimeMillis", ManagementFactory.getRuntimeMXBean().getUptime());
+        return jvm;
+    }
+}
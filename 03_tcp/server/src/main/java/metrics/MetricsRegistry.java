@@ -0,0 +1,89 @@
+package metrics;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.LongSupplier;
+
+/**
+ * Registro de métricas del servidor. Las operaciones y gauges se registran al arrancar;
+ * en el camino caliente solo se usan las referencias a {@link OpMetrics} y {@link Histogram}
+ * ya creadas, así que registrar nunca compite con las mediciones.
+ * Los gauges se calculan al leerlos (no cuestan nada mientras nadie consulta).
+ */
+public class MetricsRegistry {
+
+    public static class Gauge {
+        public final String name;
+        public final String labels; // Formato Prometheus sin llaves, p. ej. node="node1" ("" si no tiene)
+        public final String help;
+        private final LongSupplier value;
+
+        Gauge(String name, String labels, String help, LongSupplier value) {
+            this.name = name;
+            this.labels = labels;
+            this.help = help;
+            this.value = value;
+        }
+
+        public long value() {
+            return value.getAsLong();
+        }
+    }
+
+    public static class NamedHistogram {
+        public final String name;
+        public final String help;
+        public final Histogram histogram;
+
+        NamedHistogram(String name, String help, Histogram histogram) {
+            this.name = name;
+            this.help = help;
+            this.histogram = histogram;
+        }
+    }
+
+    private final List<OpMetrics> operations = new CopyOnWriteArrayList<>();
+    private final List<Gauge> gauges = new CopyOnWriteArrayList<>();
+    private final List<NamedHistogram> histograms = new CopyOnWriteArrayList<>();
+
+    /**
+     * Métricas de la operación, creándolas si es la primera vez
+     */
+    public synchronized OpMetrics operation(String name) {
+        for (OpMetrics op : operations) {
+            if (op.getName().equals(name)) {
+                return op;
+            }
+        }
+        OpMetrics op = new OpMetrics(name);
+        operations.add(op);
+        return op;
+    }
+
+    public void gauge(String name, String help, LongSupplier value) {
+        gauge(name, "", help, value);
+    }
+
+    public void gauge(String name, String labels, String help, LongSupplier value) {
+        gauges.add(new Gauge(name, labels, help, value));
+    }
+
+    /**
+     * Publica un histograma que mide otro componente (p. ej. latencia de escritura a disco)
+     */
+    public void histogram(String name, String help, Histogram histogram) {
+        histograms.add(new NamedHistogram(name, help, histogram));
+    }
+
+    public List<OpMetrics> getOperations() {
+        return operations;
+    }
+
+    public List<Gauge> getGauges() {
+        return gauges;
+    }
+
+    public List<NamedHistogram> getHistograms() {
+        return histograms;
+    }
+}
@@ -0,0 +1,53 @@
+package metrics;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Métricas de una operación: llamadas, respuestas con success=false, excepciones y latencia
+ */
+public class OpMetrics {
+
+    private final String name;
+    private final LongAdder calls = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder errors = new LongAdder();
+    private final Histogram latency = new Histogram();
+
+    OpMetrics(String name) {
+        this.name = name;
+    }
+
+    public void record(long startNanos, boolean success) {
+        latency.recordNanos(System.nanoTime() - startNanos);
+        calls.increment();
+        if (!success) {
+            rejected.increment();
+        }
+    }
+
+    public void recordError(long startNanos) {
+        latency.recordNanos(System.nanoTime() - startNanos);
+        calls.increment();
+        errors.increment();
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public long getCalls() {
+        return calls.sum();
+    }
+
+    public long getRejected() {
+        return rejected.sum();
+    }
+
+    public long getErrors() {
+        return errors.sum();
+    }
+
+    public Histogram getLatency() {
+        return latency;
+    }
+}
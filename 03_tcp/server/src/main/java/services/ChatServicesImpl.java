@@ -4,27 +4,83 @@ import java.io.*;
 import java.net.Socket;
 import java.time.Instant;
 import java.util.*;
-import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.IntPredicate;
+import java.util.function.Predicate;
+
+import logging.Log;
+import logging.Logger;
+import jfr.HistoryReadEvent;
+import jfr.MessagePersistEvent;
+import jfr.PendingDrainEvent;
+import jfr.VoiceNoteWriteEvent;
+import metrics.Histogram;
+import org.roaringbitmap.RoaringBitmap;
+import tracing.Tracing;
 
 /**
  * Lógica de negocio del chat separada de la capa de transporte
  */
 public class ChatServicesImpl {
 
+    private static final Logger logger = Log.get("chat");
+
     // ---- Estado compartido ----
-    private final Map<String, ClientSession> users = new ConcurrentHashMap<>();
-    private final Set<String> allKnownUsers = ConcurrentHashMap.newKeySet(); // Registro permanente de usuarios
-    private final Map<String, Set<String>> groups = new ConcurrentHashMap<>();
-    private final Map<String, List<String>> pendingMessages = new ConcurrentHashMap<>(); // Cola de mensajes pendientes para cada usuario
-    private final File dataDir = new File("data");
-    private final File historyDir = new File(dataDir, "history");
-    private final File mediaDir = new File(dataDir, "media");
-    private final File usersFile = new File(dataDir, "users.txt");
-    private final File groupsFile = new File(dataDir, "groups.txt");
+    // Usuarios y grupos se internan a ids densos; todo el estado en memoria se indexa por id
+    private final SymbolTable userIds = new SymbolTable();
+    private final SymbolTable groupIds = new SymbolTable();
+    private final IdTable<ClientSession> users = new IdTable<>();
+    private final IdBitmap allKnownUsers = new IdBitmap(); // Registro permanente de usuarios
+    private final IdBitmap onlineUsers = new IdBitmap(); // Se mantiene junto a users para intersecciones con grupos
+    private final IdTable<IdBitmap> groups = new IdTable<>();
+    private final IdTable<Mailbox> mailboxes = new IdTable<>(); // Mensajes sin confirmar ni recoger de cada usuario
+    // Respuestas de presencia de la última época: se reutilizan mientras no haya logins ni logouts
+    private volatile OnlineNames onlineNames = new OnlineNames(-1, List.of());
+    private volatile UsersStatus usersStatus = new UsersStatus(null, null, Map.of());
+    private final LongAdder pendingCount = new LongAdder(); // Total en todos los buzones (para métricas)
+    private final AtomicInteger persistInFlight = new AtomicInteger(); // Escrituras de historial en curso
+    private final Histogram historyWriteLatency = new Histogram();
+    private final Histogram mediaWriteLatency = new Histogram();
+    private final File dataDir;
+    private final File historyDir;
+    private final File mediaDir;
+    private final File usersFile;
+    private final File groupsFile;
+
+    // En un cluster solo se encolan pendientes de los usuarios de esta partición
+    private volatile IntPredicate localUser = userId -> true;
+    private volatile Predicate<String> localName = name -> true;
+
+    // Registro de escrituras para replicar a seguidores (null si la replicación está apagada)
+    private volatile MessageLog log;
+
+    // Índice de texto del historial (null si la búsqueda está apagada)
+    private volatile SearchIndex search;
+
+    // Último mensaje y no leídos de cada conversación
+    private final ConversationIndex conversations = new ConversationIndex(userIds, groupIds);
+
+    // Últimas líneas de los historiales en uso (null si está apagada). La carga y la escritura
+    // de un mismo historial van bajo el mismo lock para que la cola no pierda líneas
+    private volatile HistoryCache historyCache;
+    private final Object[] historyLocks = new Object[64];
 
     public ChatServicesImpl() {
+        this(new File("data"));
+    }
+
+    public ChatServicesImpl(File dataDir) {
+        this.dataDir = dataDir;
+        this.historyDir = new File(dataDir, "history");
+        this.mediaDir = new File(dataDir, "media");
+        this.usersFile = new File(dataDir, "users.txt");
+        this.groupsFile = new File(dataDir, "groups.txt");
         historyDir.mkdirs();
         mediaDir.mkdirs();
+        for (int i = 0; i < historyLocks.length; i++) {
+            historyLocks[i] = new Object();
+        }
         loadKnownUsers();
         loadGroups();
     }
@@ -32,24 +88,26 @@ public class ChatServicesImpl {
     private void loadKnownUsers() {
         if (usersFile.exists()) {
             try (BufferedReader reader = new BufferedReader(new FileReader(usersFile))) {
+                RoaringBitmap loaded = new RoaringBitmap();
                 String line;
                 while ((line = reader.readLine()) != null) {
-                    allKnownUsers.add(line.trim());
+                    loaded.add(userIds.intern(line.trim()));
                 }
-                System.out.println("[DEBUG] Loaded " + allKnownUsers.size() + " known users");
+                allKnownUsers.addAll(loaded);
+                logger.info("Usuarios conocidos cargados", "count", allKnownUsers.size());
             } catch (IOException e) {
-                System.err.println("[ERROR] Failed to load users: " + e.getMessage());
+                logger.error("No se pudieron cargar los usuarios", "error", e.getMessage());
             }
         }
     }
     
     private void saveKnownUsers() {
         try (FileWriter writer = new FileWriter(usersFile)) {
-            for (String username : allKnownUsers) {
-                writer.write(username + "\n");
+            for (int userId : allKnownUsers.toArray()) {
+                writer.write(userIds.nameOf(userId) + "\n");
             }
         } catch (IOException e) {
-            System.err.println("[ERROR] Failed to save users: " + e.getMessage());
+            logger.error("No se pudieron guardar los usuarios", "error", e.getMessage());
         }
     }
     
@@ -64,50 +122,54 @@ public class ChatServicesImpl {
                         String groupName = parts[0].trim();
                         String[] members = parts[1].split(",");
                         
-                        Set<String> memberSet = ConcurrentHashMap.newKeySet();
+                        RoaringBitmap memberIds = new RoaringBitmap();
                         for (String member : members) {
                             String trimmedMember = member.trim();
                             if (!trimmedMember.isEmpty()) {
-                                memberSet.add(trimmedMember);
+                                memberIds.add(userIds.intern(trimmedMember));
                             }
                         }
                         
-                        if (!memberSet.isEmpty()) {
-                            groups.put(groupName, memberSet);
+                        if (!memberIds.isEmpty()) {
+                            IdBitmap memberSet = new IdBitmap();
+                            memberSet.addAll(memberIds);
+                            groups.put(groupIds.intern(groupName), memberSet);
                         }
                     }
                 }
-                System.out.println("[DEBUG] Loaded " + groups.size() + " groups");
-                for (Map.Entry<String, Set<String>> entry : groups.entrySet()) {
-                    System.out.println("[DEBUG]   - " + entry.getKey() + ": " + entry.getValue());
+                logger.info("Grupos cargados", "count", groups.count());
+                if (logger.isDebugEnabled()) {
+                    groups.forEach((groupId, members) ->
+                        logger.debug("Grupo", "group", groupIds.nameOf(groupId), "members", namesOf(members)));
                 }
             } catch (IOException e) {
-                System.err.println("[ERROR] Failed to load groups: " + e.getMessage());
+                logger.error("No se pudieron cargar los grupos", "error", e.getMessage());
             }
         }
     }
     
     private void saveGroups() {
         try (FileWriter writer = new FileWriter(groupsFile)) {
-            for (Map.Entry<String, Set<String>> entry : groups.entrySet()) {
-                String groupName = entry.getKey();
-                String members = String.join(",", entry.getValue());
-                writer.write(groupName + ":" + members + "\n");
-            }
-            System.out.println("[DEBUG] Saved " + groups.size() + " groups to file");
+            StringBuilder content = new StringBuilder();
+            groups.forEach((groupId, members) -> content.append(groupIds.nameOf(groupId))
+                    .append(':').append(String.join(",", namesOf(members))).append('\n'));
+            writer.write(content.toString());
+            logger.trace("Grupos guardados", "count", groups.count());
         } catch (IOException e) {
-            System.err.println("[ERROR] Failed to save groups: " + e.getMessage());
+            logger.error("No se pudieron guardar los grupos", "error", e.getMessage());
         }
     }
 
     // ---- Sesión de cliente ----
     public static class ClientSession {
+        public final int userId;
         public final String username;
         public Socket socket;
         public PrintWriter out;
         public volatile int udpPort;
 
-        public ClientSession(String username, Socket socket) throws IOException {
+        public ClientSession(int userId, String username, Socket socket) throws IOException {
+            this.userId = userId;
             this.username = username;
             this.socket = socket;
             if (socket != null) {
@@ -115,7 +177,8 @@ public class ChatServicesImpl {
             }
         }
 
-        public ClientSession(String username) {
+        public ClientSession(int userId, String username) {
+            this.userId = userId;
             this.username = username;
             this.socket = null;
             this.out = null;
@@ -124,17 +187,12 @@ public class ChatServicesImpl {
 
     // ---- Gestión de usuarios ----
     public boolean login(String username, int udpPort, Socket socket) throws IOException {
-        // Registrar usuario si es nuevo
-        if (!allKnownUsers.contains(username)) {
-            allKnownUsers.add(username);
-            saveKnownUsers();
-            System.out.println("[DEBUG] New user registered: " + username);
-        }
+        int userId = registerUser(username);
         
         // Permitir re-login del mismo usuario (actualizar sesión)
-        if (users.containsKey(username)) {
-            System.out.println("[DEBUG] User " + username + " reconnecting - updating session");
-            ClientSession existingSession = users.get(username);
+        ClientSession existingSession = users.get(userId);
+        if (existingSession != null) {
+            logger.debug("Usuario reconectando, se actualiza la sesión", "user", username);
             existingSession.socket = socket;
             if (socket != null) {
                 existingSession.out = new PrintWriter(new OutputStreamWriter(socket.getOutputStream()), true);
@@ -144,40 +202,95 @@ public class ChatServicesImpl {
             return true;
         }
         
-        ClientSession session = new ClientSession(username, socket);
+        ClientSession session = new ClientSession(userId, username, socket);
         session.udpPort = udpPort;
-        users.put(username, session);
+        users.put(userId, session);
+        onlineUsers.add(userId);
         broadcast("SYS " + username + " joined");
         return true;
     }
 
+    /**
+     * Agrega el usuario al registro permanente si es nuevo; desde ahí tiene buzón aunque esté
+     * offline. En un cluster el nodo del login se lo pide también al nodo dueño del usuario.
+     */
+    public int registerUser(String username) {
+        int userId = userIds.intern(username);
+        if (allKnownUsers.add(userId)) {
+            saveKnownUsers();
+            logWrite(MessageLog.USER, username, "", null);
+            logger.info("Usuario nuevo registrado", "user", username);
+        }
+        return userId;
+    }
+
     public boolean logout(String username) {
-        ClientSession session = users.remove(username);
+        int userId = userIds.idOf(username);
+        ClientSession session = users.remove(userId);
         if (session != null) {
+            onlineUsers.remove(userId);
             broadcast("SYS " + username + " left");
             return true;
         }
         return false;
     }
 
+    /**
+     * Nombres de los usuarios con sesión, inmutable y compartido entre los que consultan
+     * en la misma época de la tabla de sesiones
+     */
     public List<String> getOnlineUsers() {
-        return new ArrayList<>(users.keySet());
+        IdTable.Snapshot<ClientSession> sessions = users.snapshot();
+        OnlineNames cached = onlineNames;
+        if (cached.epoch == sessions.epoch()) {
+            return cached.names;
+        }
+        String[] names = new String[sessions.size()];
+        for (int i = 0; i < names.length; i++) {
+            names[i] = sessions.value(i).username;
+        }
+        List<String> online = List.of(names);
+        onlineNames = new OnlineNames(sessions.epoch(), online);
+        return online;
     }
     
     public List<String> getAllUsers() {
-        return new ArrayList<>(allKnownUsers);
+        return namesOf(allKnownUsers);
     }
     
+    /**
+     * Usuarios conocidos con su estado. Los bitmaps son copy-on-write, así que cada par de
+     * snapshots identifica una versión: mientras ninguno cambie se devuelve el mismo mapa
+     * inmutable.
+     */
     public Map<String, Boolean> getAllUsersWithStatus() {
-        Map<String, Boolean> usersStatus = new HashMap<>();
-        for (String username : allKnownUsers) {
-            usersStatus.put(username, users.containsKey(username));
+        RoaringBitmap known = allKnownUsers.snapshot();
+        RoaringBitmap online = onlineUsers.snapshot();
+        UsersStatus cached = usersStatus;
+        if (cached.known == known && cached.online == online) {
+            return cached.status;
         }
-        return usersStatus;
+        Map<String, Boolean> status = new HashMap<>(known.getCardinality() * 2);
+        known.forEach((int userId) -> status.put(userIds.nameOf(userId), online.contains(userId)));
+        Map<String, Boolean> shared = Collections.unmodifiableMap(status);
+        usersStatus = new UsersStatus(known, online, shared);
+        return shared;
+    }
+
+    public boolean isOnline(int userId) {
+        return onlineUsers.contains(userId);
+    }
+
+    /**
+     * Indica qué usuarios pertenecen a este nodo; los demás reciben sus mensajes en su propio nodo
+     */
+    public void setUserOwnership(Predicate<String> ownsUser) {
+        this.localUser = userId -> ownsUser.test(userIds.nameOf(userId));
+        this.localName = ownsUser;
     }
 
     public void setUserUdpPort(String username, int port) {
-        ClientSession session = users.get(username);
+        ClientSession session = users.get(userIds.idOf(username));
         if (session != null) {
             session.udpPort = port;
         }
@@ -185,149 +298,632 @@ public class ChatServicesImpl {
 
     // ---- Gestión de grupos ----
     public boolean createGroup(String groupName) {
-        groups.putIfAbsent(groupName, ConcurrentHashMap.newKeySet());
+        groups.computeIfAbsent(groupIds.intern(groupName), id -> new IdBitmap());
         saveGroups(); // Guardar inmediatamente
-        System.out.println("[DEBUG] Group created (no creator): " + groupName);
+        logWrite(MessageLog.GROUP, groupName, "", null);
+        logger.debug("Grupo creado", "group", groupName);
         return true;
     }
     
     public boolean createGroup(String groupName, String creator) {
-        groups.putIfAbsent(groupName, ConcurrentHashMap.newKeySet());
-        groups.get(groupName).add(creator);
+        IdBitmap members = groups.computeIfAbsent(groupIds.intern(groupName), id -> new IdBitmap());
+        if (members.add(userIds.intern(creator))) {
+            conversations.joinGroup(creator, groupName);
+        }
         saveGroups(); // Guardar inmediatamente
-        System.out.println("[DEBUG] Group created: " + groupName + " by " + creator);
-        System.out.println("[DEBUG] Members after creation: " + groups.get(groupName));
+        logWrite(MessageLog.GROUP, groupName, creator, null);
+        logger.debug("Grupo creado", "group", groupName, "creator", creator);
         return true;
     }
 
     public boolean addToGroup(String groupName, String username) {
-        groups.putIfAbsent(groupName, ConcurrentHashMap.newKeySet());
-        groups.get(groupName).add(username);
+        IdBitmap members = groups.computeIfAbsent(groupIds.intern(groupName), id -> new IdBitmap());
+        if (members.add(userIds.intern(username))) {
+            // Lo anterior a su ingreso no cuenta como no leído
+            conversations.joinGroup(username, groupName);
+        }
         saveGroups(); // Guardar inmediatamente
-        System.out.println("[DEBUG] User " + username + " added to group " + groupName);
-        System.out.println("[DEBUG] Group members now: " + groups.get(groupName));
+        logWrite(MessageLog.GROUP, groupName, username, null);
+        if (logger.isDebugEnabled()) {
+            logger.debug("Miembro agregado", "group", groupName, "user", username, "members", namesOf(members));
+        }
         return true;
     }
 
     public List<String> getGroups() {
-        return new ArrayList<>(groups.keySet());
+        List<String> groupNames = new ArrayList<>();
+        groups.forEach((groupId, members) -> groupNames.add(groupIds.nameOf(groupId)));
+        return groupNames;
     }
     
     public List<String> getUserGroups(String username) {
         List<String> userGroups = new ArrayList<>();
-        for (Map.Entry<String, Set<String>> entry : groups.entrySet()) {
-            if (entry.getValue().contains(username)) {
-                userGroups.add(entry.getKey());
-            }
+        int userId = userIds.idOf(username);
+        if (userId < 0) {
+            return userGroups;
         }
+        groups.forEach((groupId, members) -> {
+            if (members.contains(userId)) {
+                userGroups.add(groupIds.nameOf(groupId));
+            }
+        });
         return userGroups;
     }
 
+    public boolean hasGroup(String groupName) {
+        return groups.get(groupIds.idOf(groupName)) != null;
+    }
+
     public List<String> getGroupMembers(String groupName) {
-        Set<String> members = groups.get(groupName);
-        return members != null ? new ArrayList<>(members) : new ArrayList<>();
+        IdBitmap members = groups.get(groupIds.idOf(groupName));
+        return members != null ? namesOf(members) : new ArrayList<>();
+    }
+
+    /**
+     * Ids de los miembros del grupo (snapshot inmutable, para fan-out sin Strings)
+     */
+    public int[] getGroupMemberIds(String groupName) {
+        IdBitmap members = groups.get(groupIds.idOf(groupName));
+        return members != null ? members.toArray() : new int[0];
+    }
+
+    /**
+     * Conjunto de miembros del grupo (vacío si no existe), para intersecciones
+     */
+    public IdBitmap getGroupMemberSet(String groupName) {
+        IdBitmap members = groups.get(groupIds.idOf(groupName));
+        return members != null ? members : new IdBitmap();
+    }
+
+    /**
+     * Miembros del grupo que están online, calculado como members AND online
+     */
+    public RoaringBitmap getOnlineGroupMembers(String groupName) {
+        IdBitmap members = groups.get(groupIds.idOf(groupName));
+        return members != null ? IdBitmap.and(members, onlineUsers) : new RoaringBitmap();
     }
 
     // ---- Mensajes de texto ----
     public boolean sendMessageToUser(String from, String to, String message) throws IOException {
-        String record = "{type:text,from:" + from + ",target:" + to + ",isGroup:false,msg:" + message + ",ts:" + Instant.now() + "}";
-        persist(from, to, false, record);
+        return sendMessageToUser(from, to, message, System.currentTimeMillis());
+    }
 
-        ClientSession session = users.get(to);
-        
-        // Solo agregar a pendientes si el usuario está OFFLINE
-        if (session == null) {
-            pendingMessages.putIfAbsent(to, new ArrayList<>());
-            pendingMessages.get(to).add("MSG|" + from + "|" + message);
-            System.out.println("[DEBUG] User " + to + " is offline, message queued");
-        } else {
-            // Usuario online - enviar vía polling (pendientes)
-            pendingMessages.putIfAbsent(to, new ArrayList<>());
-            pendingMessages.get(to).add("MSG|" + from + "|" + message);
-            System.out.println("[DEBUG] User " + to + " is online, message sent to pending for polling");
+    /**
+     * Con la fecha que ya vio el llamador: en un cluster la misma viaja al nodo del destinatario
+     */
+    public boolean sendMessageToUser(String from, String to, String message, long timestamp) throws IOException {
+        appendHistory(from, textRecord(from, to, false, message, timestamp));
+
+        // Si el destinatario vive en otro nodo, aquí solo queda la copia del remitente
+        boolean recipientHere = localName.test(to);
+        conversations.privateMessage(from, to, message, timestamp, true, recipientHere);
+        if (recipientHere) {
+            deliver(from, to, message, timestamp);
         }
-        
         return true;
     }
 
+    /**
+     * Entrega un mensaje privado de un remitente de otro nodo a un usuario de esta partición
+     */
+    public void receiveMessage(String from, String to, String message, long timestamp) throws IOException {
+        conversations.privateMessage(from, to, message, timestamp, false, true);
+        deliver(from, to, message, timestamp);
+    }
+
+    /**
+     * Historial y buzón del destinatario. El buzón es la única copia por entregar: la capa de
+     * transporte lo empuja si el usuario está online o el cliente lo lee con getPendingMessages,
+     * y la entrada sale al confirmarse.
+     * Los nombres que nunca se registraron no reciben id (la tabla de símbolos no se achica):
+     * se guarda el historial, sin buzón.
+     */
+    private void deliver(String from, String to, String message, long timestamp) throws IOException {
+        appendHistory(to, textRecord(from, to, false, message, timestamp));
+        int toId = userIds.idOf(to);
+        if (toId < 0) {
+            logger.debug("Destinatario no registrado: solo historial", "to", to);
+            return;
+        }
+        enqueuePending(toId, from, to, message, timestamp, false);
+        logger.trace("Mensaje en el buzón", "to", to);
+    }
+
     public boolean sendMessageToGroup(String from, String groupName, String message) throws IOException {
-        String record = "{type:text,from:" + from + ",target:" + groupName + ",isGroup:true,msg:" + message + ",ts:" + Instant.now() + "}";
-        persist(from, groupName, true, record);
+        return sendMessageToGroup(from, groupName, message, System.currentTimeMillis());
+    }
+
+    public boolean sendMessageToGroup(String from, String groupName, String message, long timestamp) throws IOException {
+        persist(from, groupName, true, textRecord(from, groupName, true, message, timestamp));
+        conversations.groupMessage(from, groupName, message, timestamp);
 
-        Set<String> members = groups.getOrDefault(groupName, Set.of());
-        System.out.println("[DEBUG] Sending message to group: " + groupName);
-        System.out.println("[DEBUG] Group members: " + members);
-        System.out.println("[DEBUG] Message: " + message + " from: " + from);
+        int[] members = getGroupMemberIds(groupName);
+        int fromId = userIds.idOf(from);
+        if (logger.isTraceEnabled()) {
+            logger.trace("Mensaje de grupo", "group", groupName, "from", from, "members", members.length);
+        }
         
-        for (String username : members) {
+        long enqueueStart = System.nanoTime();
+        for (int memberId : members) {
             // NO enviar el mensaje al remitente
-            if (username.equals(from)) {
+            if (memberId == fromId) {
                 continue;
             }
             
-            // Agregar a cola de mensajes pendientes de cada miembro
-            pendingMessages.putIfAbsent(username, new ArrayList<>());
-            String pendingMsg = "GROUP|" + groupName + "|" + from + "|" + message;
-            pendingMessages.get(username).add(pendingMsg);
-            System.out.println("[DEBUG] Added to pending queue for " + username + ": " + pendingMsg);
+            // Los miembros de otras particiones los encola su propio nodo
+            if (!localUser.test(memberId)) {
+                continue;
+            }
+
+            // Agregar al buzón de cada miembro
+            enqueuePending(memberId, from, groupName, message, timestamp, true);
             
-            ClientSession session = users.get(username);
+            ClientSession session = users.get(memberId);
             if (session != null && session.out != null) {
                 session.out.println("MSG " + from + " -> #" + groupName + ": " + message);
             }
         }
+        Tracing.span("pending", "miembros", members.length, enqueueStart);
         return true;
     }
     
-    // ---- Polling de mensajes pendientes ----
-    public List<String> getPendingMessages(String username) {
-        List<String> messages = pendingMessages.getOrDefault(username, new ArrayList<>());
-        pendingMessages.put(username, new ArrayList<>()); // Limpiar mensajes después de obtenerlos
+    // ---- Envío por lotes ----
+
+    /**
+     * Mensaje de un lote de sendMessages, ya validado por la capa de transporte
+     */
+    public static class Outgoing {
+        public final String from;
+        public final String target; // Usuario, o el grupo si isGroup
+        public final String content;
+        public final boolean isGroup;
+        public IOException error; // Lo completa sendMessages: la escritura que falló, o null
+
+        public Outgoing(String from, String target, String content, boolean isGroup) {
+            this.from = from;
+            this.target = target;
+            this.content = content;
+            this.isGroup = isGroup;
+        }
+    }
+
+    /**
+     * Persiste un lote con una sola escritura por archivo de historial y una sola al registro de
+     * replicación, y lo encola en los buzones de esta partición. Devuelve los destinatarios locales
+     * con mensajes nuevos, para empujar a cada uno una sola vez.
+     *
+     * Si falla la escritura de un archivo, los mensajes con una línea en él quedan con su error y
+     * no se encolan; los demás siguen, porque sus archivos ya se escribieron y reintentarlos los
+     * duplicaría.
+     */
+    public RoaringBitmap sendMessages(List<Outgoing> batch) {
+        return sendMessages(batch, System.currentTimeMillis());
+    }
+
+    public RoaringBitmap sendMessages(List<Outgoing> batch, long timestamp) {
+        Map<String, StringBuilder> byFile = new LinkedHashMap<>();
+        List<String> logNames = new ArrayList<>(batch.size() * 2);
+        List<String> logLines = new ArrayList<>(batch.size() * 2);
+        for (Outgoing message : batch) {
+            String record = textRecord(message.from, message.target, message.isGroup, message.content, timestamp);
+            batchLine(byFile, logNames, logLines, message.from, record);
+            if (message.isGroup) {
+                batchLine(byFile, logNames, logLines, "#" + message.target, record);
+            } else if (localName.test(message.target)) {
+                // Si el destinatario vive en otro nodo, su copia la escribe su nodo dueño
+                batchLine(byFile, logNames, logLines, message.target, record);
+            }
+        }
+        Map<String, IOException> failedFiles = new HashMap<>();
+        for (Map.Entry<String, StringBuilder> file : byFile.entrySet()) {
+            try {
+                writeHistory(file.getKey(), file.getValue().toString());
+            } catch (IOException e) {
+                logger.error("Error escribiendo historial del lote", "history", file.getKey(), "error", e.getMessage());
+                failedFiles.put(file.getKey(), e);
+            }
+        }
+        if (!failedFiles.isEmpty()) {
+            // Al registro y al índice va solo lo que quedó en disco
+            List<String> writtenNames = new ArrayList<>(logNames.size());
+            List<String> writtenLines = new ArrayList<>(logLines.size());
+            for (int i = 0; i < logNames.size(); i++) {
+                if (!failedFiles.containsKey(logNames.get(i))) {
+                    writtenNames.add(logNames.get(i));
+                    writtenLines.add(logLines.get(i));
+                }
+            }
+            logNames = writtenNames;
+            logLines = writtenLines;
+        }
+        logWriteAll(MessageLog.HISTORY, logNames, logLines);
+        for (int i = 0; i < logNames.size(); i++) {
+            index(logNames.get(i), logLines.get(i));
+        }
+        for (Outgoing message : batch) {
+            message.error = failedFiles.get(message.from);
+            if (message.error == null && message.isGroup) {
+                message.error = failedFiles.get("#" + message.target);
+            } else if (message.error == null && localName.test(message.target)) {
+                message.error = failedFiles.get(message.target);
+            }
+        }
+        for (Outgoing message : batch) {
+            if (message.error != null) {
+                continue;
+            }
+            if (message.isGroup) {
+                conversations.groupMessage(message.from, message.target, message.content, timestamp);
+            } else {
+                conversations.privateMessage(message.from, message.target, message.content, timestamp,
+                    true, localName.test(message.target));
+            }
+        }
+
+        RoaringBitmap recipients = new RoaringBitmap();
+        long enqueueStart = System.nanoTime();
+        for (Outgoing message : batch) {
+            if (message.error != null) {
+                continue;
+            }
+            if (message.isGroup) {
+                int fromId = userIds.idOf(message.from);
+                for (int memberId : getGroupMemberIds(message.target)) {
+                    if (memberId != fromId && localUser.test(memberId)) {
+                        enqueuePending(memberId, message.from, message.target, message.content, timestamp, true);
+                        recipients.add(memberId);
+                    }
+                }
+            } else {
+                int toId = userIds.idOf(message.target);
+                if (toId >= 0 && localUser.test(toId)) {
+                    enqueuePending(toId, message.from, message.target, message.content, timestamp, false);
+                    recipients.add(toId);
+                }
+            }
+        }
+        Tracing.span("pending", "destinatarios", recipients.getCardinality(), enqueueStart);
+        return recipients;
+    }
+
+    private static void batchLine(Map<String, StringBuilder> byFile, List<String> logNames, List<String> logLines,
+                                  String name, String record) {
+        StringBuilder lines = byFile.get(name);
+        if (lines == null) {
+            byFile.put(name, new StringBuilder(record));
+        } else {
+            lines.append('\n').append(record);
+        }
+        logNames.add(name);
+        logLines.add(record);
+    }
+
+    /**
+     * Encola un mensaje de grupo recibido de otro nodo para un miembro de esta partición
+     */
+    public void receiveGroupMessage(String from, String groupName, String member, String message, long timestamp) {
+        int memberId = userIds.idOf(member);
+        if (memberId >= 0) {
+            enqueuePending(memberId, from, groupName, message, timestamp, true);
+        }
+    }
+
+    // ---- Buzón: polling y confirmaciones ----
+    public List<Mailbox.Entry> getPendingMessages(String username) {
+        int userId = userIds.idOf(username);
+        if (userId < 0) {
+            return new ArrayList<>();
+        }
+        // Todo lo que sigue sin confirmar, también lo empujado: sale del buzón con ackMessages
+        List<Mailbox.Entry> messages = new ArrayList<>();
+        Mailbox mailbox = mailboxes.get(userId);
+        if (mailbox != null) {
+            PendingDrainEvent event = new PendingDrainEvent();
+            event.begin();
+            messages = mailbox.pending();
+            event.end();
+            if (event.shouldCommit()) {
+                event.user = username;
+                event.userId = userId;
+                event.messages = messages.size();
+                event.commit();
+            }
+        }
         return messages;
     }
 
+    /**
+     * Descarta del buzón los mensajes empujados o leídos con id &lt;= upToId; devuelve cuántos salieron
+     */
+    public int ackMessages(String username, long upToId) {
+        Mailbox mailbox = mailboxes.get(userIds.idOf(username));
+        if (mailbox == null) {
+            return 0;
+        }
+        int removed = mailbox.ack(upToId);
+        pendingCount.add(-removed);
+        return removed;
+    }
+
+    /**
+     * Buzón del usuario, o null si nunca recibió mensajes en este nodo
+     */
+    public Mailbox getMailbox(int userId) {
+        return mailboxes.get(userId);
+    }
+
+    private void enqueuePending(int userId, String from, String target, String message, long timestamp, boolean isGroup) {
+        mailboxes.computeIfAbsent(userId, id -> new Mailbox()).add(from, target, message, timestamp, isGroup);
+        pendingCount.increment();
+    }
+
     public List<String> getHistory(String username) throws IOException {
-        File historyFile = new File(historyDir, username + ".jsonl");
         List<String> history = new ArrayList<>();
+        HistoryReadEvent event = new HistoryReadEvent();
+        event.begin();
         
-        // Cargar mensajes privados del usuario
-        if (historyFile.exists()) {
-            try (BufferedReader reader = new BufferedReader(new FileReader(historyFile))) {
-                String line;
-                while ((line = reader.readLine()) != null) {
-                    history.add(line);
+        // Mensajes privados del usuario y de los grupos donde es miembro
+        List<String> userGroups = getUserGroups(username);
+        int fromDisk = readHistory(username, history);
+        for (String groupName : userGroups) {
+            fromDisk += readHistory("#" + groupName, history);
+        }
+        
+        event.end();
+        if (event.shouldCommit()) {
+            event.user = username;
+            event.userId = userIds.idOf(username);
+            event.groups = userGroups.size();
+            event.lines = fromDisk;
+            event.cached = history.size() - fromDisk;
+            event.commit();
+        }
+        return history;
+    }
+
+    /**
+     * Página del historial (mismo orden que getHistory). Con la cola en memoria solo van al
+     * disco los historiales que no están cargados y las páginas anteriores a su cola
+     */
+    public List<String> getHistoryPage(String username, int offset, int limit) throws IOException {
+        HistoryCache cache = historyCache;
+        if (cache == null) {
+            List<String> history = getHistory(username);
+            int from = Math.min(Math.max(offset, 0), history.size());
+            int to = Math.min(from + Math.max(limit, 0), history.size());
+            return new ArrayList<>(history.subList(from, to));
+        }
+        long from = Math.max(offset, 0);
+        long to = from + Math.max(limit, 0);
+        List<String> names = historyNames(username);
+        List<String> page = new ArrayList<>();
+        long base = 0; // Posición de la primera línea de cada historial en el conjunto
+        for (int i = 0; i < names.size() && base < to; i++) {
+            String name = names.get(i);
+            HistoryCache.Tail tail = historyTail(cache, name);
+            long end = base + tail.lines();
+            if (end > from) {
+                long lo = Math.max(from, base) - base;
+                long hi = Math.min(to, end) - base;
+                if (lo >= tail.first()) {
+                    page.addAll(tail.range(lo, hi));
+                } else {
+                    cache.recordScrollBack();
+                    readHistoryRange(name, lo, hi, page);
                 }
             }
+            base = end;
         }
-        
-        // Cargar mensajes de grupos donde el usuario es miembro
-        List<String> userGroups = getUserGroups(username);
-        for (String groupName : userGroups) {
-            File groupFile = new File(historyDir, "#" + groupName + ".jsonl");
-            if (groupFile.exists()) {
-                try (BufferedReader reader = new BufferedReader(new FileReader(groupFile))) {
+        return page;
+    }
+
+    /**
+     * Líneas que devolvería getHistory, sin armarlo (en un cluster, para paginar entre nodos)
+     */
+    public int getHistorySize(String username) throws IOException {
+        HistoryCache cache = historyCache;
+        long size = 0;
+        for (String name : historyNames(username)) {
+            size += cache != null ? historyTail(cache, name).lines() : countHistoryLines(name);
+        }
+        return (int) Math.min(size, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Archivos de historial de un usuario en el orden de getHistory: el privado y sus grupos
+     */
+    private List<String> historyNames(String username) {
+        List<String> names = new ArrayList<>();
+        names.add(username);
+        for (String groupName : getUserGroups(username)) {
+            names.add("#" + groupName);
+        }
+        return names;
+    }
+
+    private long countHistoryLines(String name) throws IOException {
+        File historyFile = new File(historyDir, name + ".jsonl");
+        if (!historyFile.exists()) {
+            return 0;
+        }
+        long lines = 0;
+        try (BufferedReader reader = new BufferedReader(new FileReader(historyFile))) {
+            while (reader.readLine() != null) {
+                lines++;
+            }
+        }
+        return lines;
+    }
+
+    /**
+     * Activa la cola en memoria de los historiales en uso, ver {@link HistoryCache}
+     */
+    public void enableHistoryCache(int maxLines, long maxBytes) {
+        this.historyCache = new HistoryCache(maxLines, maxBytes);
+    }
+
+    public HistoryCache getHistoryCache() {
+        return historyCache;
+    }
+
+    /**
+     * Agrega un historial completo (usuario o "#grupo") a into; devuelve las líneas leídas del disco
+     */
+    private int readHistory(String name, List<String> into) throws IOException {
+        HistoryCache cache = historyCache;
+        if (cache == null) {
+            return readHistoryRange(name, 0, Long.MAX_VALUE, into);
+        }
+        HistoryCache.Tail tail = cache.get(name);
+        if (tail != null && tail.complete()) {
+            into.addAll(tail.all());
+            return 0;
+        }
+        if (tail != null) {
+            // Más largo que la cola: se lee del disco sin recargarlo
+            cache.recordScrollBack();
+            return readHistoryRange(name, 0, Long.MAX_VALUE, into);
+        }
+        int start = into.size();
+        synchronized (historyLock(name)) {
+            int read = readHistoryRange(name, 0, Long.MAX_VALUE, into);
+            cache.put(name, into.subList(start, into.size()));
+            return read;
+        }
+    }
+
+    private HistoryCache.Tail historyTail(HistoryCache cache, String name) throws IOException {
+        HistoryCache.Tail tail = cache.get(name);
+        if (tail != null) {
+            return tail;
+        }
+        // Una pasada por el archivo guardando solo las últimas líneas: memoria acotada por la cola
+        File historyFile = new File(historyDir, name + ".jsonl");
+        ArrayDeque<String> last = new ArrayDeque<>();
+        long lines = 0;
+        synchronized (historyLock(name)) {
+            if (historyFile.exists()) {
+                int keep = cache.getMaxLines();
+                try (BufferedReader reader = new BufferedReader(new FileReader(historyFile))) {
                     String line;
                     while ((line = reader.readLine()) != null) {
-                        history.add(line);
+                        if (last.size() == keep) {
+                            last.removeFirst();
+                        }
+                        last.addLast(line);
+                        lines++;
                     }
                 }
             }
+            return cache.put(name, last, lines);
+        }
+    }
+
+    /**
+     * Agrega las líneas [from, to) de un archivo de historial a into; devuelve cuántas
+     */
+    private int readHistoryRange(String name, long from, long to, List<String> into) throws IOException {
+        File historyFile = new File(historyDir, name + ".jsonl");
+        if (!historyFile.exists()) {
+            return 0;
+        }
+        int read = 0;
+        try (BufferedReader reader = new BufferedReader(new FileReader(historyFile))) {
+            String line;
+            for (long n = 0; n < to && (line = reader.readLine()) != null; n++) {
+                if (n >= from) {
+                    into.add(line);
+                    read++;
+                }
+            }
+        }
+        return read;
+    }
+
+    private Object historyLock(String name) {
+        return historyLocks[(name.hashCode() & 0x7fffffff) % historyLocks.length];
+    }
+
+    // ---- Resumen de conversaciones ----
+
+    /**
+     * Último mensaje y no leídos de cada conversación del usuario (privadas y grupos), la más
+     * reciente primero, ver {@link ConversationIndex}
+     */
+    public List<ConversationIndex.Summary> getConversationSummaries(String username) {
+        int userId = userIds.idOf(username);
+        if (userId < 0) {
+            return new ArrayList<>();
+        }
+        List<Integer> userGroups = new ArrayList<>();
+        groups.forEach((groupId, members) -> {
+            if (members.contains(userId)) {
+                userGroups.add(groupId);
+            }
+        });
+        int[] groupIdsOfUser = userGroups.stream().mapToInt(Integer::intValue).toArray();
+        return conversations.summaries(username, groupIdsOfUser, this::getHistory);
+    }
+
+    /**
+     * El usuario leyó la conversación hasta su último mensaje; false si no existe
+     */
+    public boolean markConversationRead(String username, String conversation, boolean isGroup) {
+        return conversations.markRead(username, conversation, isGroup);
+    }
+
+    // ---- Búsqueda ----
+
+    /**
+     * Empieza a indexar el historial (lo ya escrito en segundo plano y lo nuevo a medida que
+     * se escribe), ver {@link SearchIndex}
+     */
+    public void startSearchIndex(long refreshMs, int mergeFactor) {
+        SearchIndex index = new SearchIndex(mergeFactor);
+        this.search = index;
+        index.start(historyDir, refreshMs);
+    }
+
+    public SearchIndex getSearchIndex() {
+        return search;
+    }
+
+    /**
+     * Mensajes de texto que el usuario puede ver (su historial y el de sus grupos) con todas
+     * las palabras de la consulta, del más nuevo al más viejo
+     */
+    public List<String> searchMessages(String username, String query, int limit) {
+        SearchIndex index = search;
+        if (index == null) {
+            return new ArrayList<>();
+        }
+        List<String> streams = new ArrayList<>();
+        streams.add(username);
+        for (String groupName : getUserGroups(username)) {
+            streams.add("#" + groupName);
+        }
+        return index.search(streams, query, limit);
+    }
+
+    private void index(String name, String line) {
+        SearchIndex index = search;
+        if (index != null) {
+            index.add(name, line);
         }
-        
-        return history;
     }
 
     // ---- Notas de voz ----
     public boolean sendVoiceNoteToUser(String from, String to, byte[] audioData) throws IOException {
         File audioFile = new File(mediaDir, "vn_" + System.currentTimeMillis() + ".raw");
-        try (FileOutputStream fos = new FileOutputStream(audioFile)) {
-            fos.write(audioData);
-        }
+        writeMedia(audioFile, audioData);
+        logWrite(MessageLog.MEDIA, audioFile.getName(), "", audioData);
 
-        String record = "{type:voice_note,from:" + from + ",target:" + to + ",isGroup:false,file:" + audioFile.getPath() + ",ts:" + Instant.now() + "}";
+        Instant now = Instant.now();
+        String record = "{type:voice_note,from:" + from + ",target:" + to + ",isGroup:false,file:" + audioFile.getPath() + ",ts:" + now + "}";
         persist(from, to, false, record);
+        conversations.privateMessage(from, to, ConversationIndex.VOICE_NOTE_PREVIEW, now.toEpochMilli(), true, true);
 
-        ClientSession session = users.get(to);
+        ClientSession session = users.get(userIds.idOf(to));
         if (session != null && session.socket != null) {
             session.out.println("VOICE_NOTE_FROM " + from + " " + audioData.length);
             session.out.flush();
@@ -339,18 +935,19 @@ public class ChatServicesImpl {
 
     public boolean sendVoiceNoteToGroup(String from, String groupName, byte[] audioData) throws IOException {
         File audioFile = new File(mediaDir, "vn_" + System.currentTimeMillis() + ".raw");
-        try (FileOutputStream fos = new FileOutputStream(audioFile)) {
-            fos.write(audioData);
-        }
+        writeMedia(audioFile, audioData);
+        logWrite(MessageLog.MEDIA, audioFile.getName(), "", audioData);
 
-        String record = "{type:voice_note,from:" + from + ",target:" + groupName + ",isGroup:true,file:" + audioFile.getPath() + ",ts:" + Instant.now() + "}";
+        Instant now = Instant.now();
+        String record = "{type:voice_note,from:" + from + ",target:" + groupName + ",isGroup:true,file:" + audioFile.getPath() + ",ts:" + now + "}";
         persist(from, groupName, true, record);
+        conversations.groupMessage(from, groupName, ConversationIndex.VOICE_NOTE_PREVIEW, now.toEpochMilli());
 
-        Set<String> members = groups.getOrDefault(groupName, Set.of());
-        for (String username : members) {
-            if (username.equals(from)) continue;
+        int fromId = userIds.idOf(from);
+        for (int memberId : getOnlineGroupMembers(groupName)) {
+            if (memberId == fromId) continue;
             
-            ClientSession session = users.get(username);
+            ClientSession session = users.get(memberId);
             if (session != null && session.socket != null) {
                 session.out.println("VOICE_NOTE_FROM " + from + " " + audioData.length);
                 session.out.flush();
@@ -363,8 +960,8 @@ public class ChatServicesImpl {
 
     // ---- Llamadas ----
     public String callUser(String caller, String target) {
-        ClientSession targetSession = users.get(target);
-        ClientSession callerSession = users.get(caller);
+        ClientSession targetSession = users.get(userIds.idOf(target));
+        ClientSession callerSession = users.get(userIds.idOf(caller));
 
         if (targetSession == null || targetSession.udpPort == 0 || callerSession == null || callerSession.udpPort == 0) {
             return null;
@@ -382,39 +979,307 @@ public class ChatServicesImpl {
 
     // ---- Utilidades ----
     private void broadcast(String message) {
-        users.values().forEach(session -> {
-            if (session.out != null) {
-                session.out.println(message);
+        IdTable.Snapshot<ClientSession> sessions = users.snapshot();
+        for (int i = 0; i < sessions.size(); i++) {
+            PrintWriter out = sessions.value(i).out;
+            if (out != null) {
+                out.println(message);
             }
-        });
+        }
+    }
+
+    private static final class OnlineNames {
+        final long epoch;
+        final List<String> names;
+
+        OnlineNames(long epoch, List<String> names) {
+            this.epoch = epoch;
+            this.names = names;
+        }
+    }
+
+    private static final class UsersStatus {
+        final RoaringBitmap known;
+        final RoaringBitmap online;
+        final Map<String, Boolean> status;
+
+        UsersStatus(RoaringBitmap known, RoaringBitmap online, Map<String, Boolean> status) {
+            this.known = known;
+            this.online = online;
+            this.status = status;
+        }
+    }
+
+    private List<String> namesOf(IdBitmap ids) {
+        List<String> names = new ArrayList<>(ids.size());
+        ids.snapshot().forEach((int id) -> names.add(userIds.nameOf(id)));
+        return names;
+    }
+
+    private List<String> namesOf(int[] ids) {
+        List<String> names = new ArrayList<>(ids.length);
+        for (int id : ids) {
+            names.add(userIds.nameOf(id));
+        }
+        return names;
+    }
+
+    private static String textRecord(String from, String target, boolean isGroup, String message, long timestamp) {
+        return "{type:text,from:" + from + ",target:" + target + ",isGroup:" + isGroup + ",msg:" + message + ",ts:" + Instant.ofEpochMilli(timestamp) + "}";
     }
 
     private void persist(String from, String target, boolean isGroup, String line) throws IOException {
         // Guardar en historial del remitente
-        File senderFile = new File(historyDir, from + ".jsonl");
-        try (FileWriter fw = new FileWriter(senderFile, true)) {
-            fw.write(line + "\n");
-        }
+        appendHistory(from, line);
 
         // Guardar en historial del destinatario
-        if (isGroup) {
-            File groupFile = new File(historyDir, "#" + target + ".jsonl");
-            try (FileWriter fw = new FileWriter(groupFile, true)) {
-                fw.write(line + "\n");
+        appendHistory(isGroup ? "#" + target : target, line);
+    }
+
+    private void appendHistory(String name, String line) throws IOException {
+        writeHistory(name, line);
+        logWrite(MessageLog.HISTORY, name, line, null);
+        index(name, line);
+    }
+
+    private void writeHistory(String name, String line) throws IOException {
+        File historyFile = new File(historyDir, name + ".jsonl");
+        persistInFlight.incrementAndGet();
+        MessagePersistEvent event = new MessagePersistEvent();
+        event.begin();
+        long start = System.nanoTime();
+        try {
+            HistoryCache cache = historyCache;
+            if (cache == null) {
+                try (FileWriter fw = new FileWriter(historyFile, true)) {
+                    fw.write(line + "\n");
+                }
+            } else {
+                synchronized (historyLock(name)) {
+                    boolean created = !historyFile.exists();
+                    try (FileWriter fw = new FileWriter(historyFile, true)) {
+                        fw.write(line + "\n");
+                    }
+                    cache.append(name, line, created);
+                }
             }
-        } else {
-            File targetFile = new File(historyDir, target + ".jsonl");
-            try (FileWriter fw = new FileWriter(targetFile, true)) {
-                fw.write(line + "\n");
+        } finally {
+            historyWriteLatency.recordNanos(System.nanoTime() - start);
+            persistInFlight.decrementAndGet();
+            Tracing.span("persist", name, start);
+            event.end();
+            if (event.shouldCommit()) {
+                event.history = name;
+                event.bytes = line.length() + 1;
+                event.commit();
+            }
+        }
+    }
+
+    private void writeMedia(File audioFile, byte[] audioData) throws IOException {
+        VoiceNoteWriteEvent event = new VoiceNoteWriteEvent();
+        event.begin();
+        long start = System.nanoTime();
+        try (FileOutputStream fos = new FileOutputStream(audioFile)) {
+            fos.write(audioData);
+        } finally {
+            mediaWriteLatency.recordNanos(System.nanoTime() - start);
+            Tracing.span("media", audioFile.getName(), start);
+            event.end();
+            if (event.shouldCommit()) {
+                event.file = audioFile.getName();
+                event.bytes = audioData.length;
+                event.commit();
+            }
+        }
+    }
+
+    // ---- Replicación ----
+
+    /**
+     * Activa el registro de escrituras en data/replication.log. En el líder, si el registro es
+     * nuevo se siembra con el estado actual del disco para que un seguidor vacío pueda alcanzarlo;
+     * un seguidor nunca siembra porque sus secuencias deben ser las del líder.
+     */
+    public MessageLog enableReplicationLog(boolean seedFromDisk) throws IOException {
+        MessageLog opened = new MessageLog(new File(dataDir, "replication.log"));
+        if (seedFromDisk && opened.lastSeq() == 0) {
+            seedLog(opened);
+        }
+        this.log = opened;
+        return opened;
+    }
+
+    public MessageLog getReplicationLog() {
+        return log;
+    }
+
+    private void seedLog(MessageLog target) throws IOException {
+        for (int userId : allKnownUsers.toArray()) {
+            target.append(MessageLog.USER, userIds.nameOf(userId), "", null);
+        }
+        List<String> groupNames = getGroups();
+        for (String groupName : groupNames) {
+            target.append(MessageLog.GROUP, groupName, "", null);
+            for (String member : getGroupMembers(groupName)) {
+                target.append(MessageLog.GROUP, groupName, member, null);
             }
         }
+        File[] mediaFiles = mediaDir.listFiles();
+        if (mediaFiles != null) {
+            for (File mediaFile : mediaFiles) {
+                target.append(MessageLog.MEDIA, mediaFile.getName(), "", java.nio.file.Files.readAllBytes(mediaFile.toPath()));
+            }
+        }
+        File[] historyFiles = historyDir.listFiles((dir, name) -> name.endsWith(".jsonl"));
+        if (historyFiles != null) {
+            for (File historyFile : historyFiles) {
+                String name = historyFile.getName().substring(0, historyFile.getName().length() - ".jsonl".length());
+                try (BufferedReader reader = new BufferedReader(new FileReader(historyFile))) {
+                    String line;
+                    while ((line = reader.readLine()) != null) {
+                        target.append(MessageLog.HISTORY, name, line, null);
+                    }
+                }
+            }
+        }
+        logger.info("Registro sembrado desde el estado actual", "entries", target.lastSeq());
     }
 
+    /**
+     * Aplica (seguidor) un lote de entradas recibidas del líder: se reproducen sobre el disco y
+     * el estado en memoria y se agregan al registro propio con la misma secuencia. Una entrada
+     * se registra recién después de aplicarse: si falla, lastSeq no la cuenta y se vuelve a
+     * pedir al reanudar la replicación
+     */
+    public void applyReplicated(List<MessageLog.Entry> entries) throws IOException {
+        boolean usersChanged = false;
+        boolean groupsChanged = false;
+        try {
+            for (MessageLog.Entry entry : entries) {
+                log.checkNext(entry.seq);
+                switch (entry.kind) {
+                    case MessageLog.HISTORY -> {
+                        writeHistory(entry.name, entry.payload);
+                        index(entry.name, entry.payload);
+                        conversations.replicated(entry.name, entry.payload);
+                    }
+                    case MessageLog.MEDIA -> writeMedia(new File(mediaDir, entry.name), entry.data);
+                    case MessageLog.USER -> usersChanged |= allKnownUsers.add(userIds.intern(entry.name));
+                    case MessageLog.GROUP -> {
+                        IdBitmap members = groups.computeIfAbsent(groupIds.intern(entry.name), id -> new IdBitmap());
+                        if (!entry.payload.isEmpty() && members.add(userIds.intern(entry.payload))) {
+                            conversations.joinGroup(entry.payload, entry.name);
+                        }
+                        groupsChanged = true;
+                    }
+                    default -> logger.warn("Tipo de entrada desconocido", "kind", entry.kind);
+                }
+                log.appendReplicated(entry);
+            }
+        } finally {
+            // Un solo guardado por lote aunque el lote traiga muchas altas
+            if (usersChanged) {
+                saveKnownUsers();
+            }
+            if (groupsChanged) {
+                saveGroups();
+            }
+        }
+    }
+
+    private void logWrite(String kind, String name, String payload, byte[] data) {
+        MessageLog current = log;
+        if (current == null) {
+            return;
+        }
+        long start = System.nanoTime();
+        try {
+            current.append(kind, name, payload, data);
+            Tracing.span("replog", kind, start);
+        } catch (IOException e) {
+            logger.error("No se pudo escribir en el registro de replicación", "kind", kind, "name", name, "error", e.getMessage());
+        }
+    }
+
+    private void logWriteAll(String kind, List<String> names, List<String> payloads) {
+        MessageLog current = log;
+        if (current == null || names.isEmpty()) {
+            return;
+        }
+        long start = System.nanoTime();
+        try {
+            current.appendAll(kind, names, payloads);
+            Tracing.span("replog", kind, names.size(), start);
+        } catch (IOException e) {
+            logger.error("No se pudo escribir en el registro de replicación", "kind", kind, "entries", names.size(), "error", e.getMessage());
+        }
+    }
+
+    // ---- Métricas ----
+
+    public int getOnlineCount() {
+        return onlineUsers.size();
+    }
+
+    public int getGroupCount() {
+        return groups.count();
+    }
+
+    public long getPendingTotal() {
+        return pendingCount.sum();
+    }
+
+    /**
+     * Tamaño del buzón más grande (recorre todos los buzones, solo para consultas de métricas)
+     */
+    public int getLargestMailbox() {
+        int[] largest = {0};
+        mailboxes.forEach((userId, mailbox) -> largest[0] = Math.max(largest[0], mailbox.size()));
+        return largest[0];
+    }
+
+    /**
+     * Escrituras de historial en curso: las escrituras son síncronas, así que esta es la cola de persistencia
+     */
+    public int getPersistInFlight() {
+        return persistInFlight.get();
+    }
+
+    public Histogram getHistoryWriteLatency() {
+        return historyWriteLatency;
+    }
+
+    public Histogram getMediaWriteLatency() {
+        return mediaWriteLatency;
+    }
+
+    public SymbolTable getUserIds() {
+        return userIds;
+    }
+
+    public SymbolTable getGroupIds() {
+        return groupIds;
+    }
+
+    /**
+     * Snapshot de las sesiones activas por nombre de usuario
+     */
     public Map<String, ClientSession> getUsersMap() {
-        return users;
+        IdTable.Snapshot<ClientSession> sessions = users.snapshot();
+        Map<String, ClientSession> snapshot = new HashMap<>(sessions.size() * 2);
+        for (int i = 0; i < sessions.size(); i++) {
+            snapshot.put(sessions.value(i).username, sessions.value(i));
+        }
+        return snapshot;
     }
 
+    /**
+     * Snapshot de los grupos con sus miembros por nombre
+     */
     public Map<String, Set<String>> getGroupsMap() {
-        return groups;
+        Map<String, Set<String>> snapshot = new HashMap<>();
+        groups.forEach((groupId, members) -> snapshot.put(groupIds.nameOf(groupId), new HashSet<>(namesOf(members))));
+        return snapshot;
     }
 }
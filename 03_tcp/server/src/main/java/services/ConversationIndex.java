@@ -0,0 +1,386 @@
+package services;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Resumen de las conversaciones de cada usuario para la barra lateral del cliente: último
+ * mensaje (número, fecha, autor y comienzo del texto) y cuántos no leyó.
+ *
+ * Cada conversación (un par de usuarios o un grupo) se guarda una sola vez y numera sus
+ * mensajes. Cada usuario guarda solo hasta qué número leyó en cada una: un mensaje cuesta
+ * O(1) aunque el grupo tenga miles de miembros, y los no leídos son la resta entre el
+ * último número y el leído. Enviar en una conversación la marca como leída.
+ *
+ * El estado vive en memoria. La primera consulta de un usuario completa sus conversaciones
+ * con el último mensaje de cada una en su historial, sin no leídos: los contadores cuentan
+ * desde que arrancó el nodo.
+ */
+public class ConversationIndex {
+
+    public static final int PREVIEW_LENGTH = 80;
+    public static final String VOICE_NOTE_PREVIEW = "[nota de voz]";
+
+    private final SymbolTable userIds;
+    private final SymbolTable groupIds;
+    private final Map<Long, Conversation> privates = new ConcurrentHashMap<>(); // Por par de ids (ver pairKey)
+    private final IdTable<Conversation> groups = new IdTable<>();
+    private final IdTable<ReadMarks> users = new IdTable<>();
+    private String senderCopy; // Última línea privada replicada desde el archivo del remitente (solo el hilo del seguidor)
+
+    public ConversationIndex(SymbolTable userIds, SymbolTable groupIds) {
+        this.userIds = userIds;
+        this.groupIds = groupIds;
+    }
+
+    /**
+     * Último mensaje de una conversación, tal como lo ve un usuario
+     */
+    public static final class Summary {
+        public final String conversation; // El otro usuario, o el grupo
+        public final boolean isGroup;
+        public final long lastId;         // Número del último mensaje en la conversación
+        public final long timestamp;
+        public final String from;
+        public final String preview;
+        public final int unread;
+
+        Summary(String conversation, boolean isGroup, long lastId, long timestamp, String from, String preview, int unread) {
+            this.conversation = conversation;
+            this.isGroup = isGroup;
+            this.lastId = lastId;
+            this.timestamp = timestamp;
+            this.from = from;
+            this.preview = preview;
+            this.unread = unread;
+        }
+    }
+
+    // ========== ACTUALIZACIÓN ==========
+
+    /**
+     * Mensaje privado. En un cluster el nodo del remitente y el del destinatario lo registran
+     * cada uno para su usuario: senderHere/recipientHere dicen de quién es este nodo.
+     * Los nombres sin registrar se ignoran
+     */
+    public void privateMessage(String from, String to, String content, long timestamp,
+                               boolean senderHere, boolean recipientHere) {
+        int fromId = userIds.idOf(from);
+        int toId = userIds.idOf(to);
+        if (fromId < 0 || toId < 0) {
+            return;
+        }
+        Conversation conversation = privates.computeIfAbsent(pairKey(fromId, toId), key -> new Conversation());
+        long seq = conversation.append(from, content, timestamp);
+        if (senderHere) {
+            marks(fromId).read(privateKey(toId), seq);
+        }
+        if (recipientHere && toId != fromId) {
+            marks(toId).join(privateKey(fromId));
+        }
+    }
+
+    /**
+     * Mensaje de grupo: una sola actualización para todos los miembros
+     */
+    public void groupMessage(String from, String groupName, String content, long timestamp) {
+        int groupId = groupIds.idOf(groupName);
+        if (groupId < 0) {
+            return;
+        }
+        Conversation conversation = groups.computeIfAbsent(groupId, id -> new Conversation());
+        long seq = conversation.append(from, content, timestamp);
+        int fromId = userIds.idOf(from);
+        if (fromId >= 0) {
+            marks(fromId).read(groupKey(groupId), seq);
+        }
+    }
+
+    /**
+     * Un usuario entró al grupo: lo enviado antes no cuenta como no leído para él
+     */
+    public void joinGroup(String username, String groupName) {
+        int userId = userIds.idOf(username);
+        int groupId = groupIds.idOf(groupName);
+        if (userId < 0 || groupId < 0) {
+            return;
+        }
+        Conversation conversation = groups.get(groupId);
+        if (conversation != null) {
+            marks(userId).read(groupKey(groupId), conversation.seq());
+        }
+    }
+
+    /**
+     * Registro del historial replicado desde el líder (seguidor). El líder escribe cada mensaje
+     * en el archivo del remitente y en el del destinatario o el grupo, seguidos en el registro:
+     * el de grupo cuenta con la copia del grupo y el privado con la del remitente; la copia del
+     * destinatario que le sigue solo suma la conversación a las de este. Si el remitente vive
+     * en otro nodo, la copia del destinatario es la única y cuenta
+     */
+    public void replicated(String historyName, String line) {
+        Record record = Record.parse(line);
+        String senderLine = senderCopy;
+        senderCopy = null;
+        if (record == null) {
+            return;
+        }
+        if (record.isGroup) {
+            if (historyName.equals("#" + record.target)) {
+                groupMessage(record.from, record.target, record.text, record.timestamp);
+            }
+            return;
+        }
+        if (historyName.equals(record.target) && line.equals(senderLine)) {
+            int fromId = userIds.idOf(record.from);
+            int toId = userIds.idOf(record.target);
+            if (fromId >= 0 && toId >= 0 && toId != fromId) {
+                marks(toId).join(privateKey(fromId));
+            }
+        } else if (historyName.equals(record.from)) {
+            privateMessage(record.from, record.target, record.text, record.timestamp, true, false);
+            senderCopy = line;
+        } else {
+            privateMessage(record.from, record.target, record.text, record.timestamp, false, true);
+        }
+    }
+
+    /**
+     * El usuario leyó la conversación hasta el último mensaje; false si no existe
+     */
+    public boolean markRead(String username, String conversationName, boolean isGroup) {
+        int userId = userIds.idOf(username);
+        int otherId = isGroup ? groupIds.idOf(conversationName) : userIds.idOf(conversationName);
+        if (userId < 0 || otherId < 0) {
+            return false;
+        }
+        Conversation conversation = isGroup ? groups.get(otherId) : privates.get(pairKey(userId, otherId));
+        if (conversation == null) {
+            return false;
+        }
+        marks(userId).read(isGroup ? groupKey(otherId) : privateKey(otherId), conversation.seq());
+        return true;
+    }
+
+    // ========== CONSULTA ==========
+
+    /**
+     * Conversaciones privadas del usuario y las de sus grupos, la más reciente primero.
+     * La primera vez se completan con history (el historial del usuario y de sus grupos)
+     */
+    public List<Summary> summaries(String username, int[] groupIdsOfUser, HistorySource history) {
+        int userId = userIds.idOf(username);
+        if (userId < 0) {
+            return new ArrayList<>();
+        }
+        ReadMarks marks = marks(userId);
+        if (!marks.loaded) {
+            load(username, marks, history);
+        }
+        List<Summary> summaries = new ArrayList<>();
+        for (Map.Entry<Long, Long> peer : marks.privatePeers()) {
+            int peerId = (int) (long) peer.getKey();
+            Conversation conversation = privates.get(pairKey(userId, peerId));
+            if (conversation != null) {
+                summaries.add(conversation.summary(userIds.nameOf(peerId), false, peer.getValue()));
+            }
+        }
+        for (int groupId : groupIdsOfUser) {
+            // Los grupos sin mensajes también aparecen, para que el cliente los liste
+            Conversation conversation = groups.get(groupId);
+            summaries.add(conversation != null
+                ? conversation.summary(groupIds.nameOf(groupId), true, marks.readUpTo(groupKey(groupId)))
+                : new Summary(groupIds.nameOf(groupId), true, 0, 0, "", "", 0));
+        }
+        summaries.sort((a, b) -> Long.compare(b.timestamp, a.timestamp));
+        return summaries;
+    }
+
+    /**
+     * Registros del historial visibles para un usuario (ver ChatServicesImpl.getHistory)
+     */
+    @FunctionalInterface
+    public interface HistorySource {
+        List<String> read(String username) throws IOException;
+    }
+
+    /**
+     * Último mensaje de cada conversación del historial, para las que no tuvieron mensajes
+     * desde que arrancó el nodo
+     */
+    private void load(String username, ReadMarks marks, HistorySource history) {
+        int userId = userIds.idOf(username);
+        Map<Long, Record> latest = new HashMap<>();
+        try {
+            for (String line : history.read(username)) {
+                Record record = Record.parse(line);
+                if (record == null) {
+                    continue;
+                }
+                String other = record.isGroup || username.equals(record.from) ? record.target : record.from;
+                int otherId = record.isGroup ? groupIds.idOf(other) : userIds.idOf(other);
+                if (otherId < 0) {
+                    continue; // Grupo borrado o usuario que nunca se registró
+                }
+                long key = record.isGroup ? groupKey(otherId) : privateKey(otherId);
+                Record previous = latest.get(key);
+                if (previous == null || record.timestamp >= previous.timestamp) {
+                    latest.put(key, record);
+                }
+            }
+        } catch (IOException e) {
+            return; // Se reintenta en la próxima consulta
+        }
+        for (Map.Entry<Long, Record> entry : latest.entrySet()) {
+            Record record = entry.getValue();
+            long key = entry.getKey();
+            if (key < 0) {
+                groups.computeIfAbsent((int) (-key - 1), id -> new Conversation()).seed(record.from, record.text, record.timestamp);
+            } else {
+                privates.computeIfAbsent(pairKey(userId, (int) key), k -> new Conversation()).seed(record.from, record.text, record.timestamp);
+                marks.join(key);
+            }
+        }
+        marks.loaded = true;
+    }
+
+    // ========== ESTADO ==========
+
+    private ReadMarks marks(int userId) {
+        return users.computeIfAbsent(userId, id -> new ReadMarks());
+    }
+
+    /**
+     * Clave de la conversación privada de dos usuarios, la misma en ambos sentidos
+     */
+    private static long pairKey(int a, int b) {
+        return ((long) Math.min(a, b) << 32) | Math.max(a, b);
+    }
+
+    // En ReadMarks las conversaciones privadas son el id del otro usuario y los grupos, negativos
+    private static long privateKey(int peerId) {
+        return peerId;
+    }
+
+    private static long groupKey(int groupId) {
+        return -(long) groupId - 1;
+    }
+
+    /**
+     * Mensaje del historial: {type:text,from:X,target:Y,isGroup:b,msg:texto,ts:fecha} o una
+     * nota de voz, que se resume como tal
+     */
+    private static final class Record {
+        final String from;
+        final String target;
+        final boolean isGroup;
+        final String text;
+        final long timestamp;
+
+        private Record(String from, String target, boolean isGroup, String text, long timestamp) {
+            this.from = from;
+            this.target = target;
+            this.isGroup = isGroup;
+            this.text = text;
+            this.timestamp = timestamp;
+        }
+
+        static Record parse(String line) {
+            boolean voiceNote = line.startsWith("{type:voice_note,");
+            if (!voiceNote && !line.startsWith("{type:text,")) {
+                return null;
+            }
+            String from = field(line, ",from:", ",target:");
+            String target = field(line, ",target:", ",isGroup:");
+            String isGroup = field(line, ",isGroup:", voiceNote ? ",file:" : ",msg:");
+            String text = voiceNote ? VOICE_NOTE_PREVIEW : field(line, ",msg:", ",ts:");
+            if (from == null || target == null || isGroup == null || text == null) {
+                return null;
+            }
+            return new Record(from, target, "true".equals(isGroup), text, SearchIndex.timestampOf(line));
+        }
+
+        private static String field(String line, String start, String end) {
+            int from = line.indexOf(start);
+            if (from < 0) {
+                return null;
+            }
+            // El texto del mensaje puede contener cualquier cosa: la fecha es siempre el último campo
+            int to = end.equals(",ts:") ? line.lastIndexOf(end) : line.indexOf(end, from + start.length());
+            return to < from + start.length() ? null : line.substring(from + start.length(), to);
+        }
+    }
+
+    private static final class Conversation {
+        private long seq;
+        private long timestamp;
+        private String from = "";
+        private String preview = "";
+
+        synchronized long append(String from, String content, long timestamp) {
+            this.from = from;
+            this.preview = preview(content);
+            this.timestamp = timestamp;
+            return ++seq;
+        }
+
+        /**
+         * Último mensaje leído del historial; no pisa uno más nuevo llegado desde el arranque
+         */
+        synchronized void seed(String from, String content, long timestamp) {
+            if (timestamp > this.timestamp) {
+                this.from = from;
+                this.preview = preview(content);
+                this.timestamp = timestamp;
+            }
+        }
+
+        synchronized long seq() {
+            return seq;
+        }
+
+        synchronized Summary summary(String name, boolean isGroup, long readUpTo) {
+            int unread = (int) Math.min(Math.max(seq - readUpTo, 0), Integer.MAX_VALUE);
+            return new Summary(name, isGroup, seq, timestamp, from, preview, unread);
+        }
+
+        private static String preview(String content) {
+            return content.length() <= PREVIEW_LENGTH ? content : content.substring(0, PREVIEW_LENGTH);
+        }
+    }
+
+    /**
+     * Hasta qué número leyó un usuario cada conversación; las privadas en las que participa
+     * están siempre, las de grupo una vez leídas o desde que entró al grupo
+     */
+    private static final class ReadMarks {
+        private final Map<Long, Long> readUpTo = new HashMap<>();
+        volatile boolean loaded;
+
+        synchronized void read(long key, long seq) {
+            readUpTo.merge(key, seq, Math::max);
+        }
+
+        synchronized void join(long key) {
+            readUpTo.putIfAbsent(key, 0L);
+        }
+
+        synchronized long readUpTo(long key) {
+            return readUpTo.getOrDefault(key, 0L);
+        }
+
+        synchronized List<Map.Entry<Long, Long>> privatePeers() {
+            List<Map.Entry<Long, Long>> peers = new ArrayList<>();
+            for (Map.Entry<Long, Long> entry : readUpTo.entrySet()) {
+                if (entry.getKey() >= 0) {
+                    peers.add(Map.entry(entry.getKey(), entry.getValue()));
+                }
+            }
+            return peers;
+        }
+    }
+}
@@ -0,0 +1,311 @@
+package services;
+
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Últimas líneas del historial de las conversaciones activas en memoria, para que getHistory
+ * y getHistoryPage no relean del disco los archivos de los grupos y chats en uso.
+ *
+ * Cada entrada es la cola de un archivo de historial (un usuario o "#grupo"): hasta maxLines
+ * líneas del final y cuántas tiene el archivo. Si entran todas el historial completo sale de
+ * memoria; si no, solo las páginas que caen en la cola, y el scroll hacia atrás va al disco.
+ * Las escrituras agregan a la entrada si ya está cargada.
+ *
+ * El presupuesto es de memoria (bytes estimados de las líneas), no de entradas, y se desaloja
+ * con LRU segmentado: una entrada nueva entra a prueba y pasa a protegida al volver a leerse.
+ * Así un getHistory de un usuario con muchos grupos fríos no desplaza a los grupos calientes.
+ * Las protegidas ocupan hasta el 80% del presupuesto; las que sobran vuelven a prueba, y se
+ * desaloja siempre desde la más vieja de prueba.
+ *
+ * La coherencia con el archivo es del llamador: la carga y la escritura de un mismo historial
+ * deben ir bajo el mismo lock, o una carga podría pisar una línea recién agregada.
+ */
+public class HistoryCache {
+
+    public static final int DEFAULT_LINES = 1000;
+    public static final int DEFAULT_MB = 64;
+
+    private static final int PROTECTED_PERCENT = 80;
+    // Estimación de lo que ocupa cada línea además de sus caracteres (String, arreglo, referencia)
+    private static final long LINE_OVERHEAD = 56;
+    private static final long ENTRY_OVERHEAD = 160;
+
+    private final int maxLines;
+    private final long maxBytes;
+    private final long maxProtectedBytes;
+
+    // Ambos en orden de acceso: la primera es la usada hace más tiempo
+    private final LinkedHashMap<String, Entry> probation = new LinkedHashMap<>(64, 0.75f, true);
+    private final LinkedHashMap<String, Entry> protectedEntries = new LinkedHashMap<>(64, 0.75f, true);
+    private long probationBytes;
+    private long protectedBytes;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder scrollBacks = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    public HistoryCache(int maxLines, long maxBytes) {
+        this.maxLines = Math.max(maxLines, 1);
+        this.maxBytes = maxBytes;
+        this.maxProtectedBytes = maxBytes * PROTECTED_PERCENT / 100;
+    }
+
+    /**
+     * Cola de un historial: las líneas [first(), lines()) del archivo
+     */
+    public static final class Tail {
+        private final long lines;
+        private final String[] tail;
+
+        Tail(long lines, String[] tail) {
+            this.lines = lines;
+            this.tail = tail;
+        }
+
+        /**
+         * Líneas del archivo
+         */
+        public long lines() {
+            return lines;
+        }
+
+        /**
+         * Número de la primera línea en memoria
+         */
+        public long first() {
+            return lines - tail.length;
+        }
+
+        public boolean complete() {
+            return tail.length == lines;
+        }
+
+        /**
+         * Líneas en memoria, de solo lectura
+         */
+        public List<String> all() {
+            return Arrays.asList(tail);
+        }
+
+        /**
+         * Líneas [from, to) del archivo; deben estar en memoria (from >= first())
+         */
+        public List<String> range(long from, long to) {
+            return all().subList((int) (from - first()), (int) (to - first()));
+        }
+    }
+
+    // ========== CONSULTA ==========
+
+    /**
+     * Cola de un historial, o null si no está cargado (cuenta acierto o fallo)
+     */
+    public synchronized Tail get(String name) {
+        Entry entry = protectedEntries.get(name);
+        if (entry == null) {
+            entry = probation.remove(name);
+            if (entry != null) {
+                // Segundo uso: pasa a protegida
+                probationBytes -= entry.bytes;
+                protectedEntries.put(name, entry);
+                protectedBytes += entry.bytes;
+                demote();
+            }
+        }
+        if (entry == null) {
+            misses.increment();
+            return null;
+        }
+        hits.increment();
+        return entry.tail();
+    }
+
+    /**
+     * Una lectura necesitó líneas anteriores a la cola en memoria y fue al disco
+     */
+    public void recordScrollBack() {
+        scrollBacks.increment();
+    }
+
+    // ========== ACTUALIZACIÓN ==========
+
+    /**
+     * Carga un historial completo leído del disco; devuelve su cola aunque no entre en el
+     * presupuesto (en ese caso no se guarda)
+     */
+    public Tail put(String name, List<String> lines) {
+        return put(name, lines.subList(Math.max(lines.size() - maxLines, 0), lines.size()), lines.size());
+    }
+
+    /**
+     * Carga la cola de un historial leída del disco sin guardar el archivo entero: sus últimas
+     * líneas (se conservan a lo sumo {@link #getMaxLines()}) y cuántas tiene el archivo
+     */
+    public synchronized Tail put(String name, Collection<String> tail, long lines) {
+        Entry entry = new Entry();
+        for (String line : tail) {
+            entry.add(line);
+        }
+        entry.trim(maxLines);
+        entry.lines = lines;
+        remove(name);
+        if (entry.bytes <= maxBytes) {
+            probation.put(name, entry);
+            probationBytes += entry.bytes;
+            evict();
+        }
+        return entry.tail();
+    }
+
+    /**
+     * Agrega líneas escritas al final de un historial (varias separadas por '\n'), solo si ya
+     * está cargado. created: el archivo no existía, así que la entrada empieza vacía y completa
+     */
+    public synchronized void append(String name, String chunk, boolean created) {
+        boolean isProtected = true;
+        Entry entry = protectedEntries.get(name);
+        if (entry == null) {
+            isProtected = false;
+            entry = probation.get(name);
+            if (entry == null && created) {
+                entry = new Entry();
+                probation.put(name, entry);
+                probationBytes += entry.bytes;
+            }
+        }
+        if (entry == null) {
+            return;
+        }
+        long before = entry.bytes;
+        int start = 0;
+        while (start <= chunk.length()) {
+            int end = chunk.indexOf('\n', start);
+            if (end < 0) {
+                end = chunk.length();
+            }
+            entry.add(chunk.substring(start, end));
+            entry.lines++;
+            start = end + 1;
+        }
+        entry.trim(maxLines);
+        if (isProtected) {
+            protectedBytes += entry.bytes - before;
+            demote();
+        } else {
+            probationBytes += entry.bytes - before;
+        }
+        evict();
+    }
+
+    private void remove(String name) {
+        Entry entry = probation.remove(name);
+        if (entry != null) {
+            probationBytes -= entry.bytes;
+        }
+        entry = protectedEntries.remove(name);
+        if (entry != null) {
+            protectedBytes -= entry.bytes;
+        }
+    }
+
+    // ========== DESALOJO ==========
+
+    /**
+     * Las protegidas que exceden su parte vuelven a prueba como recién usadas
+     */
+    private void demote() {
+        Iterator<Map.Entry<String, Entry>> oldest = protectedEntries.entrySet().iterator();
+        while (protectedBytes > maxProtectedBytes && oldest.hasNext()) {
+            Map.Entry<String, Entry> next = oldest.next();
+            oldest.remove();
+            protectedBytes -= next.getValue().bytes;
+            probation.put(next.getKey(), next.getValue());
+            probationBytes += next.getValue().bytes;
+        }
+    }
+
+    private void evict() {
+        Iterator<Map.Entry<String, Entry>> oldest = probation.entrySet().iterator();
+        while (probationBytes + protectedBytes > maxBytes && oldest.hasNext()) {
+            probationBytes -= oldest.next().getValue().bytes;
+            oldest.remove();
+            evictions.increment();
+        }
+        // Solo si prueba quedó vacía y aun así no alcanza (una protegida creció mucho)
+        oldest = protectedEntries.entrySet().iterator();
+        while (probationBytes + protectedBytes > maxBytes && oldest.hasNext()) {
+            protectedBytes -= oldest.next().getValue().bytes;
+            oldest.remove();
+            evictions.increment();
+        }
+    }
+
+    // ========== MÉTRICAS ==========
+
+    public int getMaxLines() {
+        return maxLines;
+    }
+
+    public long getHits() {
+        return hits.sum();
+    }
+
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    public long getScrollBacks() {
+        return scrollBacks.sum();
+    }
+
+    public long getEvictions() {
+        return evictions.sum();
+    }
+
+    public synchronized long getBytes() {
+        return probationBytes + protectedBytes;
+    }
+
+    public synchronized long getEntries() {
+        return probation.size() + protectedEntries.size();
+    }
+
+    private static final class Entry {
+        private final ArrayDeque<String> tail = new ArrayDeque<>();
+        private long lines;
+        private long bytes = ENTRY_OVERHEAD;
+        private Tail snapshot; // Se reconstruye al leer después de una escritura
+
+        void add(String line) {
+            tail.addLast(line);
+            bytes += weight(line);
+            snapshot = null;
+        }
+
+        void trim(int maxLines) {
+            while (tail.size() > maxLines) {
+                bytes -= weight(tail.removeFirst());
+            }
+        }
+
+        Tail tail() {
+            if (snapshot == null) {
+                snapshot = new Tail(lines, tail.toArray(new String[0]));
+            }
+            return snapshot;
+        }
+
+        // Strings compactos: las líneas del historial son casi siempre Latin-1, un byte por carácter
+        private static long weight(String line) {
+            return line.length() + LINE_OVERHEAD;
+        }
+    }
+}
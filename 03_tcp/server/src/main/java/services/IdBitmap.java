@@ -0,0 +1,96 @@
+package services;
+
+import org.roaringbitmap.RoaringBitmap;
+
+/**
+ * Conjunto de ids densos (ver {@link SymbolTable}) guardado como Roaring bitmap.
+ * Las escrituras modifican el bitmap en su lugar bajo el lock del objeto, así un login o
+ * logout cuesta lo mismo con 100 que con 100k usuarios. Los lectores que necesitan el
+ * conjunto entero reciben un snapshot inmutable que se copia a lo sumo una vez por cambio,
+ * y solo si alguien lo pide: una ráfaga de logins seguida de una lectura hace una sola copia.
+ * Ocupa unos pocos bits por miembro y permite intersecciones vectorizadas
+ * (por ejemplo miembros AND online) en lugar de un lookup por miembro.
+ */
+public final class IdBitmap {
+
+    private final RoaringBitmap bits = new RoaringBitmap(); // Solo bajo this
+    private volatile RoaringBitmap published = new RoaringBitmap(); // null tras un cambio
+
+    public boolean contains(int id) {
+        if (id < 0) {
+            return false;
+        }
+        RoaringBitmap current = published;
+        if (current != null) {
+            return current.contains(id);
+        }
+        synchronized (this) {
+            return bits.contains(id);
+        }
+    }
+
+    public synchronized boolean add(int id) {
+        if (!bits.checkedAdd(id)) {
+            return false;
+        }
+        published = null;
+        return true;
+    }
+
+    /**
+     * Agrega varios ids de una vez (carga inicial desde disco)
+     */
+    public synchronized void addAll(RoaringBitmap ids) {
+        bits.or(ids);
+        bits.runOptimize();
+        published = null;
+    }
+
+    public synchronized boolean remove(int id) {
+        if (!bits.checkedRemove(id)) {
+            return false;
+        }
+        published = null;
+        return true;
+    }
+
+    public synchronized int size() {
+        return bits.getCardinality();
+    }
+
+    public synchronized boolean isEmpty() {
+        return bits.isEmpty();
+    }
+
+    /**
+     * Snapshot inmutable del bitmap, el mismo objeto mientras no haya cambios. Es compartido:
+     * no modificarlo.
+     */
+    public RoaringBitmap snapshot() {
+        RoaringBitmap current = published;
+        if (current != null) {
+            return current;
+        }
+        synchronized (this) {
+            if (published == null) {
+                published = bits.clone();
+            }
+            return published;
+        }
+    }
+
+    public synchronized int[] toArray() {
+        return bits.toArray();
+    }
+
+    /**
+     * Intersección de dos conjuntos en una sola operación sobre los contenedores. b se lee bajo
+     * su lock sin copiarlo: debe ser el que cambia seguido (online), a el más estable (miembros)
+     */
+    public static RoaringBitmap and(IdBitmap a, IdBitmap b) {
+        RoaringBitmap left = a.snapshot();
+        synchronized (b) {
+            return RoaringBitmap.and(left, b.bits);
+        }
+    }
+}
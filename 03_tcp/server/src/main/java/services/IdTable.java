@@ -0,0 +1,217 @@
+package services;
+
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.IntFunction;
+import java.util.function.UnaryOperator;
+
+/**
+ * Tabla indexada por id denso (ver {@link SymbolTable}).
+ * Reemplaza a los Map&lt;String, T&gt;: las lecturas son un acceso a arreglo sin
+ * hashing ni locks, y las escrituras se serializan para poder crecer el arreglo.
+ *
+ * Cada escritura avanza la época de la tabla. {@link #snapshot()} devuelve las entradas
+ * presentes como arreglos inmutables de esa época: los recorridos frecuentes (presencia,
+ * fan-out a los conectados) iteran solo lo que hay, sin saltar los huecos del arreglo de
+ * slots. El snapshot se arma en la primera lectura después de un cambio, así una ráfaga
+ * de logins lo reconstruye una vez.
+ */
+public class IdTable<T> {
+
+    private volatile AtomicReferenceArray<T> slots = new AtomicReferenceArray<>(64);
+    private volatile long epoch; // Se escribe solo con el lock tomado
+    private volatile Snapshot<T> snapshot = new Snapshot<>(0, new int[0], new Object[0]);
+
+    public T get(int id) {
+        AtomicReferenceArray<T> current = slots;
+        return id >= 0 && id < current.length() ? current.get(id) : null;
+    }
+
+    public synchronized T put(int id, T value) {
+        epoch++;
+        return ensureCapacity(id).getAndSet(id, value);
+    }
+
+    public synchronized T remove(int id) {
+        AtomicReferenceArray<T> current = slots;
+        if (id < 0 || id >= current.length()) {
+            return null;
+        }
+        T removed = current.getAndSet(id, null);
+        if (removed != null) {
+            epoch++;
+        }
+        return removed;
+    }
+
+    /**
+     * Elimina el valor solo si sigue siendo el esperado
+     */
+    public synchronized boolean remove(int id, T expected) {
+        AtomicReferenceArray<T> current = slots;
+        if (id >= 0 && id < current.length() && current.compareAndSet(id, expected, null)) {
+            epoch++;
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Reemplaza el valor por el que devuelve la función (null lo elimina), sin otra
+     * escritura entre medio. Avanza la época aunque devuelva el mismo objeto: la función
+     * puede haber cambiado su contenido.
+     */
+    public synchronized T compute(int id, UnaryOperator<T> update) {
+        AtomicReferenceArray<T> current = ensureCapacity(id);
+        T value = update.apply(current.get(id));
+        current.set(id, value);
+        epoch++;
+        return value;
+    }
+
+    public T computeIfAbsent(int id, IntFunction<T> factory) {
+        T value = get(id);
+        if (value != null) {
+            return value;
+        }
+        synchronized (this) {
+            AtomicReferenceArray<T> current = ensureCapacity(id);
+            value = current.get(id);
+            if (value == null) {
+                value = factory.apply(id);
+                current.set(id, value);
+                epoch++;
+            }
+            return value;
+        }
+    }
+
+    /**
+     * Límite superior (exclusivo) de los ids que pueden tener valor
+     */
+    public int capacity() {
+        return slots.length();
+    }
+
+    public int count() {
+        AtomicReferenceArray<T> current = slots;
+        int count = 0;
+        for (int i = 0; i < current.length(); i++) {
+            if (current.get(i) != null) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Cantidad de escrituras hechas sobre la tabla; cambia cada vez que cambia su contenido
+     */
+    public long epoch() {
+        return epoch;
+    }
+
+    /**
+     * Entradas presentes en la época actual
+     */
+    public Snapshot<T> snapshot() {
+        Snapshot<T> built = snapshot;
+        if (built.epoch == epoch) {
+            return built;
+        }
+        synchronized (this) {
+            built = snapshot;
+            if (built.epoch != epoch) {
+                built = build();
+                snapshot = built;
+            }
+            return built;
+        }
+    }
+
+    /**
+     * Dos pasadas (contar y copiar) para asignar solo lo presente: la tabla puede tener
+     * capacidad para todos los usuarios conocidos y apenas unos pocos conectados. Se llama
+     * con el lock tomado, así que nada cambia entre las pasadas.
+     */
+    private Snapshot<T> build() {
+        AtomicReferenceArray<T> current = slots;
+        int size = count();
+        int[] ids = new int[size];
+        Object[] values = new Object[size];
+        int next = 0;
+        for (int i = 0; i < current.length() && next < size; i++) {
+            T value = current.get(i);
+            if (value != null) {
+                ids[next] = i;
+                values[next] = value;
+                next++;
+            }
+        }
+        return new Snapshot<>(epoch, ids, values);
+    }
+
+    public void forEach(Visitor<T> visitor) {
+        AtomicReferenceArray<T> current = slots;
+        for (int i = 0; i < current.length(); i++) {
+            T value = current.get(i);
+            if (value != null) {
+                visitor.visit(i, value);
+            }
+        }
+    }
+
+    private AtomicReferenceArray<T> ensureCapacity(int id) {
+        AtomicReferenceArray<T> current = slots;
+        if (id < current.length()) {
+            return current;
+        }
+        int newLength = current.length();
+        while (newLength <= id) {
+            newLength *= 2;
+        }
+        AtomicReferenceArray<T> grown = new AtomicReferenceArray<>(newLength);
+        for (int i = 0; i < current.length(); i++) {
+            grown.set(i, current.get(i));
+        }
+        slots = grown;
+        return grown;
+    }
+
+    /**
+     * Vista inmutable de la tabla en una época: ids en orden creciente y sus valores
+     * en las mismas posiciones. Se recorre con un for indexado, sin iteradores ni locks.
+     */
+    public static final class Snapshot<T> {
+        private final long epoch;
+        private final int[] ids;
+        private final Object[] values;
+
+        private Snapshot(long epoch, int[] ids, Object[] values) {
+            this.epoch = epoch;
+            this.ids = ids;
+            this.values = values;
+        }
+
+        public long epoch() {
+            return epoch;
+        }
+
+        public int size() {
+            return ids.length;
+        }
+
+        public int id(int index) {
+            return ids[index];
+        }
+
+        @SuppressWarnings("unchecked")
+        public T value(int index) {
+            return (T) values[index];
+        }
+    }
+
+    @FunctionalInterface
+    public interface Visitor<T> {
+        void visit(int id, T value);
+    }
+}
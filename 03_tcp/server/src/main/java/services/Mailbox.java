@@ -0,0 +1,181 @@
+package services;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * Buzón de un usuario: los mensajes que todavía no confirmó (ackMessages).
+ * Es la única copia en el servidor de un mensaje por entregar, esté el usuario online u offline.
+ *
+ * Cada entrada recibe al encolarse un id creciente por usuario. La capa de transporte reclama
+ * las entradas a empujar con {@link #claimUnsent} y, pasado el backoff sin confirmación,
+ * con {@link #claimDue}; el poll (getPendingMessages) las lee con {@link #pending}. En todos
+ * los casos salen del buzón recién cuando el cliente confirma con el id más alto que procesó.
+ */
+public class Mailbox {
+
+    public static final class Entry {
+        public final long id;
+        public final String from;
+        public final String target; // Destinatario, o el grupo si isGroup
+        public final String content;
+        public final long timestamp;
+        public final boolean isGroup;
+
+        // Protegidos por el lock del buzón
+        int attempts;      // Push enviados
+        boolean sent;      // El último push salió (no falló ni se omitió por saturación)
+        boolean polled;    // Un poll la devolvió
+        long retryAt;      // Próximo reintento (millis)
+
+        Entry(long id, String from, String target, String content, long timestamp, boolean isGroup) {
+            this.id = id;
+            this.from = from;
+            this.target = target;
+            this.content = content;
+            this.timestamp = timestamp;
+            this.isGroup = isGroup;
+        }
+    }
+
+    private final ArrayDeque<Entry> entries = new ArrayDeque<>();
+    private long lastId;
+    private int inFlight; // Entradas empujadas, sin confirmar y con reintentos por delante
+
+    synchronized Entry add(String from, String target, String content, long timestamp, boolean isGroup) {
+        Entry entry = new Entry(++lastId, from, target, content, timestamp, isGroup);
+        entries.addLast(entry);
+        return entry;
+    }
+
+    /**
+     * Descarta las entradas con id &lt;= upToId cuyo último push salió o que devolvió un poll;
+     * las que nunca salieron o fallaron quedan para el reintento aunque el cliente ya confirmara
+     * ids posteriores
+     */
+    synchronized int ack(long upToId) {
+        int removed = 0;
+        Iterator<Entry> it = entries.iterator();
+        while (it.hasNext()) {
+            Entry entry = it.next();
+            if (entry.id > upToId) {
+                break;
+            }
+            if (entry.sent || entry.polled) {
+                it.remove();
+                if (entry.attempts > 0 && entry.retryAt != Long.MAX_VALUE) {
+                    inFlight--;
+                }
+                removed++;
+            }
+        }
+        return removed;
+    }
+
+    /**
+     * Todas las entradas (getPendingMessages), sin sacarlas: quedan hasta que el cliente confirme
+     * lo que recibió en la respuesta del poll
+     */
+    synchronized List<Entry> pending() {
+        for (Entry entry : entries) {
+            entry.polled = true;
+        }
+        return new ArrayList<>(entries);
+    }
+
+    /**
+     * Entradas que nunca se empujaron; quedan marcadas como enviadas con su primer reintento en retryDelay
+     */
+    public synchronized List<Entry> claimUnsent(long now, long retryDelay) {
+        List<Entry> claimed = null;
+        // Las nuevas están al final: se recorre desde atrás hasta la primera ya empujada
+        Iterator<Entry> it = entries.descendingIterator();
+        while (it.hasNext()) {
+            Entry entry = it.next();
+            if (entry.attempts > 0) {
+                break;
+            }
+            if (claimed == null) {
+                claimed = new ArrayList<>();
+            }
+            claimed.add(entry);
+        }
+        if (claimed == null) {
+            return List.of();
+        }
+        Collections.reverse(claimed);
+        for (Entry entry : claimed) {
+            claim(entry, now, retryDelay);
+        }
+        return claimed;
+    }
+
+    /**
+     * Entradas sin confirmar cuyo reintento venció, con backoff exponencial hasta maxDelay.
+     * Las que ya agotaron maxAttempts se dejan en el buzón para el próximo poll o login
+     * y se cuentan una sola vez en exhausted.
+     */
+    public synchronized List<Entry> claimDue(long now, long baseDelay, long maxDelay, int maxAttempts, int[] exhausted) {
+        List<Entry> due = null;
+        for (Entry entry : entries) {
+            if (entry.attempts == 0 || entry.retryAt > now) {
+                continue;
+            }
+            if (entry.attempts >= maxAttempts) {
+                entry.retryAt = Long.MAX_VALUE;
+                inFlight--;
+                exhausted[0]++;
+                continue;
+            }
+            if (due == null) {
+                due = new ArrayList<>();
+            }
+            long delay = Math.min(baseDelay << Math.min(entry.attempts, 20), maxDelay);
+            claim(entry, now, delay);
+            due.add(entry);
+        }
+        return due != null ? due : List.of();
+    }
+
+    private void claim(Entry entry, long now, long retryDelay) {
+        if (entry.attempts == 0) {
+            inFlight++;
+        }
+        entry.attempts++;
+        entry.sent = true;
+        entry.retryAt = now + retryDelay;
+    }
+
+    /**
+     * El push no salió (saturación) o el cliente no respondió: no cuenta para las confirmaciones
+     */
+    public synchronized void failed(Entry entry) {
+        entry.sent = false;
+    }
+
+    /**
+     * Vuelve a empujar todo desde cero (login): lo pendiente de una sesión anterior se reenvía
+     */
+    public synchronized void rearm() {
+        for (Entry entry : entries) {
+            entry.attempts = 0;
+            entry.sent = false;
+            entry.retryAt = 0;
+        }
+        inFlight = 0;
+    }
+
+    /**
+     * Quedan entradas empujadas esperando confirmación o reintento
+     */
+    public synchronized boolean awaitingAck() {
+        return inFlight > 0;
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+}
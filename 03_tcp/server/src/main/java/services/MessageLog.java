@@ -0,0 +1,264 @@
+package services;
+
+import logging.Log;
+import logging.Logger;
+import metrics.Histogram;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Registro ordenado de todas las escrituras a disco del chat (historial, usuarios, grupos y audios).
+ * Cada entrada tiene un número de secuencia consecutivo desde 1; un seguidor reproduce las
+ * entradas en el mismo orden para llegar al mismo estado que el líder.
+ *
+ * Formato binario por entrada: seq, timestamp, kind, name, payload (UTF-8) y data (bytes).
+ */
+public class MessageLog implements Closeable {
+
+    private static final Logger logger = Log.get("log");
+
+    public static final String HISTORY = "HISTORY"; // name = archivo de historial, payload = línea
+    public static final String USER = "USER";       // name = usuario registrado
+    public static final String GROUP = "GROUP";     // name = grupo, payload = miembro ("" al crear vacío)
+    public static final String MEDIA = "MEDIA";     // name = archivo de audio, data = contenido
+
+    // Los lotes de lectura deben caber en Ice.MessageSizeMax (1 MB por defecto)
+    private static final int MAX_READ_BYTES = 512 * 1024;
+
+    public static class Entry {
+        public final long seq;
+        public final long timestamp;
+        public final String kind;
+        public final String name;
+        public final String payload;
+        public final byte[] data;
+
+        public Entry(long seq, long timestamp, String kind, String name, String payload, byte[] data) {
+            this.seq = seq;
+            this.timestamp = timestamp;
+            this.kind = kind;
+            this.name = name;
+            this.payload = payload;
+            this.data = data;
+        }
+    }
+
+    private final File file;
+    private final OutputStream out;
+    private final ByteArrayOutputStream buffer = new ByteArrayOutputStream(256);
+    private final DataOutputStream encoder = new DataOutputStream(buffer);
+    private final Histogram writeLatency = new Histogram();
+    private volatile long[] offsets = new long[1024]; // offsets[seq - 1] = posición de la entrada
+    private volatile long lastSeq;                    // solo se escribe bajo this
+    private volatile long lastTimestamp;
+    private long size;
+
+    public MessageLog(File file) throws IOException {
+        this.file = file;
+        recover();
+        this.out = new FileOutputStream(file, true);
+    }
+
+    /**
+     * Recorre el archivo para reconstruir el índice de offsets; descarta una última entrada incompleta
+     */
+    private void recover() throws IOException {
+        if (!file.exists()) {
+            return;
+        }
+        try (CountingInputStream counter = new CountingInputStream(new BufferedInputStream(new FileInputStream(file)))) {
+            DataInputStream in = new DataInputStream(counter);
+            while (true) {
+                long position = counter.count;
+                Entry entry;
+                try {
+                    entry = read(in);
+                } catch (EOFException e) {
+                    break;
+                }
+                index(entry.seq, position);
+                lastTimestamp = entry.timestamp;
+                size = counter.count;
+            }
+        }
+        if (size < file.length()) {
+            logger.warn("Entrada incompleta al final, se descarta", "file", file);
+            try (RandomAccessFile raf = new RandomAccessFile(file, "rw")) {
+                raf.setLength(size);
+            }
+        }
+        logger.info("Registro abierto", "file", file, "entries", lastSeq);
+    }
+
+    /**
+     * Agrega una entrada nueva (líder) y devuelve su número de secuencia
+     */
+    public synchronized long append(String kind, String name, String payload, byte[] data) throws IOException {
+        Entry entry = new Entry(lastSeq + 1, System.currentTimeMillis(), kind, name, payload, data);
+        write(entry);
+        return entry.seq;
+    }
+
+    /**
+     * Agrega una entrada recibida del líder conservando su secuencia
+     */
+    public synchronized void appendReplicated(Entry entry) throws IOException {
+        checkNext(entry.seq);
+        write(entry);
+    }
+
+    /**
+     * Falla si seq no es la siguiente a la última registrada: el seguidor lo verifica antes de
+     * aplicar la entrada, que se registra recién cuando se aplicó
+     */
+    public synchronized void checkNext(long seq) throws IOException {
+        if (seq != lastSeq + 1) {
+            throw new IOException("Secuencia fuera de orden: se esperaba " + (lastSeq + 1) + " y llegó " + seq);
+        }
+    }
+
+    /**
+     * Agrega un lote de entradas del mismo tipo (líder) con una sola escritura al archivo;
+     * devuelve la secuencia de la última
+     */
+    public synchronized long appendAll(String kind, List<String> names, List<String> payloads) throws IOException {
+        long now = System.currentTimeMillis();
+        long[] positions = new long[names.size()];
+        buffer.reset();
+        for (int i = 0; i < positions.length; i++) {
+            positions[i] = size + buffer.size();
+            encode(new Entry(lastSeq + 1 + i, now, kind, names.get(i), payloads.get(i), null));
+        }
+        long start = System.nanoTime();
+        buffer.writeTo(out);
+        writeLatency.recordNanos(System.nanoTime() - start);
+
+        size += buffer.size();
+        lastTimestamp = now;
+        for (long position : positions) {
+            index(lastSeq + 1, position);
+        }
+        return lastSeq;
+    }
+
+    private void write(Entry entry) throws IOException {
+        // Se codifica completa en memoria para escribirla con una sola llamada
+        buffer.reset();
+        encode(entry);
+        long start = System.nanoTime();
+        buffer.writeTo(out);
+        writeLatency.recordNanos(System.nanoTime() - start);
+
+        long position = size;
+        size = position + buffer.size();
+        lastTimestamp = entry.timestamp;
+        index(entry.seq, position);
+    }
+
+    private void encode(Entry entry) throws IOException {
+        byte[] payload = entry.payload.getBytes(StandardCharsets.UTF_8);
+        byte[] data = entry.data != null ? entry.data : new byte[0];
+        encoder.writeLong(entry.seq);
+        encoder.writeLong(entry.timestamp);
+        encoder.writeUTF(entry.kind);
+        encoder.writeUTF(entry.name);
+        encoder.writeInt(payload.length);
+        encoder.write(payload);
+        encoder.writeInt(data.length);
+        encoder.write(data);
+    }
+
+    private void index(long seq, long position) {
+        long[] current = offsets;
+        int slot = (int) (seq - 1);
+        if (slot >= current.length) {
+            current = Arrays.copyOf(current, current.length * 2);
+        }
+        current[slot] = position;
+        offsets = current; // publicar el arreglo antes que la secuencia
+        lastSeq = seq;
+    }
+
+    /**
+     * Lee hasta maxEntries entradas desde fromSeq (inclusive), acotado también por tamaño
+     */
+    public List<Entry> read(long fromSeq, int maxEntries) throws IOException {
+        List<Entry> entries = new ArrayList<>();
+        long last = lastSeq;
+        if (fromSeq < 1 || fromSeq > last) {
+            return entries;
+        }
+        long[] index = offsets;
+        try (FileInputStream fis = new FileInputStream(file)) {
+            fis.getChannel().position(index[(int) (fromSeq - 1)]);
+            CountingInputStream counter = new CountingInputStream(new BufferedInputStream(fis));
+            DataInputStream in = new DataInputStream(counter);
+            for (long seq = fromSeq; seq <= last && entries.size() < maxEntries && counter.count < MAX_READ_BYTES; seq++) {
+                entries.add(read(in));
+            }
+        }
+        return entries;
+    }
+
+    private static Entry read(DataInputStream in) throws IOException {
+        long seq = in.readLong();
+        long timestamp = in.readLong();
+        String kind = in.readUTF();
+        String name = in.readUTF();
+        byte[] payload = new byte[in.readInt()];
+        in.readFully(payload);
+        byte[] data = new byte[in.readInt()];
+        in.readFully(data);
+        return new Entry(seq, timestamp, kind, name, new String(payload, StandardCharsets.UTF_8), data);
+    }
+
+    private static class CountingInputStream extends FilterInputStream {
+        long count;
+
+        CountingInputStream(InputStream in) {
+            super(in);
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = super.read();
+            if (b >= 0) {
+                count++;
+            }
+            return b;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            int n = super.read(b, off, len);
+            if (n > 0) {
+                count += n;
+            }
+            return n;
+        }
+    }
+
+    public long lastSeq() {
+        return lastSeq;
+    }
+
+    /**
+     * Momento en que se escribió la última entrada en el líder
+     */
+    public long lastTimestamp() {
+        return lastTimestamp;
+    }
+
+    public Histogram getWriteLatency() {
+        return writeLatency;
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        out.close();
+    }
+}
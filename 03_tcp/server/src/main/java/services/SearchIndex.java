@@ -0,0 +1,562 @@
+package services;
+
+import logging.Log;
+import logging.Logger;
+import org.roaringbitmap.IntIterator;
+import org.roaringbitmap.RoaringBitmap;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileReader;
+import java.io.IOException;
+import java.text.Normalizer;
+import java.time.Instant;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Índice invertido de los mensajes de texto del historial, para searchMessages.
+ *
+ * Cada archivo de historial (el de un usuario o el de un #grupo) tiene sus propias listas de
+ * postings: un usuario busca solo en su archivo y en los de sus grupos, igual que getHistory,
+ * así que la visibilidad es elegir listas y no filtrar resultados.
+ *
+ * El índice está hecho de segmentos inmutables. Escribir el historial solo encola la línea
+ * (sin locks); el hilo search-indexer vacía la cola cada Chat.Search.RefreshMs y publica lo
+ * que juntó como un segmento nuevo. El hilo search-merge une en segundo plano cada
+ * Chat.Search.MergeFactor segmentos contiguos de tamaño parecido, así la cantidad de
+ * segmentos crece con el logaritmo de los documentos. La lista de segmentos es
+ * copy-on-write: una búsqueda recorre la versión publicada sin bloquear a nadie.
+ *
+ * Al arrancar se indexa en segundo plano lo que ya está en disco; hasta que termina las
+ * búsquedas pueden no ver los mensajes más viejos. Una línea escrita durante la carga puede
+ * quedar en dos segmentos: los resultados no repiten registros.
+ */
+public class SearchIndex {
+
+    private static final Logger logger = Log.get("search");
+
+    public static final int DEFAULT_LIMIT = 50;
+    public static final int MAX_LIMIT = 500;
+    private static final int MAX_TERM_LENGTH = 40;
+    private static final int LOAD_SEGMENT_DOCS = 8192;
+
+    private final int mergeFactor;
+    private final ConcurrentLinkedQueue<Pending> queue = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger queued = new AtomicInteger();
+    private final AtomicBoolean mergeScheduled = new AtomicBoolean();
+    private final LongAdder merges = new LongAdder();
+
+    // Del más viejo al más nuevo; se reemplaza entera con el lock de this
+    private volatile List<Segment> segments = List.of();
+
+    private ScheduledExecutorService indexer;
+    private ExecutorService merger;
+
+    public SearchIndex(int mergeFactor) {
+        this.mergeFactor = Math.max(mergeFactor, 2);
+    }
+
+    /**
+     * Carga en segundo plano los historiales de historyDir y empieza a indexar lo encolado
+     */
+    public void start(File historyDir, long refreshMs) {
+        indexer = Executors.newSingleThreadScheduledExecutor(task -> {
+            Thread thread = new Thread(task, "search-indexer");
+            thread.setDaemon(true);
+            return thread;
+        });
+        merger = Executors.newSingleThreadExecutor(task -> {
+            Thread thread = new Thread(task, "search-merge");
+            thread.setDaemon(true);
+            thread.setPriority(Thread.MIN_PRIORITY);
+            return thread;
+        });
+        indexer.execute(() -> load(historyDir));
+        long period = Math.max(refreshMs, 1);
+        indexer.scheduleWithFixedDelay(this::refresh, period, period, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Encola una línea recién escrita en el historial stream. No bloquea: la indexa el hilo
+     * search-indexer. Solo se indexan los mensajes de texto.
+     */
+    public void add(String stream, String record) {
+        if (!record.startsWith("{type:text,")) {
+            return;
+        }
+        queue.offer(new Pending(stream, record, 0)); // El orden de la cola ya es el de escritura
+        queued.incrementAndGet();
+    }
+
+    // ========== BÚSQUEDA ==========
+
+    /**
+     * Registros de los historiales streams que contienen todas las palabras de la consulta,
+     * del más nuevo al más viejo. Una palabra terminada en * se busca por prefijo.
+     */
+    public List<String> search(Collection<String> streams, String query, int limit) {
+        Term[] terms = parse(query);
+        if (terms.length == 0 || streams.isEmpty()) {
+            return new ArrayList<>();
+        }
+        int max = limitOf(limit);
+        Set<String> hits = new LinkedHashSet<>();
+        List<Segment> current = segments;
+        for (int s = current.size() - 1; s >= 0 && hits.size() < max; s--) {
+            Segment segment = current.get(s);
+            IntIterator docs = segment.match(streams, terms).getReverseIntIterator();
+            while (docs.hasNext() && hits.size() < max) {
+                hits.add(segment.records[docs.next()]);
+            }
+        }
+        return new ArrayList<>(hits);
+    }
+
+    /**
+     * Cantidad de resultados para el limit pedido: DEFAULT_LIMIT si no es positivo, nunca más
+     * de MAX_LIMIT
+     */
+    public static int limitOf(int limit) {
+        return limit <= 0 ? DEFAULT_LIMIT : Math.min(limit, MAX_LIMIT);
+    }
+
+    /**
+     * Palabras de la consulta normalizadas; el * final de una palabra marca su último término
+     * como prefijo
+     */
+    static Term[] parse(String query) {
+        List<Term> terms = new ArrayList<>();
+        for (String word : query.trim().split("\\s+")) {
+            boolean prefix = word.endsWith("*");
+            List<String> tokens = tokenize(word);
+            for (int i = 0; i < tokens.size(); i++) {
+                terms.add(new Term(tokens.get(i), prefix && i == tokens.size() - 1));
+            }
+        }
+        return terms.toArray(new Term[0]);
+    }
+
+    /**
+     * Fecha de un registro del historial (campo ts), en milisegundos; 0 si no la tiene
+     */
+    public static long timestampOf(String record) {
+        int start = record.lastIndexOf(",ts:");
+        int end = record.lastIndexOf('}');
+        if (start < 0 || end < start) {
+            return 0;
+        }
+        try {
+            return Instant.parse(record.substring(start + 4, end)).toEpochMilli();
+        } catch (DateTimeParseException e) {
+            return 0;
+        }
+    }
+
+    // ========== INDEXACIÓN ==========
+
+    /**
+     * Indexa los historiales ya escritos. Los registros se ordenan por fecha antes de armar
+     * los segmentos: las búsquedas recorren los segmentos del más nuevo al más viejo y cortan
+     * al llegar al límite
+     */
+    private void load(File historyDir) {
+        long start = System.nanoTime();
+        File[] files = historyDir.listFiles((dir, name) -> name.endsWith(".jsonl"));
+        if (files == null) {
+            return;
+        }
+        List<Pending> lines = new ArrayList<>();
+        for (File file : files) {
+            String stream = file.getName().substring(0, file.getName().length() - ".jsonl".length());
+            try (BufferedReader reader = new BufferedReader(new FileReader(file))) {
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    if (line.startsWith("{type:text,")) {
+                        lines.add(new Pending(stream, line, timestampOf(line)));
+                    }
+                }
+            } catch (IOException e) {
+                logger.error("No se pudo indexar el historial", "file", file.getName(), "error", e.getMessage());
+            }
+        }
+        lines.sort(Comparator.comparingLong(pending -> pending.timestamp));
+        Builder builder = new Builder();
+        for (Pending pending : lines) {
+            builder.add(pending.stream, pending.record);
+            if (builder.size() >= LOAD_SEGMENT_DOCS) {
+                publish(builder.build());
+                builder = new Builder();
+            }
+        }
+        if (builder.size() > 0) {
+            publish(builder.build());
+        }
+        logger.info("Historial indexado", "documents", getDocuments(), "segments", segments.size(),
+            "ms", (System.nanoTime() - start) / 1_000_000);
+    }
+
+    /**
+     * Lo encolado desde el último refresh pasa a un segmento nuevo
+     */
+    private void refresh() {
+        try {
+            Builder builder = null;
+            Pending pending;
+            while ((pending = queue.poll()) != null) {
+                queued.decrementAndGet();
+                if (builder == null) {
+                    builder = new Builder();
+                }
+                builder.add(pending.stream, pending.record);
+            }
+            if (builder != null) {
+                publish(builder.build());
+            }
+        } catch (Exception e) {
+            logger.error("Error indexando mensajes", e);
+        }
+    }
+
+    private void publish(Segment segment) {
+        synchronized (this) {
+            List<Segment> grown = new ArrayList<>(segments.size() + 1);
+            grown.addAll(segments);
+            grown.add(segment);
+            segments = List.copyOf(grown);
+        }
+        if (findRun(segments) >= 0 && mergeScheduled.compareAndSet(false, true)) {
+            merger.execute(this::mergeAll);
+        }
+    }
+
+    // ========== MERGE ==========
+
+    /**
+     * Une tramos hasta que no quede ninguno; un publish que llega mientras tanto vuelve a
+     * programar el merge si encuentra el indicador apagado
+     */
+    private void mergeAll() {
+        try {
+            do {
+                int start;
+                while ((start = findRun(segments)) >= 0) {
+                    merge(segments.subList(start, start + mergeFactor));
+                }
+                mergeScheduled.set(false);
+            } while (findRun(segments) >= 0 && mergeScheduled.compareAndSet(false, true));
+        } catch (Exception e) {
+            mergeScheduled.set(false);
+            logger.error("Error uniendo segmentos del índice", e);
+        }
+    }
+
+    /**
+     * Inicio del tramo de mergeFactor segmentos contiguos a unir, o -1. Se une el primero
+     * cuyos segmentos son de niveles vecinos (nivel: potencia de mergeFactor del tamaño), así
+     * cada documento se reescribe unas pocas veces. Si ráfagas de tamaños muy distintos dejan
+     * niveles intercalados y se acumulan más de 3 * mergeFactor segmentos, se une el tramo
+     * más chico.
+     */
+    private int findRun(List<Segment> current) {
+        int smallest = -1;
+        long smallestDocs = Long.MAX_VALUE;
+        for (int start = 0; start + mergeFactor <= current.size(); start++) {
+            int minTier = Integer.MAX_VALUE;
+            int maxTier = 0;
+            long docs = 0;
+            for (int i = start; i < start + mergeFactor; i++) {
+                int tier = tier(current.get(i));
+                minTier = Math.min(minTier, tier);
+                maxTier = Math.max(maxTier, tier);
+                docs += current.get(i).records.length;
+            }
+            if (maxTier - minTier <= 1) {
+                return start;
+            }
+            if (docs < smallestDocs) {
+                smallest = start;
+                smallestDocs = docs;
+            }
+        }
+        return current.size() > 3 * mergeFactor ? smallest : -1;
+    }
+
+    private int tier(Segment segment) {
+        int tier = 0;
+        for (long size = segment.records.length; size >= mergeFactor; size /= mergeFactor) {
+            tier++;
+        }
+        return tier;
+    }
+
+    /**
+     * Reemplaza el tramo por un solo segmento. Solo este hilo quita segmentos, así que el
+     * tramo sigue contiguo aunque se hayan publicado otros al final
+     */
+    private void merge(List<Segment> run) {
+        Builder builder = new Builder();
+        for (Segment segment : run) {
+            builder.addSegment(segment);
+        }
+        Segment merged = builder.build();
+        synchronized (this) {
+            List<Segment> current = segments;
+            int start = current.indexOf(run.get(0));
+            List<Segment> replaced = new ArrayList<>(current.size() - run.size() + 1);
+            replaced.addAll(current.subList(0, start));
+            replaced.add(merged);
+            replaced.addAll(current.subList(start + run.size(), current.size()));
+            segments = List.copyOf(replaced);
+        }
+        merges.increment();
+        logger.debug("Segmentos unidos", "segments", run.size(), "documents", merged.records.length);
+    }
+
+    // ========== TÉRMINOS ==========
+
+    /**
+     * Términos del texto de un registro {type:text,...,msg:texto,ts:fecha}
+     */
+    static Set<String> terms(String record) {
+        int start = record.indexOf(",msg:");
+        int end = record.lastIndexOf(",ts:");
+        if (start < 0 || end < start) {
+            return Set.of();
+        }
+        return new HashSet<>(tokenize(record.substring(start + 5, end)));
+    }
+
+    /**
+     * Palabras en minúsculas y sin acentos: "Canción" y "cancion" son el mismo término
+     */
+    static List<String> tokenize(String text) {
+        String folded = Normalizer.normalize(text, Normalizer.Form.NFD).toLowerCase(Locale.ROOT);
+        List<String> tokens = new ArrayList<>();
+        StringBuilder token = new StringBuilder();
+        for (int i = 0; i < folded.length(); i++) {
+            char c = folded.charAt(i);
+            if (Character.getType(c) == Character.NON_SPACING_MARK) {
+                continue;
+            }
+            if (Character.isLetterOrDigit(c)) {
+                if (token.length() < MAX_TERM_LENGTH) {
+                    token.append(c);
+                }
+            } else if (token.length() > 0) {
+                tokens.add(token.toString());
+                token.setLength(0);
+            }
+        }
+        if (token.length() > 0) {
+            tokens.add(token.toString());
+        }
+        return tokens;
+    }
+
+    // ========== MÉTRICAS ==========
+
+    public long getDocuments() {
+        long total = 0;
+        for (Segment segment : segments) {
+            total += segment.records.length;
+        }
+        return total;
+    }
+
+    public int getSegments() {
+        return segments.size();
+    }
+
+    public long getMerges() {
+        return merges.sum();
+    }
+
+    /**
+     * Líneas escritas que todavía no están en ningún segmento
+     */
+    public int getQueued() {
+        return queued.get();
+    }
+
+    // ========== SEGMENTOS ==========
+
+    private static final class Pending {
+        final String stream;
+        final String record;
+        final long timestamp;
+
+        Pending(String stream, String record, long timestamp) {
+            this.stream = stream;
+            this.record = record;
+            this.timestamp = timestamp;
+        }
+    }
+
+    static final class Term {
+        final String text;
+        final boolean prefix;
+
+        Term(String text, boolean prefix) {
+            this.text = text;
+            this.prefix = prefix;
+        }
+    }
+
+    /**
+     * Segmento inmutable: los registros por id local y, por historial, sus términos
+     * ordenados con el bitmap de documentos de cada uno
+     */
+    static final class Segment {
+        final String[] records;
+        final Map<String, Postings> streams;
+
+        Segment(String[] records, Map<String, Postings> streams) {
+            this.records = records;
+            this.streams = streams;
+        }
+
+        /**
+         * Documentos de alguno de los historiales que contienen todos los términos
+         */
+        RoaringBitmap match(Collection<String> visible, Term[] terms) {
+            RoaringBitmap matches = new RoaringBitmap();
+            for (String stream : visible) {
+                Postings postings = streams.get(stream);
+                RoaringBitmap docs = postings != null ? postings.match(terms) : null;
+                if (docs != null) {
+                    matches.or(docs);
+                }
+            }
+            return matches;
+        }
+    }
+
+    static final class Postings {
+        final String[] terms; // Ordenados
+        final RoaringBitmap[] docs;
+
+        Postings(String[] terms, RoaringBitmap[] docs) {
+            this.terms = terms;
+            this.docs = docs;
+        }
+
+        /**
+         * Intersección de los documentos de cada término; null si alguno no aparece.
+         * Los bitmaps guardados no se modifican
+         */
+        RoaringBitmap match(Term[] query) {
+            RoaringBitmap result = null;
+            for (Term term : query) {
+                RoaringBitmap docs = term.prefix ? prefix(term.text) : exact(term.text);
+                if (docs == null) {
+                    return null;
+                }
+                result = result == null ? docs : RoaringBitmap.and(result, docs);
+                if (result.isEmpty()) {
+                    return null;
+                }
+            }
+            return result;
+        }
+
+        private RoaringBitmap exact(String term) {
+            int index = Arrays.binarySearch(terms, term);
+            return index >= 0 ? docs[index] : null;
+        }
+
+        private RoaringBitmap prefix(String prefix) {
+            int index = Arrays.binarySearch(terms, prefix);
+            int start = index >= 0 ? index : -index - 1;
+            int end = start;
+            while (end < terms.length && terms[end].startsWith(prefix)) {
+                end++;
+            }
+            if (start == end) {
+                return null;
+            }
+            return end - start == 1 ? docs[start] : RoaringBitmap.or(Arrays.asList(docs).subList(start, end).iterator());
+        }
+    }
+
+    /**
+     * Arma un segmento con líneas nuevas o con los documentos de otros segmentos (merge).
+     * Un mismo registro que llega seguido para varios historiales (la copia del remitente y
+     * la del destinatario) se guarda una vez, con postings en cada historial.
+     */
+    private static final class Builder {
+        private final List<String> records = new ArrayList<>();
+        private final Map<String, Map<String, RoaringBitmap>> streams = new HashMap<>();
+        private String lastRecord;
+
+        int size() {
+            return records.size();
+        }
+
+        void add(String stream, String record) {
+            if (!record.equals(lastRecord)) {
+                records.add(record);
+                lastRecord = record;
+            }
+            int doc = records.size() - 1;
+            Map<String, RoaringBitmap> postings = streams.computeIfAbsent(stream, name -> new HashMap<>());
+            for (String term : terms(record)) {
+                postings.computeIfAbsent(term, t -> new RoaringBitmap()).add(doc);
+            }
+        }
+
+        /**
+         * Agrega los documentos de un segmento a continuación de los que ya tiene
+         */
+        void addSegment(Segment segment) {
+            int offset = records.size();
+            records.addAll(Arrays.asList(segment.records));
+            lastRecord = null;
+            for (Map.Entry<String, Postings> stream : segment.streams.entrySet()) {
+                Map<String, RoaringBitmap> postings = streams.computeIfAbsent(stream.getKey(), name -> new HashMap<>());
+                Postings source = stream.getValue();
+                for (int i = 0; i < source.terms.length; i++) {
+                    // Siempre una copia: el merge la modifica y el segmento de origen sigue publicado
+                    RoaringBitmap shifted = offset == 0 ? source.docs[i].clone() : RoaringBitmap.addOffset(source.docs[i], offset);
+                    postings.merge(source.terms[i], shifted, (a, b) -> {
+                        a.or(b);
+                        return a;
+                    });
+                }
+            }
+        }
+
+        Segment build() {
+            Map<String, Postings> built = new HashMap<>(streams.size() * 2);
+            for (Map.Entry<String, Map<String, RoaringBitmap>> stream : streams.entrySet()) {
+                String[] terms = stream.getValue().keySet().toArray(new String[0]);
+                Arrays.sort(terms);
+                RoaringBitmap[] docs = new RoaringBitmap[terms.length];
+                for (int i = 0; i < terms.length; i++) {
+                    docs[i] = stream.getValue().get(terms[i]);
+                    docs[i].runOptimize();
+                }
+                built.put(stream.getKey(), new Postings(terms, docs));
+            }
+            return new Segment(records.toArray(new String[0]), built);
+        }
+    }
+}
@@ -0,0 +1,66 @@
+package services;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Diccionario de nombres internados (usuarios o grupos) a ids enteros densos.
+ * Los ids se asignan en orden (0, 1, 2, ...) y nunca se reutilizan, por lo que
+ * pueden usarse directamente como índice de arreglos y conjuntos de enteros.
+ */
+public class SymbolTable {
+
+    private final Map<String, Integer> ids = new ConcurrentHashMap<>();
+    private volatile String[] names = new String[64];
+    private volatile int size; // solo se escribe bajo this
+
+    /**
+     * Devuelve el id del nombre, asignando uno nuevo si no existía
+     */
+    public int intern(String name) {
+        Integer id = ids.get(name);
+        if (id != null) {
+            return id;
+        }
+        synchronized (this) {
+            id = ids.get(name);
+            if (id != null) {
+                return id;
+            }
+            int newId = size;
+            String[] current = names;
+            if (newId == current.length) {
+                current = Arrays.copyOf(current, current.length * 2);
+            }
+            current[newId] = name;
+            names = current; // publicar el arreglo antes que el id
+            size = newId + 1;
+            ids.put(name, newId);
+            return newId;
+        }
+    }
+
+    /**
+     * Devuelve el id del nombre o -1 si nunca fue internado
+     */
+    public int idOf(String name) {
+        if (name == null) {
+            return -1;
+        }
+        Integer id = ids.get(name);
+        return id != null ? id : -1;
+    }
+
+    public String nameOf(int id) {
+        String[] current = names;
+        return id >= 0 && id < current.length ? current[id] : null;
+    }
+
+    /**
+     * Cantidad de ids asignados (el siguiente id libre)
+     */
+    public int size() {
+        return size;
+    }
+}
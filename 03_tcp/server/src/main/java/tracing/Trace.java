@@ -0,0 +1,209 @@
+package tracing;
+
+import com.zeroc.Ice.InvocationFuture;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Traza de una petición: tramos síncronos (persistencia, registro, fan-out) y cada push
+ * asíncrono con su tiempo en la cola de envío de la conexión y hasta la respuesta del cliente.
+ * La traza termina cuando vuelve el servant y se completan todos los push; los tramos pueden
+ * registrarse desde los hilos de Ice que completan los push.
+ */
+public final class Trace {
+
+    static final int MAX_SPANS = 32;
+    static final int MAX_PUSHES = 32; // Los demás push solo suman a los agregados
+
+    private final String id;
+    private final String op;
+    private final String from;
+    private final String target;
+    private final long startMillis;
+    private final long startNanos;
+
+    private final String[] spanNames = new String[MAX_SPANS];
+    private final String[] spanDetails = new String[MAX_SPANS];
+    private final long[] spanCounts = new long[MAX_SPANS]; // -1: tramo sin cantidad
+    private final long[] spanStarts = new long[MAX_SPANS];
+    private final long[] spanEnds = new long[MAX_SPANS];
+    private final AtomicInteger spanCount = new AtomicInteger();
+
+    private final String[] pushTargets = new String[MAX_PUSHES];
+    private final long[] pushScheduled = new long[MAX_PUSHES];
+    private final AtomicLongArray pushSent = new AtomicLongArray(MAX_PUSHES);
+    private final AtomicLongArray pushDone = new AtomicLongArray(MAX_PUSHES);
+    private final boolean[] pushFailed = new boolean[MAX_PUSHES];
+    private final AtomicInteger pushCount = new AtomicInteger();
+    private final AtomicInteger pushFailures = new AtomicInteger();
+    private final AtomicLong slowestPush = new AtomicLong(); // nanos desde que se programó hasta la respuesta
+    private final AtomicLong lastPushDone = new AtomicLong();
+
+    // La petición cuenta como uno; cada push pendiente suma uno más
+    private final AtomicInteger open = new AtomicInteger(1);
+    private volatile long returnedAt;
+    private volatile long endedAt;
+
+    Trace(String id, String op, String from, String target) {
+        this.id = id;
+        this.op = op;
+        this.from = from;
+        this.target = target;
+        this.startMillis = System.currentTimeMillis();
+        this.startNanos = System.nanoTime();
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public String getOp() {
+        return op;
+    }
+
+    /**
+     * Tramo desde startNanos hasta ahora; los que exceden MAX_SPANS se descartan
+     */
+    public void span(String name, String detail, long startNanos) {
+        span(name, detail, -1, startNanos);
+    }
+
+    /**
+     * Tramo con una cantidad (destinatarios, entradas): detail dice qué se cuenta
+     */
+    public void span(String name, String detail, long count, long startNanos) {
+        long now = System.nanoTime();
+        int index = spanCount.getAndIncrement();
+        if (index < MAX_SPANS) {
+            spanNames[index] = name;
+            spanDetails[index] = detail;
+            spanCounts[index] = count;
+            spanStarts[index] = startNanos;
+            spanEnds[index] = now;
+        }
+    }
+
+    /**
+     * Sigue un push asíncrono de Ice hasta que se envía y hasta que el cliente responde
+     */
+    public void push(String to, CompletableFuture<?> future) {
+        long scheduled = System.nanoTime();
+        int index = pushCount.getAndIncrement();
+        open.incrementAndGet();
+        if (index < MAX_PUSHES) {
+            pushTargets[index] = to;
+            pushScheduled[index] = scheduled;
+            // Un push agrupado en lote (DeviceSet) no es una invocación propia: sin tiempo en cola
+            if (future instanceof InvocationFuture<?> invocation) {
+                invocation.whenSent((sync, ex) -> {
+                    if (ex == null) {
+                        pushSent.set(index, System.nanoTime());
+                    }
+                });
+            }
+        }
+        future.whenComplete((result, ex) -> {
+            long now = System.nanoTime();
+            if (index < MAX_PUSHES) {
+                pushDone.set(index, now);
+                pushFailed[index] = ex != null;
+            }
+            if (ex != null) {
+                pushFailures.incrementAndGet();
+            }
+            slowestPush.accumulateAndGet(now - scheduled, Math::max);
+            lastPushDone.accumulateAndGet(now, Math::max);
+            if (open.decrementAndGet() == 0) {
+                finish();
+            }
+        });
+    }
+
+    /**
+     * El servant respondió; si no quedan push pendientes la traza se cierra
+     */
+    void returned() {
+        returnedAt = System.nanoTime();
+        if (open.decrementAndGet() == 0) {
+            finish();
+        }
+    }
+
+    private void finish() {
+        endedAt = Math.max(returnedAt, lastPushDone.get());
+        Tracing.completed(this);
+    }
+
+    /**
+     * Duración total (hasta el último push completado); solo válida una vez cerrada
+     */
+    public long getTotalMicros() {
+        return (endedAt - startNanos) / 1000;
+    }
+
+    Map<String, Object> toMap() {
+        Map<String, Object> out = new LinkedHashMap<>();
+        out.put("id", id);
+        out.put("op", op);
+        out.put("from", from);
+        out.put("target", target);
+        out.put("startedAt", Instant.ofEpochMilli(startMillis).toString());
+        out.put("totalMicros", getTotalMicros());
+        out.put("servantMicros", micros(returnedAt));
+
+        List<Map<String, Object>> spans = new ArrayList<>();
+        int spanTotal = Math.min(spanCount.get(), MAX_SPANS);
+        for (int i = 0; i < spanTotal; i++) {
+            Map<String, Object> span = new LinkedHashMap<>();
+            span.put("name", spanNames[i]);
+            if (spanDetails[i] != null) {
+                span.put("detail", spanDetails[i]);
+            }
+            if (spanCounts[i] >= 0) {
+                span.put("count", spanCounts[i]);
+            }
+            span.put("startMicros", micros(spanStarts[i]));
+            span.put("micros", (spanEnds[i] - spanStarts[i]) / 1000);
+            spans.add(span);
+        }
+        out.put("spans", spans);
+
+        int pushTotal = pushCount.get();
+        if (pushTotal > 0) {
+            Map<String, Object> pushes = new LinkedHashMap<>();
+            pushes.put("count", pushTotal);
+            pushes.put("failed", pushFailures.get());
+            pushes.put("slowestMicros", slowestPush.get() / 1000);
+            List<Map<String, Object>> detail = new ArrayList<>();
+            for (int i = 0; i < Math.min(pushTotal, MAX_PUSHES); i++) {
+                Map<String, Object> push = new LinkedHashMap<>();
+                push.put("to", pushTargets[i]);
+                push.put("scheduledMicros", micros(pushScheduled[i]));
+                long sent = pushSent.get(i);
+                if (sent != 0) {
+                    push.put("queuedMicros", (sent - pushScheduled[i]) / 1000); // En la cola de envío de la conexión
+                }
+                push.put("deliveredMicros", (pushDone.get(i) - pushScheduled[i]) / 1000);
+                if (pushFailed[i]) {
+                    push.put("failed", true);
+                }
+                detail.add(push);
+            }
+            pushes.put("detail", detail);
+            out.put("pushes", pushes);
+        }
+        return out;
+    }
+
+    private long micros(long nanos) {
+        return (nanos - startNanos) / 1000;
+    }
+}
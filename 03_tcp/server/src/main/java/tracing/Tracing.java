@@ -0,0 +1,176 @@
+package tracing;
+
+import com.google.gson.GsonBuilder;
+import com.zeroc.Ice.Current;
+import com.zeroc.Ice.ObjectPrx;
+import com.zeroc.Ice.Properties;
+import logging.Log;
+import logging.Logger;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Trazas por petición con id de correlación:
+ *   Trace trace = Tracing.begin("sendMessageToGroup", from, groupName, current);
+ *   try { ... } finally { Tracing.end(trace); }
+ *
+ * Mientras el servant atiende, la traza queda en el hilo de dispatch y las capas inferiores
+ * agregan tramos con {@link #span}; sin traza activa eso es una lectura de ThreadLocal.
+ * Se traza una muestra de las peticiones, más toda petición cuyo contexto Ice traiga "trace-id"
+ * (así un cliente puede correlacionar un mensaje con el servidor). Las trazas que superan el
+ * umbral quedan en un ring buffer consultable en GET /traces del endpoint de administración.
+ *
+ * Propiedades:
+ *   Chat.Trace.SampleRate  fracción de peticiones trazadas (por defecto 0.1; 0 solo las pedidas por el cliente)
+ *   Chat.Trace.SlowMs      umbral de traza lenta (por defecto 200)
+ *   Chat.Trace.Keep        trazas lentas que se conservan (por defecto 128)
+ */
+public final class Tracing {
+
+    public static final String CONTEXT_KEY = "trace-id";
+
+    private static final Logger logger = Log.get("trace");
+    private static final ThreadLocal<Trace> current = new ThreadLocal<>();
+
+    private static volatile double sampleRate = 0.1;
+    private static volatile long slowMicros = 200_000;
+    private static volatile AtomicReferenceArray<Trace> slow = new AtomicReferenceArray<>(128);
+    private static final AtomicLong slowCursor = new AtomicLong();
+    private static final LongAdder traced = new LongAdder();
+    private static final LongAdder slowTotal = new LongAdder();
+
+    private Tracing() {
+    }
+
+    public static void configure(Properties props) {
+        String rate = props.getProperty("Chat.Trace.SampleRate");
+        if (!rate.isEmpty()) {
+            sampleRate = Double.parseDouble(rate);
+        }
+        slowMicros = props.getPropertyAsIntWithDefault("Chat.Trace.SlowMs", 200) * 1000L;
+        int keep = props.getPropertyAsIntWithDefault("Chat.Trace.Keep", 128);
+        if (keep != slow.length()) {
+            slow = new AtomicReferenceArray<>(Math.max(keep, 1));
+            slowCursor.set(0);
+        }
+    }
+
+    /**
+     * Abre una traza en el hilo actual si la petición entra en la muestra; devuelve null si no
+     */
+    public static Trace begin(String op, String from, String target, Current request) {
+        String id = request != null && request.ctx != null ? request.ctx.get(CONTEXT_KEY) : null;
+        if (id == null) {
+            double rate = sampleRate;
+            if (rate <= 0 || (rate < 1 && ThreadLocalRandom.current().nextDouble() >= rate)) {
+                return null;
+            }
+            id = Long.toHexString(ThreadLocalRandom.current().nextLong());
+        }
+        Trace trace = new Trace(id, op, from, target);
+        current.set(trace);
+        traced.increment();
+        return trace;
+    }
+
+    /**
+     * El servant terminó: la traza sale del hilo y se cierra al completarse sus push
+     */
+    public static void end(Trace trace) {
+        if (trace != null) {
+            current.remove();
+            trace.returned();
+        }
+    }
+
+    public static Trace current() {
+        return current.get();
+    }
+
+    /**
+     * Agrega un tramo a la traza del hilo actual, si la hay
+     */
+    public static void span(String name, String detail, long startNanos) {
+        Trace trace = current.get();
+        if (trace != null) {
+            trace.span(name, detail, startNanos);
+        }
+    }
+
+    /**
+     * Tramo con una cantidad: se pasa como número para no armar el texto sin traza activa
+     */
+    public static void span(String name, String detail, long count, long startNanos) {
+        Trace trace = current.get();
+        if (trace != null) {
+            trace.span(name, detail, count, startNanos);
+        }
+    }
+
+    /**
+     * Contexto Ice para propagar la traza actual a otro nodo (sin traza, el contexto implícito)
+     */
+    public static Map<String, String> propagate() {
+        Trace trace = current.get();
+        return trace != null ? Collections.singletonMap(CONTEXT_KEY, trace.getId()) : ObjectPrx.noExplicitContext;
+    }
+
+    static void completed(Trace trace) {
+        long total = trace.getTotalMicros();
+        if (total < slowMicros) {
+            return;
+        }
+        slowTotal.increment();
+        AtomicReferenceArray<Trace> ring = slow;
+        ring.set((int) (slowCursor.getAndIncrement() % ring.length()), trace);
+        logger.info("Traza lenta", "trace", trace.getId(), "op", trace.getOp(), "micros", total);
+    }
+
+    /**
+     * Trazas lentas conservadas, la más reciente primero
+     */
+    public static List<Trace> getSlowTraces() {
+        AtomicReferenceArray<Trace> ring = slow;
+        long end = slowCursor.get();
+        List<Trace> traces = new ArrayList<>();
+        for (long i = end - 1; i >= Math.max(0, end - ring.length()); i--) {
+            Trace trace = ring.get((int) (i % ring.length()));
+            if (trace != null) {
+                traces.add(trace);
+            }
+        }
+        return traces;
+    }
+
+    public static long getTracedCount() {
+        return traced.sum();
+    }
+
+    public static long getSlowCount() {
+        return slowTotal.sum();
+    }
+
+    /**
+     * JSON de las trazas lentas para GET /traces
+     */
+    public static String slowTracesJson() {
+        List<Object> traces = new ArrayList<>();
+        for (Trace trace : getSlowTraces()) {
+            traces.add(trace.toMap());
+        }
+        Map<String, Object> root = new LinkedHashMap<>();
+        root.put("slowThresholdMicros", slowMicros);
+        root.put("traced", traced.sum());
+        root.put("slow", slowTotal.sum());
+        root.put("traces", traces);
+        return new GsonBuilder().setPrettyPrinting().create().toJson(root);
+    }
+}
@@ -0,0 +1,371 @@
+package ui;
+
+import Chat.CallServicePrx;
+import Chat.ChatCallback;
+import Chat.ChatCallbackPrx;
+import Chat.ChatServicePrx;
+import Chat.Message;
+import Chat.User;
+import cluster.HashRing;
+import com.zeroc.Ice.Communicator;
+import com.zeroc.Ice.Current;
+import com.zeroc.Ice.InitializationData;
+import com.zeroc.Ice.ObjectAdapter;
+import com.zeroc.Ice.Util;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Levanta N nodos del cluster en un mismo proceso para pruebas locales.
+ * Cada nodo i escucha en tcp basePort+2i y ws basePort+2i+1, con CallService en tcp
+ * basePort+100+i y sus datos en data/node&lt;i&gt;.
+ *
+ * Con --check es una prueba de entrega entre particiones: con datos en un directorio temporal
+ * elige un remitente y un destinatario, y un grupo y un miembro, de nodos distintos; envía
+ * mensajes privados y de grupo, verifica el push (con el id del buzón del nodo dueño y la
+ * fecha guardada por el remitente), los pendientes, el historial y su paginación entre nodos,
+ * la señalización y el audio de una llamada hacia una conexión de llamadas en otro nodo, y el
+ * buzón de un usuario registrado en otro nodo que está offline mientras su dueño se reinicia;
+ * termina con código 1 si algo falla.
+ *
+ * Uso: LocalCluster [nodos=3] [basePort=10000] [--check]
+ */
+public class LocalCluster {
+
+    private static final long PUSH_TIMEOUT_MS = 5000;
+
+    public static void main(String[] args) throws Exception {
+        boolean check = Arrays.asList(args).contains("--check");
+        List<String> positional = new ArrayList<>();
+        for (String arg : args) {
+            if (!arg.startsWith("--")) {
+                positional.add(arg);
+            }
+        }
+        int nodes = positional.size() > 0 ? Integer.parseInt(positional.get(0)) : 3;
+        int basePort = positional.size() > 1 ? Integer.parseInt(positional.get(1)) : 10000;
+        if (check && nodes < 2) {
+            throw new IllegalArgumentException("--check necesita al menos 2 nodos");
+        }
+        Path dataRoot = check ? Files.createTempDirectory("local-cluster") : Path.of("data");
+
+        List<String> nodeIds = new ArrayList<>();
+        for (int i = 0; i < nodes; i++) {
+            nodeIds.add("node" + i);
+        }
+
+        List<Communicator> communicators = new ArrayList<>();
+        boolean ok = true;
+        try {
+            for (int i = 0; i < nodes; i++) {
+                communicators.add(startNode(nodeIds, i, basePort, dataRoot));
+            }
+
+            System.out.println("\n✅ Cluster local con " + nodes + " nodos");
+            for (int i = 0; i < nodes; i++) {
+                System.out.println("📡 " + nodeIds.get(i) + ": " + endpoints(basePort, i) + " | llamadas " + callEndpoints(basePort, i));
+            }
+            if (check) {
+                ok = selfCheck(nodeIds, basePort, communicators, dataRoot);
+            } else {
+                communicators.get(0).waitForShutdown();
+            }
+        } finally {
+            for (Communicator communicator : communicators) {
+                communicator.destroy();
+            }
+        }
+        if (check) {
+            System.out.println(ok ? "\n✅ Entrega entre particiones OK" : "\n❌ Entrega entre particiones con fallas");
+            System.exit(ok ? 0 : 1);
+        }
+    }
+
+    private static Communicator startNode(List<String> nodeIds, int index, int basePort, Path dataRoot) throws Exception {
+        InitializationData initData = new InitializationData();
+        initData.properties = Util.createProperties();
+        initData.properties.setProperty("Chat.Cluster.NodeId", nodeIds.get(index));
+        initData.properties.setProperty("Chat.Cluster.Nodes", String.join(",", nodeIds));
+        for (int j = 0; j < nodeIds.size(); j++) {
+            initData.properties.setProperty("Chat.Cluster." + nodeIds.get(j) + ".Endpoints", endpoints(basePort, j));
+        }
+        initData.properties.setProperty("ChatAdapter.Endpoints", endpoints(basePort, index));
+        initData.properties.setProperty("CallAdapter.Endpoints", callEndpoints(basePort, index));
+        initData.properties.setProperty("Chat.DataDir", dataRoot.resolve(nodeIds.get(index)).toString());
+        return MainIce.start(initData);
+    }
+
+    private static boolean selfCheck(List<String> nodeIds, int basePort, List<Communicator> communicators, Path dataRoot) throws Exception {
+        HashRing ring = new HashRing(nodeIds);
+        String sender = pick(ring, "alice", null);
+        String senderNode = ring.ownerOf(sender);
+        String recipient = pick(ring, "bob", senderNode);
+        String recipientNode = ring.ownerOf(recipient);
+        // El grupo vive en un nodo distinto al del destinatario: su historial queda repartido
+        String group = pick(ring, "#grupo", recipientNode).substring(1);
+        String groupNode = ring.ownerOf("#" + group);
+        String member = pick(ring, "carol", groupNode);
+        // El miembro se conecta a un nodo que no es su dueño: su push viaja por el bus
+        String memberLogin = nodeIds.get(0).equals(ring.ownerOf(member)) ? nodeIds.get(1) : nodeIds.get(0);
+        System.out.println("[INFO] " + sender + "@" + senderNode + " -> " + recipient + "@" + recipientNode
+            + ", #" + group + "@" + groupNode + " -> " + member + "@" + ring.ownerOf(member) + " (conectado a " + memberLogin + ")");
+
+        try (Communicator senderClient = Util.initialize();
+             Communicator recipientClient = Util.initialize();
+             Communicator memberClient = Util.initialize()) {
+            ChatServicePrx fromSender = service(senderClient, basePort, nodeIds.indexOf(senderNode));
+            fromSender.login(sender, null);
+            Inbox recipientInbox = new Inbox();
+            ChatServicePrx fromRecipient = login(recipientClient, basePort, nodeIds.indexOf(recipientNode), recipient, recipientInbox);
+            Inbox memberInbox = new Inbox();
+            ChatServicePrx fromMember = login(memberClient, basePort, nodeIds.indexOf(memberLogin), member, memberInbox);
+
+            fromSender.createGroup(group, sender);
+            fromSender.addToGroup(group, recipient);
+            fromSender.addToGroup(group, member);
+
+            // Privado entre particiones
+            boolean ok = check("mensaje privado aceptado", fromSender.sendMessageToUser(sender, recipient, "hola " + recipient).success);
+            Message pushed = recipientInbox.await("hola " + recipient);
+            ok &= check("push privado en el nodo del destinatario", pushed != null);
+            if (pushed != null) {
+                ok &= check("push privado con id del buzón", pushed.id > 0);
+                String ts = ",ts:" + Instant.ofEpochMilli(pushed.timestamp) + "}";
+                ok &= check("misma fecha en el historial del remitente", containsRecord(fromSender.getHistory(sender), "hola " + recipient, ts));
+                ok &= check("misma fecha en el historial del destinatario", containsRecord(fromRecipient.getHistory(recipient), "hola " + recipient, ts));
+                ok &= check("pendiente en el nodo dueño", hasId(fromRecipient.getPendingMessages(recipient), pushed.id));
+                ok &= check("el poll no vacía el buzón", hasId(fromRecipient.getPendingMessages(recipient), pushed.id));
+                // Otra conexión del usuario que no hizo login no puede descartar el buzón
+                try (Communicator stray = Util.initialize()) {
+                    service(stray, basePort, nodeIds.indexOf(recipientNode)).ackMessages(recipient, pushed.id);
+                }
+                ok &= check("ack de una conexión sin dispositivo ignorado", hasId(fromRecipient.getPendingMessages(recipient), pushed.id));
+                fromRecipient.ackMessages(recipient, pushed.id);
+                ok &= check("sin pendientes tras el ack", fromRecipient.getPendingMessages(recipient).length == 0);
+            }
+
+            // Grupo de otro nodo con un miembro conectado fuera de su nodo dueño
+            ok &= check("mensaje de grupo aceptado", fromSender.sendMessageToGroup(sender, group, "hola #" + group).success);
+            Message groupPush = memberInbox.await("hola #" + group);
+            ok &= check("push de grupo al miembro por el bus", groupPush != null && groupPush.isGroup);
+            if (groupPush != null) {
+                ok &= check("push de grupo con id del buzón", groupPush.id > 0);
+                fromMember.ackMessages(member, groupPush.id);
+                ok &= check("sin pendientes del miembro tras el ack", fromMember.getPendingMessages(member).length == 0);
+            }
+            ok &= check("push de grupo al destinatario", recipientInbox.await("hola #" + group) != null);
+            ok &= check("historial del grupo en su dueño", containsRecord(fromMember.getHistory(member), "hola #" + group, ""));
+
+            // Segundo dispositivo del miembro en su nodo dueño: cada nodo recibe su push
+            String memberOwner = ring.ownerOf(member);
+            try (Communicator secondClient = Util.initialize()) {
+                Inbox secondInbox = new Inbox();
+                ChatServicePrx fromSecond = login(secondClient, basePort, nodeIds.indexOf(memberOwner), member, secondInbox);
+                fromSender.sendMessageToGroup(sender, group, "dos dispositivos");
+                ok &= check("push al dispositivo en el nodo dueño", secondInbox.await("dos dispositivos") != null);
+                ok &= check("push al dispositivo en otro nodo", memberInbox.await("dos dispositivos") != null);
+                fromSecond.logout(member);
+            }
+            fromSender.sendMessageToGroup(sender, group, "tras el logout");
+            ok &= check("el otro dispositivo sigue recibiendo", memberInbox.await("tras el logout") != null);
+            ok &= check("sigue online tras el logout del otro", Arrays.asList(fromSender.getOnlineUsers()).contains(member));
+
+            // Paginación sobre el historial repartido entre el nodo del destinatario y el del grupo
+            for (int i = 0; i < 3; i++) {
+                fromSender.sendMessageToUser(sender, recipient, "privado " + i);
+                fromSender.sendMessageToGroup(sender, group, "grupo " + i);
+            }
+            String[] history = fromRecipient.getHistory(recipient);
+            boolean pages = history.length == 10;
+            for (int offset = 0; offset <= history.length; offset++) {
+                String[] expected = Arrays.copyOfRange(history, offset, Math.min(offset + 3, history.length));
+                pages &= Arrays.equals(expected, fromMember.getHistoryPage(recipient, offset, 3));
+            }
+            ok &= check("páginas del historial entre nodos", pages);
+
+            // Conexión de llamadas del destinatario en un nodo que no es su dueño ni el del remitente
+            String callNode = recipientNode;
+            for (String nodeId : nodeIds) {
+                if (!nodeId.equals(recipientNode) && (!nodeId.equals(senderNode) || nodeIds.size() == 2)) {
+                    callNode = nodeId;
+                    break;
+                }
+            }
+            try (Communicator callClient = Util.initialize()) {
+                CallServicePrx calls = CallServicePrx.checkedCast(
+                    callClient.stringToProxy("CallService:" + callEndpoints(basePort, nodeIds.indexOf(callNode))));
+                ObjectAdapter adapter = callClient.createObjectAdapter("");
+                calls.ice_getConnection().setAdapter(adapter);
+                Inbox callInbox = new Inbox();
+                ok &= check("joinCall en " + callNode, calls.joinCall(recipient, ChatCallbackPrx.uncheckedCast(adapter.addWithUUID(callInbox))).success);
+                ok &= check("señal WebRTC enviada", fromSender.sendWebRTCSignal(sender, recipient, "offer", "sdp").success);
+                ok &= check("señal en la conexión de llamadas", callInbox.awaitCall("signal:" + sender + ":offer"));
+                ok &= check("audio enviado", fromSender.sendAudioChunk(sender, recipient, new byte[160]).success);
+                ok &= check("audio en la conexión de llamadas", callInbox.awaitCall("audio:" + sender + ":160"));
+            }
+
+            // Usuario que solo entró por otro nodo, offline cuando su dueño se reinicia: el dueño
+            // lo conoce por su registro en disco y le guarda el mensaje en el buzón
+            String offline = pick(ring, "dave", senderNode);
+            int offlineOwner = nodeIds.indexOf(ring.ownerOf(offline));
+            int offlineLogin = offlineOwner == 0 ? 1 : 0;
+            try (Communicator offlineClient = Util.initialize()) {
+                ChatServicePrx fromOffline = service(offlineClient, basePort, offlineLogin);
+                fromOffline.login(offline, null);
+                fromOffline.logout(offline);
+            }
+            communicators.get(offlineOwner).destroy();
+            communicators.set(offlineOwner, startNode(nodeIds, offlineOwner, basePort, dataRoot));
+            System.out.println("[INFO] " + nodeIds.get(offlineOwner) + " reiniciado, " + offline + " registrado en " + nodeIds.get(offlineLogin));
+            ok &= check("mensaje al usuario offline aceptado", fromSender.sendMessageToUser(sender, offline, "tras reiniciar").success);
+            try (Communicator offlineClient = Util.initialize()) {
+                Inbox offlineInbox = new Inbox();
+                ChatServicePrx fromOffline = login(offlineClient, basePort, offlineLogin, offline, offlineInbox);
+                ok &= check("pendiente en el dueño reiniciado", fromOffline.getPendingMessages(offline).length == 1);
+                ok &= check("push al volver a entrar", offlineInbox.await("tras reiniciar") != null);
+            }
+            return ok;
+        }
+    }
+
+    /**
+     * Primer nombre prefix&lt;i&gt; cuyo dueño no sea el nodo notOn
+     */
+    private static String pick(HashRing ring, String prefix, String notOn) {
+        for (int i = 0; ; i++) {
+            if (!ring.ownerOf(prefix + i).equals(notOn)) {
+                return prefix + i;
+            }
+        }
+    }
+
+    private static ChatServicePrx service(Communicator client, int basePort, int node) {
+        int port = basePort + 2 * node;
+        return ChatServicePrx.checkedCast(client.stringToProxy("ChatService:tcp -h 127.0.0.1 -p " + port));
+    }
+
+    private static ChatServicePrx login(Communicator client, int basePort, int node, String username, Inbox inbox) {
+        ChatServicePrx service = service(client, basePort, node);
+        ObjectAdapter adapter = client.createObjectAdapter("");
+        service.ice_getConnection().setAdapter(adapter);
+        service.login(username, ChatCallbackPrx.uncheckedCast(adapter.addWithUUID(inbox)));
+        return service;
+    }
+
+    private static boolean containsRecord(String[] history, String content, String ts) {
+        for (String record : history) {
+            if (record.contains(",msg:" + content + ",ts:") && record.endsWith(ts.isEmpty() ? "}" : ts)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean hasId(Message[] messages, long id) {
+        for (Message message : messages) {
+            if (message.id == id) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean check(String name, boolean passed) {
+        System.out.println((passed ? "[OK]   " : "[FAIL] ") + name);
+        return passed;
+    }
+
+    private static String callEndpoints(int basePort, int index) {
+        return "tcp -h 127.0.0.1 -p " + (basePort + 100 + index);
+    }
+
+    private static String endpoints(int basePort, int index) {
+        int port = basePort + 2 * index;
+        return "tcp -h 127.0.0.1 -p " + port + ":ws -h 127.0.0.1 -p " + (port + 1);
+    }
+
+    /**
+     * Callback de prueba: guarda los mensajes recibidos
+     */
+    private static final class Inbox implements ChatCallback {
+        private final BlockingQueue<Message> received = new LinkedBlockingQueue<>();
+        private final BlockingQueue<String> calls = new LinkedBlockingQueue<>();
+
+        Message await(String content) throws InterruptedException {
+            long deadline = System.currentTimeMillis() + PUSH_TIMEOUT_MS;
+            for (long left = PUSH_TIMEOUT_MS; left > 0; left = deadline - System.currentTimeMillis()) {
+                Message message = received.poll(left, TimeUnit.MILLISECONDS);
+                if (message != null && message.content.equals(content)) {
+                    return message;
+                }
+            }
+            return null;
+        }
+
+        boolean awaitCall(String event) throws InterruptedException {
+            long deadline = System.currentTimeMillis() + PUSH_TIMEOUT_MS;
+            for (long left = PUSH_TIMEOUT_MS; left > 0; left = deadline - System.currentTimeMillis()) {
+                if (event.equals(calls.poll(left, TimeUnit.MILLISECONDS))) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        @Override
+        public void onNewMessage(Message msg, Current current) {
+            received.add(msg);
+        }
+
+        @Override
+        public void onNewMessages(Message[] messages, Current current) {
+            received.addAll(Arrays.asList(messages));
+        }
+
+        @Override
+        public void onUserStatusChanged(User user, Current current) {
+        }
+
+        @Override
+        public void onGroupMemberAdded(String groupName, String username, Current current) {
+        }
+
+        @Override
+        public void onVoiceNoteReceived(String from, String to, byte[] audioData, boolean isGroup, Current current) {
+        }
+
+        @Override
+        public void onIncomingCall(String from, Current current) {
+        }
+
+        @Override
+        public void onWebRTCSignal(String from, String signalType, String signalData, Current current) {
+            calls.add("signal:" + from + ":" + signalType);
+        }
+
+        @Override
+        public void onICECandidate(String from, String candidate, Current current) {
+        }
+
+        @Override
+        public void onCallEnded(String from, Current current) {
+        }
+
+        @Override
+        public void onAudioChunk(String from, byte[] audioData, Current current) {
+            calls.add("audio:" + from + ":" + audioData.length);
+        }
+
+        @Override
+        public void onCallAccepted(String from, Current current) {
+        }
+    }
+}
@@ -0,0 +1,122 @@
+package ui;
+
+import Chat.ChatServicePrx;
+import Chat.ReplicationLogPrx;
+import Chat.ReplicationStatus;
+import Chat.Response;
+import com.zeroc.Ice.Communicator;
+import com.zeroc.Ice.InitializationData;
+import com.zeroc.Ice.Util;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+/**
+ * Prueba local de replicación: levanta un líder y un seguidor en el mismo proceso,
+ * escribe en el líder, espera a que el seguidor lo alcance, compara el historial y los
+ * resúmenes de conversaciones, promueve al seguidor y verifica que acepte escrituras.
+ * Termina con código 1 si algo falla.
+ *
+ * Uso: LocalReplicaSet [basePort=11000]
+ * Cada corrida usa un directorio temporal nuevo, así el seguidor promovido no diverge del próximo líder.
+ */
+public class LocalReplicaSet {
+
+    public static void main(String[] args) throws Exception {
+        int basePort = args.length > 0 ? Integer.parseInt(args[0]) : 11000;
+        String leaderEndpoints = "tcp -h 127.0.0.1 -p " + basePort;
+        String followerEndpoints = "tcp -h 127.0.0.1 -p " + (basePort + 2);
+        Path dataDir = Files.createTempDirectory("replica-set");
+
+        Communicator leaderNode = null;
+        Communicator followerNode = null;
+        boolean ok;
+        try (Communicator client = Util.initialize()) {
+            leaderNode = MainIce.start(node("leader", leaderEndpoints, dataDir.resolve("leader").toString(), null));
+            followerNode = MainIce.start(node("follower", followerEndpoints, dataDir.resolve("follower").toString(), leaderEndpoints));
+
+            ChatServicePrx leader = ChatServicePrx.checkedCast(client.stringToProxy("ChatService:" + leaderEndpoints));
+            ChatServicePrx follower = ChatServicePrx.checkedCast(client.stringToProxy("ChatService:" + followerEndpoints));
+            ReplicationLogPrx followerLog = ReplicationLogPrx.checkedCast(client.stringToProxy("ReplicationLog:" + followerEndpoints));
+
+            // Escrituras en el líder
+            String group = "replica-" + System.currentTimeMillis();
+            leader.createGroup(group, "alice");
+            leader.addToGroup(group, "bob");
+            for (int i = 0; i < 50; i++) {
+                leader.sendMessageToUser("alice", "bob", "mensaje " + i);
+            }
+            leader.sendMessageToGroup("alice", group, "hola grupo");
+
+            ReplicationStatus status = waitForCatchUp(followerLog, 10_000);
+            System.out.println("[CHECK] Seguidor en seq " + status.lastSeq + " de " + status.leaderSeq + ", atraso " + status.lagEntries);
+
+            ok = check("historial igual en líder y seguidor",
+                Arrays.equals(leader.getHistory("bob"), follower.getHistory("bob")));
+            ok &= check("miembros del grupo replicados",
+                Arrays.equals(leader.getGroupMembers(group), follower.getGroupMembers(group)));
+            ok &= check("página de historial en el seguidor",
+                follower.getHistoryPage("bob", 0, 10).length == Math.min(10, leader.getHistory("bob").length));
+            // Con los resúmenes ya cargados en el seguidor, los mensajes replicados los actualizan
+            follower.getConversationSummaries("bob");
+            follower.getConversationSummaries("alice");
+            leader.sendMessageToUser("alice", "bob", "último privado");
+            leader.sendMessageToGroup("alice", group, "último del grupo");
+            waitForCatchUp(followerLog, 10_000);
+            ok &= check("resúmenes de bob iguales en líder y seguidor",
+                Arrays.equals(leader.getConversationSummaries("bob"), follower.getConversationSummaries("bob")));
+            ok &= check("resúmenes de alice iguales en líder y seguidor",
+                Arrays.equals(leader.getConversationSummaries("alice"), follower.getConversationSummaries("alice")));
+            ok &= check("seguidor rechaza escrituras",
+                !follower.sendMessageToUser("alice", "bob", "no debería entrar").success);
+
+            // Caída del líder y promoción
+            leaderNode.destroy();
+            leaderNode = null;
+            ok &= check("promoción del seguidor", followerLog.promote());
+            Response afterPromotion = follower.sendMessageToUser("alice", "bob", "después de promover");
+            ok &= check("el nuevo líder acepta escrituras", afterPromotion.success);
+            ok &= check("el nuevo líder sigue la secuencia", followerLog.getStatus().lastSeq > status.lastSeq);
+        } finally {
+            if (leaderNode != null) {
+                leaderNode.destroy();
+            }
+            if (followerNode != null) {
+                followerNode.destroy();
+            }
+        }
+        System.out.println(ok ? "\n✅ Replicación OK" : "\n❌ Replicación con fallas");
+        System.exit(ok ? 0 : 1);
+    }
+
+    private static InitializationData node(String role, String endpoints, String dataDir, String leaderEndpoints) {
+        InitializationData initData = new InitializationData();
+        initData.properties = Util.createProperties();
+        initData.properties.setProperty("ChatAdapter.Endpoints", endpoints);
+        initData.properties.setProperty("Chat.DataDir", dataDir);
+        initData.properties.setProperty("Chat.Replication.Role", role);
+        initData.properties.setProperty("Chat.Replication.PollMs", "50");
+        if (leaderEndpoints != null) {
+            initData.properties.setProperty("Chat.Replication.Leader", leaderEndpoints);
+        }
+        return initData;
+    }
+
+    private static ReplicationStatus waitForCatchUp(ReplicationLogPrx follower, long timeoutMs) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + timeoutMs;
+        ReplicationStatus status = follower.getStatus();
+        // leaderSeq se conoce tras el primer fetch; hasta entonces el atraso aparenta ser 0
+        while ((status.leaderSeq == 0 || status.lagEntries > 0) && System.currentTimeMillis() < deadline) {
+            Thread.sleep(50);
+            status = follower.getStatus();
+        }
+        Thread.sleep(200); // un ciclo más de consulta para tomar lo escrito durante la espera
+        return follower.getStatus();
+    }
+
+    private static boolean check(String name, boolean passed) {
+        System.out.println((passed ? "[OK]   " : "[FAIL] ") + name);
+        return passed;
+    }
+}
@@ -1,10 +1,41 @@
 package ui;
 
+import Chat.ChatService;
+import Chat.ReplicationLogPrx;
+import cluster.ClusterBusImpl;
+import cluster.EventBus;
+import cluster.FollowerChatService;
+import cluster.LogFollower;
+import cluster.ReplicationLogImpl;
+import cluster.ShardNodeImpl;
+import cluster.ShardRouter;
+import cluster.ShardedChatService;
 import com.zeroc.Ice.Communicator;
+import com.zeroc.Ice.InitializationData;
 import com.zeroc.Ice.ObjectAdapter;
+import com.zeroc.Ice.Properties;
 import com.zeroc.Ice.Util;
+import ice.CallServiceImpl;
 import ice.ChatServiceImpl;
+import ice.PushLimits;
+import ice.SessionLimits;
+import logging.Log;
+import logging.Logger;
+import metrics.AdminServer;
+import metrics.IceThreadPoolObserver;
+import metrics.MeteredChatService;
+import metrics.MetricsExporter;
+import metrics.MetricsRegistry;
 import services.ChatServicesImpl;
+import services.MessageLog;
+import services.HistoryCache;
+import services.SearchIndex;
+import tracing.Tracing;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.stream.Stream;
 
 /**
  * Servidor Ice para el sistema de chat
@@ -12,6 +43,11 @@ import services.ChatServicesImpl;
  */
 public class MainIce {
 
+    private static final Logger logger = Log.get("server");
+
+    private static final String DEFAULT_ENDPOINTS = "default -h 0.0.0.0 -p 10000:ws -h 0.0.0.0 -p 10001";
+    private static final String CONFIG_FILE = "config.server";
+
     public static void main(String[] args) {
         System.out.println("=== SERVIDOR DE CHAT ICE - Proyecto Final ===");
         System.out.println("Iniciando servidor Ice RPC + WebSocket...");
@@ -20,38 +56,20 @@ public class MainIce {
         Communicator communicator = null;
 
         try {
-            // Inicializar comunicador Ice
-            communicator = Util.initialize(args);
-
-            // Crear instancia de servicios (lógica de negocio)
-            ChatServicesImpl chatServices = new ChatServicesImpl();
-            System.out.println("[CHAT] Servicios de chat inicializados");
-
-            // Crear Servant Ice (wrapper)
-            ChatServiceImpl chatServiceImpl = new ChatServiceImpl(chatServices);
-            System.out.println("[ICE] Servant Ice creado");
-
-            // Crear adaptador con endpoints TCP y WebSocket
-            // tcp -p 10000: Para comunicación Ice estándar
-            // ws -h 0.0.0.0 -p 10001: Para WebSocket (conexión desde navegador)
-            ObjectAdapter adapter = communicator.createObjectAdapterWithEndpoints(
-                "ChatAdapter",
-                "default -h 0.0.0.0 -p 10000:ws -h 0.0.0.0 -p 10001"
-            );
-
-            // Registrar el servant con identity "ChatService"
-            adapter.add(
-                chatServiceImpl,
-                Util.stringToIdentity("ChatService")
-            );
+            // config.server del directorio de trabajo, salvo que se indique otro con --Ice.Config
+            if (Arrays.stream(args).noneMatch(arg -> arg.startsWith("--Ice.Config")) && new File(CONFIG_FILE).isFile()) {
+                args = Stream.concat(Stream.of("--Ice.Config=" + CONFIG_FILE), Arrays.stream(args)).toArray(String[]::new);
+            }
 
-            // Activar adaptador
-            adapter.activate();
+            // Inicializar comunicador Ice (acepta propiedades --Chat.* y --Ice.* por línea de comandos)
+            InitializationData initData = new InitializationData();
+            initData.properties = Util.createProperties(args);
+            // createProperties solo toma las opciones --Ice.*; las propias del servidor se leen aparte
+            String[] rest = initData.properties.parseCommandLineOptions("Chat", args);
+            rest = initData.properties.parseCommandLineOptions("ChatAdapter", rest);
+            initData.properties.parseCommandLineOptions("CallAdapter", rest);
+            communicator = start(initData);
 
-            System.out.println("\n✅ Servidor Ice iniciado correctamente");
-            System.out.println("📡 Endpoint TCP: tcp://localhost:10000");
-            System.out.println("🌐 Endpoint WebSocket: ws://localhost:10001");
-            System.out.println("🔑 Service Identity: ChatService");
             System.out.println("\n💡 El servidor está listo para recibir conexiones");
             System.out.println("💡 Presiona Ctrl+C para detener\n");
 
@@ -73,4 +91,238 @@ public class MainIce {
             }
         }
     }
+
+    /**
+     * Crea el comunicador y publica los servants de un nodo.
+     *
+     * Propiedades reconocidas:
+     *   Chat.DataDir             directorio de datos (por defecto "data")
+     *   ChatAdapter.Endpoints    endpoints del adaptador (por defecto tcp 10000 + ws 10001)
+     *   ChatAdapter.ThreadPool.* pool propio del adaptador (Size, SizeMax, SizeWarn); sin valor usa
+     *                            Ice.ThreadPool.Server
+     *   CallAdapter.Endpoints    adaptador de CallService (señalización y audio de llamadas) con su propio
+     *                            pool (CallAdapter.ThreadPool.*); sin valor no se crea
+     *   Chat.Cluster.*           topología del cluster, ver {@link ShardRouter}
+     *   Chat.Replication.Role    "leader" o "follower" (sin valor: sin replicación)
+     *   Chat.Replication.Leader  endpoints del líder (seguidor)
+     *   Chat.Replication.PollMs  intervalo de consulta del seguidor al estar al día (por defecto 200)
+     *   Chat.Replication.AutoPromoteMs  promover el seguidor si el líder no responde por este tiempo (0 = manual)
+     *   Chat.Admin.Port          puerto HTTP de métricas (/metrics Prometheus, /metrics.json); sin valor: apagado
+     *   Chat.Admin.Host          interfaz del endpoint de métricas (por defecto 127.0.0.1)
+     *   Chat.Push.*              límites de push por conexión para clientes lentos, ver {@link PushLimits}
+     *   Chat.Session.*           vencimiento de sesiones con la conexión muerta, ver {@link SessionLimits}
+     *   Chat.Search.RefreshMs    cada cuánto pasan a ser buscables los mensajes nuevos (por defecto 200;
+     *                            0 apaga searchMessages), ver {@link SearchIndex}
+     *   Chat.Search.MergeFactor  segmentos del mismo tamaño que se unen en uno (por defecto 10)
+     *   Chat.History.CacheLines  últimas líneas en memoria por historial (por defecto 1000; 0 apaga
+     *                            la cola), ver {@link HistoryCache}
+     *   Chat.History.CacheMB     memoria para las colas de historial (por defecto 64)
+     *   Chat.Trace.*             muestreo y umbral de trazas lentas (GET /traces), ver {@link Tracing}
+     *   Chat.Log.Level           nivel de log global (por defecto INFO), Chat.Log.Level.&lt;componente&gt; por componente
+     */
+    public static Communicator start(InitializationData initData) throws IOException {
+        Properties props = initData.properties;
+        Log.configure(props);
+        if (!props.getProperty("Ice.Config").isEmpty()) {
+            logger.info("Configuración cargada", "file", props.getProperty("Ice.Config"));
+        }
+        Tracing.configure(props);
+        ShardRouter.applyServerDefaults(props);
+
+        // Uso de los pools de hilos de Ice para las métricas (si el llamador no trajo su observador)
+        IceThreadPoolObserver threadPools = null;
+        if (initData.observer == null) {
+            threadPools = new IceThreadPoolObserver();
+            initData.observer = threadPools;
+        }
+
+        Communicator communicator = Util.initialize(initData);
+        try {
+            // Crear instancia de servicios (lógica de negocio)
+            ChatServicesImpl chatServices = new ChatServicesImpl(new File(props.getPropertyWithDefault("Chat.DataDir", "data")));
+            logger.info("Servicios de chat inicializados");
+            int searchRefreshMs = props.getPropertyAsIntWithDefault("Chat.Search.RefreshMs", 200);
+            if (searchRefreshMs > 0) {
+                chatServices.startSearchIndex(searchRefreshMs, props.getPropertyAsIntWithDefault("Chat.Search.MergeFactor", 10));
+            }
+            int historyCacheLines = props.getPropertyAsIntWithDefault("Chat.History.CacheLines", HistoryCache.DEFAULT_LINES);
+            if (historyCacheLines > 0) {
+                long historyCacheMb = props.getPropertyAsIntWithDefault("Chat.History.CacheMB", HistoryCache.DEFAULT_MB);
+                chatServices.enableHistoryCache(historyCacheLines, historyCacheMb << 20);
+            }
+
+            // Crear Servant Ice (wrapper)
+            ChatServiceImpl chatServiceImpl = new ChatServiceImpl(chatServices);
+            chatServiceImpl.setPushLimits(PushLimits.fromProperties(props));
+            chatServiceImpl.setSessionLimits(SessionLimits.fromProperties(props));
+            logger.info("Servant Ice creado");
+
+            // Crear adaptador con endpoints TCP y WebSocket
+            // tcp -p 10000: Para comunicación Ice estándar
+            // ws -h 0.0.0.0 -p 10001: Para WebSocket (conexión desde navegador)
+            if (props.getProperty("ChatAdapter.Endpoints").isEmpty()) {
+                props.setProperty("ChatAdapter.Endpoints", DEFAULT_ENDPOINTS);
+            }
+            String endpoints = props.getProperty("ChatAdapter.Endpoints");
+            ObjectAdapter adapter = communicator.createObjectAdapter("ChatAdapter");
+            logPool(props, "ChatAdapter");
+
+            // En modo cluster el servant local queda detrás de la capa de enrutamiento
+            ShardRouter router = ShardRouter.fromProperties(communicator);
+            ChatService servant = chatServiceImpl;
+            EventBus bus = null;
+            if (router != null) {
+                bus = new EventBus(router, chatServices.getUserIds());
+                chatServiceImpl.setShardRouter(router);
+                chatServiceImpl.setEventBus(bus);
+                servant = new ShardedChatService(chatServiceImpl, router);
+                adapter.add(new ShardNodeImpl(chatServiceImpl), Util.stringToIdentity("ShardNode"));
+                adapter.add(new ClusterBusImpl(chatServiceImpl, bus), Util.stringToIdentity("ClusterBus"));
+                logger.info("Nodo de cluster", "node", router.getSelfId(), "nodes", props.getProperty("Chat.Cluster.Nodes"));
+            }
+
+            // Replicación del registro de escrituras: el seguidor solo atiende lecturas hasta ser promovido
+            String role = props.getProperty("Chat.Replication.Role");
+            LogFollower follower = null;
+            MessageLog log = null;
+            if (role.equals("leader") || role.equals("follower")) {
+                log = chatServices.enableReplicationLog(role.equals("leader"));
+                if (role.equals("follower")) {
+                    ReplicationLogPrx leader = ReplicationLogPrx.uncheckedCast(
+                        communicator.stringToProxy("ReplicationLog:" + props.getProperty("Chat.Replication.Leader")));
+                    follower = new LogFollower(leader, chatServices, log,
+                        props.getPropertyAsIntWithDefault("Chat.Replication.PollMs", 200),
+                        props.getPropertyAsIntWithDefault("Chat.Replication.AutoPromoteMs", 0));
+                    servant = new FollowerChatService(servant, follower);
+                }
+                adapter.add(new ReplicationLogImpl(log, follower), Util.stringToIdentity("ReplicationLog"));
+                logger.info("Replicación activa", "role", role);
+            }
+
+            // Métricas: gauges del estado del nodo y una capa externa que mide cada operación
+            MetricsRegistry metrics = new MetricsRegistry();
+            registerGauges(metrics, chatServices, chatServiceImpl, bus, follower);
+            metrics.histogram("chat_history_write_seconds", "Latencia de append al historial en disco", chatServices.getHistoryWriteLatency());
+            metrics.histogram("chat_media_write_seconds", "Latencia de escritura de notas de voz en disco", chatServices.getMediaWriteLatency());
+            if (log != null) {
+                metrics.histogram("chat_replication_log_write_seconds", "Latencia de escritura del registro de replicación", log.getWriteLatency());
+            }
+            servant = new MeteredChatService(servant, metrics);
+
+            // Registrar el servant con identity "ChatService"
+            adapter.add(servant, Util.stringToIdentity("ChatService"));
+
+            // Llamadas por su propio adaptador: el audio y las señales no esperan detrás de las escrituras a disco
+            ObjectAdapter callAdapter = null;
+            if (!props.getProperty("CallAdapter.Endpoints").isEmpty()) {
+                callAdapter = communicator.createObjectAdapter("CallAdapter");
+                callAdapter.add(new CallServiceImpl(servant, chatServiceImpl), Util.stringToIdentity("CallService"));
+                logPool(props, "CallAdapter");
+            }
+
+            // Activar adaptadores
+            chatServiceImpl.startBatching();
+            adapter.activate();
+            if (callAdapter != null) {
+                callAdapter.activate();
+                logger.info("Servicio de llamadas activo", "endpoints", props.getProperty("CallAdapter.Endpoints"));
+            }
+            chatServiceImpl.startRetries();
+            chatServiceImpl.startReaper();
+            if (bus != null) {
+                bus.syncSubscriptions();
+            }
+            if (follower != null) {
+                follower.start();
+            }
+
+            int adminPort = props.getPropertyAsInt("Chat.Admin.Port");
+            if (adminPort > 0) {
+                AdminServer admin = new AdminServer(props.getPropertyWithDefault("Chat.Admin.Host", "127.0.0.1"),
+                    adminPort, new MetricsExporter(metrics, threadPools));
+                admin.route("/traces", "application/json; charset=utf-8", Tracing::slowTracesJson);
+                admin.start();
+            }
+
+            logger.info("Servidor Ice iniciado", "endpoints", endpoints, "identity", "ChatService");
+            return communicator;
+        } catch (RuntimeException | IOException e) {
+            communicator.destroy();
+            throw e;
+        }
+    }
+
+    /**
+     * Pool de hilos de un adaptador; sin ThreadPool.* propio despacha en Ice.ThreadPool.Server
+     */
+    private static void logPool(Properties props, String adapterName) {
+        String prefix = adapterName + ".ThreadPool.";
+        if (props.getPropertiesForPrefix(prefix).isEmpty()) {
+            logger.info("Adaptador sin pool propio", "adapter", adapterName);
+            return;
+        }
+        int size = props.getPropertyAsIntWithDefault(prefix + "Size", 1);
+        logger.info("Pool del adaptador", "adapter", adapterName,
+            "size", size + ".." + props.getPropertyAsIntWithDefault(prefix + "SizeMax", size),
+            "sizeWarn", props.getPropertyAsIntWithDefault(prefix + "SizeWarn", 0));
+    }
+
+    private static void registerGauges(MetricsRegistry metrics, ChatServicesImpl chatServices,
+                                       ChatServiceImpl chatServiceImpl, EventBus bus, LogFollower follower) {
+        metrics.gauge("chat_online_users", "Usuarios con sesión activa", chatServices::getOnlineCount);
+        metrics.gauge("chat_registered_callbacks", "Usuarios con callbacks push registrados", chatServiceImpl::getRegisteredCallbacksCount);
+        metrics.gauge("chat_connected_devices", "Dispositivos con callback push, sumados sobre todos los usuarios", chatServiceImpl::getConnectedDevices);
+        metrics.gauge("chat_pending_messages", "Mensajes en buzones, sin confirmar o sin recoger", chatServices::getPendingTotal);
+        metrics.gauge("chat_pending_largest_mailbox", "Buzón más grande", chatServices::getLargestMailbox);
+        metrics.gauge("chat_groups", "Grupos existentes", chatServices::getGroupCount);
+        metrics.gauge("chat_persist_in_flight", "Escrituras de historial en curso", chatServices::getPersistInFlight);
+        PushLimits push = chatServiceImpl.getPushLimits();
+        metrics.gauge("chat_push_outstanding", "Push sin respuesta en todas las conexiones", chatServiceImpl::getOutstandingPushes);
+        metrics.gauge("chat_push_outstanding_max", "Push sin respuesta en la conexión más atrasada", chatServiceImpl::getMaxOutstandingPushes);
+        metrics.gauge("chat_push_fallbacks", "class=\"message\"", "Push no enviados por saturación de la conexión", push::getMessageFallbacks);
+        metrics.gauge("chat_push_fallbacks", "class=\"voice_note\"", "Push no enviados por saturación de la conexión", push::getVoiceNoteFallbacks);
+        metrics.gauge("chat_push_audio_dropped", "Chunks de audio descartados sin enviar (los más viejos)", push::getAudioDropped);
+        metrics.gauge("chat_push_slow_disconnects", "Conexiones cerradas por seguir saturadas", push::getDisconnects);
+        metrics.gauge("chat_push_acked", "Mensajes confirmados por los clientes (ackMessages)", push::getAcked);
+        metrics.gauge("chat_push_retries", "Push repetidos por falta de confirmación", push::getRetries);
+        metrics.gauge("chat_push_retries_exhausted", "Mensajes que agotaron los reintentos y esperan en el buzón", push::getRetriesExhausted);
+        metrics.gauge("chat_push_batches", "Push onNewMessages con varios mensajes", push::getBatches);
+        metrics.gauge("chat_push_batched_messages", "Mensajes enviados dentro de un onNewMessages", push::getBatchedMessages);
+        metrics.gauge("chat_push_notification_flushes", "Lotes oneway de notificaciones enviados", push::getNotificationFlushes);
+        metrics.gauge("chat_push_awaiting_ack_users", "Usuarios con push sin confirmar", chatServiceImpl::getAwaitingAckUsers);
+        SessionLimits sessions = chatServiceImpl.getSessionLimits();
+        metrics.gauge("chat_sessions_reaped", "kind=\"login\"", "Conexiones cerradas por no dar señales de vida", sessions::getReaped);
+        metrics.gauge("chat_sessions_reaped", "kind=\"call\"", "Conexiones cerradas por no dar señales de vida", sessions::getCallsReaped);
+        metrics.gauge("chat_session_probes", "Pings a conexiones en silencio", sessions::getProbes);
+        if (bus != null) {
+            for (String peer : bus.getPeerIds()) {
+                metrics.gauge("chat_cluster_bus_queued_events", "node=\"" + peer + "\"",
+                    "Eventos esperando publicarse a cada nodo", () -> bus.getQueuedEvents(peer));
+            }
+            metrics.gauge("chat_cluster_remote_subscriptions", "Usuarios conectados en otros nodos", () -> bus.getRegistry().size());
+        }
+        SearchIndex search = chatServices.getSearchIndex();
+        if (search != null) {
+            metrics.gauge("chat_search_documents", "Mensajes en el índice de búsqueda", search::getDocuments);
+            metrics.gauge("chat_search_segments", "Segmentos del índice de búsqueda", search::getSegments);
+            metrics.gauge("chat_search_merges", "Uniones de segmentos hechas en segundo plano", search::getMerges);
+            metrics.gauge("chat_search_queued", "Mensajes escritos que todavía no son buscables", search::getQueued);
+        }
+        HistoryCache historyCache = chatServices.getHistoryCache();
+        if (historyCache != null) {
+            metrics.gauge("chat_history_cache_hits", "Lecturas de historial con la cola en memoria", historyCache::getHits);
+            metrics.gauge("chat_history_cache_misses", "Lecturas de historial que cargaron el archivo", historyCache::getMisses);
+            metrics.gauge("chat_history_cache_scrollbacks", "Lecturas anteriores a la cola en memoria (van al disco)", historyCache::getScrollBacks);
+            metrics.gauge("chat_history_cache_evictions", "Historiales desalojados por el presupuesto de memoria", historyCache::getEvictions);
+            metrics.gauge("chat_history_cache_bytes", "Memoria estimada de las colas de historial", historyCache::getBytes);
+            metrics.gauge("chat_history_cache_entries", "Historiales con su cola en memoria", historyCache::getEntries);
+        }
+        if (follower != null) {
+            metrics.gauge("chat_replication_lag_entries", "Entradas del líder sin aplicar", follower::getLagEntries);
+            metrics.gauge("chat_replication_lag_millis", "Antigüedad de lo último aplicado con atraso", follower::getLagMillis);
+        }
+        metrics.gauge("chat_traces_sampled", "Peticiones trazadas desde el arranque", Tracing::getTracedCount);
+        metrics.gauge("chat_traces_slow", "Trazas que superaron Chat.Trace.SlowMs", Tracing::getSlowCount);
+        metrics.gauge("chat_log_dropped_events", "Eventos de log descartados con el buffer lleno", Log::getDropped);
+    }
 }
@@ -26,13 +26,14 @@
 
     Chat.Message = class
     {
-        constructor(from = "", to = "", content = "", timestamp = new Ice.Long(0, 0), isGroup = false)
+        constructor(from = "", to = "", content = "", timestamp = new Ice.Long(0, 0), isGroup = false, id = new Ice.Long(0, 0))
         {
             this.from = from;
             this.to = to;
             this.content = content;
             this.timestamp = timestamp;
             this.isGroup = isGroup;
+            this.id = id;
         }
 
         _write(ostr)
@@ -42,6 +43,7 @@
             ostr.writeString(this.content);
             ostr.writeLong(this.timestamp);
             ostr.writeBool(this.isGroup);
+            ostr.writeLong(this.id);
         }
 
         _read(istr)
@@ -51,11 +53,12 @@
             this.content = istr.readString();
             this.timestamp = istr.readLong();
             this.isGroup = istr.readBool();
+            this.id = istr.readLong();
         }
 
         static get minWireSize()
         {
-            return  12;
+            return  20;
         }
     };
 
@@ -143,6 +146,7 @@
     Slice.defineOperations(Chat.ChatCallback, Chat.ChatCallbackPrx, iceC_Chat_ChatCallback_ids, 0,
     {
         "onNewMessage": [, , , , , [[Chat.Message]], , , , ],
+        "onNewMessages": [, , , , , [["Chat.MessageSeqHelper"]], , , , ],
         "onUserStatusChanged": [, , , , , [[Chat.User]], , , , ],
         "onGroupMemberAdded": [, , , , , [[7], [7]], , , , ],
         "onVoiceNoteReceived": [, , , , , [[7], [7], ["Chat.ByteSeqHelper"], [1]], , , , ],
@@ -182,6 +186,53 @@
 
     Slice.defineStruct(Chat.Response, true, true);
 
+    Slice.defineSequence(Chat, "ResponseSeqHelper", "Chat.Response", false);
+
+    Chat.ConversationSummary = class
+    {
+        constructor(conversation = "", isGroup = false, lastId = new Ice.Long(0, 0), timestamp = new Ice.Long(0, 0), from = "", preview = "", unread = 0)
+        {
+            this.conversation = conversation;
+            this.isGroup = isGroup;
+            this.lastId = lastId;
+            this.timestamp = timestamp;
+            this.from = from;
+            this.preview = preview;
+            this.unread = unread;
+        }
+
+        _write(ostr)
+        {
+            ostr.writeString(this.conversation);
+            ostr.writeBool(this.isGroup);
+            ostr.writeLong(this.lastId);
+            ostr.writeLong(this.timestamp);
+            ostr.writeString(this.from);
+            ostr.writeString(this.preview);
+            ostr.writeInt(this.unread);
+        }
+
+        _read(istr)
+        {
+            this.conversation = istr.readString();
+            this.isGroup = istr.readBool();
+            this.lastId = istr.readLong();
+            this.timestamp = istr.readLong();
+            this.from = istr.readString();
+            this.preview = istr.readString();
+            this.unread = istr.readInt();
+        }
+
+        static get minWireSize()
+        {
+            return  24;
+        }
+    };
+
+    Slice.defineStruct(Chat.ConversationSummary, true, true);
+
+    Slice.defineSequence(Chat, "ConversationSummarySeqHelper", "Chat.ConversationSummary", false);
+
     const iceC_Chat_ChatService_ids = [
         "::Chat::ChatService",
         "::Ice::Object"
@@ -203,13 +254,19 @@
         "getAllUsers": [, , , , ["Chat.UserStatusMapHelper"], , , , , ],
         "sendMessageToUser": [, , , , [Chat.Response], [[7], [7], [7]], , , , ],
         "sendMessageToGroup": [, , , , [Chat.Response], [[7], [7], [7]], , , , ],
+        "sendMessages": [, , , , ["Chat.ResponseSeqHelper"], [["Chat.MessageSeqHelper"]], , , , ],
         "getPendingMessages": [, , , , ["Chat.MessageSeqHelper"], [[7]], , , , ],
+        "ackMessages": [, , , , , [[7], [4]], , , , ],
         "createGroup": [, , , , [Chat.Response], [[7], [7]], , , , ],
         "addToGroup": [, , , , [Chat.Response], [[7], [7]], , , , ],
         "getGroups": [, , , , ["Chat.StringSeqHelper"], , , , , ],
         "getUserGroups": [, , , , ["Chat.StringSeqHelper"], [[7]], , , , ],
         "getGroupMembers": [, , , , ["Chat.StringSeqHelper"], [[7]], , , , ],
         "getHistory": [, , , , ["Chat.StringSeqHelper"], [[7]], , , , ],
+        "getHistoryPage": [, , , , ["Chat.StringSeqHelper"], [[7], [3], [3]], , , , ],
+        "searchMessages": [, , , , ["Chat.StringSeqHelper"], [[7], [7], [3]], , , , ],
+        "getConversationSummaries": [, , , , ["Chat.ConversationSummarySeqHelper"], [[7]], , , , ],
+        "markConversationRead": [, , , , , [[7], [7], [1]], , , , ],
         "sendVoiceNoteToUser": [, , , , [Chat.Response], [[7], [7], ["Chat.ByteSeqHelper"]], , , , ],
         "sendVoiceNoteToGroup": [, , , , [Chat.Response], [[7], [7], ["Chat.ByteSeqHelper"]], , , , ],
         "initiateCall": [, , , , [Chat.Response], [[7], [7]], , , , ],
@@ -219,6 +276,31 @@
         "sendAudioChunk": [, , , , [Chat.Response], [[7], [7], ["Chat.ByteSeqHelper"]], , , , ],
         "acceptCall": [, , , , [Chat.Response], [[7], [7]], , , , ]
     });
+
+    const iceC_Chat_CallService_ids = [
+        "::Chat::CallService",
+        "::Ice::Object"
+    ];
+
+    Chat.CallService = class extends Ice.Object
+    {
+    };
+
+    Chat.CallServicePrx = class extends Ice.ObjectPrx
+    {
+    };
+
+    Slice.defineOperations(Chat.CallService, Chat.CallServicePrx, iceC_Chat_CallService_ids, 0,
+    {
+        "joinCall": [, , , , [Chat.Response], [[7], ["Chat.ChatCallbackPrx"]], , , , ],
+        "leaveCall": [, , , , , [[7]], , , , ],
+        "initiateCall": [, , , , [Chat.Response], [[7], [7]], , , , ],
+        "acceptCall": [, , , , [Chat.Response], [[7], [7]], , , , ],
+        "endCall": [, , , , [Chat.Response], [[7], [7]], , , , ],
+        "sendWebRTCSignal": [, , , , [Chat.Response], [[7], [7], [7], [7]], , , , ],
+        "sendICECandidate": [, , , , [Chat.Response], [[7], [7], [7]], , , , ],
+        "sendAudioChunk": [, , , , [Chat.Response], [[7], [7], ["Chat.ByteSeqHelper"]], , , , ]
+    });
     exports.Chat = Chat;
 }
 (typeof(global) !== "undefined" && typeof(global.process) !== "undefined" ? module : undefined,
@@ -11,12 +11,17 @@ const Chat = window.Chat || Ice._ModuleRegistry.module("Chat");
 
 const HOSTNAME = '192.168.1.3';
 const ICE_PORT = 10001; // WebSocket port
+const CALL_PORT = 10003; // WebSocket del servicio de llamadas (CallAdapter)
 
 let communicator = null;
 let chatServicePrx = null;
 let callbackAdapter = null;
+let callbackPrx = null;
 let currentUsername = null;
 
+// Conexión al servicio de llamadas: solo existe mientras dura una llamada
+let callServicePrx = null;
+
 // Callbacks para notificaciones en tiempo real
 let onMessageReceivedCallback = null;
 let onUserStatusChangedCallback = null;
@@ -31,6 +36,38 @@ let onCallEndedCallback = null;
 let onAudioChunkCallback = null;
 let onCallAcceptedCallback = null;
 
+// Confirmaciones de entrega (ackMessages): se confirma en lote el id más alto recibido.
+// El servidor reintenta lo no confirmado, así que un mismo id puede llegar dos veces.
+const ACK_DELAY_MS = 200;
+const RECENT_IDS_MAX = 512;
+let highestReceivedId = 0;
+let ackTimer = null;
+const recentMessageIds = new Set();
+
+function scheduleAck(id) {
+    highestReceivedId = Math.max(highestReceivedId, id);
+    if (!ackTimer) {
+        ackTimer = setTimeout(flushAck, ACK_DELAY_MS);
+    }
+}
+
+function flushAck() {
+    ackTimer = null;
+    if (!chatServicePrx || !currentUsername || highestReceivedId === 0) {
+        return;
+    }
+    chatServicePrx.ackMessages(currentUsername, new Ice.Long(highestReceivedId)).catch(error => {
+        console.warn('[ICE] Ack error (el servidor reintentará):', error);
+    });
+}
+
+function rememberMessageId(id) {
+    recentMessageIds.add(id);
+    if (recentMessageIds.size > RECENT_IDS_MAX) {
+        recentMessageIds.delete(recentMessageIds.values().next().value);
+    }
+}
+
 /**
  * Implementación del callback ChatCallback
  * Hereda de la clase generada Chat.ChatCallback
@@ -42,6 +79,16 @@ const ChatCallbackI = class extends Chat.ChatCallback {
         console.log('[ICE CALLBACK] Message:', msg);
         console.log('[ICE CALLBACK] From:', msg.from, 'To:', msg.to, 'Content:', msg.content);
         
+        const id = msg.id ? msg.id.toNumber() : 0;
+        if (id > 0) {
+            if (recentMessageIds.has(id)) {
+                // Reintento de un mensaje ya mostrado: solo se vuelve a confirmar
+                scheduleAck(id);
+                return;
+            }
+            rememberMessageId(id);
+        }
+        
         try {
             if (onMessageReceivedCallback) {
                 onMessageReceivedCallback({
@@ -58,6 +105,18 @@ const ChatCallbackI = class extends Chat.ChatCallback {
         } catch (error) {
             console.error('[ICE CALLBACK] Error in callback:', error);
         }
+        
+        if (id > 0) {
+            scheduleAck(id);
+        }
+    }
+    
+    onNewMessages(messages, current) {
+        // Lote armado por el servidor en una ventana corta: mismo tratamiento, en orden
+        console.log('[ICE CALLBACK] 📨 onNewMessages:', messages.length, 'mensajes');
+        for (const msg of messages) {
+            this.onNewMessage(msg, current);
+        }
     }
     
     onUserStatusChanged(user, current) {
@@ -133,6 +192,7 @@ const ChatCallbackI = class extends Chat.ChatCallback {
     
     onCallEnded(from, current) {
         console.log('[ICE CALLBACK] ☎️ Call ended by:', from);
+        leaveCallService();
         try {
             if (onCallEndedCallback) {
                 onCallEndedCallback(from);
@@ -187,11 +247,17 @@ export async function initIce(username, callbacks = {}) {
         onCallAcceptedCallback = callbacks.onCallAccepted;
         
         currentUsername = username;
+        highestReceivedId = 0;
+        recentMessageIds.clear();
         
         // Inicializar comunicador Ice
         const initData = new Ice.InitializationData();
         initData.properties = Ice.createProperties();
         initData.properties.setProperty("Ice.Default.Protocol", "ws");
+        // Heartbeats hacia el servidor aunque la conexión esté ociosa: sin ellos el
+        // servidor da la sesión por muerta. La conexión la cierra solo el logout
+        initData.properties.setProperty("Ice.ACM.Client.Heartbeat", "3");
+        initData.properties.setProperty("Ice.ACM.Client.Close", "0");
         
         communicator = Ice.initialize(initData);
         console.log('[ICE] ✓ Communicator initialized');
@@ -224,7 +290,7 @@ export async function initIce(username, callbacks = {}) {
         const callbackServant = new ChatCallbackI();
         
         // Agregar servant con UUID automático (patrón del profesor)
-        const callbackPrx = Chat.ChatCallbackPrx.uncheckedCast(
+        callbackPrx = Chat.ChatCallbackPrx.uncheckedCast(
             callbackAdapter.addWithUUID(callbackServant)
         );
         
@@ -255,6 +321,8 @@ export async function initIce(username, callbacks = {}) {
  */
 export async function shutdownIce() {
     try {
+        await leaveCallService();
+        
         if (currentUsername && chatServicePrx) {
             await chatServicePrx.logout(currentUsername);
         }
@@ -283,6 +351,64 @@ async function getProxy() {
     throw new Error('[ICE] Not connected. Call initIce() first.');
 }
 
+/**
+ * Conecta al servicio de llamadas al empezar una llamada y registra en esa conexión el mismo
+ * callback del login, por donde llegan el audio y las señales. Si el servidor no publica
+ * CallService las llamadas siguen por ChatService.
+ */
+async function startCallService() {
+    if (callServicePrx) {
+        return callServicePrx;
+    }
+    try {
+        const proxy = await Chat.CallServicePrx.checkedCast(
+            communicator.stringToProxy(`CallService:ws -h ${HOSTNAME} -p ${CALL_PORT}`)
+        );
+        const connection = await proxy.ice_getConnection();
+        connection.setAdapter(callbackAdapter);
+        const response = await proxy.joinCall(currentUsername, callbackPrx);
+        if (!response.success) {
+            console.warn('[ICE] CallService rechazó la conexión:', response.message);
+            await connection.close(Ice.ConnectionClose.Gracefully);
+            return getProxy();
+        }
+        console.log('[ICE] ✓ Connected to CallService');
+        callServicePrx = proxy;
+        return proxy;
+    } catch (error) {
+        console.warn('[ICE] CallService no disponible, llamada por ChatService:', error.message);
+        return getProxy();
+    }
+}
+
+/**
+ * Proxy para las operaciones de una llamada en curso
+ */
+async function getCallProxy() {
+    return callServicePrx || getProxy();
+}
+
+/**
+ * Cierra la conexión de llamadas al terminar la llamada
+ */
+async function leaveCallService() {
+    const proxy = callServicePrx;
+    if (!proxy) {
+        return;
+    }
+    callServicePrx = null;
+    try {
+        await proxy.leaveCall(currentUsername);
+        const connection = proxy.ice_getCachedConnection();
+        if (connection) {
+            await connection.close(Ice.ConnectionClose.Gracefully);
+        }
+        console.log('[ICE] CallService connection closed');
+    } catch (error) {
+        console.warn('[ICE] Error closing CallService connection:', error.message);
+    }
+}
+
 /**
  * Login to chat (legacy - use initIce instead)
  */
@@ -492,6 +618,26 @@ export async function sendMessageToGroup(from, groupName, content) {
     }
 }
 
+/**
+ * Send a batch of messages in one call (e.g. flushing an outbox after reconnecting).
+ * Each item is { from, to, content, isGroup }; results come back in the same order.
+ */
+export async function sendMessages(messages) {
+    try {
+        const proxy = await getProxy();
+        const batch = messages.map(m => new Chat.Message(m.from, m.to, m.content, new Ice.Long(0), !!m.isGroup));
+        const responses = await proxy.sendMessages(batch);
+
+        return {
+            success: responses.every(r => r.success),
+            results: responses.map(r => ({ success: r.success, message: r.message }))
+        };
+    } catch (error) {
+        console.error('[ICE] Send messages batch error:', error);
+        return { success: false, message: error.message };
+    }
+}
+
 /**
  * Get message history
  */
@@ -510,14 +656,105 @@ export async function getHistory(username) {
     }
 }
 
+/**
+ * Get one page of message history
+ */
+export async function getHistoryPage(username, offset, limit) {
+    try {
+        const proxy = await getProxy();
+        const history = await proxy.getHistoryPage(username, offset, limit);
+
+        return {
+            success: true,
+            history: history || []
+        };
+    } catch (error) {
+        console.error('[ICE] Get history page error:', error);
+        return { success: false, message: error.message };
+    }
+}
+
+/**
+ * Search the user's messages (private and groups) on the server, newest first.
+ * Every word must match; a word ending in * matches by prefix
+ */
+export async function searchMessages(username, query, limit = 50) {
+    try {
+        const proxy = await getProxy();
+        const results = await proxy.searchMessages(username, query, limit);
+
+        return {
+            success: true,
+            results: results || []
+        };
+    } catch (error) {
+        console.error('[ICE] Search messages error:', error);
+        return { success: false, message: error.message };
+    }
+}
+
+/**
+ * Conversation list for the sidebar: last message and unread count of each
+ * private chat and group, most recent first
+ */
+export async function getConversationSummaries(username) {
+    try {
+        const proxy = await getProxy();
+        const summaries = await proxy.getConversationSummaries(username);
+
+        return {
+            success: true,
+            conversations: (summaries || []).map(summary => ({
+                conversation: summary.conversation,
+                isGroup: summary.isGroup,
+                lastId: summary.lastId.toNumber(),
+                timestamp: summary.timestamp.toNumber(),
+                from: summary.from,
+                preview: summary.preview,
+                unread: summary.unread
+            }))
+        };
+    } catch (error) {
+        console.error('[ICE] Get conversation summaries error:', error);
+        return { success: false, message: error.message };
+    }
+}
+
+/**
+ * Mark a conversation as read up to its last message (clears its unread count)
+ */
+export async function markConversationRead(username, conversation, isGroup = false) {
+    try {
+        const proxy = await getProxy();
+        await proxy.markConversationRead(username, conversation, isGroup);
+        return { success: true };
+    } catch (error) {
+        console.error('[ICE] Mark conversation read error:', error);
+        return { success: false, message: error.message };
+    }
+}
+
 /**
  * Get pending messages (for initial sync)
+ * El poll no vacía el buzón: se confirma el id más alto recibido para que no vuelvan a llegar
  */
 export async function getPendingMessages(username) {
     try {
         const proxy = await getProxy();
         const messages = await proxy.getPendingMessages(username);
         
+        let highestId = 0;
+        for (const msg of messages || []) {
+            const id = msg.id ? msg.id.toNumber() : 0;
+            if (id > 0) {
+                rememberMessageId(id);
+                highestId = Math.max(highestId, id);
+            }
+        }
+        if (highestId > 0) {
+            scheduleAck(highestId);
+        }
+        
         return {
             success: true,
             messages: messages || []
@@ -573,7 +810,7 @@ export async function sendVoiceNoteToGroup(from, groupName, audioData) {
  */
 export async function initiateCall(from, to) {
     try {
-        const proxy = await getProxy();
+        const proxy = await startCallService();
         const response = await proxy.initiateCall(from, to);
         
         return {
@@ -591,7 +828,7 @@ export async function initiateCall(from, to) {
  */
 export async function sendWebRTCSignal(from, to, signalType, signalData) {
     try {
-        const proxy = await getProxy();
+        const proxy = await getCallProxy();
         const response = await proxy.sendWebRTCSignal(from, to, signalType, signalData);
         
         return {
@@ -609,7 +846,7 @@ export async function sendWebRTCSignal(from, to, signalType, signalData) {
  */
 export async function sendICECandidate(from, to, candidate) {
     try {
-        const proxy = await getProxy();
+        const proxy = await getCallProxy();
         const response = await proxy.sendICECandidate(from, to, candidate);
         
         return {
@@ -627,8 +864,9 @@ export async function sendICECandidate(from, to, candidate) {
  */
 export async function endCall(from, to) {
     try {
-        const proxy = await getProxy();
+        const proxy = await getCallProxy();
         const response = await proxy.endCall(from, to);
+        await leaveCallService();
         
         return {
             success: response.success,
@@ -636,6 +874,7 @@ export async function endCall(from, to) {
         };
     } catch (error) {
         console.error('[ICE] End call error:', error);
+        await leaveCallService();
         return { success: false, message: error.message };
     }
 }
@@ -645,7 +884,7 @@ export async function endCall(from, to) {
  */
 export async function sendAudioChunk(from, to, audioData) {
     try {
-        const proxy = await getProxy();
+        const proxy = await getCallProxy();
         const byteArray = audioData instanceof Uint8Array ? audioData : new Uint8Array(audioData);
         const response = await proxy.sendAudioChunk(from, to, byteArray);
         
@@ -664,7 +903,7 @@ export async function sendAudioChunk(from, to, audioData) {
  */
 export async function acceptCall(from, to) {
     try {
-        const proxy = await getProxy();
+        const proxy = await startCallService();
         const response = await proxy.acceptCall(from, to);
         
         return {